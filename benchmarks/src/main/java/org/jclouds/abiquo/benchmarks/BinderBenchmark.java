@@ -0,0 +1,170 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+
+import org.jclouds.abiquo.binders.AppendOptionsToPath;
+import org.jclouds.abiquo.binders.BindRefsToPayload;
+import org.jclouds.abiquo.binders.BindToPath;
+import org.jclouds.abiquo.binders.cloud.BindIpRefsToPayload;
+import org.jclouds.abiquo.binders.cloud.BindVolumeRefsToPayload;
+import org.jclouds.abiquo.domain.CloudResources;
+import org.jclouds.abiquo.domain.options.QueryOptions;
+import org.jclouds.abiquo.domain.options.search.FilterOptions;
+import org.jclouds.abiquo.rest.annotations.EndpointLink;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.xml.internal.JAXBParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.infrastructure.network.IpPoolManagementDto;
+import com.abiquo.server.core.infrastructure.storage.VolumeManagementDto;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Benchmarks the binders used to build the requests.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BinderBenchmark
+{
+    private BindToPath bindToPath;
+
+    private VirtualMachineDto virtualMachine;
+
+    private GeneratedHttpRequest<VirtualMachineApi> getRequest;
+
+    private AppendOptionsToPath appendOptionsToPath;
+
+    private QueryOptions options;
+
+    private HttpRequest listRequest;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        bindToPath = new BindToPath();
+        virtualMachine = CloudResources.virtualMachinePut();
+        Method get = VirtualMachineApi.class.getMethod("get", VirtualMachineDto.class);
+        getRequest =
+            GeneratedHttpRequest.<VirtualMachineApi> requestBuilder()
+                .declaring(VirtualMachineApi.class).javaMethod(get)
+                .args(ImmutableList.<Object> of(virtualMachine)).method(HttpMethod.GET)
+                .endpoint(URI.create("http://localhost/api")).build();
+
+        appendOptionsToPath = new AppendOptionsToPath();
+        options = FilterOptions.builder().startWith(100).limit(100).has("vm").build();
+        listRequest =
+            HttpRequest.builder().method(HttpMethod.GET)
+                .endpoint(URI.create("http://localhost/api/cloud/virtualmachines")).build();
+    }
+
+    @Benchmark
+    public HttpRequest bindToPath()
+    {
+        return bindToPath.bindToRequest(getRequest, virtualMachine);
+    }
+
+    @Benchmark
+    public HttpRequest appendOptionsToPath()
+    {
+        return appendOptionsToPath.bindToRequest(listRequest, options);
+    }
+
+    /**
+     * Builds the payload of the <code>replaceVolumes</code> requests.
+     */
+    @Benchmark
+    public HttpRequest bindVolumeRefsToPayload(final Refs refs)
+    {
+        return refs.volumeBinder.bindToRequest(refs.request, refs.volumes);
+    }
+
+    /**
+     * Builds the payload of the <code>replaceNics</code> requests.
+     */
+    @Benchmark
+    public HttpRequest bindIpRefsToPayload(final Refs refs)
+    {
+        return refs.ipBinder.bindToRequest(refs.request, refs.ips);
+    }
+
+    /**
+     * The references bound by the reference binders.
+     */
+    @State(Scope.Benchmark)
+    public static class Refs
+    {
+        @Param({"1", "100", "1000"})
+        public int size;
+
+        private BindRefsToPayload volumeBinder;
+
+        private BindIpRefsToPayload ipBinder;
+
+        private VolumeManagementDto[] volumes;
+
+        private IpPoolManagementDto[] ips;
+
+        private HttpRequest request;
+
+        @Setup
+        public void setup()
+        {
+            volumeBinder = new BindVolumeRefsToPayload(new JAXBParser());
+            ipBinder = new BindIpRefsToPayload(new JAXBParser());
+            volumes = Fixtures.volumes(size);
+            ips = Fixtures.ips(size);
+            request =
+                HttpRequest.builder().method(HttpMethod.PUT).endpoint(
+                    URI.create("http://localhost/api/cloud/virtualdatacenters/1"
+                        + "/virtualappliances/1/virtualmachines/1")).build();
+        }
+    }
+
+    static interface VirtualMachineApi
+    {
+        @GET
+        void get(@EndpointLink("edit") VirtualMachineDto virtualMachine);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.abiquo.events.handlers.BlockingEventHandler;
+import org.jclouds.abiquo.events.monitor.CompletedEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the release of all the objects locked by a {@link BlockingEventHandler}.
+ * <p>
+ * Handling an event is a constant time operation, so the time needed to release all the objects
+ * must grow linearly with the number of locked objects.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlockingEventHandlerBenchmark
+{
+    /** The number of locked objects. */
+    @Param({"100", "10000", "100000"})
+    public int objects;
+
+    private BlockingEventHandler<Object> handler;
+
+    private MonitorEvent<Object>[] events;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Invocation)
+    public void setup()
+    {
+        Object[] targets = new Object[objects];
+        events = new MonitorEvent[objects];
+        for (int i = 0; i < objects; i++)
+        {
+            targets[i] = new Object();
+            // Release in reverse order to force lookups at the end of the locked objects
+            events[objects - 1 - i] = new CompletedEvent<Object>(targets[i]);
+        }
+        handler = new BlockingEventHandler<Object>(targets);
+    }
+
+    @Benchmark
+    public BlockingEventHandler<Object> releaseAll()
+    {
+        for (MonitorEvent<Object> event : events)
+        {
+            handler.handle(event);
+        }
+        handler.lock(); // Does not block once all the objects have been released
+        return handler;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.DomainWrapper;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.google.common.collect.Lists;
+
+/**
+ * Benchmarks the {@link DomainWrapper} methods used to build the results of the listing
+ * strategies.
+ * <p>
+ * The {@link #wrapWithConstructorLookup()} baseline looks up the wrapper constructor for each
+ * object, the way it was done before the constructors were cached, so it can be compared with
+ * {@link #wrap()}.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DomainWrapperBenchmark
+{
+    /** The size of the pages joined by {@link #join()}. */
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private AbiquoContext context;
+
+    private List<VirtualMachineDto> virtualMachines;
+
+    private List<VirtualMachinesDto> pages;
+
+    @Setup
+    public void setup()
+    {
+        context = Fixtures.context();
+        virtualMachines = Fixtures.virtualMachines(size).getCollection();
+        pages = Fixtures.virtualMachinePages(size, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<VirtualMachine> wrap()
+    {
+        return DomainWrapper.wrap(context, VirtualMachine.class, virtualMachines);
+    }
+
+    @Benchmark
+    public List<VirtualMachine> wrapWithConstructorLookup() throws Exception
+    {
+        List<VirtualMachine> vms = Lists.newArrayListWithCapacity(virtualMachines.size());
+        for (VirtualMachineDto dto : virtualMachines)
+        {
+            Constructor<VirtualMachine> cons =
+                VirtualMachine.class.getDeclaredConstructor(AbiquoContext.class, dto.getClass());
+            if (!cons.isAccessible())
+            {
+                cons.setAccessible(true);
+            }
+            vms.add(cons.newInstance(context, dto));
+        }
+        return vms;
+    }
+
+    @Benchmark
+    public Iterable<VirtualMachineDto> join()
+    {
+        return DomainWrapper.join(pages);
+    }
+}
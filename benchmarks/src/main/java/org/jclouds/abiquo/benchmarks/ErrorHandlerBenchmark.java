@@ -0,0 +1,152 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+
+import org.jclouds.abiquo.handlers.AbiquoErrorHandler;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.lifecycle.Closer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Injector;
+
+/**
+ * Benchmarks the parsing of the errors returned by the API in the {@link AbiquoErrorHandler}.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ErrorHandlerBenchmark
+{
+    private static final String ABIQUO_ERROR = "<errors><error><code>VM-0</code>"
+        + "<message>The requested virtual machine does not exist</message></error></errors>";
+
+    private static final String SERVER_ERROR =
+        "<html><head><title>Internal Server Error</title></head><body></body></html>";
+
+    private Injector injector;
+
+    private AbiquoErrorHandler errorHandler;
+
+    private HttpResponse abiquoError;
+
+    private HttpResponse serverError;
+
+    private HttpCommand command;
+
+    @Setup
+    public void setup()
+    {
+        injector = Fixtures.injector();
+        errorHandler = injector.getInstance(AbiquoErrorHandler.class);
+
+        abiquoError = new HttpResponse(404, "Not Found", payload(ABIQUO_ERROR));
+        serverError = new HttpResponse(500, "Internal Server Error", payload(SERVER_ERROR));
+        command =
+            command(HttpRequest.builder().method(HttpMethod.GET)
+                .endpoint(URI.create("http://localhost/api/cloud/virtualmachines/1")).build());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        injector.getInstance(Closer.class).close();
+    }
+
+    @Benchmark
+    public Exception parseAbiquoError()
+    {
+        errorHandler.handleError(command, abiquoError);
+        return command.getException();
+    }
+
+    @Benchmark
+    public Exception parseServerError()
+    {
+        errorHandler.handleError(command, serverError);
+        return command.getException();
+    }
+
+    private static Payload payload(final String content)
+    {
+        Payload payload = Payloads.newStringPayload(content);
+        payload.getContentMetadata().setContentLength((long) content.getBytes().length);
+        return payload;
+    }
+
+    /**
+     * Builds a command that only holds the request and the exception set by the error handler.
+     */
+    private static HttpCommand command(final HttpRequest request)
+    {
+        return (HttpCommand) Proxy.newProxyInstance(HttpCommand.class.getClassLoader(),
+            new Class< ? >[] {HttpCommand.class}, new InvocationHandler()
+            {
+                private Object exception;
+
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args)
+                {
+                    if (method.getName().equals("getCurrentRequest"))
+                    {
+                        return request;
+                    }
+                    else if (method.getName().equals("setException"))
+                    {
+                        exception = args[0];
+                        return null;
+                    }
+                    else if (method.getName().equals("getException"))
+                    {
+                        return exception;
+                    }
+
+                    throw new UnsupportedOperationException(method.getName()
+                        + " is not available in the benchmarks");
+                }
+            });
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.abiquo.events.handlers.AbstractEventHandler;
+import org.jclouds.abiquo.events.handlers.TargetedEventHandler;
+import org.jclouds.abiquo.events.monitor.CompletedEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEventRouter;
+import org.jclouds.abiquo.features.services.MonitoringService;
+import org.jclouds.abiquo.internal.BaseMonitoringService;
+import org.jclouds.lifecycle.Closer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.eventbus.Subscribe;
+import com.google.inject.Injector;
+
+/**
+ * Benchmarks the dispatch of the monitoring events to the handlers registered in the
+ * {@link BaseMonitoringService}.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventDispatchBenchmark
+{
+    /** The number of monitored objects, each one with its own handler. */
+    @Param({"1", "1000", "100000"})
+    public int handlers;
+
+    /** Whether a handler interested in all events is registered too. */
+    @Param({"false", "true"})
+    public boolean globalHandler;
+
+    private Injector injector;
+
+    private MonitorEventRouter eventRouter;
+
+    private MonitorEvent< ? >[] events;
+
+    private int next = 0;
+
+    @Setup
+    public void setup()
+    {
+        injector = Fixtures.injector();
+        MonitoringService monitoringService = injector.getInstance(MonitoringService.class);
+        // The router used by the monitoring service to dispatch the events
+        eventRouter = injector.getInstance(MonitorEventRouter.class);
+
+        events = new MonitorEvent< ? >[handlers];
+        for (int i = 0; i < handlers; i++)
+        {
+            Object target = new Object();
+            monitoringService.register(new CountingHandler(target));
+            events[i] = new CompletedEvent<Object>(target);
+        }
+
+        if (globalHandler)
+        {
+            monitoringService.register(new GlobalHandler());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception
+    {
+        injector.getInstance(Closer.class).close();
+    }
+
+    @Benchmark
+    public void dispatch()
+    {
+        eventRouter.post(events[next]);
+        next = (next + 1) % events.length;
+    }
+
+    static class CountingHandler extends AbstractEventHandler<Object> implements
+        TargetedEventHandler<Object>
+    {
+        private final Object target;
+
+        private int count = 0;
+
+        CountingHandler(final Object target)
+        {
+            this.target = target;
+        }
+
+        @Override
+        public Iterable<Object> getTargets()
+        {
+            return ImmutableSet.of(target);
+        }
+
+        @Override
+        public void handle(final MonitorEvent<Object> event)
+        {
+            count++;
+        }
+
+        @Override
+        protected boolean handles(final MonitorEvent<Object> event)
+        {
+            return target.equals(event.getTarget());
+        }
+    }
+
+    static class GlobalHandler extends AbstractEventHandler<Object>
+    {
+        private int count = 0;
+
+        @Subscribe
+        public void handle(final MonitorEvent<Object> event)
+        {
+            if (handles(event))
+            {
+                count++;
+            }
+        }
+
+        @Override
+        protected boolean handles(final MonitorEvent<Object> event)
+        {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Properties;
+
+import org.jclouds.abiquo.AbiquoAsyncClient;
+import org.jclouds.abiquo.AbiquoClient;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.AbiquoContextFactory;
+import org.jclouds.abiquo.domain.CloudResources;
+import org.jclouds.abiquo.domain.InfrastructureResources;
+import org.jclouds.abiquo.domain.NetworkResources;
+import org.jclouds.rest.RestContextFactory;
+import org.jclouds.xml.XMLParser;
+
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.abiquo.server.core.infrastructure.MachineDto;
+import com.abiquo.server.core.infrastructure.MachinesDto;
+import com.abiquo.server.core.infrastructure.network.IpPoolManagementDto;
+import com.abiquo.server.core.infrastructure.storage.VolumeManagementDto;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+/**
+ * Canned objects and payloads used by the benchmarks.
+ * <p>
+ * All fixtures are built locally, so the benchmarks never connect to an Abiquo API.
+ * 
+ * @author Ignasi Barrera
+ */
+public class Fixtures
+{
+    /**
+     * Builds an injector with the default configuration of the Abiquo context.
+     */
+    static Injector injector()
+    {
+        Properties props = new Properties();
+        props.setProperty("abiquo.endpoint", "http://localhost/api");
+
+        return new RestContextFactory().<AbiquoClient, AbiquoAsyncClient> createContextBuilder(
+            AbiquoContextFactory.PROVIDER_NAME, "identity", "credential",
+            ImmutableSet.<Module> of(), props).buildInjector();
+    }
+
+    /**
+     * Returns a context that can only be used to wrap objects.
+     */
+    static AbiquoContext context()
+    {
+        return (AbiquoContext) Proxy.newProxyInstance(AbiquoContext.class.getClassLoader(),
+            new Class< ? >[] {AbiquoContext.class}, new InvocationHandler()
+            {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args)
+                {
+                    throw new UnsupportedOperationException(method.getName()
+                        + " is not available in the benchmarks");
+                }
+            });
+    }
+
+    static VirtualMachinesDto virtualMachines(final int size)
+    {
+        VirtualMachinesDto vms = new VirtualMachinesDto();
+        for (int i = 0; i < size; i++)
+        {
+            VirtualMachineDto vm = CloudResources.virtualMachinePut();
+            vm.setId(i);
+            vm.setName("VM-" + i);
+            vms.add(vm);
+        }
+        return vms;
+    }
+
+    /**
+     * Splits the given number of virtual machines in pages of the given size.
+     */
+    static List<VirtualMachinesDto> virtualMachinePages(final int size, final int pageSize)
+    {
+        List<VirtualMachinesDto> pages = Lists.newArrayList();
+        for (int remaining = size; remaining > 0; remaining -= pageSize)
+        {
+            pages.add(virtualMachines(Math.min(remaining, pageSize)));
+        }
+        return pages;
+    }
+
+    static MachinesDto machines(final int size)
+    {
+        MachinesDto machines = new MachinesDto();
+        for (int i = 0; i < size; i++)
+        {
+            MachineDto machine = InfrastructureResources.machinePut();
+            machine.setId(i);
+            machine.setName("Machine-" + i);
+            machines.add(machine);
+        }
+        return machines;
+    }
+
+    /**
+     * Builds volumes with different edit links, so none of them is discarded when binding the
+     * references.
+     */
+    static VolumeManagementDto[] volumes(final int size)
+    {
+        VolumeManagementDto[] volumes = new VolumeManagementDto[size];
+        for (int i = 0; i < size; i++)
+        {
+            volumes[i] = CloudResources.volumePut();
+            volumes[i].setId(i);
+            volumes[i].getEditLink().setHref(
+                "http://localhost/api/cloud/virtualdatacenters/1/volumes/" + i);
+        }
+        return volumes;
+    }
+
+    /**
+     * Builds IPs with different self links, so none of them is discarded when binding the
+     * references.
+     */
+    static IpPoolManagementDto[] ips(final int size)
+    {
+        IpPoolManagementDto[] ips = new IpPoolManagementDto[size];
+        for (int i = 0; i < size; i++)
+        {
+            ips[i] = NetworkResources.privateIpPut();
+            ips[i].setId(i);
+            ips[i].searchLink("self").setHref(
+                "http://localhost/api/cloud/virtualdatacenters/1/privatenetworks/1/ips/" + i);
+        }
+        return ips;
+    }
+
+    static String toXML(final XMLParser xml, final Object object)
+    {
+        try
+        {
+            return xml.toXML(object);
+        }
+        catch (IOException ex)
+        {
+            throw Throwables.propagate(ex);
+        }
+    }
+}
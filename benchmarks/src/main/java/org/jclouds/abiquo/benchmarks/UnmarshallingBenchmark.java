@@ -0,0 +1,82 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.xml.internal.JAXBParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.abiquo.server.core.infrastructure.MachinesDto;
+
+/**
+ * Benchmarks the unmarshalling of the large collections retrieved by the
+ * <code>ListVirtualMachinesImpl</code> and <code>ListMachinesImpl</code> strategies.
+ * 
+ * @author Ignasi Barrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UnmarshallingBenchmark
+{
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private JAXBParser xml;
+
+    private String virtualMachinesPayload;
+
+    private String machinesPayload;
+
+    @Setup
+    public void setup()
+    {
+        xml = new JAXBParser();
+        virtualMachinesPayload = Fixtures.toXML(xml, Fixtures.virtualMachines(size));
+        machinesPayload = Fixtures.toXML(xml, Fixtures.machines(size));
+    }
+
+    @Benchmark
+    public VirtualMachinesDto parseVirtualMachines() throws Exception
+    {
+        return xml.fromXML(virtualMachinesPayload, VirtualMachinesDto.class);
+    }
+
+    @Benchmark
+    public MachinesDto parseMachines() throws Exception
+    {
+        return xml.fromXML(machinesPayload, MachinesDto.class);
+    }
+}
@@ -23,6 +23,7 @@ import org.jclouds.abiquo.features.services.AdministrationService;
 import org.jclouds.abiquo.features.services.CloudService;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.features.services.SearchService;
+import org.jclouds.abiquo.http.RequestMetrics;
 import org.jclouds.abiquo.internal.AbiquoContextImpl;
 import org.jclouds.rest.RestContext;
 
@@ -64,4 +65,11 @@ public interface AbiquoContext extends RestContext<AbiquoClient, AbiquoAsyncClie
      */
     MonitoringService getMonitoringService();
 
+    /**
+     * Returns the metrics of the requests sent to the Abiquo API.
+     * <p>
+     * Requests are only recorded when the default http client is used.
+     */
+    RequestMetrics getRequestMetrics();
+
 }
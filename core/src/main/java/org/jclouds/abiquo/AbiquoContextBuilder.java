@@ -27,7 +27,9 @@ import org.jclouds.abiquo.config.AbiquoRestClientModule;
 import org.jclouds.abiquo.config.ConfiguresEventBus;
 import org.jclouds.abiquo.config.ConfiguresScheduler;
 import org.jclouds.abiquo.config.EventBusModule;
+import org.jclouds.abiquo.config.InstrumentedHttpCommandExecutorServiceModule;
 import org.jclouds.abiquo.config.SchedulerModule;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.rest.RestContextBuilder;
 
 import com.google.common.base.Predicate;
@@ -70,6 +72,10 @@ public class AbiquoContextBuilder extends RestContextBuilder<AbiquoClient, Abiqu
         {
             modules.add(new EventBusModule());
         }
+        if (!isModulePresent(ConfiguresHttpCommandExecutorService.class))
+        {
+            modules.add(new InstrumentedHttpCommandExecutorServiceModule());
+        }
 
         return super.buildInjector();
     }
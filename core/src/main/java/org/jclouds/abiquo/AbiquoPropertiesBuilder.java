@@ -22,8 +22,23 @@ package org.jclouds.abiquo;
 import static org.jclouds.Constants.PROPERTY_API_VERSION;
 import static org.jclouds.Constants.PROPERTY_BUILD_VERSION;
 import static org.jclouds.Constants.PROPERTY_MAX_REDIRECTS;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_COALESCE;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_JMX;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_MAX_DELAY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_MIN_DELAY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_POLLING_STRATEGY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_RECONCILE_DELAY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_ENABLED;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_MAX_SIZE;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_TTL;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_TTL_PER_TYPE;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CONDITIONAL_GET_CACHE_SIZE;
+import static org.jclouds.abiquo.reference.AbiquoConstants.MAX_FAN_OUT_REQUESTS;
+import static org.jclouds.abiquo.reference.AbiquoConstants.MAX_FAN_OUT_REQUESTS_PER_HOST;
+import static org.jclouds.abiquo.reference.AbiquoConstants.MAX_PIPELINED_REQUESTS;
 import static org.jclouds.abiquo.reference.AbiquoConstants.MAX_SCHEDULER_THREADS;
+import static org.jclouds.abiquo.reference.AbiquoConstants.SESSION_AUTHENTICATION;
 
 import java.util.Properties;
 
@@ -52,6 +67,31 @@ public class AbiquoPropertiesBuilder extends PropertiesBuilder
         properties.setProperty(PROPERTY_MAX_REDIRECTS, "0");
         // The default polling delay between AsyncTask monitor requests
         properties.setProperty(ASYNC_TASK_MONITOR_DELAY, "5000");
+        // By default each monitored object is polled individually
+        properties.setProperty(ASYNC_TASK_MONITOR_COALESCE, "false");
+        // Monitored objects are polled at a fixed rate by default
+        properties.setProperty(ASYNC_TASK_MONITOR_POLLING_STRATEGY, "fixed");
+        // The default bounds for the polling strategies that compute the delay dynamically
+        properties.setProperty(ASYNC_TASK_MONITOR_MIN_DELAY, "500");
+        properties.setProperty(ASYNC_TASK_MONITOR_MAX_DELAY, "60000");
+        // Objects with pushed notifications are only polled to recover lost notifications
+        properties.setProperty(ASYNC_TASK_MONITOR_RECONCILE_DELAY, "60000");
+        // The monitoring metrics are not published in JMX by default
+        properties.setProperty(ASYNC_TASK_MONITOR_JMX, "false");
+        // Responses are not cached by default
+        properties.setProperty(CACHE_ENABLED, "false");
+        properties.setProperty(CACHE_TTL, "60000");
+        properties.setProperty(CACHE_TTL_PER_TYPE, "");
+        properties.setProperty(CACHE_MAX_SIZE, "1000");
+        // The number of resources refreshed with conditional requests
+        properties.setProperty(CONDITIONAL_GET_CACHE_SIZE, "1000");
+        // The maximum number of concurrent requests in the pipelined listings
+        properties.setProperty(MAX_PIPELINED_REQUESTS, "10");
+        // The maximum number of concurrent requests sent by the listing strategies
+        properties.setProperty(MAX_FAN_OUT_REQUESTS, "20");
+        properties.setProperty(MAX_FAN_OUT_REQUESTS_PER_HOST, "0");
+        // By default the credentials are sent in each request
+        properties.setProperty(SESSION_AUTHENTICATION, "false");
         // The default number of concurrent scheduler threads to be used
         properties.setProperty(MAX_SCHEDULER_THREADS, "10");
         return properties;
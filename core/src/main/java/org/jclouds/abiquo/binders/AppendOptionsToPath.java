@@ -22,8 +22,9 @@ package org.jclouds.abiquo.binders;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import javax.inject.Inject;
-import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+
+import javax.inject.Singleton;
 
 import org.jclouds.abiquo.domain.options.QueryOptions;
 import org.jclouds.http.HttpRequest;
@@ -32,29 +33,30 @@ import org.jclouds.rest.Binder;
 
 /**
  * Appends the parameter value to the end of the request URI.
+ * <p>
+ * The options are appended using their already encoded form, so no URI builder is needed and the
+ * binder can be safely shared.
  * 
  * @author Francesc Montserrat
  * @author Ignasi Barrera
  */
-// This class cannot be singleton. uriBuilder is not thread-save!
+@Singleton
 public class AppendOptionsToPath implements Binder
 {
-    /** The configured URI builder. */
-    private UriBuilder uriBuilder;
-
-    @Inject
-    public AppendOptionsToPath(final UriBuilder uriBuilder)
-    {
-        this.uriBuilder = uriBuilder;
-    }
-
     @Override
     public <R extends HttpRequest> R bindToRequest(final R request, final Object input)
     {
         checkArgument(checkNotNull(input, "input") instanceof QueryOptions,
             "this binder is only valid for QueryOptions objects");
-        QueryOptions options = (QueryOptions) input;
+        String query = ((QueryOptions) input).getQueryString();
+
+        if (query.isEmpty())
+        {
+            return request;
+        }
 
-        return ModifyRequest.addQueryParams(request, options.getOptions(), uriBuilder);
+        String endpoint = request.getEndpoint().toString();
+        String separator = endpoint.indexOf('?') == -1 ? "?" : "&";
+        return ModifyRequest.endpoint(request, URI.create(endpoint + separator + query));
     }
 }
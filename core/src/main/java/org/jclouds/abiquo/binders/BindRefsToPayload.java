@@ -22,6 +22,8 @@ package org.jclouds.abiquo.binders;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Set;
+
 import javax.inject.Inject;
 
 import org.jclouds.http.HttpRequest;
@@ -31,6 +33,7 @@ import org.jclouds.xml.XMLParser;
 import com.abiquo.model.rest.RESTLink;
 import com.abiquo.model.transport.LinksDto;
 import com.abiquo.model.transport.SingleResourceTransportDto;
+import com.google.common.collect.Sets;
 
 /**
  * Bind multiple objects to the payload of the request as a list of links.
@@ -55,13 +58,15 @@ public abstract class BindRefsToPayload extends BindToXMLPayload
 
         SingleResourceTransportDto[] dtos = (SingleResourceTransportDto[]) input;
         LinksDto refs = new LinksDto();
+        Set<String> hrefs = Sets.newHashSetWithExpectedSize(dtos.length);
 
         for (SingleResourceTransportDto dto : dtos)
         {
             RESTLink editLink = checkNotNull(dto.getEditLink(), "entity must have an edit link");
 
-            // Do not add repeated references
-            if (refs.searchLinkByHref(editLink.getHref()) == null)
+            // Do not add repeated references. Keep track of the added ones to avoid scanning the
+            // links of the payload for each reference.
+            if (hrefs.add(editLink.getHref()))
             {
                 refs.addLink(new RESTLink(getRelToUse(input), editLink.getHref()));
             }
@@ -24,8 +24,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.net.URI;
-import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Singleton;
 import javax.ws.rs.DELETE;
@@ -40,8 +42,8 @@ import org.jclouds.rest.internal.GeneratedHttpRequest;
 
 import com.abiquo.model.rest.RESTLink;
 import com.abiquo.model.transport.SingleResourceTransportDto;
-import com.google.common.base.Predicates;
-import com.google.common.collect.Iterables;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
 
 /**
  * Binds the given object to the payload and extracts the path parameters from the edit link.
@@ -54,6 +56,12 @@ import com.google.common.collect.Iterables;
 @Singleton
 public class BindToPath implements Binder
 {
+    /**
+     * The {@link EndpointLink} annotation of each parameter of the already bound methods.
+     * Parameters without the annotation have a <code>null</code> value.
+     */
+    @VisibleForTesting
+    static final ConcurrentMap<Method, EndpointLink[]> ENDPOINT_LINKS = Maps.newConcurrentMap();
 
     @Override
     public <R extends HttpRequest> R bindToRequest(final R request, final Object input)
@@ -91,12 +99,8 @@ public class BindToPath implements Binder
     static RESTLink getLinkToUse(final GeneratedHttpRequest< ? > request,
         final SingleResourceTransportDto payload)
     {
-        int argIndex = request.getArgs().indexOf(payload);
-        Annotation[] annotations = request.getJavaMethod().getParameterAnnotations()[argIndex];
-
-        EndpointLink linkName =
-            (EndpointLink) Iterables.find(Arrays.asList(annotations),
-                Predicates.instanceOf(EndpointLink.class), null);
+        int argIndex = indexOf(request.getArgs(), payload);
+        EndpointLink linkName = endpointLinks(request.getJavaMethod())[argIndex];
 
         if (linkName == null)
         {
@@ -108,6 +112,51 @@ public class BindToPath implements Binder
             "No link was found in object with rel: " + linkName);
     }
 
+    /**
+     * Get the {@link EndpointLink} annotations of the parameters of the given method. Annotations
+     * are read only once for each method, and cached for later invocations.
+     */
+    private static EndpointLink[] endpointLinks(final Method method)
+    {
+        EndpointLink[] links = ENDPOINT_LINKS.get(method);
+        if (links == null)
+        {
+            Annotation[][] annotations = method.getParameterAnnotations();
+            links = new EndpointLink[annotations.length];
+            for (int i = 0; i < annotations.length; i++)
+            {
+                for (Annotation annotation : annotations[i])
+                {
+                    if (annotation instanceof EndpointLink)
+                    {
+                        links[i] = (EndpointLink) annotation;
+                        break;
+                    }
+                }
+            }
+            ENDPOINT_LINKS.putIfAbsent(method, links);
+        }
+        return links;
+    }
+
+    /**
+     * Get the position of the given payload in the request arguments.
+     * <p>
+     * The payload is usually the same instance that was passed to the method, so it is first
+     * looked up by identity to avoid comparing the arguments with <code>equals</code>.
+     */
+    private static int indexOf(final List< ? > args, final Object payload)
+    {
+        for (int i = 0; i < args.size(); i++)
+        {
+            if (args.get(i) == payload)
+            {
+                return i;
+            }
+        }
+        return args.indexOf(payload);
+    }
+
     /**
      * Bind the given link to the request URI.
      * 
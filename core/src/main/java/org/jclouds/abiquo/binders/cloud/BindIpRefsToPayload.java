@@ -22,6 +22,8 @@ package org.jclouds.abiquo.binders.cloud;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -32,6 +34,7 @@ import org.jclouds.xml.XMLParser;
 import com.abiquo.model.rest.RESTLink;
 import com.abiquo.model.transport.LinksDto;
 import com.abiquo.server.core.infrastructure.network.IpPoolManagementDto;
+import com.google.common.collect.Sets;
 
 /**
  * Bind the link reference to an {@link IpPoolManagementDto} object into the payload.
@@ -55,12 +58,13 @@ public class BindIpRefsToPayload extends BindToXMLPayload
 
         IpPoolManagementDto[] ips = (IpPoolManagementDto[]) input;
         LinksDto refs = new LinksDto();
+        Set<String> hrefs = Sets.newHashSetWithExpectedSize(ips.length);
 
         for (IpPoolManagementDto ip : ips)
         {
             RESTLink selfLink =
                 checkNotNull(ip.searchLink("self"), "IpPoolManagementDto must have an self link");
-            if (refs.searchLinkByHref(selfLink.getHref()) == null)
+            if (hrefs.add(selfLink.getHref()))
             {
                 refs.addLink(new RESTLink(selfLink.getTitle(), selfLink.getHref()));
             }
@@ -37,11 +37,15 @@ import org.jclouds.abiquo.features.TaskAsyncClient;
 import org.jclouds.abiquo.features.TaskClient;
 import org.jclouds.abiquo.features.VirtualMachineTemplateAsyncClient;
 import org.jclouds.abiquo.features.VirtualMachineTemplateClient;
+import org.jclouds.abiquo.handlers.AbiquoClientErrorRetryHandler;
 import org.jclouds.abiquo.handlers.AbiquoErrorHandler;
 import org.jclouds.abiquo.rest.internal.AbiquoHttpAsyncClient;
 import org.jclouds.abiquo.rest.internal.AbiquoHttpClient;
+import org.jclouds.abiquo.rest.internal.AbiquoLoginAsyncClient;
+import org.jclouds.abiquo.rest.internal.AbiquoLoginClient;
 import org.jclouds.abiquo.rest.internal.ExtendedUtils;
 import org.jclouds.http.HttpErrorHandler;
+import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.annotation.Redirection;
@@ -92,6 +96,17 @@ public class AbiquoRestClientModule extends RestClientModule<AbiquoClient, Abiqu
         BinderUtils.bindClient(binder(), AbiquoHttpClient.class, AbiquoHttpAsyncClient.class,
             ImmutableMap.<Class< ? >, Class< ? >> of(AbiquoHttpClient.class,
                 AbiquoHttpAsyncClient.class));
+        BinderUtils.bindAsyncClient(binder(), AbiquoLoginAsyncClient.class);
+        BinderUtils.bindClient(binder(), AbiquoLoginClient.class, AbiquoLoginAsyncClient.class,
+            ImmutableMap.<Class< ? >, Class< ? >> of(AbiquoLoginClient.class,
+                AbiquoLoginAsyncClient.class));
+    }
+
+    @Override
+    protected void bindRetryHandlers()
+    {
+        bind(HttpRetryHandler.class).annotatedWith(ClientError.class).to(
+            AbiquoClientErrorRetryHandler.class);
     }
 
     @Override
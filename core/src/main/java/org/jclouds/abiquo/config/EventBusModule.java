@@ -27,6 +27,7 @@ import javax.inject.Singleton;
 import org.jclouds.Constants;
 import org.jclouds.abiquo.config.annotations.AsyncBus;
 import org.jclouds.abiquo.events.handlers.DeadEventLoggingHandler;
+import org.jclouds.abiquo.events.monitor.MonitorEventRouter;
 
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
@@ -38,12 +39,17 @@ import com.google.inject.Provides;
  * <p>
  * This class will provide a {@link AsyncEventBus} to be used to provide a basic pub/sub system for
  * asynchronous operations.
+ * <p>
+ * Monitoring events are dispatched through the {@link MonitorEventRouter}, which delivers them
+ * directly to the handlers interested in each monitored object and uses the sync {@link EventBus}
+ * only for global handlers such as the {@link DeadEventLoggingHandler}.
  * 
  * @author Ignasi Barrera
  * @see ExecutorServiceModule
  * @see AsyncEventBus
  * @see EventBus
  * @see AsyncBus
+ * @see MonitorEventRouter
  */
 @ConfiguresEventBus
 public class EventBusModule extends AbstractModule
@@ -75,6 +81,17 @@ public class EventBusModule extends AbstractModule
         return syncBus;
     }
 
+    /**
+     * Provides the {@link MonitorEventRouter} that uses the sync {@link EventBus} for global
+     * handlers.
+     */
+    @Provides
+    @Singleton
+    MonitorEventRouter provideMonitorEventRouter(final EventBus syncBus)
+    {
+        return new MonitorEventRouter(syncBus);
+    }
+
     /**
      * Configures the {@link EventBus} to be singleton and enables the {@link AsyncBus} annotation.
      */
@@ -0,0 +1,56 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.config;
+
+import org.jclouds.abiquo.http.internal.InstrumentedHttpCommandExecutorService;
+import org.jclouds.http.TransformingHttpCommandExecutorService;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.util.Modules;
+
+/**
+ * Configures the default http client to record the activity of each request.
+ * <p>
+ * This module is only used when no other http client module has been configured, so the requests
+ * are not recorded when a custom http client is used.
+ * 
+ * @author Ignasi Barrera
+ * @see org.jclouds.abiquo.http.RequestMetrics
+ */
+@ConfiguresHttpCommandExecutorService
+public class InstrumentedHttpCommandExecutorServiceModule extends AbstractModule
+{
+    @Override
+    protected void configure()
+    {
+        install(Modules.override(new JavaUrlHttpCommandExecutorServiceModule()).with(
+            new AbstractModule()
+            {
+                @Override
+                protected void configure()
+                {
+                    bind(TransformingHttpCommandExecutorService.class).to(
+                        InstrumentedHttpCommandExecutorService.class);
+                }
+            }));
+    }
+}
@@ -20,11 +20,14 @@
 package org.jclouds.abiquo.domain;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Iterables.transform;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.exception.WrapperException;
@@ -36,8 +39,11 @@ import com.abiquo.model.transport.AcceptedRequestDto;
 import com.abiquo.model.transport.SingleResourceTransportDto;
 import com.abiquo.model.transport.WrapperDto;
 import com.abiquo.server.core.task.TaskDto;
-import com.google.common.base.Function;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * This class is used to decorate transport objects with high level functionality.
@@ -47,6 +53,10 @@ import com.google.common.collect.Lists;
  */
 public abstract class DomainWrapper<T extends SingleResourceTransportDto>
 {
+    /** The wrapper constructors, by wrapper class and transport object class. */
+    private static final ConcurrentMap<Class< ? >, Map<Class< ? >, Constructor< ? >>> CONSTRUCTORS =
+        Maps.newConcurrentMap();
+
     /** The rest context. */
     protected AbiquoContext context;
 
@@ -92,13 +102,7 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
 
         try
         {
-            Constructor<W> cons =
-                wrapperClass.getDeclaredConstructor(AbiquoContext.class, target.getClass());
-            if (!cons.isAccessible())
-            {
-                cons.setAccessible(true);
-            }
-            return cons.newInstance(context, target);
+            return constructor(wrapperClass, target.getClass()).newInstance(context, target);
         }
         catch (Exception ex)
         {
@@ -117,14 +121,53 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
             return null;
         }
 
-        return Lists.newLinkedList(transform(targets, new Function<T, W>()
+        List<W> wrapped = newList(targets);
+        for (T target : targets)
         {
-            @Override
-            public W apply(final T input)
+            wrapped.add(wrap(context, wrapperClass, target));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Gets the constructor of the given wrapper class that receives the given transport object
+     * class. Constructors are looked up only once, and cached for later invocations.
+     */
+    @SuppressWarnings("unchecked")
+    private static <W> Constructor<W> constructor(final Class<W> wrapperClass,
+        final Class< ? > targetClass) throws NoSuchMethodException
+    {
+        Map<Class< ? >, Constructor< ? >> constructors = CONSTRUCTORS.get(wrapperClass);
+        if (constructors == null)
+        {
+            Map<Class< ? >, Constructor< ? >> created = Maps.newConcurrentMap();
+            constructors = CONSTRUCTORS.putIfAbsent(wrapperClass, created);
+            if (constructors == null)
             {
-                return wrap(context, wrapperClass, input);
+                constructors = created;
             }
-        }));
+        }
+
+        Constructor<W> cons = (Constructor<W>) constructors.get(targetClass);
+        if (cons == null)
+        {
+            cons = wrapperClass.getDeclaredConstructor(AbiquoContext.class, targetClass);
+            cons.setAccessible(true);
+            constructors.put(targetClass, cons);
+        }
+        return cons;
+    }
+
+    /**
+     * Creates a list with enough capacity to hold the elements of the given iterable.
+     */
+    private static <E> List<E> newList(final Iterable< ? > elements)
+    {
+        if (elements instanceof Collection)
+        {
+            return Lists.newArrayListWithCapacity(((Collection< ? >) elements).size());
+        }
+        return Lists.newArrayList();
     }
 
     /**
@@ -133,14 +176,12 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
     public static <T extends SingleResourceTransportDto, W extends DomainWrapper<T>> List<T> unwrap(
         final Iterable<W> targets)
     {
-        return Lists.newLinkedList(transform(targets, new Function<W, T>()
+        List<T> unwrapped = newList(targets);
+        for (W target : targets)
         {
-            @Override
-            public T apply(final W input)
-            {
-                return input.unwrap();
-            }
-        }));
+            unwrapped.add(target.unwrap());
+        }
+        return unwrapped;
     }
 
     /**
@@ -150,18 +191,18 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
         final T1 target, final String targetLinkRel, final T2 source, final String sourceLinkRel)
     {
         RESTLink parent = null;
-
-        checkNotNull(source.searchLink(sourceLinkRel), ValidationErrors.MISSING_REQUIRED_LINK);
+        RESTLink sourceLink =
+            checkNotNull(source.searchLink(sourceLinkRel), ValidationErrors.MISSING_REQUIRED_LINK);
 
         // Insert
         if ((parent = target.searchLink(targetLinkRel)) == null)
         {
-            target.addLink(new RESTLink(targetLinkRel, source.searchLink(sourceLinkRel).getHref()));
+            target.addLink(new RESTLink(targetLinkRel, sourceLink.getHref()));
         }
         // Replace
         else
         {
-            parent.setHref(source.searchLink(sourceLinkRel).getHref());
+            parent.setHref(sourceLink.getHref());
         }
     }
 
@@ -172,7 +213,7 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
     public static <T extends SingleResourceTransportDto> Iterable<T> join(
         final Iterable< ? extends WrapperDto<T>> collection)
     {
-        List<T> dtos = Lists.newLinkedList();
+        List<T> dtos = Lists.newArrayList();
         for (WrapperDto<T> wrapper : collection)
         {
             dtos.addAll(wrapper.getCollection());
@@ -198,18 +239,24 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
 
     /**
      * Utility method to get all {@link AsyncTask} related to an {@link AcceptedRequestDto}.
+     * <p>
+     * The tasks are requested concurrently.
      * 
      * @param acceptedRequest The accepted request dto.
      * @return The async task array.
      */
     protected AsyncTask[] getTasks(final AcceptedRequestDto<String> acceptedRequest)
     {
-        List<AsyncTask> tasks = new ArrayList<AsyncTask>();
-
+        List<ListenableFuture<TaskDto>> futures = Lists.newArrayList();
         for (RESTLink link : acceptedRequest.getLinks())
         {
-            // This will return null on untrackable tasks
-            TaskDto task = context.getApi().getTaskClient().getTask(link);
+            futures.add(context.getAsyncApi().getTaskClient().getTask(link));
+        }
+
+        List<AsyncTask> tasks = new ArrayList<AsyncTask>();
+        for (TaskDto task : getAll(futures))
+        {
+            // This will be null on untrackable tasks
             if (task != null)
             {
                 tasks.add(wrap(context, AsyncTask.class, task));
@@ -219,4 +266,24 @@ public abstract class DomainWrapper<T extends SingleResourceTransportDto>
         AsyncTask[] taskArr = new AsyncTask[tasks.size()];
         return tasks.toArray(taskArr);
     }
+
+    /**
+     * Waits for all the given futures, and propagates the failure of the first one that fails.
+     */
+    private static <T> List<T> getAll(final List<ListenableFuture<T>> futures)
+    {
+        try
+        {
+            return Futures.allAsList(futures).get();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(ex);
+        }
+        catch (ExecutionException ex)
+        {
+            throw Throwables.propagate(ex.getCause());
+        }
+    }
 }
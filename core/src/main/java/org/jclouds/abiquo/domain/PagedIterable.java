@@ -0,0 +1,226 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Futures;
+
+/**
+ * Lazy {@link Iterable} over a paginated collection.
+ * <p>
+ * Pages are requested on demand using the <code>startwith</code> and <code>limit</code>
+ * pagination parameters, and the iteration ends when the server returns an empty page. Servers may
+ * return less elements than requested, so a short page does not end the iteration: the next page
+ * starts right after the last returned element and its size is used as the page size from then on.
+ * If an executor is provided, the next pages are fetched asynchronously while the current one is
+ * being consumed. At most <code>maxPages</code> pages (the current one plus the
+ * prefetched ones) are held in memory by each iterator.
+ * <p>
+ * Each call to {@link #iterator()} starts a new iteration from the first page.
+ * 
+ * @author Ignasi Barrera
+ */
+public class PagedIterable<T> implements Iterable<T>
+{
+    /** The default number of elements per page. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** The default number of pages held in memory by each iterator. */
+    public static final int DEFAULT_MAX_PAGES = 2;
+
+    /**
+     * Fetches a single page of the collection.
+     * 
+     * @author Ignasi Barrera
+     */
+    public static interface PageFetcher<T>
+    {
+        /**
+         * Fetches the page that starts at the given position.
+         * 
+         * @param startWith The index of the first element of the page.
+         * @param limit The maximum number of elements to return.
+         * @return The elements in the page.
+         */
+        List<T> fetchPage(int startWith, int limit);
+    }
+
+    private final PageFetcher<T> fetcher;
+
+    private final int pageSize;
+
+    private final ExecutorService executor;
+
+    private final int maxPages;
+
+    /**
+     * Creates a paged iterable that fetches each page synchronously when it is needed.
+     */
+    public PagedIterable(final PageFetcher<T> fetcher, final int pageSize)
+    {
+        this(fetcher, pageSize, null, 1);
+    }
+
+    /**
+     * Creates a paged iterable that prefetches up to <code>maxPages - 1</code> pages in the given
+     * executor.
+     */
+    public PagedIterable(final PageFetcher<T> fetcher, final int pageSize,
+        final ExecutorService executor, final int maxPages)
+    {
+        checkArgument(pageSize > 0, "pageSize must be greater than zero");
+        checkArgument(maxPages > 0, "maxPages must be greater than zero");
+        this.fetcher = checkNotNull(fetcher, "fetcher");
+        this.pageSize = pageSize;
+        this.executor = executor;
+        this.maxPages = maxPages;
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new PageIterator();
+    }
+
+    private class PageIterator extends AbstractIterator<T>
+    {
+        /** The pages that have been requested but not consumed yet. */
+        private final LinkedList<Future<List<T>>> pending = new LinkedList<Future<List<T>>>();
+
+        private Iterator<T> current = Collections.<T> emptyList().iterator();
+
+        /** The index of the first element of the next page to consume. */
+        private int position = 0;
+
+        /** The index of the first element of the next page to request. */
+        private int nextStart = 0;
+
+        private int limit = pageSize;
+
+        private boolean lastPageFound = false;
+
+        @Override
+        protected T computeNext()
+        {
+            while (!current.hasNext())
+            {
+                if (lastPageFound)
+                {
+                    return endOfData();
+                }
+
+                if (pending.isEmpty())
+                {
+                    pending.add(Futures.immediateFuture(fetcher.fetchPage(nextStart, limit)));
+                    nextStart += limit;
+                }
+
+                List<T> page = getUnchecked(pending.removeFirst());
+                position += page.size();
+
+                if (page.isEmpty())
+                {
+                    // No more elements, discard the pages requested beyond the end
+                    lastPageFound = true;
+                    cancelPending();
+                }
+                else if (page.size() < limit)
+                {
+                    // The server returned less elements than requested. The prefetched pages do not
+                    // start where this one ends, so request them again using the returned size
+                    cancelPending();
+                    nextStart = position;
+                    limit = page.size();
+                }
+                else
+                {
+                    prefetch();
+                }
+
+                current = page.iterator();
+            }
+
+            return current.next();
+        }
+
+        private void prefetch()
+        {
+            if (executor == null)
+            {
+                return;
+            }
+
+            // The current page also counts as a page held in memory
+            while (pending.size() < maxPages - 1)
+            {
+                final int startWith = nextStart;
+                final int pageLimit = limit;
+                pending.add(executor.submit(new Callable<List<T>>()
+                {
+                    @Override
+                    public List<T> call() throws Exception
+                    {
+                        return fetcher.fetchPage(startWith, pageLimit);
+                    }
+                }));
+                nextStart += limit;
+            }
+        }
+
+        private void cancelPending()
+        {
+            for (Future<List<T>> future : pending)
+            {
+                future.cancel(true);
+            }
+            pending.clear();
+        }
+
+        private List<T> getUnchecked(final Future<List<T>> future)
+        {
+            try
+            {
+                return future.get();
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw Throwables.propagate(ex);
+            }
+            catch (ExecutionException ex)
+            {
+                throw Throwables.propagate(ex.getCause());
+            }
+        }
+    }
+}
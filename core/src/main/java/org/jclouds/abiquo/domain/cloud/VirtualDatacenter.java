@@ -26,6 +26,8 @@ import java.util.List;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWithLimitsWrapper;
+import org.jclouds.abiquo.domain.PagedIterable;
+import org.jclouds.abiquo.domain.PagedIterable.PageFetcher;
 import org.jclouds.abiquo.domain.builder.LimitsBuilder;
 import org.jclouds.abiquo.domain.cloud.options.VirtualMachineTemplateOptions;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
@@ -456,21 +458,32 @@ public class VirtualDatacenter extends DomainWithLimitsWrapper<VirtualDatacenter
     public List<Ip> listAvailablePublicIps()
     {
         IpOptions options = IpOptions.builder().build();
+        return listAvailablePublicIps(options);
+    }
 
-        IpsPoolManagementDto ips =
-            context.getApi().getCloudClient().listAvailablePublicIps(target, options);
-
-        return wrap(context, Ip.class, ips.getCollection());
+    /**
+     * Lazily iterates the public ips available to purchase, fetching them in pages of the given
+     * size.
+     * 
+     * @see #listAvailablePublicIps()
+     */
+    public Iterable<Ip> iterateAvailablePublicIps(final int pageSize)
+    {
+        IpOptions options = IpOptions.builder().build();
+        return new PagedIterable<Ip>(availablePublicIpsFetcher(options), pageSize, context
+            .getUtils().getUserExecutor(), PagedIterable.DEFAULT_MAX_PAGES);
     }
 
     public List<Ip> listAvailablePublicIps(final Predicate<Ip> filter)
     {
-        return Lists.newLinkedList(filter(listAvailablePublicIps(), filter));
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return Lists.newLinkedList(filter(listAvailablePublicIps(options), filter));
     }
 
     public Ip findAvailablePublicIp(final Predicate<Ip> filter)
     {
-        return Iterables.getFirst(filter(listAvailablePublicIps(), filter), null);
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return findFirst(availablePublicIpsFetcher(options), filter);
     }
 
     /**
@@ -482,21 +495,81 @@ public class VirtualDatacenter extends DomainWithLimitsWrapper<VirtualDatacenter
     public List<Ip> listPurchasedPublicIps()
     {
         IpOptions options = IpOptions.builder().build();
+        return listPurchasedPublicIps(options);
+    }
+
+    /**
+     * Lazily iterates the purchased public ips, fetching them in pages of the given size.
+     * 
+     * @see #listPurchasedPublicIps()
+     */
+    public Iterable<Ip> iteratePurchasedPublicIps(final int pageSize)
+    {
+        IpOptions options = IpOptions.builder().build();
+        return new PagedIterable<Ip>(purchasedPublicIpsFetcher(options), pageSize, context
+            .getUtils().getUserExecutor(), PagedIterable.DEFAULT_MAX_PAGES);
+    }
+
+    public List<Ip> listPurchasedPublicIps(final Predicate<Ip> filter)
+    {
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return Lists.newLinkedList(filter(listPurchasedPublicIps(options), filter));
+    }
 
+    public Ip findPurchasedPublicIp(final Predicate<Ip> filter)
+    {
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return findFirst(purchasedPublicIpsFetcher(options), filter);
+    }
+
+    private List<Ip> listAvailablePublicIps(final IpOptions options)
+    {
         IpsPoolManagementDto ips =
-            context.getApi().getCloudClient().listPurchasedPublicIps(target, options);
+            context.getApi().getCloudClient().listAvailablePublicIps(target, options);
+        return wrap(context, Ip.class, ips.getCollection());
+    }
 
+    private List<Ip> listPurchasedPublicIps(final IpOptions options)
+    {
+        IpsPoolManagementDto ips =
+            context.getApi().getCloudClient().listPurchasedPublicIps(target, options);
         return wrap(context, Ip.class, ips.getCollection());
     }
 
-    public List<Ip> listPurchasedPublicIps(final Predicate<Ip> filter)
+    private PageFetcher<Ip> availablePublicIpsFetcher(final IpOptions options)
     {
-        return Lists.newLinkedList(filter(listPurchasedPublicIps(), filter));
+        return new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return listAvailablePublicIps(page);
+            }
+        };
     }
 
-    public Ip findPurchasedPublicIp(final Predicate<Ip> filter)
+    private PageFetcher<Ip> purchasedPublicIpsFetcher(final IpOptions options)
+    {
+        return new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return listPurchasedPublicIps(page);
+            }
+        };
+    }
+
+    /**
+     * Returns the first ip that matches the given filter. Pages are fetched one at a time, and no
+     * more pages are requested once a match is found.
+     */
+    private Ip findFirst(final PageFetcher<Ip> fetcher, final Predicate<Ip> filter)
     {
-        return Iterables.getFirst(filter(listPurchasedPublicIps(), filter), null);
+        Iterable<Ip> ips = new PagedIterable<Ip>(fetcher, PagedIterable.DEFAULT_PAGE_SIZE);
+        return Iterables.getFirst(filter(ips, filter), null);
     }
 
     public void purchasePublicIp(final Ip ip)
@@ -23,8 +23,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.filter;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWrapper;
@@ -39,6 +41,7 @@ import org.jclouds.abiquo.reference.rest.ParentLinkName;
 import org.jclouds.abiquo.rest.internal.ExtendedUtils;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.functions.ParseXMLWithJAXB;
+import org.jclouds.rest.ResourceNotFoundException;
 
 import com.abiquo.model.rest.RESTLink;
 import com.abiquo.model.transport.AcceptedRequestDto;
@@ -49,6 +52,7 @@ import com.abiquo.server.core.cloud.VirtualMachineDto;
 import com.abiquo.server.core.cloud.VirtualMachineState;
 import com.abiquo.server.core.cloud.VirtualMachineStateDto;
 import com.abiquo.server.core.cloud.VirtualMachineTaskDto;
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
 import com.abiquo.server.core.enterprise.EnterpriseDto;
 import com.abiquo.server.core.infrastructure.network.IpPoolManagementDto;
 import com.abiquo.server.core.infrastructure.network.NicsDto;
@@ -60,7 +64,10 @@ import com.abiquo.server.core.task.TasksDto;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
 import com.google.common.primitives.Longs;
 import com.google.inject.TypeLiteral;
@@ -130,14 +137,86 @@ public class VirtualMachine extends DomainWrapper<VirtualMachineDto>
 
     public VirtualMachineState getState()
     {
+        RESTLink link =
+            checkNotNull(target.searchLink("state"), ValidationErrors.MISSING_REQUIRED_LINK
+                + " state");
+
+        // The state is polled by the monitors, so use a conditional request to avoid downloading
+        // and parsing it when it has not changed
+        ExtendedUtils utils = (ExtendedUtils) context.getUtils();
         VirtualMachineStateDto stateDto =
-            context.getApi().getCloudClient().getVirtualMachineState(target);
+            utils.getConditionalGetCache().get(link, VirtualMachineStateDto.class);
+        if (stateDto == null)
+        {
+            throw new ResourceNotFoundException("virtual machine state not found: "
+                + link.getHref());
+        }
+
         VirtualMachineState state = stateDto.getState();
         target.setState(state);
         target.setIdState(state.id());
         return state;
     }
 
+    /**
+     * Refreshes the state of the given virtual machines performing a single request for each
+     * virtual appliance, instead of one request for each virtual machine.
+     * <p>
+     * The refreshed state is stored in the wrapped transport objects. Virtual machines that are no
+     * longer found in their virtual appliance are left untouched.
+     * 
+     * @param vms The virtual machines to refresh.
+     */
+    public static void refreshState(final Iterable<VirtualMachine> vms)
+    {
+        Multimap<String, VirtualMachine> vmsByAppliance = LinkedListMultimap.create();
+        for (VirtualMachine vm : vms)
+        {
+            RESTLink link =
+                checkNotNull(vm.target.searchLink(ParentLinkName.VIRTUAL_APPLIANCE),
+                    ValidationErrors.MISSING_REQUIRED_LINK + " " + ParentLinkName.VIRTUAL_APPLIANCE);
+            vmsByAppliance.put(link.getHref(), vm);
+        }
+
+        for (Map.Entry<String, Collection<VirtualMachine>> entry : vmsByAppliance.asMap()
+            .entrySet())
+        {
+            Collection<VirtualMachine> appliance = entry.getValue();
+            ExtendedUtils utils =
+                (ExtendedUtils) appliance.iterator().next().context.getUtils();
+
+            VirtualMachinesDto virtualMachines =
+                utils.getConditionalGetCache().get(
+                    new RESTLink("virtualmachines", entry.getKey() + "/virtualmachines"),
+                    VirtualMachinesDto.class);
+            if (virtualMachines == null)
+            {
+                continue;
+            }
+
+            Map<String, VirtualMachineState> states = Maps.newHashMap();
+            for (VirtualMachineDto dto : virtualMachines.getCollection())
+            {
+                RESTLink edit = dto.searchLink("edit");
+                if (edit != null)
+                {
+                    states.put(edit.getHref(), dto.getState());
+                }
+            }
+
+            for (VirtualMachine vm : appliance)
+            {
+                RESTLink edit = vm.target.searchLink("edit");
+                VirtualMachineState state = edit == null ? null : states.get(edit.getHref());
+                if (state != null)
+                {
+                    vm.target.setState(state);
+                    vm.target.setIdState(state.id());
+                }
+            }
+        }
+    }
+
     // Parent access
 
     /**
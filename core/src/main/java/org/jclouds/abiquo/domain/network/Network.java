@@ -26,12 +26,16 @@ import java.util.List;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWrapper;
+import org.jclouds.abiquo.domain.PagedIterable;
+import org.jclouds.abiquo.domain.PagedIterable.PageFetcher;
+import org.jclouds.abiquo.domain.network.options.IpOptions;
 import org.jclouds.abiquo.predicates.network.IpPredicates;
 import org.jclouds.abiquo.reference.ValidationErrors;
 
 import com.abiquo.model.enumerator.NetworkType;
 import com.abiquo.server.core.infrastructure.network.VLANNetworkDto;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -55,14 +59,43 @@ public abstract class Network extends DomainWrapper<VLANNetworkDto>
 
     public abstract List<Ip> listIps();
 
+    public abstract List<Ip> listIps(IpOptions options);
+
+    /**
+     * Lazily iterates the ips of the network, fetching them in pages of the
+     * {@link PagedIterable#DEFAULT_PAGE_SIZE default size}.
+     * 
+     * @see #iterateIps(int)
+     */
+    public Iterable<Ip> iterateIps()
+    {
+        return iterateIps(PagedIterable.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Lazily iterates the ips of the network.
+     * <p>
+     * Unlike {@link #listIps()}, the ips are not loaded all at once. Each page is requested when
+     * needed, and the next one is fetched in the background while the current one is consumed.
+     * 
+     * @param pageSize The number of ips to fetch in each request.
+     */
+    public Iterable<Ip> iterateIps(final int pageSize)
+    {
+        return new PagedIterable<Ip>(pageFetcher(IpOptions.builder().build()), pageSize,
+            context.getUtils().getUserExecutor(), PagedIterable.DEFAULT_MAX_PAGES);
+    }
+
     public List<Ip> listIps(final Predicate<Ip> filter)
     {
-        return Lists.newLinkedList(filter(listIps(), filter));
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return Lists.newLinkedList(filter(listIps(options), filter));
     }
 
     public Ip findIp(final Predicate<Ip> filter)
     {
-        return Iterables.getFirst(filter(listIps(), filter), null);
+        IpOptions options = IpOptions.builder().build().filterBy(filter);
+        return findFirst(options, filter);
     }
 
     public List<Ip> listAvailableIps()
@@ -72,7 +105,33 @@ public abstract class Network extends DomainWrapper<VLANNetworkDto>
 
     public Ip findAvailableIp(final Predicate<Ip> filter)
     {
-        return Iterables.getFirst(filter(listAvailableIps(), filter), null);
+        Predicate<Ip> available = IpPredicates.available();
+        IpOptions options = IpOptions.builder().build().filterBy(available).filterBy(filter);
+        return findFirst(options, Predicates.and(available, filter));
+    }
+
+    /**
+     * Returns the first ip that matches the given filter. Pages are fetched one at a time, and no
+     * more pages are requested once a match is found.
+     */
+    private Ip findFirst(final IpOptions options, final Predicate<Ip> filter)
+    {
+        Iterable<Ip> ips =
+            new PagedIterable<Ip>(pageFetcher(options), PagedIterable.DEFAULT_PAGE_SIZE);
+        return Iterables.getFirst(filter(ips, filter), null);
+    }
+
+    private PageFetcher<Ip> pageFetcher(final IpOptions options)
+    {
+        return new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return listIps(page);
+            }
+        };
     }
 
     // Builder
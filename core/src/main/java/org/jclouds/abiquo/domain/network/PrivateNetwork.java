@@ -105,6 +105,14 @@ public class PrivateNetwork extends Network
         return wrap(context, Ip.class, nics.getCollection());
     }
 
+    @Override
+    public List<Ip> listIps(final IpOptions options)
+    {
+        IpsPoolManagementDto nics =
+            context.getApi().getCloudClient().listPrivateNetworkIps(target, options);
+        return wrap(context, Ip.class, nics.getCollection());
+    }
+
     // Override to apply the filter in the server side
     @Override
     public List<Ip> listAvailableIps()
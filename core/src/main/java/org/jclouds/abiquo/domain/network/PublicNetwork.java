@@ -26,6 +26,7 @@ import java.util.List;
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
+import org.jclouds.abiquo.domain.network.options.IpOptions;
 import org.jclouds.abiquo.reference.ValidationErrors;
 import org.jclouds.abiquo.reference.annotations.EnterpriseEdition;
 
@@ -107,6 +108,14 @@ public class PublicNetwork extends Network
         return wrap(context, Ip.class, nics.getCollection());
     }
 
+    @Override
+    public List<Ip> listIps(final IpOptions options)
+    {
+        IpsPoolManagementDto nics =
+            context.getApi().getInfrastructureClient().listNetworkIps(target, options);
+        return wrap(context, Ip.class, nics.getCollection());
+    }
+
     // Builder
 
     public static Builder builder(final AbiquoContext context, final Datacenter datacenter)
@@ -26,6 +26,7 @@ import java.util.List;
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
+import org.jclouds.abiquo.domain.network.options.IpOptions;
 import org.jclouds.abiquo.reference.ValidationErrors;
 import org.jclouds.abiquo.reference.annotations.EnterpriseEdition;
 
@@ -112,6 +113,14 @@ public class UnmanagedNetwork extends Network
         return wrap(context, Ip.class, nics.getCollection());
     }
 
+    @Override
+    public List<Ip> listIps(final IpOptions options)
+    {
+        IpsPoolManagementDto nics =
+            context.getApi().getInfrastructureClient().listNetworkIps(target, options);
+        return wrap(context, Ip.class, nics.getCollection());
+    }
+
     private void addEnterpriseLink()
     {
         checkNotNull(enterprise, ValidationErrors.NULL_RESOURCE + Enterprise.class);
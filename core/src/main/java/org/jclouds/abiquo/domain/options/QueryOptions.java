@@ -19,11 +19,20 @@
 
 package org.jclouds.abiquo.domain.options;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.Map;
+
 import org.jclouds.abiquo.domain.options.search.FilterOptions;
 import org.jclouds.abiquo.domain.options.search.reference.OrderBy;
+import org.jclouds.abiquo.predicates.QueryPredicate;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 
 /**
  * Base class for all query parameter based options.
@@ -35,12 +44,116 @@ public abstract class QueryOptions
     /** The option map. */
     protected Multimap<String, String> map = LinkedListMultimap.create();
 
+    /** The read-only view of the option map. */
+    private final Multimap<String, String> options = Multimaps.unmodifiableMultimap(map);
+
+    /** The encoded options, computed the first time they are requested. */
+    private String queryString;
+
     /**
      * Gets the option map.
+     * <p>
+     * Options are not modified once built, so the returned map can not be modified.
      */
     public Multimap<String, String> getOptions()
     {
-        return map;
+        return options;
+    }
+
+    /**
+     * Gets the options encoded as a query string, without the leading question mark.
+     * <p>
+     * Options are not modified once built, so they are encoded only once, and the same string is
+     * reused each time the options are sent.
+     */
+    public String getQueryString()
+    {
+        // Concurrent invocations may encode the options more than once, but all of them will
+        // compute the same string
+        String query = queryString;
+        if (query == null)
+        {
+            query = encode(getOptions());
+            queryString = query;
+        }
+        return query;
+    }
+
+    /**
+     * Returns a copy of these options that requests the given page.
+     * <p>
+     * The current options are not modified, so the same instance can be used to build the options
+     * for several pages that are fetched concurrently.
+     */
+    public <T extends QueryOptions> T page(final int startWith, final int limit)
+    {
+        T options = copy();
+        options.map.replaceValues("startwith", Collections.singleton(String.valueOf(startWith)));
+        options.map.replaceValues("limit", Collections.singleton(String.valueOf(limit)));
+        return options;
+    }
+
+    /**
+     * Returns a copy of these options that narrows the results using the query parameters of the
+     * given predicate.
+     * <p>
+     * If the predicate is not a {@link QueryPredicate} it can not be evaluated in the server side,
+     * and the returned options will select the same elements than the current ones. In both cases
+     * the predicate must still be applied to the results.
+     */
+    public <T extends QueryOptions> T filterBy(final Predicate<?> predicate)
+    {
+        T options = copy();
+        if (predicate instanceof QueryPredicate)
+        {
+            Multimap<String, String> parameters =
+                ((QueryPredicate<?>) predicate).getQueryParameters();
+            for (String key : parameters.keySet())
+            {
+                options.map.replaceValues(key, parameters.get(key));
+            }
+        }
+        return options;
+    }
+
+    private static String encode(final Multimap<String, String> options)
+    {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String> option : options.entries())
+        {
+            if (query.length() > 0)
+            {
+                query.append('&');
+            }
+            query.append(encode(option.getKey())).append('=').append(encode(option.getValue()));
+        }
+        return query.toString();
+    }
+
+    private static String encode(final String value)
+    {
+        try
+        {
+            // Spaces must be percent-encoded in the query string
+            return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+        }
+        catch (UnsupportedEncodingException ex)
+        {
+            throw Throwables.propagate(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends QueryOptions> T copy()
+    {
+        try
+        {
+            return (T) clone();
+        }
+        catch (CloneNotSupportedException ex)
+        {
+            throw Throwables.propagate(ex);
+        }
     }
 
     public static class QueryOptionsBuilder<T extends QueryOptionsBuilder<T>>
@@ -19,14 +19,27 @@
 
 package org.jclouds.abiquo.domain.task;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWrapper;
+import org.jclouds.abiquo.functions.ReturnNullOn303;
+import org.jclouds.abiquo.reference.ValidationErrors;
+import org.jclouds.abiquo.rest.internal.ExtendedUtils;
+import org.jclouds.rest.ResourceNotFoundException;
 
+import com.abiquo.model.rest.RESTLink;
 import com.abiquo.server.core.task.TaskDto;
+import com.abiquo.server.core.task.TasksDto;
 import com.abiquo.server.core.task.enums.TaskState;
 import com.abiquo.server.core.task.enums.TaskType;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 
 /**
  * Adds generic high level functionality to {TaskDto}.
@@ -50,7 +63,81 @@ public class AsyncTask extends DomainWrapper<TaskDto>
      */
     public void refresh()
     {
-        target = context.getApi().getTaskClient().getTask(target.searchLink("self"));
+        // Tasks are polled by the monitors, so use a conditional request to avoid downloading and
+        // parsing them when they have not changed
+        ExtendedUtils utils = (ExtendedUtils) context.getUtils();
+        RESTLink self = target.searchLink("self");
+        TaskDto task = null;
+
+        try
+        {
+            task = utils.getConditionalGetCache().get(self, TaskDto.class);
+        }
+        catch (RuntimeException ex)
+        {
+            // Keep the behavior of the task client for tasks that have been moved
+            target = (TaskDto) new ReturnNullOn303().apply(ex);
+            return;
+        }
+
+        if (task == null)
+        {
+            // The task client failed on missing tasks, leaving the current task untouched
+            throw new ResourceNotFoundException("task not found: " + self.getHref());
+        }
+        target = task;
+    }
+
+    /**
+     * Refresh the state of the given tasks performing a single request for each task owner,
+     * instead of one request for each task.
+     * <p>
+     * Tasks that are not found in the task list of their owner, such as when the list is
+     * paginated, are refreshed individually.
+     * 
+     * @param tasks The tasks to refresh.
+     */
+    public static void refresh(final Iterable<AsyncTask> tasks)
+    {
+        Multimap<String, AsyncTask> tasksByOwner = LinkedListMultimap.create();
+        for (AsyncTask task : tasks)
+        {
+            RESTLink self =
+                checkNotNull(task.target.searchLink("self"),
+                    ValidationErrors.MISSING_REQUIRED_LINK + " self");
+            tasksByOwner.put(self.getHref().substring(0, self.getHref().lastIndexOf('/')), task);
+        }
+
+        for (Map.Entry<String, Collection<AsyncTask>> entry : tasksByOwner.asMap().entrySet())
+        {
+            ExtendedUtils utils =
+                (ExtendedUtils) entry.getValue().iterator().next().context.getUtils();
+
+            TasksDto ownerTasks =
+                utils.getConditionalGetCache().get(new RESTLink("tasks", entry.getKey()),
+                    TasksDto.class);
+            Map<String, TaskDto> current = Maps.newHashMap();
+            if (ownerTasks != null)
+            {
+                for (TaskDto dto : ownerTasks.getCollection())
+                {
+                    current.put(dto.getTaskId(), dto);
+                }
+            }
+
+            for (AsyncTask task : entry.getValue())
+            {
+                TaskDto dto = current.get(task.getTaskId());
+                if (dto != null)
+                {
+                    task.target = dto;
+                }
+                else
+                {
+                    task.refresh();
+                }
+            }
+        }
     }
 
     // Children access
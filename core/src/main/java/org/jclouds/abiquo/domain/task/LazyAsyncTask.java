@@ -0,0 +1,171 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain.task;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import org.jclouds.abiquo.AbiquoContext;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.model.transport.AcceptedRequestDto;
+import com.abiquo.server.core.task.TaskDto;
+import com.abiquo.server.core.task.enums.TaskState;
+import com.abiquo.server.core.task.enums.TaskType;
+
+/**
+ * An {@link AsyncTask} that only holds the link to the task, and retrieves it the first time it
+ * is accessed.
+ * <p>
+ * Untrackable tasks can not be retrieved, so all their properties will be <code>null</code>.
+ * 
+ * @author Ignasi Barrera
+ */
+public class LazyAsyncTask extends AsyncTask
+{
+    /** Flag indicating if the task has already been requested. */
+    private volatile boolean loaded = false;
+
+    public LazyAsyncTask(final AbiquoContext context, final RESTLink taskLink)
+    {
+        super(context, placeholder(taskLink));
+    }
+
+    /**
+     * Creates a lazy task for each task link of the given {@link AcceptedRequestDto}, without
+     * retrieving any of them.
+     * 
+     * @param context The rest context.
+     * @param acceptedRequest The accepted request dto.
+     * @return The lazy task array.
+     */
+    public static LazyAsyncTask[] of(final AbiquoContext context,
+        final AcceptedRequestDto<String> acceptedRequest)
+    {
+        List<RESTLink> links = acceptedRequest.getLinks();
+        LazyAsyncTask[] tasks = new LazyAsyncTask[links.size()];
+        for (int i = 0; i < tasks.length; i++)
+        {
+            tasks[i] = new LazyAsyncTask(context, links.get(i));
+        }
+        return tasks;
+    }
+
+    private static TaskDto placeholder(final RESTLink taskLink)
+    {
+        TaskDto task = new TaskDto();
+        task.addLink(new RESTLink("self", checkNotNull(taskLink, "taskLink").getHref()));
+        return task;
+    }
+
+    /**
+     * Checks if the task has already been retrieved.
+     */
+    public boolean isLoaded()
+    {
+        // The task may also have been refreshed in a batch with other tasks
+        return loaded || target.getTaskId() != null;
+    }
+
+    private void load()
+    {
+        if (!isLoaded())
+        {
+            synchronized (this)
+            {
+                if (!isLoaded())
+                {
+                    // This will return null on untrackable tasks
+                    TaskDto task = context.getApi().getTaskClient().getTask(
+                        target.searchLink("self"));
+                    if (task != null)
+                    {
+                        target = task;
+                    }
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public TaskDto unwrap()
+    {
+        load();
+        return super.unwrap();
+    }
+
+    @Override
+    public void refresh()
+    {
+        super.refresh();
+        loaded = true;
+    }
+
+    @Override
+    public List<AsyncJob> getJobs()
+    {
+        load();
+        return super.getJobs();
+    }
+
+    @Override
+    public String getOwnerId()
+    {
+        load();
+        return super.getOwnerId();
+    }
+
+    @Override
+    public TaskState getState()
+    {
+        load();
+        return super.getState();
+    }
+
+    @Override
+    public String getTaskId()
+    {
+        load();
+        return super.getTaskId();
+    }
+
+    @Override
+    public long getTimestamp()
+    {
+        load();
+        return super.getTimestamp();
+    }
+
+    @Override
+    public TaskType getType()
+    {
+        load();
+        return super.getType();
+    }
+
+    @Override
+    public String getUserId()
+    {
+        load();
+        return super.getUserId();
+    }
+}
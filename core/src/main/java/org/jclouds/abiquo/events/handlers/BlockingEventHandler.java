@@ -22,6 +22,8 @@ package org.jclouds.abiquo.events.handlers;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
@@ -30,7 +32,9 @@ import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
 import com.google.common.eventbus.Subscribe;
 
 /**
@@ -40,24 +44,41 @@ import com.google.common.eventbus.Subscribe;
  * Due to <a href="http://code.google.com/p/guava-libraries/issues/detail?id=783">Guava Issue
  * 786</a> {@link #handle(MonitorEvent)} is marked <code>final</code>to avoid having duplicate
  * events.
+ * <p>
+ * The handler is a {@link TargetedEventHandler}, so when registered through the monitoring service
+ * it only receives the events of the locked objects.
  * 
  * @author Ignasi Barrera
  * @param <T> The monitored object.
  */
-public class BlockingEventHandler<T> extends AbstractEventHandler<T>
+public class BlockingEventHandler<T> extends AbstractEventHandler<T> implements
+    TargetedEventHandler<T>
 {
-    /** The signal used to lock the thread. */
+    /**
+     * The signal used to lock the thread.
+     * <p>
+     * It is created when the handler is built, so events dispatched before acquiring the lock are
+     * not lost.
+     */
     @VisibleForTesting
-    CountDownLatch completeSignal;
+    final CountDownLatch completeSignal;
 
     /**
      * The objects being locked.
      * <p>
-     * This class handles events in a thread safe way. Otherwise this collections should be
-     * synchronised.
+     * Objects are removed from this list once they are released. The events are matched against
+     * a private multiset of the pending objects, so changes to this list do not affect them.
      */
     protected List<T> lockedObjects;
 
+    /**
+     * The objects that have not been released yet.
+     * <p>
+     * A concurrent hash based multiset is used to have constant time lookups when dispatching
+     * events, and to support locking the same object more than once.
+     */
+    private final Multiset<T> pendingObjects;
+
     public BlockingEventHandler(final T... lockedObjects)
     {
         this(Logger.NULL, lockedObjects);
@@ -69,16 +90,24 @@ public class BlockingEventHandler<T> extends AbstractEventHandler<T>
         checkArgument(checkNotNull(lockedObjects, "lockedObjects").length > 0,
             "must provide at least one object");
         this.logger = checkNotNull(logger, "logger");
-        this.lockedObjects = Lists.newArrayList(lockedObjects);
+        this.lockedObjects = Collections.synchronizedList(Lists.newArrayList(lockedObjects));
+        this.pendingObjects = ConcurrentHashMultiset.create(Arrays.asList(lockedObjects));
+        this.completeSignal = new CountDownLatch(lockedObjects.length);
         this.logger.debug("created BlockingEventHandler locking %s objects", lockedObjects.length);
     }
 
+    @Override
+    public Iterable<T> getTargets()
+    {
+        return pendingObjects.elementSet();
+    }
+
     @Override
     protected boolean handles(final MonitorEvent<T> event)
     {
         logger.debug("checking if %s event on %s must be handled by %s", event.getType(),
             event.getTarget(), this);
-        boolean handles = lockedObjects.contains(event.getTarget());
+        boolean handles = pendingObjects.contains(event.getTarget());
         logger.debug("%s event on %s must %sbe handled", event.getType(), event.getTarget(),
             handles ? "" : "not ");
         return handles;
@@ -93,6 +122,7 @@ public class BlockingEventHandler<T> extends AbstractEventHandler<T>
      * 
      * @see {@link #doBeforeRelease(MonitorEvent)}
      */
+    @Override
     @Subscribe
     public final void handle(final MonitorEvent<T> event)
     {
@@ -124,8 +154,7 @@ public class BlockingEventHandler<T> extends AbstractEventHandler<T>
         {
             try
             {
-                completeSignal = new CountDownLatch(lockedObjects.size());
-                logger.debug("creating lock for %s object(s)", lockedObjects.size());
+                logger.debug("waiting lock for %s object(s)", completeSignal.getCount());
                 completeSignal.await();
             }
             catch (InterruptedException ex)
@@ -145,12 +174,12 @@ public class BlockingEventHandler<T> extends AbstractEventHandler<T>
     protected void release(final T target)
     {
         logger.debug("releasing %s", target);
-        lockedObjects.remove(target);
 
-        // The completeSignal might be null if the events have been consumed
-        // before acquiring the lock
-        if (completeSignal != null)
+        // Only count down if the object was actually locked, to avoid releasing the lock
+        // with events for objects that are not being watched by this handler
+        if (pendingObjects.remove(target, 1) > 0)
         {
+            lockedObjects.remove(target);
             completeSignal.countDown();
             logger.debug("releasing lock for %s. %s remaining objects", target,
                 completeSignal.getCount());
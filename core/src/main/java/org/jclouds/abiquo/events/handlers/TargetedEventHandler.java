@@ -0,0 +1,52 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jclouds.abiquo.events.handlers;
+
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEventRouter;
+
+/**
+ * An event handler that is only interested in the events of a known set of objects.
+ * <p>
+ * Events for these objects are delivered directly by the {@link MonitorEventRouter}, without
+ * being broadcast to every registered handler.
+ * <p>
+ * Events may be delivered concurrently from different monitoring threads, so implementations must
+ * be thread safe.
+ * 
+ * @author Ignasi Barrera
+ * @param <T> The monitored object.
+ */
+public interface TargetedEventHandler<T>
+{
+    /**
+     * Returns the objects this handler is interested in.
+     * <p>
+     * Objects are matched against the target of the events using their <code>equals</code> and
+     * <code>hashCode</code> methods.
+     */
+    public Iterable<T> getTargets();
+
+    /**
+     * Handles an event on one of the target objects.
+     * 
+     * @param event The event being dispatched.
+     */
+    public void handle(MonitorEvent<T> event);
+}
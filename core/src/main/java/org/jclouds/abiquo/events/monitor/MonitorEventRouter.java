@@ -0,0 +1,196 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jclouds.abiquo.events.monitor;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.events.handlers.TargetedEventHandler;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.eventbus.EventBus;
+
+/**
+ * Routes {@link MonitorEvent}s to the handlers interested in the monitored object.
+ * <p>
+ * {@link TargetedEventHandler}s are indexed by the objects they are interested in, so each event
+ * is delivered only to its subscribers, in constant time regardless of the number of registered
+ * handlers. The rest of handlers are registered in the {@link EventBus} and receive all events.
+ * <p>
+ * Events that have already been delivered to a targeted handler are only posted to the event bus
+ * if there are global handlers registered through this router, to avoid reporting them as dead
+ * events.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class MonitorEventRouter
+{
+    @Resource
+    private Logger logger = Logger.NULL;
+
+    /** The event bus used to dispatch events to the global handlers. */
+    private final EventBus eventBus;
+
+    /** The targeted handlers indexed by the objects they are interested in. */
+    @VisibleForTesting
+    final ConcurrentMap<Object, Set<TargetedEventHandler< ? >>> handlers =
+        new ConcurrentHashMap<Object, Set<TargetedEventHandler< ? >>>();
+
+    /**
+     * The targets of each registered handler, as they were when the handler was registered.
+     * <p>
+     * Targets may change once events are handled, so they are kept to be able to unregister the
+     * handler.
+     */
+    private final Map<TargetedEventHandler< ? >, Set<Object>> registrations = Maps.newHashMap();
+
+    /** The number of global handlers registered in the event bus. */
+    @VisibleForTesting
+    final AtomicInteger globalHandlers = new AtomicInteger(0);
+
+    @Inject
+    public MonitorEventRouter(final EventBus eventBus)
+    {
+        super();
+        this.eventBus = checkNotNull(eventBus, "eventBus");
+    }
+
+    /**
+     * Registers the given handler.
+     * <p>
+     * {@link TargetedEventHandler}s are indexed by their targets. The rest of handlers are
+     * registered in the event bus.
+     * 
+     * @param handler The handler to register.
+     */
+    public synchronized void register(final Object handler)
+    {
+        checkNotNull(handler, "handler");
+
+        if (handler instanceof TargetedEventHandler)
+        {
+            TargetedEventHandler< ? > targeted = (TargetedEventHandler< ? >) handler;
+            Set<Object> targets = ImmutableSet.<Object> copyOf(targeted.getTargets());
+            registrations.put(targeted, targets);
+
+            for (Object target : targets)
+            {
+                Set<TargetedEventHandler< ? >> subscribers = handlers.get(target);
+                if (subscribers == null)
+                {
+                    subscribers = new CopyOnWriteArraySet<TargetedEventHandler< ? >>();
+                    handlers.put(target, subscribers);
+                }
+                subscribers.add(targeted);
+            }
+        }
+        else
+        {
+            eventBus.register(handler);
+            globalHandlers.incrementAndGet();
+        }
+    }
+
+    /**
+     * Unregisters the given handler.
+     * 
+     * @param handler The handler to unregister.
+     */
+    public synchronized void unregister(final Object handler)
+    {
+        checkNotNull(handler, "handler");
+
+        if (handler instanceof TargetedEventHandler)
+        {
+            Set<Object> targets = registrations.remove(handler);
+            if (targets == null)
+            {
+                return;
+            }
+
+            for (Object target : targets)
+            {
+                Set<TargetedEventHandler< ? >> subscribers = handlers.get(target);
+                if (subscribers != null)
+                {
+                    subscribers.remove(handler);
+                    if (subscribers.isEmpty())
+                    {
+                        handlers.remove(target);
+                    }
+                }
+            }
+        }
+        else
+        {
+            eventBus.unregister(handler);
+            globalHandlers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Delivers the event to the handlers interested in its target, and to the global handlers.
+     * 
+     * @param event The event to dispatch.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void post(final MonitorEvent< ? > event)
+    {
+        boolean delivered = false;
+        Set<TargetedEventHandler< ? >> subscribers = handlers.get(event.getTarget());
+
+        if (subscribers != null)
+        {
+            for (TargetedEventHandler handler : subscribers)
+            {
+                logger.debug("routing %s to %s", event, handler);
+                delivered = true;
+
+                try
+                {
+                    handler.handle(event);
+                }
+                catch (RuntimeException ex)
+                {
+                    // Behave as the event bus: do not let a failing handler affect the rest
+                    logger.error(ex, "could not dispatch %s to %s", event, handler);
+                }
+            }
+        }
+
+        if (!delivered || globalHandlers.get() > 0)
+        {
+            eventBus.post(event);
+        }
+    }
+}
@@ -84,6 +84,14 @@ public interface AdministrationService
      */
     public Iterable<Machine> listMachines(Predicate<Machine> filter);
 
+    /**
+     * Get all the machines in the infrastructure, streaming them as soon as they are retrieved.
+     * <p>
+     * Unlike {@link #listMachines()}, this method does not wait for all the racks to be
+     * retrieved, and does not hold all the machines in memory.
+     */
+    public Iterable<Machine> streamMachines();
+
     /**
      * Get the first machine in the infrastructure that matches the given filter.
      */
@@ -25,9 +25,11 @@ import org.jclouds.abiquo.domain.cloud.VirtualAppliance;
 import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
+import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.internal.BaseCloudService;
 
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
 
 /**
@@ -104,8 +106,41 @@ public interface CloudService
      */
     Iterable<VirtualMachine> listVirtualMachines(Predicate<VirtualMachine> filter);
 
+    /**
+     * Get all the virtual machines, streaming them as soon as they are retrieved.
+     * <p>
+     * Unlike {@link #listVirtualMachines()}, this method does not wait for all the virtual
+     * appliances to be retrieved, and does not hold all the virtual machines in memory.
+     */
+    Iterable<VirtualMachine> streamVirtualMachines();
+
     /**
      * Get the first virtual machine that matches the given filter.
      */
     VirtualMachine findVirtualMachine(Predicate<VirtualMachine> filter);
+
+    /**
+     * Deploy the given virtual machines without waiting for each deploy to complete.
+     * <p>
+     * The returned tasks can be monitored with the
+     * {@link org.jclouds.abiquo.monitor.AsyncTaskMonitor}.
+     * 
+     * @param vms The virtual machines to deploy.
+     * @return The future deploy task of each virtual machine, in the same order than the given
+     *         virtual machines. Each future fails independently if its deploy fails.
+     */
+    List<ListenableFuture<AsyncTask>> deployVirtualMachines(Iterable<VirtualMachine> vms);
+
+    /**
+     * Deploy the given virtual machines without waiting for each deploy to complete.
+     * 
+     * @param vms The virtual machines to deploy.
+     * @param forceEnterpriseSoftLimits Flag indicating if the enterprise soft limits must be
+     *            enforced.
+     * @return The future deploy task of each virtual machine, in the same order than the given
+     *         virtual machines. Each future fails independently if its deploy fails.
+     * @see #deployVirtualMachines(Iterable)
+     */
+    List<ListenableFuture<AsyncTask>> deployVirtualMachines(Iterable<VirtualMachine> vms,
+        boolean forceEnterpriseSoftLimits);
 }
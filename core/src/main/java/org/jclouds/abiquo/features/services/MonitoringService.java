@@ -19,16 +19,19 @@
 
 package org.jclouds.abiquo.features.services;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.jclouds.abiquo.events.handlers.AbstractEventHandler;
 import org.jclouds.abiquo.internal.BaseMonitoringService;
 import org.jclouds.abiquo.monitor.AsyncTaskMonitor;
 import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.MonitoringStats;
 import org.jclouds.abiquo.monitor.VirtualApplianceMonitor;
 import org.jclouds.abiquo.monitor.VirtualMachineMonitor;
 
 import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
 
 /**
@@ -86,6 +89,38 @@ public interface MonitoringService
     public <T> void monitor(final Long maxWait, final TimeUnit timeUnit,
         final Function<T, MonitorStatus> completeCondition, final T... objects);
 
+    /*************** Non-blocking monitoring methods ***************/
+
+    /**
+     * Monitor the given objects using the given complete condition, without blocking the calling
+     * thread.
+     * 
+     * @param completeCondition The function that will be used to decide if the asynchronous
+     *            operations have finished.
+     * @param objects The objects to monitor.
+     * @return A future that will hold the final status of each monitored object, in the same order
+     *         than the given objects.
+     */
+    public <T> ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(
+        final Function<T, MonitorStatus> completeCondition, final T... objects);
+
+    /**
+     * Monitor the given objects using the given complete condition, without blocking the calling
+     * thread.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param completeCondition The function that will be used to decide if the asynchronous
+     *            operations have finished.
+     * @param objects The objects to monitor.
+     * @return A future that will hold the final status of each monitored object, in the same order
+     *         than the given objects. The future fails with a
+     *         {@link java.util.concurrent.TimeoutException} if any of the objects times out.
+     */
+    public <T> ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final Long maxWait,
+        final TimeUnit timeUnit, final Function<T, MonitorStatus> completeCondition,
+        final T... objects);
+
     /*************** Handler registration methods ***************/
 
     /**
@@ -126,4 +161,13 @@ public interface MonitoringService
      * @return The asynchronous task monitor service.
      */
     public AsyncTaskMonitor getAsyncTaskMonitor();
+
+    /*************** Metrics ***************/
+
+    /**
+     * Gets a snapshot of the activity of the monitoring services of the context.
+     * 
+     * @return The current metrics.
+     */
+    public MonitoringStats getStats();
 }
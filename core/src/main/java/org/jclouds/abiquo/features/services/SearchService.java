@@ -69,6 +69,16 @@ public interface SearchService
     Iterable<Enterprise> searchEnterprisesUsingDatacenter(final Datacenter datacenter,
         final EnterpriseOptions options);
 
+    /**
+     * Lazily iterates all the filtered enterprises, fetching them in pages of the given size.
+     * <p>
+     * The pagination parameters of the given options are ignored.
+     * 
+     * @param options The set of filtering options of the search.
+     * @param pageSize The number of enterprises to fetch in each request.
+     */
+    Iterable<Enterprise> iterateEnterprises(final EnterpriseOptions options, final int pageSize);
+
     /*********************** Volume ***********************/
 
     /**
@@ -80,6 +90,19 @@ public interface SearchService
     Iterable<Volume> searchVolumes(final VirtualDatacenter virtualDatacenter,
         final VolumeOptions options);
 
+    /**
+     * Lazily iterates all the filtered volumes of a virtual datacenter, fetching them in pages of
+     * the given size.
+     * <p>
+     * The pagination parameters of the given options are ignored.
+     * 
+     * @param virtualDatacenter The given virtual datacenter.
+     * @param options The set of filtering options of the search.
+     * @param pageSize The number of volumes to fetch in each request.
+     */
+    Iterable<Volume> iterateVolumes(final VirtualDatacenter virtualDatacenter,
+        final VolumeOptions options, final int pageSize);
+
     /*********************** Storage Pool ***********************/
 
     /**
@@ -101,6 +124,19 @@ public interface SearchService
      */
     Iterable<Ip> searchPrivateIps(final PrivateNetwork network, final IpOptions options);
 
+    /**
+     * Lazily iterates all the filtered ips of a private network, fetching them in pages of the
+     * given size.
+     * <p>
+     * The pagination parameters of the given options are ignored.
+     * 
+     * @param network The given private network.
+     * @param options The set of filtering options of the search.
+     * @param pageSize The number of ips to fetch in each request.
+     */
+    Iterable<Ip> iteratePrivateIps(final PrivateNetwork network, final IpOptions options,
+        final int pageSize);
+
     /*********************** Public IPs ***********************/
 
     /**
@@ -112,6 +148,19 @@ public interface SearchService
     Iterable<Ip> searchPublicIpsToPurchase(final VirtualDatacenter virtualDatacenter,
         final IpOptions options);
 
+    /**
+     * Lazily iterates all the filtered public ips to purchase by a virtual datacenter, fetching
+     * them in pages of the given size.
+     * <p>
+     * The pagination parameters of the given options are ignored.
+     * 
+     * @param virtualDatacenter The given virtual datacenter.
+     * @param options The set of filtering options of the search.
+     * @param pageSize The number of ips to fetch in each request.
+     */
+    Iterable<Ip> iteratePublicIpsToPurchase(final VirtualDatacenter virtualDatacenter,
+        final IpOptions options, final int pageSize);
+
     /**
      * Get the list of filtered purchased public ips by a virtual datacenter.
      * 
@@ -121,6 +170,19 @@ public interface SearchService
     Iterable<Ip> searchPurchasedPublicIps(final VirtualDatacenter virtualDatacenter,
         final IpOptions options);
 
+    /**
+     * Lazily iterates all the filtered purchased public ips by a virtual datacenter, fetching them
+     * in pages of the given size.
+     * <p>
+     * The pagination parameters of the given options are ignored.
+     * 
+     * @param virtualDatacenter The given virtual datacenter.
+     * @param options The set of filtering options of the search.
+     * @param pageSize The number of ips to fetch in each request.
+     */
+    Iterable<Ip> iteratePurchasedPublicIps(final VirtualDatacenter virtualDatacenter,
+        final IpOptions options, final int pageSize);
+
     /*********************** Logic Server ***********************/
 
     /**
@@ -0,0 +1,73 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.handlers;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jclouds.abiquo.http.filters.AbiquoAuthentication;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpRetryHandler;
+
+import com.google.common.io.Closeables;
+
+/**
+ * Retries the requests that failed because the session used to authenticate them expired.
+ * <p>
+ * Request filters are applied again before retrying, so the retried request is authenticated with
+ * a new session, or with the credentials while the new session is being opened.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class AbiquoClientErrorRetryHandler implements HttpRetryHandler
+{
+    /** The authentication filter that manages the session. */
+    private AbiquoAuthentication authentication;
+
+    @Inject
+    AbiquoClientErrorRetryHandler(final AbiquoAuthentication authentication)
+    {
+        super();
+        this.authentication = authentication;
+    }
+
+    @Override
+    public boolean shouldRetryRequest(final HttpCommand command, final HttpResponse response)
+    {
+        // Only retry requests authenticated with a session. Failed logins are not retried
+        if (response.getStatusCode() != 401 || !authentication.isSessionAuthentication()
+            || command.getFailureCount() > 0
+            || command.getCurrentRequest().getFirstHeaderOrNull(HttpHeaders.COOKIE) == null)
+        {
+            return false;
+        }
+
+        command.incrementFailureCount();
+        authentication.invalidateSession(command.getCurrentRequest());
+        if (response.getPayload() != null)
+        {
+            Closeables.closeQuietly(response.getPayload().getInput());
+        }
+        return true;
+    }
+}
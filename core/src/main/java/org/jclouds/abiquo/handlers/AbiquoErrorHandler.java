@@ -23,6 +23,7 @@ import static javax.ws.rs.core.Response.Status.fromStatusCode;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.ws.rs.core.Response.Status;
 
 import org.jclouds.abiquo.domain.exception.AbiquoException;
 import org.jclouds.abiquo.functions.ParseErrors;
@@ -57,6 +58,17 @@ public class AbiquoErrorHandler implements HttpErrorHandler
     @Override
     public void handleError(final HttpCommand command, final HttpResponse response)
     {
+        if (response.getStatusCode() == Status.NOT_MODIFIED.getStatusCode())
+        {
+            // Not an error. It is the response to a conditional request, and it is returned to
+            // the caller.
+            if (response.getPayload() != null)
+            {
+                Closeables.closeQuietly(response.getPayload().getInput());
+            }
+            return;
+        }
+
         Exception exception = null;
         String message = null;
 
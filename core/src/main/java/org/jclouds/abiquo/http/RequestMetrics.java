@@ -0,0 +1,261 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.http;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.domain.exception.AbiquoException;
+import org.jclouds.abiquo.monitor.MonitoringStats.Latency;
+import org.jclouds.abiquo.monitor.internal.LatencyHistogram;
+import org.jclouds.http.HttpMessage;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Records the activity of the requests sent to the Abiquo API.
+ * <p>
+ * Requests are grouped by the operation that generated them, identified by the name of the client
+ * interface and the method, such as <code>CloudAsyncClient.listVirtualMachines</code>. Requests
+ * that have not been generated by a client method are grouped by their HTTP method.
+ * <p>
+ * All the counters are updated without locking and without allocating memory, except the first
+ * time an operation or a status code is seen.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class RequestMetrics
+{
+    private final ConcurrentMap<String, OperationMetrics> operations = Maps.newConcurrentMap();
+
+    /**
+     * Records the response to a request.
+     * 
+     * @param request The request that has been sent.
+     * @param response The response received from the API.
+     * @param networkNanos The time elapsed since the request was submitted until the response was
+     *            received, including the retries.
+     */
+    public void recordResponse(final HttpRequest request, final HttpResponse response,
+        final long networkNanos)
+    {
+        OperationMetrics metrics = metrics(request);
+        metrics.record(request, networkNanos);
+        metrics.status(response.getStatusCode());
+        metrics.bytesReceived.addAndGet(contentLength(response));
+    }
+
+    /**
+     * Records a request that failed before a successful response could be parsed.
+     * <p>
+     * The status code is taken from the error, if it was caused by a response of the API.
+     * 
+     * @param request The request that has been sent.
+     * @param error The cause of the failure.
+     * @param networkNanos The time elapsed since the request was submitted until it failed.
+     */
+    public void recordFailure(final HttpRequest request, final Throwable error,
+        final long networkNanos)
+    {
+        OperationMetrics metrics = metrics(request);
+        metrics.record(request, networkNanos);
+        metrics.failures.incrementAndGet();
+
+        int statusCode = statusCode(error);
+        if (statusCode > 0)
+        {
+            metrics.status(statusCode);
+        }
+    }
+
+    /**
+     * Records the time spent transforming a response into the result of the operation.
+     * 
+     * @param request The request that has been sent.
+     * @param parseNanos The time elapsed parsing the response.
+     */
+    public void recordParse(final HttpRequest request, final long parseNanos)
+    {
+        metrics(request).parseTime.record(parseNanos);
+    }
+
+    /**
+     * Records a response that could not be transformed into the result of the operation.
+     * <p>
+     * The response itself must have already been recorded with
+     * {@link #recordResponse(HttpRequest, HttpResponse, long)}, so only the failure and the time
+     * spent parsing it are recorded.
+     * 
+     * @param request The request that has been sent.
+     * @param parseNanos The time elapsed parsing the response until it failed.
+     */
+    public void recordParseFailure(final HttpRequest request, final long parseNanos)
+    {
+        OperationMetrics metrics = metrics(request);
+        metrics.parseTime.record(parseNanos);
+        metrics.failures.incrementAndGet();
+    }
+
+    /**
+     * Gets a snapshot of the activity of each operation, sorted by operation name.
+     */
+    public SortedMap<String, RequestStats> getStats()
+    {
+        ImmutableSortedMap.Builder<String, RequestStats> stats =
+            ImmutableSortedMap.naturalOrder();
+        for (Map.Entry<String, OperationMetrics> entry : operations.entrySet())
+        {
+            stats.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return stats.build();
+    }
+
+    /**
+     * Discards all the recorded activity.
+     */
+    public void reset()
+    {
+        operations.clear();
+    }
+
+    @VisibleForTesting
+    static String operation(final HttpRequest request)
+    {
+        if (request instanceof GeneratedHttpRequest)
+        {
+            Method method = ((GeneratedHttpRequest< ? >) request).getJavaMethod();
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        return request.getMethod();
+    }
+
+    @VisibleForTesting
+    static int statusCode(final Throwable error)
+    {
+        for (Throwable cause = error; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof AbiquoException)
+            {
+                return ((AbiquoException) cause).getHttpStatusCode();
+            }
+            if (cause instanceof HttpResponseException
+                && ((HttpResponseException) cause).getResponse() != null)
+            {
+                return ((HttpResponseException) cause).getResponse().getStatusCode();
+            }
+        }
+        return -1;
+    }
+
+    private static long contentLength(final HttpMessage message)
+    {
+        if (message.getPayload() == null)
+        {
+            return 0L;
+        }
+        Long length = message.getPayload().getContentMetadata().getContentLength();
+        return length == null ? 0L : length;
+    }
+
+    private OperationMetrics metrics(final HttpRequest request)
+    {
+        String operation = operation(request);
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null)
+        {
+            OperationMetrics created = new OperationMetrics();
+            metrics = operations.putIfAbsent(operation, created);
+            if (metrics == null)
+            {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * The counters of a single operation.
+     * 
+     * @author Ignasi Barrera
+     */
+    private static class OperationMetrics
+    {
+        private final AtomicLong requests = new AtomicLong(0);
+
+        private final AtomicLong failures = new AtomicLong(0);
+
+        private final AtomicLong bytesSent = new AtomicLong(0);
+
+        private final AtomicLong bytesReceived = new AtomicLong(0);
+
+        private final ConcurrentMap<Integer, AtomicLong> statusCodes = Maps.newConcurrentMap();
+
+        private final LatencyHistogram networkTime = new LatencyHistogram();
+
+        private final LatencyHistogram parseTime = new LatencyHistogram();
+
+        public void record(final HttpRequest request, final long networkNanos)
+        {
+            requests.incrementAndGet();
+            bytesSent.addAndGet(contentLength(request));
+            networkTime.record(networkNanos);
+        }
+
+        public void status(final int statusCode)
+        {
+            AtomicLong count = statusCodes.get(statusCode);
+            if (count == null)
+            {
+                AtomicLong created = new AtomicLong(0);
+                count = statusCodes.putIfAbsent(statusCode, created);
+                if (count == null)
+                {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        public RequestStats snapshot()
+        {
+            ImmutableSortedMap.Builder<Integer, Long> statuses = ImmutableSortedMap.naturalOrder();
+            for (Map.Entry<Integer, AtomicLong> entry : statusCodes.entrySet())
+            {
+                statuses.put(entry.getKey(), entry.getValue().get());
+            }
+
+            return new RequestStats(requests.get(), failures.get(), statuses.build(),
+                bytesSent.get(), bytesReceived.get(), new Latency(networkTime), new Latency(
+                    parseTime));
+        }
+    }
+}
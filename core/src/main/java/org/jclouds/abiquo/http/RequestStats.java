@@ -0,0 +1,126 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.http;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.SortedMap;
+
+import org.jclouds.abiquo.monitor.MonitoringStats.Latency;
+
+/**
+ * A snapshot of the requests sent by a single operation of the Abiquo clients.
+ * 
+ * @author Ignasi Barrera
+ * @see RequestMetrics
+ */
+public class RequestStats
+{
+    private final long requests;
+
+    private final long failures;
+
+    private final SortedMap<Integer, Long> statusCodes;
+
+    private final long bytesSent;
+
+    private final long bytesReceived;
+
+    private final Latency networkTime;
+
+    private final Latency parseTime;
+
+    public RequestStats(final long requests, final long failures,
+        final SortedMap<Integer, Long> statusCodes, final long bytesSent,
+        final long bytesReceived, final Latency networkTime, final Latency parseTime)
+    {
+        this.requests = requests;
+        this.failures = failures;
+        this.statusCodes = checkNotNull(statusCodes, "statusCodes");
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.networkTime = checkNotNull(networkTime, "networkTime");
+        this.parseTime = checkNotNull(parseTime, "parseTime");
+    }
+
+    /**
+     * Gets the number of requests sent.
+     */
+    public long getRequests()
+    {
+        return requests;
+    }
+
+    /**
+     * Gets the number of requests that did not get a successful response.
+     */
+    public long getFailures()
+    {
+        return failures;
+    }
+
+    /**
+     * Gets the number of responses received with each status code.
+     */
+    public SortedMap<Integer, Long> getStatusCodes()
+    {
+        return statusCodes;
+    }
+
+    /**
+     * Gets the number of bytes sent in the request payloads.
+     */
+    public long getBytesSent()
+    {
+        return bytesSent;
+    }
+
+    /**
+     * Gets the number of bytes received in the successful response payloads.
+     */
+    public long getBytesReceived()
+    {
+        return bytesReceived;
+    }
+
+    /**
+     * Gets the time elapsed until the response was received, including the retries.
+     */
+    public Latency getNetworkTime()
+    {
+        return networkTime;
+    }
+
+    /**
+     * Gets the time spent parsing the successful responses.
+     */
+    public Latency getParseTime()
+    {
+        return parseTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RequestStats [requests=" + requests + ", failures=" + failures + ", statusCodes="
+            + statusCodes + ", bytesSent=" + bytesSent + ", bytesReceived=" + bytesReceived
+            + ", networkTime=" + networkTime + ", parseTime=" + parseTime + "]";
+    }
+}
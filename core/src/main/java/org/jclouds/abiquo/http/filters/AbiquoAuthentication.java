@@ -22,24 +22,46 @@ package org.jclouds.abiquo.http.filters;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.jclouds.Constants.PROPERTY_CREDENTIAL;
 import static org.jclouds.Constants.PROPERTY_IDENTITY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.SESSION_AUTHENTICATION;
 
 import java.io.UnsupportedEncodingException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.Resource;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.ws.rs.core.HttpHeaders;
 
+import org.jclouds.abiquo.rest.internal.AbiquoLoginAsyncClient;
 import org.jclouds.crypto.CryptoStreams;
 import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.utils.ModifyRequest;
+import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 
 /**
  * Authenticates using Basic Authentication or a generated token from previous API sessions.
+ * <p>
+ * When the {@link org.jclouds.abiquo.reference.AbiquoConstants#SESSION_AUTHENTICATION} property
+ * is enabled and the context has been created with a user and a password, the credentials are
+ * only sent to log in, and the rest of the requests are authenticated with the returned session
+ * token.
+ * <p>
+ * Filters run in the threads that send the requests, and the login request is sent through the
+ * same threads, so the filter never waits for the login. When there is no session, a single login
+ * is started in the background and the requests are authenticated with the credentials until the
+ * session token is received.
  * 
  * @author Ignasi Barrera
  */
@@ -58,16 +80,50 @@ public class AbiquoAuthentication implements HttpRequestFilter
     @Named(PROPERTY_CREDENTIAL)
     protected String credential;
 
+    @Inject(optional = true)
+    @Named(SESSION_AUTHENTICATION)
+    protected boolean sessionAuthentication = false;
+
+    /** Used to open a new session when session authentication is enabled. */
+    @Inject
+    protected Provider<AbiquoLoginAsyncClient> loginClient;
+
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    /** The header value, computed on first use since the credentials do not change. */
+    private volatile String header;
+
+    /** The token of the current session, if session authentication is enabled. */
+    private final AtomicReference<String> sessionToken = new AtomicReference<String>();
+
+    /** Whether there is a login request in progress. */
+    private final AtomicBoolean loggingIn = new AtomicBoolean(false);
+
     @Override
     public HttpRequest filter(final HttpRequest request) throws HttpException
     {
         try
         {
             boolean isBasicAuth = credential != null;
-            String header =
-                isBasicAuth ? basicAuth(identityOrToken, credential) : tokenAuth(identityOrToken);
+            if (isBasicAuth && sessionAuthentication)
+            {
+                // Retried requests may carry the header of the other authentication method
+                String token = sessionToken();
+                if (token != null)
+                {
+                    return ModifyRequest.replaceHeader(
+                        ModifyRequest.removeHeader(request, HttpHeaders.AUTHORIZATION),
+                        HttpHeaders.COOKIE, tokenAuth(token));
+                }
+
+                return ModifyRequest.replaceHeader(
+                    ModifyRequest.removeHeader(request, HttpHeaders.COOKIE),
+                    HttpHeaders.AUTHORIZATION, header());
+            }
+
             return ModifyRequest.replaceHeader(request, isBasicAuth ? HttpHeaders.AUTHORIZATION
-                : HttpHeaders.COOKIE, header);
+                : HttpHeaders.COOKIE, header());
         }
         catch (UnsupportedEncodingException ex)
         {
@@ -75,6 +131,132 @@ public class AbiquoAuthentication implements HttpRequestFilter
         }
     }
 
+    /**
+     * Discards the current session if it is the one used to authenticate the given request, so a
+     * new session is opened the next time a request is filtered.
+     * 
+     * @param request The request that failed to authenticate.
+     */
+    public void invalidateSession(final HttpRequest request)
+    {
+        String cookie = request.getFirstHeaderOrNull(HttpHeaders.COOKIE);
+        String token = sessionToken.get();
+        if (token != null && tokenAuth(token).equals(cookie))
+        {
+            // Do not discard a session opened after the given request was sent
+            sessionToken.compareAndSet(token, null);
+        }
+    }
+
+    public boolean isSessionAuthentication()
+    {
+        return sessionAuthentication && credential != null;
+    }
+
+    private String header() throws UnsupportedEncodingException
+    {
+        String value = header;
+        if (value == null)
+        {
+            value =
+                credential != null ? basicAuth(identityOrToken, credential)
+                    : tokenAuth(identityOrToken);
+            header = value;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the token of the current session, starting a login if there is no session.
+     * 
+     * @return The session token, or <code>null</code> if the session has not been opened yet.
+     */
+    private String sessionToken() throws UnsupportedEncodingException
+    {
+        String token = sessionToken.get();
+        if (token == null)
+        {
+            login();
+            // The login may have already completed
+            token = sessionToken.get();
+        }
+        return token;
+    }
+
+    private void login() throws UnsupportedEncodingException
+    {
+        if (!loggingIn.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        final ListenableFuture<HttpResponse> future;
+        try
+        {
+            future = loginClient.get().login(header());
+        }
+        catch (RuntimeException ex)
+        {
+            loggingIn.set(false);
+            throw ex;
+        }
+
+        future.addListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    HttpResponse response = future.get();
+                    try
+                    {
+                        sessionToken.set(parseSessionToken(response));
+                    }
+                    finally
+                    {
+                        if (response.getPayload() != null)
+                        {
+                            Closeables.closeQuietly(response.getPayload().getInput());
+                        }
+                    }
+                }
+                catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                catch (ExecutionException ex)
+                {
+                    logger.warn(ex.getCause(), "could not open a session");
+                }
+                catch (RuntimeException ex)
+                {
+                    logger.warn(ex, "could not open a session");
+                }
+                finally
+                {
+                    loggingIn.set(false);
+                }
+            }
+        }, MoreExecutors.sameThreadExecutor());
+    }
+
+    @VisibleForTesting
+    static String parseSessionToken(final HttpResponse response)
+    {
+        String prefix = AUTH_TOKEN_NAME + "=";
+        for (String cookie : response.getHeaders().get(HttpHeaders.SET_COOKIE))
+        {
+            if (cookie.startsWith(prefix))
+            {
+                int end = cookie.indexOf(';');
+                return cookie.substring(prefix.length(), end < 0 ? cookie.length() : end);
+            }
+        }
+        throw new HttpException("The login response did not contain the " + AUTH_TOKEN_NAME
+            + " cookie");
+    }
+
     @VisibleForTesting
     static String basicAuth(final String user, final String password)
         throws UnsupportedEncodingException
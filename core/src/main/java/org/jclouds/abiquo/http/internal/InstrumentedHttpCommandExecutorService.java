@@ -0,0 +1,125 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.http.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.http.RequestMetrics;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.TransformingHttpCommandExecutorService;
+import org.jclouds.http.TransformingHttpCommandExecutorServiceImpl;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Records the activity of each request in the {@link RequestMetrics}.
+ * <p>
+ * This is the only point where the request, the response and the function used to parse it are
+ * known, so the time spent waiting for the API is measured apart from the time spent parsing the
+ * response.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class InstrumentedHttpCommandExecutorService implements
+    TransformingHttpCommandExecutorService
+{
+    private final TransformingHttpCommandExecutorService delegate;
+
+    private final RequestMetrics metrics;
+
+    @Inject
+    public InstrumentedHttpCommandExecutorService(
+        final TransformingHttpCommandExecutorServiceImpl delegate, final RequestMetrics metrics)
+    {
+        this.delegate = checkNotNull(delegate, "delegate");
+        this.metrics = checkNotNull(metrics, "metrics");
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submit(final HttpCommand command,
+        final Function<HttpResponse, T> responseTransformer)
+    {
+        final long start = System.nanoTime();
+        final AtomicBoolean received = new AtomicBoolean(false);
+
+        ListenableFuture<T> future = delegate.submit(command, new Function<HttpResponse, T>()
+        {
+            @Override
+            public T apply(final HttpResponse response)
+            {
+                long receivedAt = System.nanoTime();
+                received.set(true);
+                metrics.recordResponse(command.getCurrentRequest(), response, receivedAt - start);
+
+                boolean parsed = false;
+                try
+                {
+                    T result = responseTransformer.apply(response);
+                    parsed = true;
+                    return result;
+                }
+                finally
+                {
+                    long parseNanos = System.nanoTime() - receivedAt;
+                    if (parsed)
+                    {
+                        metrics.recordParse(command.getCurrentRequest(), parseNanos);
+                    }
+                    else
+                    {
+                        metrics.recordParseFailure(command.getCurrentRequest(), parseNanos);
+                    }
+                }
+            }
+        });
+
+        Futures.addCallback(future, new FutureCallback<T>()
+        {
+            @Override
+            public void onSuccess(final T result)
+            {
+                // Already recorded when the response was parsed
+            }
+
+            @Override
+            public void onFailure(final Throwable error)
+            {
+                // Parse errors have already been recorded when the response was parsed
+                if (!received.get())
+                {
+                    metrics.recordFailure(command.getCurrentRequest(), error, System.nanoTime()
+                        - start);
+                }
+            }
+        });
+
+        return future;
+    }
+}
@@ -32,6 +32,8 @@ import org.jclouds.abiquo.features.services.AdministrationService;
 import org.jclouds.abiquo.features.services.CloudService;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.features.services.SearchService;
+import org.jclouds.abiquo.http.RequestMetrics;
+import org.jclouds.abiquo.rest.internal.CachingClientDecorator;
 import org.jclouds.domain.Credentials;
 import org.jclouds.lifecycle.Closer;
 import org.jclouds.location.Provider;
@@ -61,6 +63,11 @@ public class AbiquoContextImpl extends RestContextImpl<AbiquoClient, AbiquoAsync
 
     private final MonitoringService monitoringService;
 
+    private final RequestMetrics requestMetrics;
+
+    /** The synchronous api, decorated with the response cache if it is enabled. */
+    private final AbiquoClient api;
+
     @Inject
     protected AbiquoContextImpl(final Closer closer,
         final Map<String, Credentials> credentialStore, final Utils utils, final Injector injector,
@@ -69,7 +76,8 @@ public class AbiquoContextImpl extends RestContextImpl<AbiquoClient, AbiquoAsync
         @Identity final String identity, @ApiVersion final String apiVersion,
         @BuildVersion final String buildVersion, final AdministrationService administrationService,
         final CloudService cloudService, final SearchService searchService,
-        final MonitoringService monitoringService)
+        final MonitoringService monitoringService, final RequestMetrics requestMetrics,
+        final CachingClientDecorator cachingDecorator)
     {
         super(closer, credentialStore, utils, injector, syncApi, asyncApi, endpoint, provider,
             identity, apiVersion, buildVersion, null);
@@ -77,6 +85,14 @@ public class AbiquoContextImpl extends RestContextImpl<AbiquoClient, AbiquoAsync
         this.cloudService = cloudService;
         this.searchService = searchService;
         this.monitoringService = monitoringService;
+        this.requestMetrics = requestMetrics;
+        this.api = cachingDecorator.decorate(super.getApi());
+    }
+
+    @Override
+    public AbiquoClient getApi()
+    {
+        return api;
     }
 
     @Override
@@ -103,4 +119,10 @@ public class AbiquoContextImpl extends RestContextImpl<AbiquoClient, AbiquoAsync
         return monitoringService;
     }
 
+    @Override
+    public RequestMetrics getRequestMetrics()
+    {
+        return requestMetrics;
+    }
+
 }
@@ -28,6 +28,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.PagedIterable;
+import org.jclouds.abiquo.domain.PagedIterable.PageFetcher;
 import org.jclouds.abiquo.domain.config.Category;
 import org.jclouds.abiquo.domain.config.License;
 import org.jclouds.abiquo.domain.config.Privilege;
@@ -38,6 +40,7 @@ import org.jclouds.abiquo.domain.enterprise.Enterprise;
 import org.jclouds.abiquo.domain.enterprise.EnterpriseProperties;
 import org.jclouds.abiquo.domain.enterprise.Role;
 import org.jclouds.abiquo.domain.enterprise.User;
+import org.jclouds.abiquo.domain.enterprise.options.EnterpriseOptions;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
 import org.jclouds.abiquo.domain.infrastructure.Machine;
 import org.jclouds.abiquo.features.services.AdministrationService;
@@ -53,6 +56,7 @@ import org.jclouds.abiquo.strategy.infrastructure.ListMachines;
 
 import com.abiquo.server.core.enterprise.EnterpriseDto;
 import com.abiquo.server.core.enterprise.EnterprisePropertiesDto;
+import com.abiquo.server.core.enterprise.EnterprisesDto;
 import com.abiquo.server.core.enterprise.RoleDto;
 import com.abiquo.server.core.enterprise.UserDto;
 import com.abiquo.server.core.infrastructure.DatacenterDto;
@@ -162,10 +166,17 @@ public class BaseAdministrationService implements AdministrationService
         return listMachines.execute(filter);
     }
 
+    @Override
+    public Iterable<Machine> streamMachines()
+    {
+        return listMachines.executePipelined();
+    }
+
     @Override
     public Machine findMachine(final Predicate<Machine> filter)
     {
-        return Iterables.getFirst(listMachines(filter), null);
+        // Stop sending requests as soon as the first match is found
+        return Iterables.getFirst(Iterables.filter(streamMachines(), filter), null);
     }
 
     /*********************** Enterprise ***********************/
@@ -185,7 +196,23 @@ public class BaseAdministrationService implements AdministrationService
     @Override
     public Enterprise findEnterprise(final Predicate<Enterprise> filter)
     {
-        return Iterables.getFirst(listEnterprises(filter), null);
+        // Fetch the pages one at a time and stop as soon as a match is found
+        final EnterpriseOptions options = EnterpriseOptions.builder().build().filterBy(filter);
+        PageFetcher<Enterprise> fetcher = new PageFetcher<Enterprise>()
+        {
+            @Override
+            public List<Enterprise> fetchPage(final int startWith, final int limit)
+            {
+                EnterpriseOptions page = options.page(startWith, limit);
+                EnterprisesDto result =
+                    context.getApi().getEnterpriseClient().listEnterprises(page);
+                return wrap(context, Enterprise.class, result.getCollection());
+            }
+        };
+
+        Iterable<Enterprise> enterprises =
+            new PagedIterable<Enterprise>(fetcher, PagedIterable.DEFAULT_PAGE_SIZE);
+        return Iterables.getFirst(Iterables.filter(enterprises, filter), null);
     }
 
     @Override
@@ -33,8 +33,10 @@ import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
 import org.jclouds.abiquo.domain.cloud.options.VirtualDatacenterOptions;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
+import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.features.services.CloudService;
 import org.jclouds.abiquo.reference.ValidationErrors;
+import org.jclouds.abiquo.strategy.cloud.DeployVirtualMachines;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualAppliances;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualDatacenters;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualMachines;
@@ -43,6 +45,7 @@ import com.abiquo.server.core.cloud.VirtualDatacenterDto;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Provides high level Abiquo cloud operations.
@@ -65,17 +68,22 @@ public class BaseCloudService implements CloudService
     @VisibleForTesting
     protected ListVirtualMachines listVirtualMachines;
 
+    @VisibleForTesting
+    protected DeployVirtualMachines deployVirtualMachines;
+
     @Inject
     protected BaseCloudService(final AbiquoContext context,
         final ListVirtualDatacenters listVirtualDatacenters,
         final ListVirtualAppliances listVirtualAppliances,
-        final ListVirtualMachines listVirtualMachines)
+        final ListVirtualMachines listVirtualMachines,
+        final DeployVirtualMachines deployVirtualMachines)
     {
         this.context = checkNotNull(context, "context");
         this.listVirtualDatacenters =
             checkNotNull(listVirtualDatacenters, "listVirtualDatacenters");
         this.listVirtualAppliances = checkNotNull(listVirtualAppliances, "listVirtualAppliances");
         this.listVirtualMachines = checkNotNull(listVirtualMachines, "listVirtualMachines");
+        this.deployVirtualMachines = checkNotNull(deployVirtualMachines, "deployVirtualMachines");
     }
 
     /*********************** Virtual Datacenter ********************** */
@@ -161,9 +169,30 @@ public class BaseCloudService implements CloudService
         return listVirtualMachines.execute(filter);
     }
 
+    @Override
+    public Iterable<VirtualMachine> streamVirtualMachines()
+    {
+        return listVirtualMachines.executePipelined();
+    }
+
     @Override
     public VirtualMachine findVirtualMachine(final Predicate<VirtualMachine> filter)
     {
-        return Iterables.getFirst(listVirtualMachines(filter), null);
+        // Stop sending requests as soon as the first match is found
+        return Iterables.getFirst(Iterables.filter(streamVirtualMachines(), filter), null);
+    }
+
+    @Override
+    public List<ListenableFuture<AsyncTask>> deployVirtualMachines(
+        final Iterable<VirtualMachine> vms)
+    {
+        return deployVirtualMachines(vms, false);
+    }
+
+    @Override
+    public List<ListenableFuture<AsyncTask>> deployVirtualMachines(
+        final Iterable<VirtualMachine> vms, final boolean forceEnterpriseSoftLimits)
+    {
+        return deployVirtualMachines.execute(vms, forceEnterpriseSoftLimits);
     }
 }
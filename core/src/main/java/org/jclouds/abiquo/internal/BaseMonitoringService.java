@@ -20,11 +20,22 @@
 package org.jclouds.abiquo.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_COALESCE;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
-
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_RECONCILE_DELAY;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -35,17 +46,38 @@ import org.jclouds.abiquo.events.handlers.AbstractEventHandler;
 import org.jclouds.abiquo.events.handlers.BlockingEventHandler;
 import org.jclouds.abiquo.events.monitor.CompletedEvent;
 import org.jclouds.abiquo.events.monitor.FailedEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.events.monitor.MonitorEventRouter;
 import org.jclouds.abiquo.events.monitor.TimeoutEvent;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.monitor.AsyncTaskMonitor;
+import org.jclouds.abiquo.monitor.BatchMonitor;
+import org.jclouds.abiquo.monitor.MonitorEventSource;
 import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.MonitoringStats;
+import org.jclouds.abiquo.monitor.PollingStrategy;
 import org.jclouds.abiquo.monitor.VirtualApplianceMonitor;
 import org.jclouds.abiquo.monitor.VirtualMachineMonitor;
+import org.jclouds.abiquo.monitor.internal.FixedPollingStrategy;
+import org.jclouds.abiquo.monitor.internal.MonitorTimeoutWheel;
+import org.jclouds.abiquo.monitor.internal.MonitoringMetrics;
+import org.jclouds.abiquo.monitor.internal.NullMonitorEventSource;
 import org.jclouds.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -77,6 +109,79 @@ public class BaseMonitoringService implements MonitoringService
     @VisibleForTesting
     protected EventBus eventBus;
 
+    /**
+     * The router used to deliver monitoring events directly to the handlers interested in each
+     * monitored object.
+     * <p>
+     * Handlers that are not targeted to a known set of objects are registered in the
+     * {@link #eventBus}.
+     * 
+     * @see #setEventRouter(MonitorEventRouter)
+     */
+    @VisibleForTesting
+    protected MonitorEventRouter eventRouter;
+
+    /**
+     * Flag indicating if all monitored objects must be polled by a single job.
+     * 
+     * @see #setCoalescePolling(boolean)
+     */
+    @VisibleForTesting
+    protected boolean coalescePolling = false;
+
+    /**
+     * The strategy used to compute the delay between polls.
+     * <p>
+     * The strategy is not used when polling is coalesced, since all objects are polled by the same
+     * job.
+     * 
+     * @see #setPollingStrategy(PollingStrategy)
+     */
+    @VisibleForTesting
+    protected PollingStrategy pollingStrategy;
+
+    /** The job that polls all monitored objects when coalesced polling is enabled. */
+    @VisibleForTesting
+    protected CoalescingPoller poller = new CoalescingPoller();
+
+    /**
+     * The source of the notifications about changes in the monitored objects.
+     * 
+     * @see #setEventSource(MonitorEventSource)
+     */
+    @VisibleForTesting
+    protected MonitorEventSource eventSource;
+
+    /**
+     * The delay between polls of the objects whose changes are notified by the
+     * {@link #eventSource}.
+     * 
+     * @see #setReconcileDelay(long)
+     */
+    @VisibleForTesting
+    protected long reconcileDelay = 60000L;
+
+    /**
+     * The timing wheel that fires the timeouts of the monitored objects.
+     * 
+     * @see #setTimeoutWheel(MonitorTimeoutWheel)
+     */
+    @VisibleForTesting
+    protected MonitorTimeoutWheel timeoutWheel;
+
+    /**
+     * The metrics of the monitoring services of the context.
+     * 
+     * @see #setMetrics(MonitoringMetrics)
+     */
+    @VisibleForTesting
+    protected MonitoringMetrics metrics;
+
+    /** The monitors of the objects whose changes are notified, by their event key. */
+    @VisibleForTesting
+    protected final SetMultimap<Object, AsyncMonitor< ? >> notifiedMonitors = Multimaps
+        .synchronizedSetMultimap(HashMultimap.<Object, AsyncMonitor< ? >> create());
+
     @Resource
     private Logger logger = Logger.NULL;
 
@@ -89,6 +194,104 @@ public class BaseMonitoringService implements MonitoringService
         this.scheduler = checkNotNull(scheduler, "scheduler");
         this.pollingDelay = checkNotNull(pollingDelay, "pollingDelay");
         this.eventBus = checkNotNull(eventBus, "eventBus");
+        this.pollingStrategy = new FixedPollingStrategy(pollingDelay);
+        this.eventRouter = new MonitorEventRouter(eventBus);
+        this.eventSource = new NullMonitorEventSource();
+        this.timeoutWheel = new MonitorTimeoutWheel();
+        this.metrics = new MonitoringMetrics(scheduler);
+    }
+
+    /**
+     * Sets the router used to dispatch monitoring events.
+     * 
+     * @param eventRouter The event router.
+     */
+    @Inject
+    public void setEventRouter(final MonitorEventRouter eventRouter)
+    {
+        this.eventRouter = checkNotNull(eventRouter, "eventRouter");
+    }
+
+    /**
+     * Sets the strategy used to compute the delay between polls.
+     * 
+     * @param pollingStrategy The polling strategy.
+     */
+    @Inject
+    public void setPollingStrategy(final PollingStrategy pollingStrategy)
+    {
+        this.pollingStrategy = checkNotNull(pollingStrategy, "pollingStrategy");
+    }
+
+    /**
+     * Sets the source of the notifications about changes in the monitored objects.
+     * <p>
+     * Objects supported by the source are evaluated when a change is notified, and are only
+     * polled every {@link #reconcileDelay} ms.
+     * 
+     * @param eventSource The event source.
+     */
+    @Inject
+    public void setEventSource(final MonitorEventSource eventSource)
+    {
+        this.eventSource = checkNotNull(eventSource, "eventSource");
+        eventSource.subscribe(new MonitorEventSource.Listener()
+        {
+            @Override
+            public void onChange(final Object eventKey)
+            {
+                notifyChange(eventKey);
+            }
+        });
+    }
+
+    /**
+     * Sets the timing wheel that fires the timeouts of the monitored objects.
+     * 
+     * @param timeoutWheel The timing wheel.
+     */
+    @Inject
+    public void setTimeoutWheel(final MonitorTimeoutWheel timeoutWheel)
+    {
+        this.timeoutWheel = checkNotNull(timeoutWheel, "timeoutWheel");
+    }
+
+    /**
+     * Sets the metrics where the activity of the service is recorded.
+     * 
+     * @param metrics The metrics.
+     */
+    @Inject
+    public void setMetrics(final MonitoringMetrics metrics)
+    {
+        this.metrics = checkNotNull(metrics, "metrics");
+    }
+
+    /**
+     * Sets the delay between polls of the objects whose changes are notified by the event source.
+     * 
+     * @param reconcileDelay The delay (in ms).
+     */
+    @Inject(optional = true)
+    public void setReconcileDelay(
+        @Named(ASYNC_TASK_MONITOR_RECONCILE_DELAY) final long reconcileDelay)
+    {
+        this.reconcileDelay = reconcileDelay;
+    }
+
+    /**
+     * Enables or disables the coalesced polling.
+     * <p>
+     * When enabled, a single job runs every polling interval for all monitored objects. Objects
+     * monitored by a {@link BatchMonitor} are grouped and each group is refreshed at once.
+     * 
+     * @param coalescePolling Boolean indicating if polling must be coalesced.
+     */
+    @Inject(optional = true)
+    public void setCoalescePolling(
+        @Named(ASYNC_TASK_MONITOR_COALESCE) final boolean coalescePolling)
+    {
+        this.coalescePolling = coalescePolling;
     }
 
     /*************** Generic monitoring methods ***************/
@@ -127,6 +330,41 @@ public class BaseMonitoringService implements MonitoringService
     @Override
     public <T> void monitor(final Long maxWait, final TimeUnit timeUnit,
         final Function<T, MonitorStatus> completeCondition, final T... objects)
+    {
+        startMonitors(maxWait, timeUnit, completeCondition, objects);
+    }
+
+    /*************** Non-blocking monitoring methods ***************/
+
+    @Override
+    public <T> ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(
+        final Function<T, MonitorStatus> completeCondition, final T... objects)
+    {
+        return awaitCompletionAsync(null, null, completeCondition, objects);
+    }
+
+    @Override
+    public <T> ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final Long maxWait,
+        final TimeUnit timeUnit, final Function<T, MonitorStatus> completeCondition,
+        final T... objects)
+    {
+        List<ListenableFuture<MonitorStatus>> results =
+            startMonitors(maxWait, timeUnit, completeCondition, objects);
+        if (results.isEmpty())
+        {
+            return Futures.immediateFuture(Collections.<MonitorStatus> emptyList());
+        }
+        return Futures.allAsList(results);
+    }
+
+    /**
+     * Starts a monitor for each one of the given objects.
+     * 
+     * @return The futures that will hold the final status of each monitored object.
+     */
+    private <T> List<ListenableFuture<MonitorStatus>> startMonitors(final Long maxWait,
+        final TimeUnit timeUnit, final Function<T, MonitorStatus> completeCondition,
+        final T... objects)
     {
         checkNotNull(completeCondition, "completeCondition");
         if (maxWait != null)
@@ -134,28 +372,88 @@ public class BaseMonitoringService implements MonitoringService
             checkNotNull(timeUnit, "timeUnit");
         }
 
-        if (objects != null && objects.length > 0)
+        if (objects == null || objects.length == 0)
         {
-            for (T object : objects)
-            {
-                AsyncMonitor<T> monitor = new AsyncMonitor<T>(object, completeCondition);
-                monitor.startMonitoring(maxWait);
-            }
+            return Collections.emptyList();
+        }
+
+        Long maxWaitInMillis = maxWait == null ? null : timeUnit.toMillis(maxWait);
+        List<ListenableFuture<MonitorStatus>> results =
+            Lists.newArrayListWithCapacity(objects.length);
+
+        for (T object : objects)
+        {
+            AsyncMonitor<T> monitor = new AsyncMonitor<T>(object, completeCondition);
+            results.add(monitor.getResult());
+            monitor.startMonitoring(maxWaitInMillis);
         }
+
+        return results;
     }
 
     @Override
     public <T extends AbstractEventHandler< ? >> void register(final T handler)
     {
         logger.debug("registering event handler %s", handler);
-        eventBus.register(handler);
+        eventRouter.register(handler);
     }
 
     @Override
     public <T extends AbstractEventHandler< ? >> void unregister(final T handler)
     {
         logger.debug("unregistering event handler %s", handler);
-        eventBus.unregister(handler);
+        eventRouter.unregister(handler);
+    }
+
+    /**
+     * Evaluates the objects with the given event key, out of the thread of the event source.
+     * 
+     * @param eventKey The key of the changed objects.
+     */
+    @VisibleForTesting
+    void notifyChange(final Object eventKey)
+    {
+        final List<AsyncMonitor< ? >> monitors;
+        synchronized (notifiedMonitors)
+        {
+            monitors = Lists.newArrayList(notifiedMonitors.get(eventKey));
+        }
+
+        logger.debug("received change of %s for %s monitors", eventKey, monitors.size());
+        for (final AsyncMonitor< ? > monitor : monitors)
+        {
+            scheduler.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        monitor.pollIfRunning();
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        logger.warn(ex, "failed to poll %s", monitor.getMonitoredObject());
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public MonitoringStats getStats()
+    {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Dispatches the given event to the handlers, recording the time spent.
+     */
+    private void post(final MonitorEvent< ? > event)
+    {
+        long start = System.nanoTime();
+        eventRouter.post(event);
+        metrics.eventDispatched(System.nanoTime() - start);
     }
 
     /*************** Delegating monitors ***************/
@@ -200,11 +498,32 @@ public class BaseMonitoringService implements MonitoringService
          * The future representing the monitoring job. Needed to be able to cancel it when monitor
          * finishes.
          */
-        private Future< ? > future;
+        private volatile Future< ? > future;
 
         /** The timeout for this monitor. */
         private Long timeout;
 
+        /** The time when the monitor was started. */
+        private long startTime;
+
+        /** The number of polls performed on the monitored object. */
+        private int polls = 0;
+
+        /** The pending timeout of the monitor, if any. */
+        private volatile MonitorTimeoutWheel.Timeout timeoutHandle;
+
+        /** The key used by the event source to notify changes, if supported. */
+        private Object eventKey;
+
+        /**
+         * Flag indicating that the monitor has been stopped and must not be rescheduled. It is not
+         * guarded by the monitor lock, so a timeout never waits for a poll in progress.
+         */
+        private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+        /** The final status of the monitored object. */
+        private final SettableFuture<MonitorStatus> result = SettableFuture.create();
+
         public AsyncMonitor(final T monitoredObject,
             final Function<T, MonitorStatus> completeCondition)
         {
@@ -220,9 +539,39 @@ public class BaseMonitoringService implements MonitoringService
          */
         public void startMonitoring(final Long maxWait)
         {
-            future =
-                scheduler.scheduleWithFixedDelay(this, 0L, pollingDelay, TimeUnit.MILLISECONDS);
-            timeout = maxWait == null ? null : System.currentTimeMillis() + maxWait;
+            startTime = System.currentTimeMillis();
+            timeout = maxWait == null ? null : startTime + maxWait;
+            eventKey = eventSource.getEventKey(monitoredObject);
+            metrics.monitorStarted(completeCondition.getClass());
+
+            if (maxWait != null)
+            {
+                // Fire the timeout on time, instead of waiting for the next poll
+                timeoutHandle = timeoutWheel.schedule(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        expire();
+                    }
+                }, maxWait);
+            }
+
+            if (eventKey != null)
+            {
+                // Notified objects are polled on their own, with the reconcile delay
+                notifiedMonitors.put(eventKey, this);
+                scheduleNextPoll();
+            }
+            else if (coalescePolling)
+            {
+                poller.add(this);
+            }
+            else
+            {
+                scheduleNextPoll();
+            }
+
             logger.debug("started monitor job for %s with %s timeout", monitoredObject,
                 timeout == null ? "no" : String.valueOf(timeout));
         }
@@ -232,7 +581,36 @@ public class BaseMonitoringService implements MonitoringService
          */
         public void stopMonitoring()
         {
+            stop();
+        }
+
+        /**
+         * Stops the monitoring job, if running.
+         * 
+         * @return True if this call stopped the monitor. Only one of the concurrent polls and
+         *         timeouts stops it, and that one publishes the final event.
+         */
+        private boolean stop()
+        {
+            if (!stopped.compareAndSet(false, true))
+            {
+                return false;
+            }
+
             logger.debug("stopping monitor job for %s", monitoredObject);
+            if (startTime > 0)
+            {
+                metrics.monitorStopped(completeCondition.getClass());
+            }
+            poller.remove(this);
+            if (eventKey != null)
+            {
+                notifiedMonitors.remove(eventKey, this);
+            }
+            if (timeoutHandle != null)
+            {
+                timeoutHandle.cancel();
+            }
 
             try
             {
@@ -247,6 +625,8 @@ public class BaseMonitoringService implements MonitoringService
             {
                 logger.warn(ex, "failed to stop monitor job for %s", monitoredObject);
             }
+
+            return true;
         }
 
         /**
@@ -267,38 +647,166 @@ public class BaseMonitoringService implements MonitoringService
                 // If the thread as already been interrupted, just stop monitoring the task and
                 // return
                 stopMonitoring();
+                result.cancel(false);
                 return;
             }
 
+            pollIfRunning();
+
+            // Reschedule the monitor with the delay computed by the polling strategy
+            if (!stopped.get())
+            {
+                scheduleNextPoll();
+            }
+        }
+
+        /**
+         * Polls the monitored object and publishes the appropriate event.
+         */
+        void poll()
+        {
+            long start = System.nanoTime();
             MonitorStatus status = completeCondition.apply(monitoredObject);
+            metrics.pollCall(System.nanoTime() - start);
+            process(status);
+        }
+
+        /**
+         * Polls the monitored object if the monitor has not been stopped yet.
+         * <p>
+         * Scheduled polls and polls triggered by notified changes are serialized, so events are
+         * published only once.
+         */
+        synchronized void pollIfRunning()
+        {
+            if (!stopped.get())
+            {
+                poll();
+            }
+        }
+
+        /**
+         * Schedules the next poll of the monitored object.
+         */
+        private void scheduleNextPoll()
+        {
+            long now = System.currentTimeMillis();
+            long delay =
+                eventKey != null && polls > 0 ? reconcileDelay(now) : pollingStrategy
+                    .getNextDelay(monitoredObject, completeCondition, polls, now - startTime);
+            logger.debug("scheduling poll %s for %s in %s ms", polls + 1, monitoredObject, delay);
+            future = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Gets the delay before the next poll of a notified object, without exceeding its timeout.
+         */
+        private long reconcileDelay(final long now)
+        {
+            return timeout == null ? reconcileDelay : Math.max(0L,
+                Math.min(reconcileDelay, timeout - now + 1));
+        }
+
+        /**
+         * Publishes the appropriate event given the current status of the monitored object.
+         * 
+         * @param status The current status of the monitored object.
+         */
+        synchronized void process(final MonitorStatus status)
+        {
+            if (stopped.get())
+            {
+                // The timeout may have fired while the object was being polled
+                return;
+            }
+
+            polls++;
+            metrics.polled();
             logger.debug("monitored object %s status %s", monitoredObject, status.name());
 
+            if (status == MonitorStatus.DONE || status == MonitorStatus.FAILED)
+            {
+                pollingStrategy.onCompletion(monitoredObject, completeCondition, status,
+                    System.currentTimeMillis() - startTime);
+            }
+
             switch (status)
             {
                 case DONE:
-                    stopMonitoring();
-                    logger.debug("publishing COMPLETED event");
-                    eventBus.post(new CompletedEvent<T>(monitoredObject));
+                    if (stop())
+                    {
+                        finished(MonitorEvent.Type.COMPLETED);
+                        logger.debug("publishing COMPLETED event");
+                        post(new CompletedEvent<T>(monitoredObject));
+                        result.set(status);
+                    }
                     break;
                 case FAILED:
-                    stopMonitoring();
-                    logger.debug("publishing FAILED event");
-                    eventBus.post(new FailedEvent<T>(monitoredObject));
+                    if (stop())
+                    {
+                        finished(MonitorEvent.Type.FAILED);
+                        logger.debug("publishing FAILED event");
+                        post(new FailedEvent<T>(monitoredObject));
+                        result.set(status);
+                    }
                     break;
                 case CONTINUE:
                 default:
-                    if (isTimeout())
+                    // The timing wheel may not have fired yet if the tick is late
+                    if (isTimeout() && stop())
                     {
-                        logger.warn("monitor for object %s timed out. Shutting down monitor.",
-                            monitoredObject);
-                        stopMonitoring();
-                        logger.debug("publishing TIMEOUT event");
-                        eventBus.post(new TimeoutEvent<T>(monitoredObject));
+                        publishTimeout();
                     }
                     break;
             }
         }
 
+        /**
+         * Stops the monitor and publishes the timeout event, if it has not finished yet.
+         * <p>
+         * This method is called from the timing wheel thread, so it does not take the monitor lock
+         * and never waits for a poll in progress. The event is published in the scheduler, so a
+         * slow event handler does not delay the rest of the timeouts.
+         */
+        void expire()
+        {
+            if (stop())
+            {
+                try
+                {
+                    scheduler.execute(new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            publishTimeout();
+                        }
+                    });
+                }
+                catch (RejectedExecutionException ex)
+                {
+                    // The scheduler has been shut down, but the result must still be set
+                    publishTimeout();
+                }
+            }
+        }
+
+        private void publishTimeout()
+        {
+            logger.warn("monitor for object %s timed out. Shutting down monitor.", monitoredObject);
+            finished(MonitorEvent.Type.TIMEOUT);
+            logger.debug("publishing TIMEOUT event");
+            post(new TimeoutEvent<T>(monitoredObject));
+            result.setException(new TimeoutException("monitor for object " + monitoredObject
+                + " timed out"));
+        }
+
+        private void finished(final MonitorEvent.Type outcome)
+        {
+            metrics.monitorFinished(completeCondition.getClass(), outcome,
+                TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - startTime));
+        }
+
         public T getMonitoredObject()
         {
             return monitoredObject;
@@ -318,6 +826,160 @@ public class BaseMonitoringService implements MonitoringService
         {
             return timeout;
         }
+
+        public Object getEventKey()
+        {
+            return eventKey;
+        }
+
+        public int getPolls()
+        {
+            return polls;
+        }
+
+        public ListenableFuture<MonitorStatus> getResult()
+        {
+            return result;
+        }
+    }
+
+    /**
+     * Polls all the monitored objects in a single job.
+     * <p>
+     * Objects monitored by a {@link BatchMonitor} are grouped by their group key and each group is
+     * refreshed at once. The rest of objects are polled individually.
+     * 
+     * @author Ignasi Barrera
+     */
+    @VisibleForTesting
+    class CoalescingPoller implements Runnable
+    {
+        /** The monitors being polled. */
+        private final Set<AsyncMonitor< ? >> monitors = Sets.newSetFromMap(
+            new ConcurrentHashMap<AsyncMonitor< ? >, Boolean>());
+
+        /** The future representing the polling job, if running. */
+        private volatile Future< ? > future;
+
+        /**
+         * Adds the given monitor to the polling job, and starts the job if it is not running.
+         */
+        public synchronized void add(final AsyncMonitor< ? > monitor)
+        {
+            monitors.add(monitor);
+            if (future == null)
+            {
+                // Delay the first poll to let objects monitored together join the same tick
+                logger.debug("starting coalesced polling job");
+                future =
+                    scheduler.scheduleWithFixedDelay(this, pollingDelay, pollingDelay,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Removes the given monitor from the polling job.
+         */
+        public void remove(final AsyncMonitor< ? > monitor)
+        {
+            monitors.remove(monitor);
+        }
+
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void run()
+        {
+            if (Thread.currentThread().isInterrupted())
+            {
+                stop(true);
+                return;
+            }
+
+            Multimap<List<Object>, AsyncMonitor> groups = LinkedListMultimap.create();
+            for (AsyncMonitor monitor : monitors)
+            {
+                Function condition = monitor.getCompleteCondition();
+                Object key =
+                    condition instanceof BatchMonitor ? ((BatchMonitor) condition)
+                        .getGroupKey(monitor.getMonitoredObject()) : null;
+
+                if (key == null)
+                {
+                    try
+                    {
+                        monitor.poll();
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        logger.warn(ex, "failed to poll %s", monitor.getMonitoredObject());
+                    }
+                }
+                else
+                {
+                    groups.put(ImmutableList.of(condition, key), monitor);
+                }
+            }
+
+            for (Map.Entry<List<Object>, Collection<AsyncMonitor>> group : groups.asMap()
+                .entrySet())
+            {
+                BatchMonitor condition = (BatchMonitor) group.getKey().get(0);
+                List<AsyncMonitor> groupMonitors = Lists.newArrayList(group.getValue());
+                List<Object> objects = Lists.newArrayListWithCapacity(groupMonitors.size());
+                for (AsyncMonitor monitor : groupMonitors)
+                {
+                    objects.add(monitor.getMonitoredObject());
+                }
+
+                logger.debug("polling %s objects in group %s", objects.size(), group.getKey()
+                    .get(1));
+
+                try
+                {
+                    long start = System.nanoTime();
+                    List<MonitorStatus> statuses = condition.applyAll(objects);
+                    metrics.pollCall(System.nanoTime() - start);
+                    for (int i = 0; i < groupMonitors.size(); i++)
+                    {
+                        groupMonitors.get(i).process(statuses.get(i));
+                    }
+                }
+                catch (RuntimeException ex)
+                {
+                    // Do not let a failing group cancel the polling of the rest of objects
+                    logger.warn(ex, "failed to poll group %s", group.getKey().get(1));
+                    for (AsyncMonitor monitor : groupMonitors)
+                    {
+                        monitor.process(MonitorStatus.CONTINUE);
+                    }
+                }
+            }
+
+            stop(false);
+        }
+
+        /**
+         * Stops the polling job if there are no objects left to monitor.
+         */
+        private synchronized void stop(final boolean force)
+        {
+            if (future != null && (force || monitors.isEmpty()))
+            {
+                logger.debug("stopping coalesced polling job");
+                future.cancel(false);
+                future = null;
+            }
+        }
+
+        public Set<AsyncMonitor< ? >> getMonitors()
+        {
+            return monitors;
+        }
+
+        public Future< ? > getFuture()
+        {
+            return future;
+        }
     }
 
 }
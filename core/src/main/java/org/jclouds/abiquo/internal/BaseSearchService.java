@@ -28,6 +28,8 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.PagedIterable;
+import org.jclouds.abiquo.domain.PagedIterable.PageFetcher;
 import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.domain.cloud.Volume;
 import org.jclouds.abiquo.domain.cloud.options.VolumeOptions;
@@ -73,7 +75,7 @@ public class BaseSearchService implements SearchService
     /*********************** Enterprise ***********************/
 
     @Override
-    public Iterable<Enterprise> searchEnterprises(final EnterpriseOptions options)
+    public List<Enterprise> searchEnterprises(final EnterpriseOptions options)
     {
         List<EnterpriseDto> enterprises =
             context.getApi().getEnterpriseClient().listEnterprises(options).getCollection();
@@ -92,10 +94,25 @@ public class BaseSearchService implements SearchService
         return wrap(context, Enterprise.class, enterprises);
     }
 
+    @Override
+    public Iterable<Enterprise> iterateEnterprises(final EnterpriseOptions options,
+        final int pageSize)
+    {
+        return paged(new PageFetcher<Enterprise>()
+        {
+            @Override
+            public List<Enterprise> fetchPage(final int startWith, final int limit)
+            {
+                EnterpriseOptions page = options.page(startWith, limit);
+                return searchEnterprises(page);
+            }
+        }, pageSize);
+    }
+
     /*********************** Volume ********************** */
 
     @Override
-    public Iterable<Volume> searchVolumes(final VirtualDatacenter virtualDatacenter,
+    public List<Volume> searchVolumes(final VirtualDatacenter virtualDatacenter,
         final VolumeOptions options)
     {
         List<VolumeManagementDto> volumes =
@@ -105,6 +122,21 @@ public class BaseSearchService implements SearchService
         return wrap(context, Volume.class, volumes);
     }
 
+    @Override
+    public Iterable<Volume> iterateVolumes(final VirtualDatacenter virtualDatacenter,
+        final VolumeOptions options, final int pageSize)
+    {
+        return paged(new PageFetcher<Volume>()
+        {
+            @Override
+            public List<Volume> fetchPage(final int startWith, final int limit)
+            {
+                VolumeOptions page = options.page(startWith, limit);
+                return searchVolumes(virtualDatacenter, page);
+            }
+        }, pageSize);
+    }
+
     /*********************** Storage Pool ***********************/
 
     @Override
@@ -121,7 +153,7 @@ public class BaseSearchService implements SearchService
     /*********************** Private Network ***********************/
 
     @Override
-    public Iterable<Ip> searchPrivateIps(final PrivateNetwork network, final IpOptions options)
+    public List<Ip> searchPrivateIps(final PrivateNetwork network, final IpOptions options)
     {
         List<IpPoolManagementDto> ips =
             context.getApi().getCloudClient().listPrivateNetworkIps(network.unwrap(), options)
@@ -131,7 +163,22 @@ public class BaseSearchService implements SearchService
     }
 
     @Override
-    public Iterable<Ip> searchPublicIpsToPurchase(final VirtualDatacenter virtualDatacenter,
+    public Iterable<Ip> iteratePrivateIps(final PrivateNetwork network, final IpOptions options,
+        final int pageSize)
+    {
+        return paged(new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return searchPrivateIps(network, page);
+            }
+        }, pageSize);
+    }
+
+    @Override
+    public List<Ip> searchPublicIpsToPurchase(final VirtualDatacenter virtualDatacenter,
         final IpOptions options)
     {
         List<IpPoolManagementDto> ips =
@@ -142,7 +189,22 @@ public class BaseSearchService implements SearchService
     }
 
     @Override
-    public Iterable<Ip> searchPurchasedPublicIps(final VirtualDatacenter virtualDatacenter,
+    public Iterable<Ip> iteratePublicIpsToPurchase(final VirtualDatacenter virtualDatacenter,
+        final IpOptions options, final int pageSize)
+    {
+        return paged(new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return searchPublicIpsToPurchase(virtualDatacenter, page);
+            }
+        }, pageSize);
+    }
+
+    @Override
+    public List<Ip> searchPurchasedPublicIps(final VirtualDatacenter virtualDatacenter,
         final IpOptions options)
     {
         List<IpPoolManagementDto> ips =
@@ -152,6 +214,21 @@ public class BaseSearchService implements SearchService
         return wrap(context, Ip.class, ips);
     }
 
+    @Override
+    public Iterable<Ip> iteratePurchasedPublicIps(final VirtualDatacenter virtualDatacenter,
+        final IpOptions options, final int pageSize)
+    {
+        return paged(new PageFetcher<Ip>()
+        {
+            @Override
+            public List<Ip> fetchPage(final int startWith, final int limit)
+            {
+                IpOptions page = options.page(startWith, limit);
+                return searchPurchasedPublicIps(virtualDatacenter, page);
+            }
+        }, pageSize);
+    }
+
     @Override
     public Iterable<LogicServer> searchServiceProfiles(final ManagedRack rack,
         final FilterOptions options)
@@ -174,4 +251,12 @@ public class BaseSearchService implements SearchService
         return wrap(context, LogicServer.class, profiles);
     }
 
+    /*********************** Helper methods ***********************/
+
+    private <T> Iterable<T> paged(final PageFetcher<T> fetcher, final int pageSize)
+    {
+        return new PagedIterable<T>(fetcher, pageSize, context.getUtils().getUserExecutor(),
+            PagedIterable.DEFAULT_MAX_PAGES);
+    }
+
 }
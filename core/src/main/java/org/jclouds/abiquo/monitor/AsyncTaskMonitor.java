@@ -19,12 +19,14 @@
 
 package org.jclouds.abiquo.monitor;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.monitor.internal.BaseAsyncTaskMonitor;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
 
 /**
@@ -66,4 +68,23 @@ public interface AsyncTaskMonitor extends MonitoringService
      * @param tasks The {@link AsyncTask}s to monitor.
      */
     public void monitor(final Long maxWait, final TimeUnit timeUnit, final AsyncTask... tasks);
+
+    /**
+     * Monitor the given {@link AsyncTask}s without blocking the calling thread.
+     * 
+     * @param tasks The {@link AsyncTask}s to monitor.
+     * @return A future that will hold the final status of each task.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final AsyncTask... tasks);
+
+    /**
+     * Monitor the given {@link AsyncTask}s without blocking the calling thread.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param tasks The {@link AsyncTask}s to monitor.
+     * @return A future that will hold the final status of each task.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final Long maxWait,
+        final TimeUnit timeUnit, final AsyncTask... tasks);
 }
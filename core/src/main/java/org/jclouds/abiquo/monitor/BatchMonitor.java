@@ -0,0 +1,55 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor;
+
+import java.util.List;
+
+import org.jclouds.abiquo.features.services.MonitoringService;
+
+import com.google.common.base.Function;
+
+/**
+ * A monitor function that is able to compute the status of several objects at once.
+ * <p>
+ * When coalesced polling is enabled, the {@link MonitoringService} groups the pending objects by
+ * the key returned by {@link #getGroupKey(Object)} and refreshes each group with a single call to
+ * {@link #applyAll(List)}, instead of polling each object individually.
+ * 
+ * @author Ignasi Barrera
+ * @param <T> The type of the monitored objects.
+ */
+public interface BatchMonitor<T> extends Function<T, MonitorStatus>
+{
+    /**
+     * Gets the key used to group the objects that can be refreshed together.
+     * 
+     * @param object The monitored object.
+     * @return The group key, or <code>null</code> if the object must be monitored individually.
+     */
+    public Object getGroupKey(T object);
+
+    /**
+     * Computes the status of all the given objects, that share the same group key.
+     * 
+     * @param objects The objects to monitor.
+     * @return The status of each object, in the same order than the given objects.
+     */
+    public List<MonitorStatus> applyAll(List<T> objects);
+}
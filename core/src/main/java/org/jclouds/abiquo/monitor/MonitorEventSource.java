@@ -0,0 +1,71 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor;
+
+import org.jclouds.abiquo.monitor.internal.NullMonitorEventSource;
+import org.jclouds.abiquo.reference.AbiquoConstants;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * A source of notifications about changes in the objects monitored by the
+ * {@link org.jclouds.abiquo.features.services.MonitoringService}.
+ * <p>
+ * Objects supported by the source are evaluated as soon as a change is notified, and are only
+ * polled every {@link AbiquoConstants#ASYNC_TASK_MONITOR_RECONCILE_DELAY} ms to recover from lost
+ * notifications. The rest of objects are polled as usual. A custom source can be configured by
+ * binding this interface in a Guice module.
+ * 
+ * @author Ignasi Barrera
+ */
+@ImplementedBy(NullMonitorEventSource.class)
+public interface MonitorEventSource
+{
+    /**
+     * Gets the key used by the source to notify changes in the given object.
+     * 
+     * @param monitoredObject The object being monitored.
+     * @return The key of the object, or <code>null</code> if the source does not notify changes in
+     *         the object.
+     */
+    public Object getEventKey(Object monitoredObject);
+
+    /**
+     * Registers the listener to be notified when a monitored object changes.
+     * 
+     * @param listener The listener.
+     */
+    public void subscribe(Listener listener);
+
+    /**
+     * Receives the notifications of a {@link MonitorEventSource}.
+     * 
+     * @author Ignasi Barrera
+     */
+    public static interface Listener
+    {
+        /**
+         * Notifies that the objects with the given key have changed.
+         * 
+         * @param eventKey The key of the changed objects.
+         */
+        public void onChange(Object eventKey);
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.monitor.internal.LatencyHistogram;
+
+/**
+ * A snapshot of the activity of the {@link org.jclouds.abiquo.features.services.MonitoringService}.
+ * <p>
+ * Monitor types are identified by the class name of the function used to monitor the objects.
+ * 
+ * @author Ignasi Barrera
+ */
+public class MonitoringStats
+{
+    private final Map<String, Integer> activeMonitors;
+
+    private final long totalPolls;
+
+    private final double pollsPerSecond;
+
+    private final Latency pollLatency;
+
+    private final Map<String, Map<MonitorEvent.Type, Latency>> completionTimes;
+
+    private final int schedulerQueueDepth;
+
+    private final Latency eventDispatchLatency;
+
+    public MonitoringStats(final Map<String, Integer> activeMonitors, final long totalPolls,
+        final double pollsPerSecond, final Latency pollLatency,
+        final Map<String, Map<MonitorEvent.Type, Latency>> completionTimes,
+        final int schedulerQueueDepth, final Latency eventDispatchLatency)
+    {
+        this.activeMonitors = checkNotNull(activeMonitors, "activeMonitors");
+        this.totalPolls = totalPolls;
+        this.pollsPerSecond = pollsPerSecond;
+        this.pollLatency = checkNotNull(pollLatency, "pollLatency");
+        this.completionTimes = checkNotNull(completionTimes, "completionTimes");
+        this.schedulerQueueDepth = schedulerQueueDepth;
+        this.eventDispatchLatency = checkNotNull(eventDispatchLatency, "eventDispatchLatency");
+    }
+
+    /**
+     * Gets the number of running monitors.
+     */
+    public int getActiveMonitors()
+    {
+        int active = 0;
+        for (Integer monitors : activeMonitors.values())
+        {
+            active += monitors;
+        }
+        return active;
+    }
+
+    /**
+     * Gets the number of running monitors of each type.
+     */
+    public Map<String, Integer> getActiveMonitorsByType()
+    {
+        return activeMonitors;
+    }
+
+    /**
+     * Gets the number of times the status of a monitored object has been evaluated.
+     */
+    public long getTotalPolls()
+    {
+        return totalPolls;
+    }
+
+    /**
+     * Gets the rate of polls since the previous snapshot.
+     */
+    public double getPollsPerSecond()
+    {
+        return pollsPerSecond;
+    }
+
+    /**
+     * Gets the time spent in each call to the monitor functions.
+     */
+    public Latency getPollLatency()
+    {
+        return pollLatency;
+    }
+
+    /**
+     * Gets the time elapsed until the monitors of each type finished, by the event published.
+     */
+    public Map<String, Map<MonitorEvent.Type, Latency>> getCompletionTimes()
+    {
+        return completionTimes;
+    }
+
+    /**
+     * Gets the number of jobs waiting in the scheduler queue, or <code>-1</code> if the scheduler
+     * does not expose it.
+     */
+    public int getSchedulerQueueDepth()
+    {
+        return schedulerQueueDepth;
+    }
+
+    /**
+     * Gets the time spent dispatching each monitor event to the handlers.
+     */
+    public Latency getEventDispatchLatency()
+    {
+        return eventDispatchLatency;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MonitoringStats [activeMonitors=" + activeMonitors + ", totalPolls=" + totalPolls
+            + ", pollsPerSecond=" + pollsPerSecond + ", pollLatency=" + pollLatency
+            + ", completionTimes=" + completionTimes + ", schedulerQueueDepth="
+            + schedulerQueueDepth + ", eventDispatchLatency=" + eventDispatchLatency + "]";
+    }
+
+    /**
+     * The distribution of a duration, in microseconds.
+     * 
+     * @author Ignasi Barrera
+     */
+    public static class Latency
+    {
+        private final long count;
+
+        private final long mean;
+
+        private final long p50;
+
+        private final long p90;
+
+        private final long p99;
+
+        private final long max;
+
+        public Latency(final LatencyHistogram histogram)
+        {
+            this.count = histogram.getCount();
+            this.mean = histogram.getMean(TimeUnit.MICROSECONDS);
+            this.p50 = histogram.getPercentile(0.5, TimeUnit.MICROSECONDS);
+            this.p90 = histogram.getPercentile(0.9, TimeUnit.MICROSECONDS);
+            this.p99 = histogram.getPercentile(0.99, TimeUnit.MICROSECONDS);
+            this.max = histogram.getMax(TimeUnit.MICROSECONDS);
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getMean(final TimeUnit unit)
+        {
+            return unit.convert(mean, TimeUnit.MICROSECONDS);
+        }
+
+        public long getP50(final TimeUnit unit)
+        {
+            return unit.convert(p50, TimeUnit.MICROSECONDS);
+        }
+
+        public long getP90(final TimeUnit unit)
+        {
+            return unit.convert(p90, TimeUnit.MICROSECONDS);
+        }
+
+        public long getP99(final TimeUnit unit)
+        {
+            return unit.convert(p99, TimeUnit.MICROSECONDS);
+        }
+
+        public long getMax(final TimeUnit unit)
+        {
+            return unit.convert(max, TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Latency [count=" + count + ", mean=" + mean + "us, p50=" + p50 + "us, p90="
+                + p90 + "us, p99=" + p99 + "us, max=" + max + "us]";
+        }
+    }
+}
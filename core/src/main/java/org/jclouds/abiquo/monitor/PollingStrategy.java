@@ -0,0 +1,64 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor;
+
+import org.jclouds.abiquo.features.services.MonitoringService;
+import org.jclouds.abiquo.monitor.internal.PollingStrategyProvider;
+
+import com.google.common.base.Function;
+import com.google.inject.ProvidedBy;
+
+/**
+ * Computes the delay between the polls performed by the {@link MonitoringService}.
+ * <p>
+ * Each monitored object is rescheduled after every poll with the delay returned by the configured
+ * strategy. The built-in strategies are selected with the
+ * {@link org.jclouds.abiquo.reference.AbiquoConstants#ASYNC_TASK_MONITOR_POLLING_STRATEGY}
+ * property, and a custom strategy can be configured by binding this interface in a Guice module.
+ * 
+ * @author Ignasi Barrera
+ */
+@ProvidedBy(PollingStrategyProvider.class)
+public interface PollingStrategy
+{
+    /**
+     * Gets the delay before the next poll of the given object.
+     * 
+     * @param monitoredObject The object being monitored.
+     * @param completeCondition The function used to evaluate the status of the object.
+     * @param polls The number of polls already performed on the object.
+     * @param elapsed The time elapsed (in ms) since the monitoring of the object started.
+     * @return The delay (in ms) before the next poll.
+     */
+    public long getNextDelay(Object monitoredObject, Function< ? , MonitorStatus> completeCondition,
+        int polls, long elapsed);
+
+    /**
+     * Notifies the strategy that the monitoring of the given object has finished.
+     * 
+     * @param monitoredObject The object being monitored.
+     * @param completeCondition The function used to evaluate the status of the object.
+     * @param status The final status of the object. Only {@link MonitorStatus#DONE} and
+     *            {@link MonitorStatus#FAILED} are notified.
+     * @param elapsed The time elapsed (in ms) since the monitoring of the object started.
+     */
+    public void onCompletion(Object monitoredObject, Function< ? , MonitorStatus> completeCondition,
+        MonitorStatus status, long elapsed);
+}
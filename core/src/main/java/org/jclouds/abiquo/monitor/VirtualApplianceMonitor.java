@@ -19,12 +19,14 @@
 
 package org.jclouds.abiquo.monitor;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.jclouds.abiquo.domain.cloud.VirtualAppliance;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.monitor.internal.BaseVirtualApplianceMonitor;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
 
 /**
@@ -104,4 +106,48 @@ public interface VirtualApplianceMonitor extends MonitoringService
      */
     public void monitorUndeploy(final Long maxWait, final TimeUnit timeUnit,
         final VirtualAppliance... vapps);
+
+    /**
+     * Monitor the given {@link VirtualAppliance}s without blocking the calling thread until the
+     * deploy finishes.
+     * 
+     * @param vapps The {@link VirtualAppliance}s to monitor.
+     * @return A future that will hold the final status of each virtual appliance.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final VirtualAppliance... vapps);
+
+    /**
+     * Monitor the given {@link VirtualAppliance}s without blocking the calling thread until the
+     * deploy finishes.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param vapps The {@link VirtualAppliance}s to monitor.
+     * @return A future that will hold the final status of each virtual appliance.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualAppliance... vapps);
+
+    /**
+     * Monitor the given {@link VirtualAppliance}s without blocking the calling thread until the
+     * undeploy finishes.
+     * 
+     * @param vapps The {@link VirtualAppliance}s to monitor.
+     * @return A future that will hold the final status of each virtual appliance.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(
+        final VirtualAppliance... vapps);
+
+    /**
+     * Monitor the given {@link VirtualAppliance}s without blocking the calling thread until the
+     * undeploy finishes.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param vapps The {@link VirtualAppliance}s to monitor.
+     * @return A future that will hold the final status of each virtual appliance.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualAppliance... vapps);
 }
@@ -19,13 +19,17 @@
 
 package org.jclouds.abiquo.monitor;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.features.services.MonitoringService;
 import org.jclouds.abiquo.monitor.internal.BaseVirtualMachineMonitor;
 
 import com.abiquo.server.core.cloud.VirtualMachineState;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
 
 /**
@@ -70,6 +74,51 @@ public interface VirtualMachineMonitor extends MonitoringService
     public void monitorDeploy(final Long maxWait, final TimeUnit timeUnit,
         final VirtualMachine... vms);
 
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, and block until all
+     * deploys finish.
+     * <p>
+     * Only the tasks are polled while they are running, and the state of each virtual machine is
+     * checked once its task completes.
+     * 
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     */
+    void awaitCompletionDeploy(final Map<VirtualMachine, AsyncTask> deployTasks);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, and populate an
+     * event when all deploys finish.
+     * 
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     */
+    public void monitorDeploy(final Map<VirtualMachine, AsyncTask> deployTasks);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, and block until all
+     * deploys finish.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     */
+    void awaitCompletionDeploy(final Long maxWait, final TimeUnit timeUnit,
+        final Map<VirtualMachine, AsyncTask> deployTasks);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, and populate an
+     * event when all deploys finish.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     */
+    public void monitorDeploy(final Long maxWait, final TimeUnit timeUnit,
+        final Map<VirtualMachine, AsyncTask> deployTasks);
+
     /**
      * Monitor the given {@link VirtualMachine}s and block until all undeploys finish.
      * 
@@ -141,4 +190,96 @@ public interface VirtualMachineMonitor extends MonitoringService
      */
     public void monitorState(final Long maxWait, final TimeUnit timeUnit,
         VirtualMachineState state, final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until all
+     * deploys finish.
+     * 
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until all
+     * deploys finish.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, without blocking the
+     * calling thread until all deploys finish.
+     * 
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final Map<VirtualMachine, AsyncTask> deployTasks);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s following their deploy tasks, without blocking the
+     * calling thread until all deploys finish.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param deployTasks The {@link AsyncTask}s returned by {@link VirtualMachine#deploy()} for
+     *            each {@link VirtualMachine} to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final Map<VirtualMachine, AsyncTask> deployTasks);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until all
+     * undeploys finish.
+     * 
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(
+        final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until all
+     * undeploys finish.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until they are
+     * in the given state.
+     * 
+     * @param state The state to wait for.
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitStateAsync(VirtualMachineState state,
+        final VirtualMachine... vms);
+
+    /**
+     * Monitor the given {@link VirtualMachine}s without blocking the calling thread until they are
+     * in the given state.
+     * 
+     * @param maxWait The maximum time to wait.
+     * @param timeUnit The time unit for the maxWait parameter.
+     * @param state The state to wait for.
+     * @param vms The {@link VirtualMachine}s to monitor.
+     * @return A future that will hold the final status of each virtual machine.
+     */
+    public ListenableFuture<List<MonitorStatus>> awaitStateAsync(final Long maxWait,
+        final TimeUnit timeUnit, VirtualMachineState state, final VirtualMachine... vms);
 }
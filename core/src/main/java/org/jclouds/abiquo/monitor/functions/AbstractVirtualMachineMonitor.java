@@ -0,0 +1,110 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Resource;
+
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.monitor.BatchMonitor;
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.reference.rest.ParentLinkName;
+import org.jclouds.logging.Logger;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.cloud.VirtualMachineState;
+import com.google.common.collect.Lists;
+
+/**
+ * Base class for the functions that monitor the state of a {@link VirtualMachine}.
+ * <p>
+ * When polling is coalesced, virtual machines are grouped by their virtual appliance, and each
+ * group is refreshed with a single request.
+ * 
+ * @author Ignasi Barrera
+ */
+public abstract class AbstractVirtualMachineMonitor implements BatchMonitor<VirtualMachine>
+{
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    /**
+     * Gets the monitor status for the given virtual machine state.
+     * 
+     * @param state The current state of the virtual machine.
+     * @return The monitor status.
+     */
+    protected abstract MonitorStatus getStatus(VirtualMachineState state);
+
+    @Override
+    public MonitorStatus apply(final VirtualMachine virtualMachine)
+    {
+        checkNotNull(virtualMachine, "virtualMachine");
+
+        try
+        {
+            return getStatus(virtualMachine.getState());
+        }
+        catch (Exception ex)
+        {
+            logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
+                virtualMachine, getClass().getName());
+
+            return MonitorStatus.CONTINUE;
+        }
+    }
+
+    @Override
+    public Object getGroupKey(final VirtualMachine virtualMachine)
+    {
+        RESTLink link = virtualMachine.unwrap().searchLink(ParentLinkName.VIRTUAL_APPLIANCE);
+        return link == null ? null : link.getHref();
+    }
+
+    @Override
+    public List<MonitorStatus> applyAll(final List<VirtualMachine> virtualMachines)
+    {
+        checkNotNull(virtualMachines, "virtualMachines");
+
+        try
+        {
+            VirtualMachine.refreshState(virtualMachines);
+
+            List<MonitorStatus> statuses = Lists.newArrayListWithCapacity(virtualMachines.size());
+            for (VirtualMachine virtualMachine : virtualMachines)
+            {
+                VirtualMachineState state = virtualMachine.unwrap().getState();
+                statuses.add(state == null ? MonitorStatus.CONTINUE : getStatus(state));
+            }
+            return statuses;
+        }
+        catch (Exception ex)
+        {
+            logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
+                virtualMachines, getClass().getName());
+
+            return Collections.nCopies(virtualMachines.size(), MonitorStatus.CONTINUE);
+        }
+    }
+}
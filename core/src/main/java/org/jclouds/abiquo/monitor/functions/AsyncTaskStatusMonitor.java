@@ -21,22 +21,30 @@ package org.jclouds.abiquo.monitor.functions;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.List;
+
 import javax.annotation.Resource;
 import javax.inject.Singleton;
 
 import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.monitor.BatchMonitor;
 import org.jclouds.abiquo.monitor.MonitorStatus;
 import org.jclouds.logging.Logger;
 
-import com.google.common.base.Function;
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.task.enums.TaskState;
+import com.google.common.collect.Lists;
 
 /**
  * This class takes care of monitoring {@link AsyncTask} jobs.
+ * <p>
+ * When polling is coalesced, tasks are grouped by the task list of their owner, and each group is
+ * refreshed with a single request.
  * 
  * @author Ignasi Barrera
  */
 @Singleton
-public class AsyncTaskStatusMonitor implements Function<AsyncTask, MonitorStatus>
+public class AsyncTaskStatusMonitor implements BatchMonitor<AsyncTask>
 {
     @Resource
     protected Logger logger = Logger.NULL;
@@ -49,20 +57,7 @@ public class AsyncTaskStatusMonitor implements Function<AsyncTask, MonitorStatus
         try
         {
             asyncTask.refresh();
-
-            switch (asyncTask.getState())
-            {
-                case ABORTED:
-                case FINISHED_UNSUCCESSFULLY:
-                    return MonitorStatus.FAILED;
-                case FINISHED_SUCCESSFULLY:
-                    return MonitorStatus.DONE;
-                case STARTED:
-                case PENDING:
-                    return MonitorStatus.CONTINUE;
-                default:
-                    throw new IllegalStateException("Unsupported task status");
-            }
+            return getStatus(asyncTask.getState());
         }
         catch (Exception ex)
         {
@@ -72,4 +67,59 @@ public class AsyncTaskStatusMonitor implements Function<AsyncTask, MonitorStatus
             return MonitorStatus.CONTINUE;
         }
     }
+
+    @Override
+    public Object getGroupKey(final AsyncTask asyncTask)
+    {
+        RESTLink self = asyncTask.unwrap().searchLink("self");
+        return self == null ? null : self.getHref().substring(0, self.getHref().lastIndexOf('/'));
+    }
+
+    @Override
+    public List<MonitorStatus> applyAll(final List<AsyncTask> asyncTasks)
+    {
+        checkNotNull(asyncTasks, "asyncTasks");
+
+        try
+        {
+            AsyncTask.refresh(asyncTasks);
+
+            List<MonitorStatus> statuses = Lists.newArrayListWithCapacity(asyncTasks.size());
+            for (AsyncTask asyncTask : asyncTasks)
+            {
+                statuses.add(getStatus(asyncTask.getState()));
+            }
+            return statuses;
+        }
+        catch (Exception ex)
+        {
+            logger.warn(ex, "exception thrown while monitoring %s on %s, monitoring each task",
+                asyncTasks, getClass().getName());
+
+            // Do not let a task that can not be refreshed hold the status of the rest
+            List<MonitorStatus> statuses = Lists.newArrayListWithCapacity(asyncTasks.size());
+            for (AsyncTask asyncTask : asyncTasks)
+            {
+                statuses.add(apply(asyncTask));
+            }
+            return statuses;
+        }
+    }
+
+    private static MonitorStatus getStatus(final TaskState state)
+    {
+        switch (state)
+        {
+            case ABORTED:
+            case FINISHED_UNSUCCESSFULLY:
+                return MonitorStatus.FAILED;
+            case FINISHED_SUCCESSFULLY:
+                return MonitorStatus.DONE;
+            case STARTED:
+            case PENDING:
+                return MonitorStatus.CONTINUE;
+            default:
+                throw new IllegalStateException("Unsupported task status");
+        }
+    }
 }
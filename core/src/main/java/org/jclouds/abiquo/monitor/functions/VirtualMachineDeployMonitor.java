@@ -19,16 +19,10 @@
 
 package org.jclouds.abiquo.monitor.functions;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
-import javax.annotation.Resource;
-
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
 import org.jclouds.abiquo.monitor.MonitorStatus;
-import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.cloud.VirtualMachineState;
-import com.google.common.base.Function;
 import com.google.inject.Singleton;
 
 /**
@@ -38,37 +32,20 @@ import com.google.inject.Singleton;
  * @see MonitoringService
  */
 @Singleton
-public class VirtualMachineDeployMonitor implements Function<VirtualMachine, MonitorStatus>
+public class VirtualMachineDeployMonitor extends AbstractVirtualMachineMonitor
 {
-    @Resource
-    private Logger logger = Logger.NULL;
-
     @Override
-    public MonitorStatus apply(final VirtualMachine virtualMachine)
+    protected MonitorStatus getStatus(final VirtualMachineState state)
     {
-        checkNotNull(virtualMachine, "virtualMachine");
-
-        try
+        switch (state)
         {
-            VirtualMachineState state = virtualMachine.getState();
-
-            switch (state)
-            {
-                case NOT_ALLOCATED:
-                case UNKNOWN:
-                    return MonitorStatus.FAILED;
-                case ON:
-                    return MonitorStatus.DONE;
-                default:
-                    return MonitorStatus.CONTINUE;
-            }
-        }
-        catch (Exception ex)
-        {
-            logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
-                virtualMachine, getClass().getName());
-
-            return MonitorStatus.CONTINUE;
+            case NOT_ALLOCATED:
+            case UNKNOWN:
+                return MonitorStatus.FAILED;
+            case ON:
+                return MonitorStatus.DONE;
+            default:
+                return MonitorStatus.CONTINUE;
         }
     }
 }
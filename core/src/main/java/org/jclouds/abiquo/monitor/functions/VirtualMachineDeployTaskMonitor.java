@@ -0,0 +1,122 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jclouds.abiquo.monitor.functions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.monitor.MonitorStatus;
+
+import com.abiquo.server.core.task.enums.TaskState;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * This class takes care of monitoring the deploy of a {@link VirtualMachine} following the
+ * {@link AsyncTask} returned by {@link VirtualMachine#deploy()}.
+ * <p>
+ * While the deploy task is running, only the task is polled. Once the task finishes successfully,
+ * the state of the virtual machine is checked once to confirm the deploy. If the virtual machine is
+ * not yet in a final state at that point, or if there is no task for a virtual machine, its state
+ * is polled as in the {@link VirtualMachineDeployMonitor}.
+ * <p>
+ * Each instance holds the tasks of the virtual machines being monitored, so a new one must be
+ * created for each monitoring operation.
+ * 
+ * @author Ignasi Barrera
+ * @see MonitoringService
+ */
+public class VirtualMachineDeployTaskMonitor extends VirtualMachineDeployMonitor
+{
+    /** The deploy tasks that are still running, by virtual machine. */
+    @VisibleForTesting
+    final ConcurrentMap<VirtualMachine, AsyncTask> deployTasks;
+
+    public VirtualMachineDeployTaskMonitor(final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        super();
+        this.deployTasks = new ConcurrentHashMap<VirtualMachine, AsyncTask>();
+        for (Map.Entry<VirtualMachine, AsyncTask> entry : checkNotNull(deployTasks, "deployTasks")
+            .entrySet())
+        {
+            // VirtualMachine.deploy() returns null when there is no task to follow. These virtual
+            // machines are not stored, so their state is polled
+            if (entry.getValue() != null)
+            {
+                this.deployTasks.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public MonitorStatus apply(final VirtualMachine virtualMachine)
+    {
+        checkNotNull(virtualMachine, "virtualMachine");
+
+        AsyncTask task = deployTasks.get(virtualMachine);
+        if (task != null)
+        {
+            TaskState state = null;
+
+            try
+            {
+                task.refresh();
+                state = task.getState();
+            }
+            catch (Exception ex)
+            {
+                logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
+                    task, getClass().getName());
+
+                return MonitorStatus.CONTINUE;
+            }
+
+            switch (state == null ? TaskState.PENDING : state)
+            {
+                case ABORTED:
+                case FINISHED_UNSUCCESSFULLY:
+                    deployTasks.remove(virtualMachine);
+                    return MonitorStatus.FAILED;
+                case FINISHED_SUCCESSFULLY:
+                    // Stop following the task and confirm the deploy with the state of the
+                    // virtual machine
+                    deployTasks.remove(virtualMachine);
+                    break;
+                default:
+                    return MonitorStatus.CONTINUE;
+            }
+        }
+
+        return super.apply(virtualMachine);
+    }
+
+    /**
+     * Virtual machines with a running deploy task are polled individually, since the task is
+     * polled instead of the virtual machine.
+     */
+    @Override
+    public Object getGroupKey(final VirtualMachine virtualMachine)
+    {
+        return deployTasks.containsKey(virtualMachine) ? null : super.getGroupKey(virtualMachine);
+    }
+}
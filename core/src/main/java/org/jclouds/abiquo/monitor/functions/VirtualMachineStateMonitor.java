@@ -21,14 +21,10 @@ package org.jclouds.abiquo.monitor.functions;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import javax.annotation.Resource;
-
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
 import org.jclouds.abiquo.monitor.MonitorStatus;
-import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.cloud.VirtualMachineState;
-import com.google.common.base.Function;
 
 /**
  * This class takes care of monitoring the state of a {@link VirtualMachine}.
@@ -36,11 +32,8 @@ import com.google.common.base.Function;
  * @author Ignasi Barrera
  * @see MonitoringService
  */
-public class VirtualMachineStateMonitor implements Function<VirtualMachine, MonitorStatus>
+public class VirtualMachineStateMonitor extends AbstractVirtualMachineMonitor
 {
-    @Resource
-    private Logger logger = Logger.NULL;
-
     private VirtualMachineState expectedState;
 
     public VirtualMachineStateMonitor(final VirtualMachineState expectedState)
@@ -50,22 +43,8 @@ public class VirtualMachineStateMonitor implements Function<VirtualMachine, Moni
     }
 
     @Override
-    public MonitorStatus apply(final VirtualMachine virtualMachine)
+    protected MonitorStatus getStatus(final VirtualMachineState state)
     {
-        checkNotNull(virtualMachine, "virtualMachine");
-
-        try
-        {
-            VirtualMachineState state = virtualMachine.getState();
-            return state == expectedState ? MonitorStatus.DONE : MonitorStatus.CONTINUE;
-        }
-        catch (Exception ex)
-        {
-            logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
-                virtualMachine, getClass().getName());
-
-            return MonitorStatus.CONTINUE;
-
-        }
+        return state == expectedState ? MonitorStatus.DONE : MonitorStatus.CONTINUE;
     }
 }
@@ -19,17 +19,12 @@
 
 package org.jclouds.abiquo.monitor.functions;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
-import javax.annotation.Resource;
 import javax.inject.Singleton;
 
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
 import org.jclouds.abiquo.monitor.MonitorStatus;
-import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.cloud.VirtualMachineState;
-import com.google.common.base.Function;
 
 /**
  * This class takes care of monitoring the a undeploy of a {@link VirtualMachine}.
@@ -37,42 +32,25 @@ import com.google.common.base.Function;
  * @author Serafin Sedano
  */
 @Singleton
-public class VirtualMachineUndeployMonitor implements Function<VirtualMachine, MonitorStatus>
+public class VirtualMachineUndeployMonitor extends AbstractVirtualMachineMonitor
 {
-    @Resource
-    protected Logger logger = Logger.NULL;
-
     @Override
-    public MonitorStatus apply(final VirtualMachine virtualMachine)
+    protected MonitorStatus getStatus(final VirtualMachineState state)
     {
-        checkNotNull(virtualMachine, "virtualMachine");
-
-        try
+        // This state may be reached if the undeploy process fails and a rollback is done
+        if (state.existsInHypervisor())
         {
-            VirtualMachineState state = virtualMachine.getState();
-
-            // This state may be reached if the undeploy process fails and a rollback is done
-            if (state.existsInHypervisor())
-            {
-                return MonitorStatus.FAILED;
-            }
-
-            switch (state)
-            {
-                case UNKNOWN:
-                    return MonitorStatus.FAILED;
-                case NOT_ALLOCATED:
-                    return MonitorStatus.DONE;
-                default:
-                    return MonitorStatus.CONTINUE;
-            }
+            return MonitorStatus.FAILED;
         }
-        catch (Exception ex)
-        {
-            logger.warn(ex, "exception thrown while monitoring %s on %s, returning CONTINUE",
-                virtualMachine, getClass().getName());
 
-            return MonitorStatus.CONTINUE;
+        switch (state)
+        {
+            case UNKNOWN:
+                return MonitorStatus.FAILED;
+            case NOT_ALLOCATED:
+                return MonitorStatus.DONE;
+            default:
+                return MonitorStatus.CONTINUE;
         }
     }
 }
@@ -22,6 +22,7 @@ package org.jclouds.abiquo.monitor.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
 
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -33,10 +34,12 @@ import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.internal.BaseMonitoringService;
 import org.jclouds.abiquo.monitor.AsyncTaskMonitor;
+import org.jclouds.abiquo.monitor.MonitorStatus;
 import org.jclouds.abiquo.monitor.functions.AsyncTaskStatusMonitor;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Default monitor for {@link AsyncTask} objects.
@@ -85,4 +88,16 @@ public class BaseAsyncTaskMonitor extends BaseMonitoringService implements Async
         monitor(maxWait, timeUnit, taskMonitor, tasks);
     }
 
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final AsyncTask... tasks)
+    {
+        return awaitCompletionAsync(taskMonitor, tasks);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionAsync(final Long maxWait,
+        final TimeUnit timeUnit, final AsyncTask... tasks)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, taskMonitor, tasks);
+    }
 }
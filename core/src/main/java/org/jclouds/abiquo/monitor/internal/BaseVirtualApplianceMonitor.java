@@ -22,6 +22,7 @@ package org.jclouds.abiquo.monitor.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
 
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -32,12 +33,14 @@ import javax.inject.Singleton;
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.cloud.VirtualAppliance;
 import org.jclouds.abiquo.internal.BaseMonitoringService;
+import org.jclouds.abiquo.monitor.MonitorStatus;
 import org.jclouds.abiquo.monitor.VirtualApplianceMonitor;
 import org.jclouds.abiquo.monitor.functions.VirtualApplianceDeployMonitor;
 import org.jclouds.abiquo.monitor.functions.VirtualApplianceUndeployMonitor;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Default monitor for {@link VirtualAppliance} objects.
@@ -117,4 +120,32 @@ public class BaseVirtualApplianceMonitor extends BaseMonitoringService implement
     {
         monitor(maxWait, timeUnit, undeployMonitor, vapps);
     }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final VirtualAppliance... vapps)
+    {
+        return awaitCompletionAsync(deployMonitor, vapps);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualAppliance... vapps)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, deployMonitor, vapps);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(
+        final VirtualAppliance... vapps)
+    {
+        return awaitCompletionAsync(undeployMonitor, vapps);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualAppliance... vapps)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, undeployMonitor, vapps);
+    }
 }
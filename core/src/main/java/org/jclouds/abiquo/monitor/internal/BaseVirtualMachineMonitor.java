@@ -22,6 +22,9 @@ package org.jclouds.abiquo.monitor.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -31,15 +34,19 @@ import javax.inject.Singleton;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
 import org.jclouds.abiquo.internal.BaseMonitoringService;
+import org.jclouds.abiquo.monitor.MonitorStatus;
 import org.jclouds.abiquo.monitor.VirtualMachineMonitor;
 import org.jclouds.abiquo.monitor.functions.VirtualMachineDeployMonitor;
+import org.jclouds.abiquo.monitor.functions.VirtualMachineDeployTaskMonitor;
 import org.jclouds.abiquo.monitor.functions.VirtualMachineStateMonitor;
 import org.jclouds.abiquo.monitor.functions.VirtualMachineUndeployMonitor;
 
 import com.abiquo.server.core.cloud.VirtualMachineState;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Default monitor for {@link VirtualMachine} objects.
@@ -94,6 +101,34 @@ public class BaseVirtualMachineMonitor extends BaseMonitoringService implements
         monitor(maxWait, timeUnit, deployMonitor, vms);
     }
 
+    @Override
+    public void awaitCompletionDeploy(final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        awaitCompletionDeploy(null, null, deployTasks);
+    }
+
+    @Override
+    public void monitorDeploy(final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        monitorDeploy(null, null, deployTasks);
+    }
+
+    @Override
+    public void awaitCompletionDeploy(final Long maxWait, final TimeUnit timeUnit,
+        final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        awaitCompletion(maxWait, timeUnit, new VirtualMachineDeployTaskMonitor(deployTasks),
+            toArray(deployTasks));
+    }
+
+    @Override
+    public void monitorDeploy(final Long maxWait, final TimeUnit timeUnit,
+        final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        monitor(maxWait, timeUnit, new VirtualMachineDeployTaskMonitor(deployTasks),
+            toArray(deployTasks));
+    }
+
     @Override
     public void awaitCompletionUndeploy(final VirtualMachine... vms)
     {
@@ -145,4 +180,67 @@ public class BaseVirtualMachineMonitor extends BaseMonitoringService implements
     {
         monitor(maxWait, timeUnit, new VirtualMachineStateMonitor(state), vms);
     }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(deployMonitor, vms);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, deployMonitor, vms);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(
+        final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        return awaitCompletionDeployAsync(null, null, deployTasks);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionDeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, new VirtualMachineDeployTaskMonitor(
+            deployTasks), toArray(deployTasks));
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(
+        final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(undeployMonitor, vms);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitCompletionUndeployAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, undeployMonitor, vms);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitStateAsync(final VirtualMachineState state,
+        final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(new VirtualMachineStateMonitor(state), vms);
+    }
+
+    @Override
+    public ListenableFuture<List<MonitorStatus>> awaitStateAsync(final Long maxWait,
+        final TimeUnit timeUnit, final VirtualMachineState state, final VirtualMachine... vms)
+    {
+        return awaitCompletionAsync(maxWait, timeUnit, new VirtualMachineStateMonitor(state), vms);
+    }
+
+    private static VirtualMachine[] toArray(final Map<VirtualMachine, AsyncTask> deployTasks)
+    {
+        Set<VirtualMachine> vms = checkNotNull(deployTasks, "deployTasks").keySet();
+        return vms.toArray(new VirtualMachine[vms.size()]);
+    }
 }
@@ -0,0 +1,92 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_MAX_DELAY;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_MIN_DELAY;
+
+import java.util.Random;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.PollingStrategy;
+
+import com.google.common.base.Function;
+
+/**
+ * Polls the monitored objects with an exponentially increasing delay.
+ * <p>
+ * The first poll is performed immediately, and the delay starts at
+ * {@link AbiquoConstants#ASYNC_TASK_MONITOR_MIN_DELAY} ms and doubles after every poll, up to
+ * {@link AbiquoConstants#ASYNC_TASK_MONITOR_MAX_DELAY} ms. A random jitter of up to half the
+ * delay is applied to avoid polling many objects at the same time.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class ExponentialBackoffPollingStrategy implements PollingStrategy
+{
+    /** The maximum exponent used to compute the delay, to avoid overflows. */
+    private static final int MAX_EXPONENT = 30;
+
+    private final long minDelay;
+
+    private final long maxDelay;
+
+    private final Random random = new Random();
+
+    @Inject
+    public ExponentialBackoffPollingStrategy(
+        @Named(ASYNC_TASK_MONITOR_MIN_DELAY) final Long minDelay,
+        @Named(ASYNC_TASK_MONITOR_MAX_DELAY) final Long maxDelay)
+    {
+        this.minDelay = checkNotNull(minDelay, "minDelay");
+        this.maxDelay = checkNotNull(maxDelay, "maxDelay");
+        checkArgument(minDelay > 0, "minDelay must be greater than zero");
+        checkArgument(maxDelay >= minDelay, "maxDelay must be greater or equal than minDelay");
+    }
+
+    @Override
+    public long getNextDelay(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final int polls, final long elapsed)
+    {
+        if (polls == 0)
+        {
+            return 0L;
+        }
+
+        long delay = Math.min(maxDelay, minDelay << Math.min(polls - 1, MAX_EXPONENT));
+        long half = delay / 2;
+        return delay - half + (long) (random.nextDouble() * half);
+    }
+
+    @Override
+    public void onCompletion(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final MonitorStatus status,
+        final long elapsed)
+    {
+        // Nothing to learn
+    }
+}
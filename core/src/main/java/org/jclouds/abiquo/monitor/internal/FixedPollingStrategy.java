@@ -0,0 +1,67 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.PollingStrategy;
+
+import com.google.common.base.Function;
+
+/**
+ * Polls the monitored objects at a fixed rate.
+ * <p>
+ * The first poll is performed immediately and the following ones every
+ * {@link AbiquoConstants#ASYNC_TASK_MONITOR_DELAY} ms.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class FixedPollingStrategy implements PollingStrategy
+{
+    private final long delay;
+
+    @Inject
+    public FixedPollingStrategy(@Named(ASYNC_TASK_MONITOR_DELAY) final Long delay)
+    {
+        this.delay = checkNotNull(delay, "delay");
+    }
+
+    @Override
+    public long getNextDelay(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final int polls, final long elapsed)
+    {
+        return polls == 0 ? 0L : delay;
+    }
+
+    @Override
+    public void onCompletion(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final MonitorStatus status,
+        final long elapsed)
+    {
+        // Nothing to learn
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations.
+ * <p>
+ * Durations are counted in buckets whose bounds are powers of two microseconds, so recording a
+ * value does not allocate memory, and percentiles are approximated with the upper bound of the
+ * bucket where they fall.
+ * 
+ * @author Ignasi Barrera
+ */
+public class LatencyHistogram
+{
+    /** Bucket <code>i</code> holds the values in <code>[2^(i-1), 2^i - 1]</code> microseconds. */
+    private static final int BUCKETS = 48;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong(0);
+
+    private final AtomicLong total = new AtomicLong(0);
+
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records the given duration.
+     * 
+     * @param nanos The duration (in ns).
+     */
+    public void record(final long nanos)
+    {
+        long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        count.incrementAndGet();
+        total.addAndGet(micros);
+
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros))
+        {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Gets the average of the recorded durations.
+     */
+    public long getMean(final TimeUnit unit)
+    {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : unit.convert(total.get() / recorded, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Gets the maximum recorded duration.
+     */
+    public long getMax(final TimeUnit unit)
+    {
+        return unit.convert(max.get(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Gets the approximate duration below which the given fraction of the durations fall.
+     * 
+     * @param fraction The fraction, greater than 0 and lower or equal than 1.
+     */
+    public long getPercentile(final double fraction, final TimeUnit unit)
+    {
+        checkArgument(fraction > 0 && fraction <= 1, "fraction must be in (0, 1]");
+
+        long recorded = count.get();
+        if (recorded == 0)
+        {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(fraction * recorded);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += buckets.get(i);
+            if (seen >= rank)
+            {
+                long upper = i == 0 ? 0 : (1L << i) - 1;
+                return unit.convert(Math.min(upper, max.get()), TimeUnit.MICROSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+}
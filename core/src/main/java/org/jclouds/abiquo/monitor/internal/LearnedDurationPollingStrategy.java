@@ -0,0 +1,127 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.PollingStrategy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Polls the monitored objects based on the duration of the previously completed operations.
+ * <p>
+ * The strategy keeps a moving average of the time needed to complete each kind of operation (the
+ * {@link com.abiquo.server.core.task.enums.TaskType} for {@link AsyncTask}s, and the class of the
+ * object and of the function that evaluates its status otherwise, so deploys and undeploys of the
+ * same object type are learned separately). Once the duration of an operation is known, the first
+ * poll is delayed until a fraction of that duration has elapsed, and the second one until the
+ * whole duration has elapsed. Unknown operations and operations that take longer than expected are
+ * polled using the {@link ExponentialBackoffPollingStrategy}.
+ * <p>
+ * An operation completed at the first poll may have completed much earlier, so the observed
+ * duration is only an upper bound. Since the first poll is sent before the expected duration, that
+ * bound is lower than the estimate, and the estimate decays when the operations become faster.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class LearnedDurationPollingStrategy implements PollingStrategy
+{
+    /** The weight of the last observed duration in the moving average. */
+    @VisibleForTesting
+    static final double WEIGHT = 0.3;
+
+    /** The fraction of the expected duration to wait before the first poll. */
+    @VisibleForTesting
+    static final double FIRST_POLL_FRACTION = 0.8;
+
+    private final PollingStrategy fallback;
+
+    @VisibleForTesting
+    final ConcurrentMap<Object, Long> durations = new ConcurrentHashMap<Object, Long>();
+
+    @Inject
+    public LearnedDurationPollingStrategy(final ExponentialBackoffPollingStrategy fallback)
+    {
+        this.fallback = checkNotNull(fallback, "fallback");
+    }
+
+    @Override
+    public long getNextDelay(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final int polls, final long elapsed)
+    {
+        Long expected = durations.get(getOperationKey(monitoredObject, completeCondition));
+        if (expected != null && polls == 0)
+        {
+            return Math.max(0L, (long) (expected * FIRST_POLL_FRACTION) - elapsed);
+        }
+        if (expected != null && elapsed < expected)
+        {
+            return expected - elapsed;
+        }
+
+        return fallback.getNextDelay(monitoredObject, completeCondition, polls, elapsed);
+    }
+
+    @Override
+    public void onCompletion(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition, final MonitorStatus status,
+        final long elapsed)
+    {
+        if (status != MonitorStatus.DONE)
+        {
+            return;
+        }
+
+        Object key = getOperationKey(monitoredObject, completeCondition);
+        Long previous = durations.putIfAbsent(key, elapsed);
+
+        while (previous != null)
+        {
+            long average = (long) (previous * (1 - WEIGHT) + elapsed * WEIGHT);
+            if (durations.replace(key, previous, average))
+            {
+                break;
+            }
+            previous = durations.putIfAbsent(key, elapsed);
+        }
+    }
+
+    private static Object getOperationKey(final Object monitoredObject,
+        final Function< ? , MonitorStatus> completeCondition)
+    {
+        if (monitoredObject instanceof AsyncTask && ((AsyncTask) monitoredObject).getType() != null)
+        {
+            return ((AsyncTask) monitoredObject).getType();
+        }
+        return ImmutableList.of(monitoredObject.getClass(), completeCondition.getClass());
+    }
+}
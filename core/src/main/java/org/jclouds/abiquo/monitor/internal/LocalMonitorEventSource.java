@@ -0,0 +1,98 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.domain.DomainWrapper;
+import org.jclouds.abiquo.monitor.MonitorEventSource;
+
+import com.abiquo.model.rest.RESTLink;
+
+/**
+ * A {@link MonitorEventSource} that notifies the changes published by the application.
+ * <p>
+ * Domain objects are identified by the URI of their <code>self</code> link, or their
+ * <code>edit</code> link if they do not have one, so changes received from a message stream can be
+ * published with the URI of the changed resource.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class LocalMonitorEventSource implements MonitorEventSource
+{
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    @Override
+    public Object getEventKey(final Object monitoredObject)
+    {
+        if (!(monitoredObject instanceof DomainWrapper))
+        {
+            return null;
+        }
+
+        DomainWrapper< ? > wrapper = (DomainWrapper< ? >) monitoredObject;
+        RESTLink link = wrapper.unwrap().searchLink("self");
+        if (link == null)
+        {
+            link = wrapper.unwrap().getEditLink();
+        }
+        return link == null ? null : link.getHref();
+    }
+
+    @Override
+    public void subscribe(final Listener listener)
+    {
+        listeners.add(checkNotNull(listener, "listener"));
+    }
+
+    /**
+     * Notifies that the resource with the given URI has changed.
+     * 
+     * @param href The URI of the changed resource.
+     */
+    public void publish(final String href)
+    {
+        checkNotNull(href, "href");
+        for (Listener listener : listeners)
+        {
+            listener.onChange(href);
+        }
+    }
+
+    /**
+     * Notifies that the given object has changed.
+     * 
+     * @param object The changed object.
+     */
+    public void publish(final DomainWrapper< ? > object)
+    {
+        Object eventKey = getEventKey(checkNotNull(object, "object"));
+        if (eventKey != null)
+        {
+            publish(eventKey.toString());
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+
+/**
+ * Fires the timeouts of the monitored objects.
+ * <p>
+ * Timeouts are stored in a hashed timing wheel, so they can be scheduled and cancelled in
+ * constant time regardless of the number of pending timeouts, and fire at most one tick after
+ * their deadline. The wheel is advanced by a single daemon thread that only runs while there are
+ * pending timeouts.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class MonitorTimeoutWheel
+{
+    /** The default duration of each tick, in ms. */
+    public static final long DEFAULT_TICK_DURATION = 100L;
+
+    /** The default number of buckets of the wheel. */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    private final long tickDuration;
+
+    /** The buckets of the wheel. Each one is the sentinel of a circular list of timeouts. */
+    private final Timeout[] wheel;
+
+    private final int mask;
+
+    private final Object lock = new Object();
+
+    /** The time when the current worker started, in ms. */
+    private long startTime;
+
+    /** The last tick processed by the current worker. */
+    private long tick;
+
+    private int pending = 0;
+
+    private Thread worker;
+
+    @Inject
+    public MonitorTimeoutWheel()
+    {
+        this(DEFAULT_TICK_DURATION, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    public MonitorTimeoutWheel(final long tickDuration, final int ticksPerWheel)
+    {
+        checkArgument(tickDuration > 0, "tickDuration must be greater than zero");
+        checkArgument(ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1,
+            "ticksPerWheel must be a power of two");
+
+        this.tickDuration = tickDuration;
+        this.mask = ticksPerWheel - 1;
+        this.wheel = new Timeout[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++)
+        {
+            wheel[i] = new Timeout(null, -1);
+        }
+    }
+
+    /**
+     * Schedules the given task to be run after the given delay.
+     * <p>
+     * The task is run in the thread of the wheel, so it must hand any slow work off to another
+     * thread, or it will delay the rest of the timeouts.
+     * 
+     * @param task The task to run when the timeout fires.
+     * @param delay The delay (in ms).
+     * @return The timeout, that can be used to cancel it.
+     */
+    public Timeout schedule(final Runnable task, final long delay)
+    {
+        checkNotNull(task, "task");
+        checkArgument(delay >= 0, "delay must be greater or equal than zero");
+
+        synchronized (lock)
+        {
+            if (worker == null)
+            {
+                // Keep the time reference of the timeouts left by an interrupted worker
+                if (pending == 0)
+                {
+                    startTime = now();
+                    tick = 0;
+                }
+                worker = new Thread(new Worker(), "abiquo-monitor-timeouts");
+                worker.setDaemon(true);
+                worker.start();
+            }
+
+            // Round up, so the timeout never fires before its deadline
+            long deadline = now() - startTime + delay;
+            long deadlineTick = Math.max(tick + 1, (deadline + tickDuration - 1) / tickDuration);
+
+            Timeout timeout = new Timeout(task, deadlineTick);
+            timeout.linkBefore(wheel[(int) (deadlineTick & mask)]);
+            pending++;
+            return timeout;
+        }
+    }
+
+    @VisibleForTesting
+    int getPending()
+    {
+        synchronized (lock)
+        {
+            return pending;
+        }
+    }
+
+    private static long now()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * Advances the wheel once per tick and runs the expired tasks.
+     * 
+     * @author Ignasi Barrera
+     */
+    private class Worker implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                List<Runnable> expired = Lists.newArrayList();
+
+                synchronized (lock)
+                {
+                    if (pending == 0 || Thread.currentThread().isInterrupted())
+                    {
+                        worker = null;
+                        return;
+                    }
+
+                    long wait = startTime + (tick + 1) * tickDuration - now();
+                    if (wait > 0)
+                    {
+                        try
+                        {
+                            lock.wait(wait);
+                        }
+                        catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        continue;
+                    }
+
+                    tick++;
+                    Timeout bucket = wheel[(int) (tick & mask)];
+                    Timeout timeout = bucket.next;
+                    while (timeout != bucket)
+                    {
+                        Timeout next = timeout.next;
+                        if (timeout.deadlineTick <= tick)
+                        {
+                            timeout.unlink();
+                            pending--;
+                            expired.add(timeout.task);
+                        }
+                        timeout = next;
+                    }
+                }
+
+                // Run the tasks out of the lock, so they can schedule and cancel timeouts
+                for (Runnable task : expired)
+                {
+                    try
+                    {
+                        task.run();
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        logger.warn(ex, "failed to run timeout task %s", task);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A pending timeout.
+     * 
+     * @author Ignasi Barrera
+     */
+    public class Timeout
+    {
+        private final Runnable task;
+
+        private final long deadlineTick;
+
+        private Timeout prev = this;
+
+        private Timeout next = this;
+
+        private Timeout(final Runnable task, final long deadlineTick)
+        {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels the timeout.
+         * 
+         * @return Boolean indicating if the timeout was pending and has been cancelled.
+         */
+        public boolean cancel()
+        {
+            synchronized (lock)
+            {
+                if (next == this)
+                {
+                    // Already expired or cancelled
+                    return false;
+                }
+                unlink();
+                pending--;
+                return true;
+            }
+        }
+
+        private void linkBefore(final Timeout sentinel)
+        {
+            next = sentinel;
+            prev = sentinel.prev;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        private void unlink()
+        {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_JMX;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.monitor.MonitoringStats;
+import org.jclouds.abiquo.monitor.MonitoringStats.Latency;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * Records the activity of the monitoring services of a context.
+ * <p>
+ * All the counters are updated without locking and without allocating memory, except the first
+ * time a monitor type is seen.
+ * 
+ * @author Ignasi Barrera
+ * @see org.jclouds.abiquo.reference.AbiquoConstants#ASYNC_TASK_MONITOR_JMX
+ */
+@Singleton
+public class MonitoringMetrics implements MonitoringMetricsMXBean
+{
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<Class< ? >, TypeMetrics> types = Maps.newConcurrentMap();
+
+    private final AtomicLong polls = new AtomicLong(0);
+
+    private final LatencyHistogram pollLatency = new LatencyHistogram();
+
+    private final LatencyHistogram eventDispatchLatency = new LatencyHistogram();
+
+    /** The poll rate computed for the snapshots. */
+    private final PollRate snapshotRate = new PollRate();
+
+    /** The poll rate computed for the JMX clients. */
+    private final PollRate jmxRate = new PollRate();
+
+    private ObjectName objectName;
+
+    /**
+     * Creates the metrics of a context. The MBean, if registered, is unregistered when the context
+     * is closed.
+     */
+    @Inject
+    public MonitoringMetrics(final ScheduledExecutorService scheduler, final Closer closer)
+    {
+        this(scheduler);
+        checkNotNull(closer, "closer").addToClose(new UnregisterMBeanOnClose(this));
+    }
+
+    /**
+     * Creates metrics that are not bound to a context. The MBean, if registered, must be
+     * unregistered with {@link #unregisterMBean()}.
+     */
+    public MonitoringMetrics(final ScheduledExecutorService scheduler)
+    {
+        this.scheduler = checkNotNull(scheduler, "scheduler");
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, if enabled.
+     * 
+     * @param jmxEnabled Boolean indicating if the metrics must be registered.
+     */
+    @Inject(optional = true)
+    public synchronized void setJmxEnabled(@Named(ASYNC_TASK_MONITOR_JMX) final boolean jmxEnabled)
+    {
+        if (jmxEnabled && objectName == null)
+        {
+            try
+            {
+                ObjectName name =
+                    new ObjectName("org.jclouds.abiquo:type=MonitoringMetrics,id="
+                        + Integer.toHexString(System.identityHashCode(this)));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+                objectName = name;
+            }
+            catch (JMException ex)
+            {
+                logger.warn(ex, "could not register the monitoring metrics MBean");
+            }
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server, if registered.
+     */
+    public synchronized void unregisterMBean()
+    {
+        if (objectName != null)
+        {
+            try
+            {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.unregisterMBean(objectName);
+            }
+            catch (JMException ex)
+            {
+                logger.warn(ex, "could not unregister the monitoring metrics MBean");
+            }
+            objectName = null;
+        }
+    }
+
+    /**
+     * Gets the name of the MBean, or <code>null</code> if it has not been registered.
+     */
+    public synchronized ObjectName getObjectName()
+    {
+        return objectName;
+    }
+
+    /*************** Recording methods ***************/
+
+    public void monitorStarted(final Class< ? > type)
+    {
+        typeMetrics(type).active.incrementAndGet();
+    }
+
+    public void monitorStopped(final Class< ? > type)
+    {
+        typeMetrics(type).active.decrementAndGet();
+    }
+
+    public void monitorFinished(final Class< ? > type, final MonitorEvent.Type outcome,
+        final long elapsedNanos)
+    {
+        typeMetrics(type).completionTimes[outcome.ordinal()].record(elapsedNanos);
+    }
+
+    public void polled()
+    {
+        polls.incrementAndGet();
+    }
+
+    public void pollCall(final long elapsedNanos)
+    {
+        pollLatency.record(elapsedNanos);
+    }
+
+    public void eventDispatched(final long elapsedNanos)
+    {
+        eventDispatchLatency.record(elapsedNanos);
+    }
+
+    /*************** Snapshot ***************/
+
+    /**
+     * Takes a snapshot of the current metrics.
+     * <p>
+     * The poll rate is computed since the previous snapshot.
+     */
+    public MonitoringStats snapshot()
+    {
+        ImmutableMap.Builder<String, Integer> active = ImmutableMap.builder();
+        ImmutableMap.Builder<String, Map<MonitorEvent.Type, Latency>> completions =
+            ImmutableMap.builder();
+
+        for (Map.Entry<Class< ? >, TypeMetrics> entry : types.entrySet())
+        {
+            String name = entry.getKey().getName();
+            active.put(name, entry.getValue().active.get());
+
+            Map<MonitorEvent.Type, Latency> times =
+                new EnumMap<MonitorEvent.Type, Latency>(MonitorEvent.Type.class);
+            LatencyHistogram[] histograms = entry.getValue().completionTimes;
+            for (MonitorEvent.Type outcome : MonitorEvent.Type.values())
+            {
+                times.put(outcome, new Latency(histograms[outcome.ordinal()]));
+            }
+            completions.put(name, times);
+        }
+
+        return new MonitoringStats(active.build(), polls.get(), snapshotRate.update(polls.get()),
+            new Latency(pollLatency), completions.build(), getSchedulerQueueDepth(),
+            new Latency(eventDispatchLatency));
+    }
+
+    /*************** JMX attributes ***************/
+
+    @Override
+    public int getActiveMonitors()
+    {
+        int active = 0;
+        for (TypeMetrics metrics : types.values())
+        {
+            active += metrics.active.get();
+        }
+        return active;
+    }
+
+    @Override
+    public Map<String, Integer> getActiveMonitorsByType()
+    {
+        Map<String, Integer> active = Maps.newHashMap();
+        for (Map.Entry<Class< ? >, TypeMetrics> entry : types.entrySet())
+        {
+            active.put(entry.getKey().getName(), entry.getValue().active.get());
+        }
+        return active;
+    }
+
+    @Override
+    public long getTotalPolls()
+    {
+        return polls.get();
+    }
+
+    @Override
+    public double getPollsPerSecond()
+    {
+        return jmxRate.update(polls.get());
+    }
+
+    @Override
+    public long getPollLatencyP50Micros()
+    {
+        return pollLatency.getPercentile(0.5, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getPollLatencyP99Micros()
+    {
+        return pollLatency.getPercentile(0.99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public long getPollLatencyMaxMicros()
+    {
+        return pollLatency.getMax(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public Map<String, Long> getCompletionTimeP50Millis()
+    {
+        return completionTimes(0.5);
+    }
+
+    @Override
+    public Map<String, Long> getCompletionTimeP99Millis()
+    {
+        return completionTimes(0.99);
+    }
+
+    @Override
+    public int getSchedulerQueueDepth()
+    {
+        return scheduler instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) scheduler)
+            .getQueue().size() : -1;
+    }
+
+    @Override
+    public long getEventDispatchP99Micros()
+    {
+        return eventDispatchLatency.getPercentile(0.99, TimeUnit.MICROSECONDS);
+    }
+
+    private Map<String, Long> completionTimes(final double fraction)
+    {
+        Map<String, Long> times = Maps.newHashMap();
+        for (Map.Entry<Class< ? >, TypeMetrics> entry : types.entrySet())
+        {
+            for (MonitorEvent.Type outcome : MonitorEvent.Type.values())
+            {
+                LatencyHistogram histogram = entry.getValue().completionTimes[outcome.ordinal()];
+                if (histogram.getCount() > 0)
+                {
+                    times.put(entry.getKey().getName() + "/" + outcome,
+                        histogram.getPercentile(fraction, TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return times;
+    }
+
+    @VisibleForTesting
+    TypeMetrics typeMetrics(final Class< ? > type)
+    {
+        TypeMetrics metrics = types.get(type);
+        if (metrics == null)
+        {
+            types.putIfAbsent(type, new TypeMetrics());
+            metrics = types.get(type);
+        }
+        return metrics;
+    }
+
+    /**
+     * The metrics of a monitor type.
+     * 
+     * @author Ignasi Barrera
+     */
+    @VisibleForTesting
+    static class TypeMetrics
+    {
+        final AtomicInteger active = new AtomicInteger(0);
+
+        final LatencyHistogram[] completionTimes =
+            new LatencyHistogram[MonitorEvent.Type.values().length];
+
+        TypeMetrics()
+        {
+            for (int i = 0; i < completionTimes.length; i++)
+            {
+                completionTimes[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Unregisters the MBean of the metrics when the context is closed.
+     * 
+     * @author Ignasi Barrera
+     */
+    private static final class UnregisterMBeanOnClose implements Closeable
+    {
+        private final MonitoringMetrics metrics;
+
+        private UnregisterMBeanOnClose(final MonitoringMetrics metrics)
+        {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            metrics.unregisterMBean();
+        }
+    }
+
+    /**
+     * Computes the poll rate since the previous read.
+     * 
+     * @author Ignasi Barrera
+     */
+    private static class PollRate
+    {
+        private long lastTime = System.nanoTime();
+
+        private long lastPolls = 0;
+
+        public synchronized double update(final long polls)
+        {
+            long now = System.nanoTime();
+            double seconds = (now - lastTime) / 1e9;
+            double rate = seconds <= 0 ? 0 : (polls - lastPolls) / seconds;
+            lastTime = now;
+            lastPolls = polls;
+            return rate;
+        }
+    }
+}
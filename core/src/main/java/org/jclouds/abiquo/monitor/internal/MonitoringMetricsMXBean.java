@@ -0,0 +1,54 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link MonitoringMetrics}.
+ * <p>
+ * Durations are expressed in microseconds, and completion times in milliseconds.
+ * 
+ * @author Ignasi Barrera
+ */
+public interface MonitoringMetricsMXBean
+{
+    public int getActiveMonitors();
+
+    public Map<String, Integer> getActiveMonitorsByType();
+
+    public long getTotalPolls();
+
+    public double getPollsPerSecond();
+
+    public long getPollLatencyP50Micros();
+
+    public long getPollLatencyP99Micros();
+
+    public long getPollLatencyMaxMicros();
+
+    public Map<String, Long> getCompletionTimeP50Millis();
+
+    public Map<String, Long> getCompletionTimeP99Millis();
+
+    public int getSchedulerQueueDepth();
+
+    public long getEventDispatchP99Micros();
+}
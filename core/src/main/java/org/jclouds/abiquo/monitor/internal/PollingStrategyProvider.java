@@ -0,0 +1,80 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_POLLING_STRATEGY;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.monitor.PollingStrategy;
+
+import com.google.inject.Injector;
+
+/**
+ * Provides the {@link PollingStrategy} selected with the
+ * {@link org.jclouds.abiquo.reference.AbiquoConstants#ASYNC_TASK_MONITOR_POLLING_STRATEGY}
+ * property.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class PollingStrategyProvider implements Provider<PollingStrategy>
+{
+    private final Injector injector;
+
+    private final String strategy;
+
+    @Inject
+    public PollingStrategyProvider(final Injector injector,
+        @Named(ASYNC_TASK_MONITOR_POLLING_STRATEGY) final String strategy)
+    {
+        this.injector = checkNotNull(injector, "injector");
+        this.strategy = checkNotNull(strategy, "strategy");
+    }
+
+    @Override
+    public PollingStrategy get()
+    {
+        return injector.getInstance(getStrategyClass(strategy));
+    }
+
+    static Class< ? extends PollingStrategy> getStrategyClass(final String strategy)
+    {
+        if ("fixed".equals(strategy))
+        {
+            return FixedPollingStrategy.class;
+        }
+        else if ("backoff".equals(strategy))
+        {
+            return ExponentialBackoffPollingStrategy.class;
+        }
+        else if ("learned".equals(strategy))
+        {
+            return LearnedDurationPollingStrategy.class;
+        }
+
+        throw new IllegalArgumentException("Unsupported polling strategy: " + strategy
+            + ". Supported values are: fixed, backoff, learned");
+    }
+}
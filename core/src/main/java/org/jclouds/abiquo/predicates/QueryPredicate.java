@@ -0,0 +1,45 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.predicates;
+
+import org.jclouds.abiquo.domain.options.QueryOptions;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Multimap;
+
+/**
+ * A {@link Predicate} that can be translated to API query parameters.
+ * <p>
+ * The query parameters are used to narrow the results in the server side, and the predicate is
+ * still evaluated against the returned elements. This way the query parameters only have to select
+ * a superset of the elements that match the predicate.
+ * 
+ * @author Ignasi Barrera
+ * @see QueryOptions#filterBy(Predicate)
+ */
+public interface QueryPredicate<T> extends Predicate<T>
+{
+    /**
+     * Gets the query parameters that select the elements that may match the predicate.
+     * 
+     * @return The query parameters or an empty map if the predicate can not be translated.
+     */
+    Multimap<String, String> getQueryParameters();
+}
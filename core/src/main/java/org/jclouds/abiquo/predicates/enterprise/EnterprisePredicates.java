@@ -24,8 +24,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Arrays;
 
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
+import org.jclouds.abiquo.predicates.QueryPredicate;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
 
 /**
  * Container for {@link Enterprise} filters.
@@ -38,13 +41,21 @@ public class EnterprisePredicates
     {
         checkNotNull(names, "names must be defined");
 
-        return new Predicate<Enterprise>()
+        return new QueryPredicate<Enterprise>()
         {
             @Override
             public boolean apply(final Enterprise enterprise)
             {
                 return Arrays.asList(names).contains(enterprise.getName());
             }
+
+            @Override
+            public Multimap<String, String> getQueryParameters()
+            {
+                // The has parameter can only be used to select a single value
+                return names.length == 1 ? ImmutableMultimap.of("has", names[0])
+                    : ImmutableMultimap.<String, String> of();
+            }
         };
     }
 }
@@ -25,8 +25,11 @@ import java.util.Arrays;
 
 import org.jclouds.abiquo.domain.network.Ip;
 import org.jclouds.abiquo.domain.network.Network;
+import org.jclouds.abiquo.predicates.QueryPredicate;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
 
 /**
  * Container for {@link Network} filters.
@@ -39,13 +42,19 @@ public class IpPredicates
     {
         checkNotNull(names, "names must be defined");
 
-        return new Predicate<Ip>()
+        return new QueryPredicate<Ip>()
         {
             @Override
             public boolean apply(final Ip address)
             {
                 return Arrays.asList(names).contains(address.getName());
             }
+
+            @Override
+            public Multimap<String, String> getQueryParameters()
+            {
+                return has(names);
+            }
         };
     }
 
@@ -53,25 +62,46 @@ public class IpPredicates
     {
         checkNotNull(addresses, "addresses must be defined");
 
-        return new Predicate<Ip>()
+        return new QueryPredicate<Ip>()
         {
             @Override
             public boolean apply(final Ip address)
             {
                 return Arrays.asList(addresses).contains(address.getIp());
             }
+
+            @Override
+            public Multimap<String, String> getQueryParameters()
+            {
+                return has(addresses);
+            }
         };
     }
 
     public static Predicate<Ip> available()
     {
-        return new Predicate<Ip>()
+        return new QueryPredicate<Ip>()
         {
             @Override
             public boolean apply(final Ip address)
             {
                 return address.getAvailable();
             }
+
+            @Override
+            public Multimap<String, String> getQueryParameters()
+            {
+                return ImmutableMultimap.of("free", "true");
+            }
         };
     }
+
+    /**
+     * The <code>has</code> parameter can only be used to select a single value.
+     */
+    private static Multimap<String, String> has(final String... values)
+    {
+        return values.length == 1 ? ImmutableMultimap.of("has", values[0])
+            : ImmutableMultimap.<String, String> of();
+    }
 }
@@ -34,6 +34,153 @@ public interface AbiquoConstants
      */
     public static final String ASYNC_TASK_MONITOR_DELAY = "abiquo.monitor-delay";
 
+    /**
+     * Boolean flag to enable coalesced polling in the {@link MonitoringService}.
+     * <p>
+     * When enabled, a single polling job is run every {@link #ASYNC_TASK_MONITOR_DELAY} ms for all
+     * the monitored objects, and objects that can be refreshed together are refreshed with a
+     * single request.
+     * <p>
+     * Default value: false
+     */
+    public static final String ASYNC_TASK_MONITOR_COALESCE = "abiquo.monitor-coalesce";
+
+    /**
+     * The delay (in ms) used between requests by the {@link MonitoringService} when monitoring
+     * objects whose changes are notified by the configured
+     * {@link org.jclouds.abiquo.monitor.MonitorEventSource}.
+     * <p>
+     * These objects are only polled to recover from lost notifications.
+     * <p>
+     * Default value: 60000 ms
+     */
+    public static final String ASYNC_TASK_MONITOR_RECONCILE_DELAY =
+        "abiquo.monitor-reconcile-delay";
+
+    /**
+     * Boolean flag to register the metrics of the {@link MonitoringService} as an MBean in the
+     * platform MBean server. The MBean is unregistered when the context is closed.
+     * <p>
+     * Default value: false
+     */
+    public static final String ASYNC_TASK_MONITOR_JMX = "abiquo.monitor-jmx";
+
+    /**
+     * The minimum delay (in ms) used between requests by the polling strategies that compute the
+     * delay dynamically.
+     * <p>
+     * Default value: 500 ms
+     */
+    public static final String ASYNC_TASK_MONITOR_MIN_DELAY = "abiquo.monitor-min-delay";
+
+    /**
+     * The maximum delay (in ms) used between requests by the polling strategies that compute the
+     * delay dynamically.
+     * <p>
+     * Default value: 60000 ms
+     */
+    public static final String ASYNC_TASK_MONITOR_MAX_DELAY = "abiquo.monitor-max-delay";
+
+    /**
+     * The strategy used by the {@link MonitoringService} to compute the delay between requests.
+     * <p>
+     * Supported values are <code>fixed</code>, <code>backoff</code> and <code>learned</code>. A
+     * custom {@link org.jclouds.abiquo.monitor.PollingStrategy} bound in a Guice module takes
+     * precedence over this property.
+     * <p>
+     * Default value: fixed
+     */
+    public static final String ASYNC_TASK_MONITOR_POLLING_STRATEGY =
+        "abiquo.monitor-polling-strategy";
+
+    /**
+     * Boolean flag to enable the cache for the read only requests performed by the
+     * {@link EnterpriseClient}, {@link InfrastructureClient}, {@link CloudClient} and
+     * {@link AdminClient}.
+     * <p>
+     * Each caller gets its own copy of the cached transfer objects, and any create, update or
+     * delete request performed through a client discards all the responses cached for that client.
+     * Listings, states and tasks are not cached unless a time to live is configured for them in
+     * {@link #CACHE_TTL_PER_TYPE}.
+     * <p>
+     * Default value: false
+     */
+    public static final String CACHE_ENABLED = "abiquo.cache-enabled";
+
+    /**
+     * The time (in ms) a cached response is considered valid, when there is no specific value for
+     * its resource type in {@link #CACHE_TTL_PER_TYPE}.
+     * <p>
+     * Default value: 60000 ms
+     */
+    public static final String CACHE_TTL = "abiquo.cache-ttl";
+
+    /**
+     * The time (in ms) a cached response is considered valid for each resource type, as a comma
+     * separated list of <code>type=ttl</code> pairs, where the type is the simple name of the
+     * returned transfer object. For example: <code>EnterpriseDto=600000,DatacenterDto=600000</code>.
+     * A 0 value disables the cache for the resource type. Listings, states and tasks are only
+     * cached if they are configured here.
+     * <p>
+     * Default value: empty
+     */
+    public static final String CACHE_TTL_PER_TYPE = "abiquo.cache-ttl-per-type";
+
+    /**
+     * The maximum number of cached responses for each client.
+     * <p>
+     * Default value: 1000
+     */
+    public static final String CACHE_MAX_SIZE = "abiquo.cache-max-size";
+
+    /**
+     * The maximum number of resources for which the validators of the last response are kept to
+     * perform conditional requests when refreshing tasks and virtual machine states.
+     * <p>
+     * Default value: 1000 (a 0 value disables conditional requests)
+     */
+    public static final String CONDITIONAL_GET_CACHE_SIZE = "abiquo.conditional-get-cache-size";
+
+    /**
+     * The maximum number of concurrent requests (and not yet consumed responses) used by the
+     * pipelined listing strategies, such as {@link ListVirtualMachines#executePipelined()}.
+     * <p>
+     * Default value: 10
+     */
+    public static final String MAX_PIPELINED_REQUESTS = "abiquo.max-pipelined-requests";
+
+    /**
+     * The maximum number of concurrent requests sent by the listing strategies that send a request
+     * for each resource, such as the one that lists the machines of every rack. Bulk virtual
+     * machine deploys share the same limit, so they do not add load on top of the running
+     * listings.
+     * <p>
+     * Default value: 20 (a 0 value disables the limit)
+     */
+    public static final String MAX_FAN_OUT_REQUESTS = "abiquo.max-fan-out-requests";
+
+    /**
+     * The maximum number of concurrent requests sent to the same host by the listing strategies
+     * that send a request for each resource. The limit is only shared with other contexts when
+     * they are built with the same {@link org.jclouds.abiquo.strategy.internal.HostPermitRegistry}
+     * instance, and all of them must configure the same value.
+     * <p>
+     * Default value: 0 (the limit is disabled)
+     */
+    public static final String MAX_FAN_OUT_REQUESTS_PER_HOST =
+        "abiquo.max-fan-out-requests-per-host";
+
+    /**
+     * Flag indicating if the client must log in once and authenticate the rest of the requests
+     * with the session token returned by the API, instead of sending the credentials in each
+     * request. Expired sessions are transparently renewed.
+     * <p>
+     * Only used when the context is created with a user and a password.
+     * <p>
+     * Default value: false
+     */
+    public static final String SESSION_AUTHENTICATION = "abiquo.session-authentication";
+
     /**
      * The maximum number of scheduler threads used to perform periodical tasks.
      * <p>
@@ -49,4 +49,12 @@ public interface AbiquoHttpAsyncClient
     @GET
     @ExceptionParser(ReturnNullOnNotFoundOr404.class)
     public ListenableFuture<HttpResponse> get(@BinderParam(BindLinkToPath.class) final RESTLink link);
+
+    /**
+     * @see AbiquoHttpClient#get(RESTLink, ConditionalGetOptions)
+     */
+    @GET
+    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
+    public ListenableFuture<HttpResponse> get(
+        @BinderParam(BindLinkToPath.class) final RESTLink link, ConditionalGetOptions options);
 }
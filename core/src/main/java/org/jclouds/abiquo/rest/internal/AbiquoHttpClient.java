@@ -41,4 +41,16 @@ public interface AbiquoHttpClient
      * @return The response.
      */
     public HttpResponse get(final RESTLink link);
+
+    /**
+     * Perform a conditional GET request to the given link.
+     * <p>
+     * If the resource has not been modified, the returned response has the
+     * <code>304 Not Modified</code> status code and no payload.
+     * 
+     * @param link The link to get.
+     * @param options The conditions of the request.
+     * @return The response.
+     */
+    public HttpResponse get(final RESTLink link, ConditionalGetOptions options);
 }
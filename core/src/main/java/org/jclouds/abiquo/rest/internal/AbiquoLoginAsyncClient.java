@@ -0,0 +1,51 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.rest.internal;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.jclouds.http.HttpResponse;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Opens sessions in the Abiquo Api.
+ * <p>
+ * Requests are not filtered by the {@link org.jclouds.abiquo.http.filters.AbiquoAuthentication}
+ * filter, since it uses this client to get the session token.
+ * 
+ * @author Ignasi Barrera
+ */
+@Consumes(MediaType.APPLICATION_XML)
+public interface AbiquoLoginAsyncClient
+{
+    /**
+     * @see AbiquoLoginClient#login(String)
+     */
+    @GET
+    @Path("/login")
+    public ListenableFuture<HttpResponse> login(
+        @HeaderParam(HttpHeaders.AUTHORIZATION) final String authorization);
+}
@@ -0,0 +1,44 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.rest.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.concurrent.Timeout;
+import org.jclouds.http.HttpResponse;
+
+/**
+ * Opens sessions in the Abiquo Api.
+ * 
+ * @author Ignasi Barrera
+ */
+@Timeout(duration = 30, timeUnit = TimeUnit.SECONDS)
+public interface AbiquoLoginClient
+{
+    /**
+     * Log in with the given credentials.
+     * <p>
+     * The session token is returned in the <code>auth</code> cookie of the response.
+     * 
+     * @param authorization The value of the <code>Authorization</code> header.
+     * @return The response.
+     */
+    public HttpResponse login(final String authorization);
+}
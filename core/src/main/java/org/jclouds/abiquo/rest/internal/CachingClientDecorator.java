@@ -0,0 +1,522 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.rest.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_ENABLED;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_MAX_SIZE;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_TTL;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CACHE_TTL_PER_TYPE;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+
+import org.jclouds.abiquo.AbiquoClient;
+import org.jclouds.abiquo.config.AbiquoRestClientModule;
+import org.jclouds.abiquo.domain.options.QueryOptions;
+import org.jclouds.abiquo.features.AdminClient;
+import org.jclouds.abiquo.features.CloudClient;
+import org.jclouds.abiquo.features.EnterpriseClient;
+import org.jclouds.abiquo.features.InfrastructureClient;
+import org.jclouds.abiquo.reference.AbiquoConstants;
+import org.jclouds.xml.XMLParser;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.model.transport.SingleResourceTransportDto;
+import com.abiquo.model.transport.WrapperDto;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+/**
+ * Decorates the feature clients with a cache for the responses of the read only requests.
+ * <p>
+ * Only the {@link EnterpriseClient}, {@link InfrastructureClient}, {@link CloudClient} and
+ * {@link AdminClient} are decorated. Each one has its own cache, and any <code>POST</code>,
+ * <code>PUT</code> or <code>DELETE</code> request performed through a client discards all the
+ * responses cached for that client.
+ * <p>
+ * Listings, states and tasks change on the server without any request performed through the
+ * clients, so they are not cached unless a time to live is configured for their type. Cached
+ * transfer objects are stored serialized, and each caller gets its own copy.
+ * 
+ * @author Ignasi Barrera
+ * @see AbiquoConstants#CACHE_ENABLED
+ */
+@Singleton
+public class CachingClientDecorator
+{
+    /** The feature clients that are decorated. */
+    public static final Set<Class< ? >> CACHEABLE_CLIENTS = ImmutableSet.<Class< ? >> of(
+        EnterpriseClient.class, InfrastructureClient.class, CloudClient.class, AdminClient.class);
+
+    private final boolean enabled;
+
+    private final long defaultTtl;
+
+    @VisibleForTesting
+    final Map<String, Long> ttls;
+
+    private final long maxSize;
+
+    private final XMLParser xml;
+
+    @Inject
+    public CachingClientDecorator(@Named(CACHE_ENABLED) final Boolean enabled,
+        @Named(CACHE_TTL) final Long defaultTtl, @Named(CACHE_TTL_PER_TYPE) final String ttls,
+        @Named(CACHE_MAX_SIZE) final Long maxSize, final XMLParser xml)
+    {
+        super();
+        this.enabled = checkNotNull(enabled, "enabled");
+        this.defaultTtl = checkNotNull(defaultTtl, "defaultTtl");
+        this.maxSize = checkNotNull(maxSize, "maxSize");
+        this.ttls = parseTtls(checkNotNull(ttls, "ttls"));
+        this.xml = checkNotNull(xml, "xml");
+        checkArgument(this.defaultTtl >= 0, "defaultTtl must be greater or equal than 0");
+        checkArgument(this.maxSize > 0, "maxSize must be greater than 0");
+    }
+
+    /**
+     * Decorates the given client, if the cache is enabled.
+     * 
+     * @param client The client to decorate.
+     * @return The decorated client, or the given one if the cache is disabled.
+     */
+    public AbiquoClient decorate(final AbiquoClient client)
+    {
+        checkNotNull(client, "client");
+        if (!enabled)
+        {
+            return client;
+        }
+
+        Map<Method, Object> delegates = Maps.newHashMap();
+        for (Method method : AbiquoClient.class.getMethods())
+        {
+            Class< ? > type = method.getReturnType();
+            if (method.getParameterTypes().length == 0 && CACHEABLE_CLIENTS.contains(type))
+            {
+                Object delegate = invoke(client, method, null);
+                if (delegate != null)
+                {
+                    delegates.put(method, newProxy(type, new CachingClient(type, delegate)));
+                }
+            }
+        }
+
+        return newProxy(AbiquoClient.class, new DelegatingClient(client, delegates));
+    }
+
+    /**
+     * Gets the time to live for the responses of the given type.
+     * <p>
+     * Volatile types are not cached unless a time to live has been configured for them.
+     */
+    @VisibleForTesting
+    long getTtl(final Class< ? > type)
+    {
+        Long ttl = ttls.get(type.getSimpleName());
+        if (ttl != null)
+        {
+            return ttl;
+        }
+        return isVolatile(type) ? 0L : defaultTtl;
+    }
+
+    /**
+     * Checks if the given type is a listing, a state or a task, which may change without any
+     * request performed through the clients.
+     */
+    @VisibleForTesting
+    static boolean isVolatile(final Class< ? > type)
+    {
+        String name = type.getSimpleName();
+        return WrapperDto.class.isAssignableFrom(type) || name.contains("State")
+            || name.contains("Task");
+    }
+
+    /**
+     * Checks if the given value can be cached.
+     * <p>
+     * Transfer objects are mutable, so they are cached serialized. Other values are only cached if
+     * they are immutable.
+     */
+    private static boolean isCacheable(final Object value)
+    {
+        return value == null || value instanceof SingleResourceTransportDto
+            || value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Enum;
+    }
+
+    private static Map<String, Long> parseTtls(final String ttls)
+    {
+        ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+        for (Map.Entry<String, String> entry : Splitter.on(',').trimResults().omitEmptyStrings()
+            .withKeyValueSeparator("=").split(ttls).entrySet())
+        {
+            builder.put(entry.getKey().trim(), Long.valueOf(entry.getValue().trim()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the cache key component for the given argument.
+     * <p>
+     * Transfer objects do not implement <code>equals</code>, so they are identified by the link
+     * used to access them.
+     */
+    private static Object keyOf(final Object arg)
+    {
+        if (arg instanceof SingleResourceTransportDto)
+        {
+            SingleResourceTransportDto dto = (SingleResourceTransportDto) arg;
+            RESTLink link = dto.searchLink("edit");
+            if (link == null)
+            {
+                link = dto.searchLink("self");
+            }
+            return link == null ? arg : Arrays.asList(arg.getClass(), link.getHref());
+        }
+        else if (arg instanceof RESTLink)
+        {
+            return ((RESTLink) arg).getHref();
+        }
+        else if (arg instanceof QueryOptions)
+        {
+            return Arrays.asList(arg.getClass(), ((QueryOptions) arg).getOptions());
+        }
+        return arg;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newProxy(final Class<T> type, final InvocationHandler handler)
+    {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class< ? >[] {type},
+            handler);
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args)
+    {
+        try
+        {
+            return method.invoke(target, args);
+        }
+        catch (IllegalAccessException ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+        catch (InvocationTargetException ex)
+        {
+            // Propagate the exceptions thrown by the client untouched
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Handles the calls to methods declared in {@link Object}.
+     */
+    private static Object invokeObjectMethod(final Object proxy, final Object target,
+        final Method method, final Object[] args)
+    {
+        if (method.getName().equals("equals"))
+        {
+            return proxy == args[0];
+        }
+        else if (method.getName().equals("hashCode"))
+        {
+            return System.identityHashCode(proxy);
+        }
+        return "Caching" + target.toString();
+    }
+
+    /**
+     * Returns the decorated feature clients, and delegates the rest of calls to the client.
+     * 
+     * @author Ignasi Barrera
+     */
+    private static class DelegatingClient implements InvocationHandler
+    {
+        private final Object client;
+
+        private final Map<Method, Object> delegates;
+
+        public DelegatingClient(final Object client, final Map<Method, Object> delegates)
+        {
+            this.client = client;
+            this.delegates = delegates;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args)
+            throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+            {
+                return invokeObjectMethod(proxy, client, method, args);
+            }
+
+            Object delegate = delegates.get(method);
+            return delegate != null ? delegate : CachingClientDecorator.invoke(client, method, args);
+        }
+    }
+
+    /**
+     * Caches the responses of the <code>GET</code> requests of a feature client.
+     * <p>
+     * The HTTP method of each request is read from the asynchronous client the feature client is
+     * bound to.
+     * 
+     * @author Ignasi Barrera
+     */
+    @VisibleForTesting
+    class CachingClient implements InvocationHandler
+    {
+        private final Object client;
+
+        /** The HTTP method of each one of the client methods. */
+        private final Map<Method, String> httpMethods = Maps.newHashMap();
+
+        private final Cache<Object, CachedResponse> cache;
+
+        /** Incremented each time the cache is discarded, to avoid caching stale responses. */
+        private final AtomicLong generation = new AtomicLong();
+
+        public CachingClient(final Class< ? > type, final Object client)
+        {
+            this.client = checkNotNull(client, "client");
+            this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+
+            Class< ? > asyncType =
+                checkNotNull(AbiquoRestClientModule.DELEGATE_MAP.get(type), "async client");
+            for (Method method : type.getMethods())
+            {
+                try
+                {
+                    String httpMethod =
+                        getHttpMethod(asyncType.getMethod(method.getName(),
+                            method.getParameterTypes()));
+                    if (httpMethod != null)
+                    {
+                        httpMethods.put(method, httpMethod);
+                    }
+                }
+                catch (NoSuchMethodException ex)
+                {
+                    // Methods without a matching async method are not cached
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args)
+            throws Throwable
+        {
+            if (method.getDeclaringClass() == Object.class)
+            {
+                return invokeObjectMethod(proxy, client, method, args);
+            }
+
+            String httpMethod = httpMethods.get(method);
+            if (httpMethod == null)
+            {
+                return CachingClientDecorator.invoke(client, method, args);
+            }
+            else if (httpMethod.equals(GET.class.getSimpleName()))
+            {
+                long ttl = getTtl(method.getReturnType());
+                if (ttl == 0)
+                {
+                    return CachingClientDecorator.invoke(client, method, args);
+                }
+
+                Object key = cacheKey(method, args);
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached != null && !cached.isExpired())
+                {
+                    return cached.get();
+                }
+
+                long current = generation.get();
+                Object value = CachingClientDecorator.invoke(client, method, args);
+                if (generation.get() == current && isCacheable(value))
+                {
+                    cache.put(key, new CachedResponse(value, System.currentTimeMillis() + ttl));
+                }
+                return value;
+            }
+            else
+            {
+                try
+                {
+                    return CachingClientDecorator.invoke(client, method, args);
+                }
+                finally
+                {
+                    // Any change may affect the cached resources and their listings
+                    generation.incrementAndGet();
+                    cache.invalidateAll();
+                }
+            }
+        }
+
+        @VisibleForTesting
+        long size()
+        {
+            return cache.size();
+        }
+
+        private Object cacheKey(final Method method, final Object[] args)
+        {
+            Object[] key = new Object[args == null ? 1 : args.length + 1];
+            key[0] = method;
+            for (int i = 1; i < key.length; i++)
+            {
+                key[i] = keyOf(args[i - 1]);
+            }
+            return Arrays.asList(key);
+        }
+
+        private String getHttpMethod(final Method asyncMethod)
+        {
+            if (asyncMethod.isAnnotationPresent(GET.class))
+            {
+                return GET.class.getSimpleName();
+            }
+            else if (asyncMethod.isAnnotationPresent(POST.class))
+            {
+                return POST.class.getSimpleName();
+            }
+            else if (asyncMethod.isAnnotationPresent(PUT.class))
+            {
+                return PUT.class.getSimpleName();
+            }
+            else if (asyncMethod.isAnnotationPresent(DELETE.class))
+            {
+                return DELETE.class.getSimpleName();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A cached response and its expiration time.
+     * <p>
+     * Transfer objects are stored serialized, so changes made by a caller to the returned object
+     * are not seen by the other callers.
+     * 
+     * @author Ignasi Barrera
+     */
+    private class CachedResponse
+    {
+        /** The cached immutable value. May be <code>null</code> for not found resources. */
+        private final Object value;
+
+        /** The serialized transfer object, if the cached value is a transfer object. */
+        private final String serialized;
+
+        private final Class< ? > type;
+
+        private final long expiration;
+
+        public CachedResponse(final Object value, final long expiration)
+        {
+            if (value instanceof SingleResourceTransportDto)
+            {
+                this.value = null;
+                this.serialized = toXML(value);
+                this.type = value.getClass();
+            }
+            else
+            {
+                this.value = value;
+                this.serialized = null;
+                this.type = null;
+            }
+            this.expiration = expiration;
+        }
+
+        /**
+         * Gets the cached value, or a new copy of it if it is a transfer object.
+         */
+        public Object get()
+        {
+            if (serialized == null)
+            {
+                return value;
+            }
+
+            try
+            {
+                return xml.fromXML(serialized, type);
+            }
+            catch (IOException ex)
+            {
+                throw Throwables.propagate(ex);
+            }
+        }
+
+        public boolean isExpired()
+        {
+            return expiration < System.currentTimeMillis();
+        }
+
+        private String toXML(final Object dto)
+        {
+            try
+            {
+                return xml.toXML(dto);
+            }
+            catch (IOException ex)
+            {
+                throw Throwables.propagate(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jclouds.abiquo.rest.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.reference.AbiquoConstants.CONDITIONAL_GET_CACHE_SIZE;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.Status;
+
+import org.jclouds.abiquo.reference.AbiquoConstants;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.functions.ParseXMLWithJAXB;
+import org.jclouds.xml.XMLParser;
+
+import com.abiquo.model.rest.RESTLink;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Performs conditional <code>GET</code> requests to avoid downloading and parsing resources that
+ * have not changed.
+ * <p>
+ * The validators (<code>ETag</code> or <code>Last-Modified</code>) of each response are stored
+ * by href with the parsed transfer object. Subsequent requests to the same href are sent with the
+ * <code>If-None-Match</code> or <code>If-Modified-Since</code> headers, and if the server answers
+ * with a <code>304 Not Modified</code> the previously parsed object is returned.
+ * <p>
+ * Parsed objects are shared between callers, so this must only be used to read resources that
+ * are not modified locally.
+ * 
+ * @author Ignasi Barrera
+ * @see AbiquoConstants#CONDITIONAL_GET_CACHE_SIZE
+ */
+@Singleton
+public class ConditionalGetCache
+{
+    private final AbiquoHttpClient http;
+
+    private final XMLParser xml;
+
+    /** The validated responses by href. <code>null</code> if conditional requests are disabled. */
+    @VisibleForTesting
+    final Cache<String, ValidatedResponse> responses;
+
+    @Inject
+    public ConditionalGetCache(final AbiquoHttpClient http, final XMLParser xml,
+        @Named(CONDITIONAL_GET_CACHE_SIZE) final Long maxSize)
+    {
+        super();
+        this.http = checkNotNull(http, "http");
+        this.xml = checkNotNull(xml, "xml");
+        checkArgument(checkNotNull(maxSize, "maxSize") >= 0,
+            "maxSize must be greater or equal than 0");
+        this.responses =
+            maxSize == 0 ? null : CacheBuilder.newBuilder().maximumSize(maxSize)
+                .<String, ValidatedResponse> build();
+    }
+
+    /**
+     * Gets the resource at the given link.
+     * 
+     * @param link The link to the resource.
+     * @param type The type of the resource.
+     * @return The resource, or <code>null</code> if it does not exist.
+     */
+    public <T> T get(final RESTLink link, final Class<T> type)
+    {
+        checkNotNull(link, "link");
+        checkNotNull(type, "type");
+
+        if (responses == null)
+        {
+            return parse(http.get(link), type);
+        }
+
+        String href = link.getHref();
+        ValidatedResponse cached = responses.getIfPresent(href);
+
+        ConditionalGetOptions options = new ConditionalGetOptions();
+        if (cached != null && cached.eTag != null)
+        {
+            options.ifNoneMatch(cached.eTag);
+        }
+        else if (cached != null)
+        {
+            options.ifModifiedSince(cached.lastModified);
+        }
+
+        HttpResponse response = http.get(link, options);
+        if (response == null)
+        {
+            responses.invalidate(href);
+            return null;
+        }
+
+        if (cached != null && response.getStatusCode() == Status.NOT_MODIFIED.getStatusCode())
+        {
+            return type.cast(cached.value);
+        }
+
+        T value = parse(response, type);
+
+        String eTag = response.getFirstHeaderOrNull(HttpHeaders.ETAG);
+        String lastModified = response.getFirstHeaderOrNull(HttpHeaders.LAST_MODIFIED);
+        if (value != null && (eTag != null || lastModified != null))
+        {
+            responses.put(href, new ValidatedResponse(eTag, lastModified, value));
+        }
+        else
+        {
+            responses.invalidate(href);
+        }
+
+        return value;
+    }
+
+    private <T> T parse(final HttpResponse response, final Class<T> type)
+    {
+        return response == null ? null : new ParseXMLWithJAXB<T>(xml, TypeLiteral.get(type))
+            .apply(response);
+    }
+
+    /**
+     * A parsed response and its validators.
+     * 
+     * @author Ignasi Barrera
+     */
+    @VisibleForTesting
+    static class ValidatedResponse
+    {
+        private final String eTag;
+
+        private final String lastModified;
+
+        private final Object value;
+
+        public ValidatedResponse(final String eTag, final String lastModified, final Object value)
+        {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
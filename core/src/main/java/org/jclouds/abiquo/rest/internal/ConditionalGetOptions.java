@@ -0,0 +1,75 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jclouds.abiquo.rest.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jclouds.http.options.BaseHttpRequestOptions;
+
+/**
+ * Options to perform conditional <code>GET</code> requests.
+ * 
+ * @author Ignasi Barrera
+ */
+public class ConditionalGetOptions extends BaseHttpRequestOptions
+{
+    /**
+     * Only return the resource if its entity tag does not match the given one.
+     */
+    public ConditionalGetOptions ifNoneMatch(final String eTag)
+    {
+        this.headers.replaceValues(HttpHeaders.IF_NONE_MATCH,
+            Collections.singleton(checkNotNull(eTag, "eTag")));
+        return this;
+    }
+
+    /**
+     * Only return the resource if it has been modified after the given date, in the format of the
+     * <code>Last-Modified</code> header.
+     */
+    public ConditionalGetOptions ifModifiedSince(final String lastModified)
+    {
+        this.headers.replaceValues(HttpHeaders.IF_MODIFIED_SINCE,
+            Collections.singleton(checkNotNull(lastModified, "lastModified")));
+        return this;
+    }
+
+    public static class Builder
+    {
+        /**
+         * @see ConditionalGetOptions#ifNoneMatch(String)
+         */
+        public static ConditionalGetOptions ifNoneMatch(final String eTag)
+        {
+            return new ConditionalGetOptions().ifNoneMatch(eTag);
+        }
+
+        /**
+         * @see ConditionalGetOptions#ifModifiedSince(String)
+         */
+        public static ConditionalGetOptions ifModifiedSince(final String lastModified)
+        {
+            return new ConditionalGetOptions().ifModifiedSince(lastModified);
+        }
+    }
+}
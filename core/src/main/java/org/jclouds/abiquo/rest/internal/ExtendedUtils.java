@@ -54,19 +54,23 @@ public class ExtendedUtils extends UtilsImpl implements Utils
 
     private AbiquoHttpAsyncClient abiquoHttpAsyncClient;
 
+    private ConditionalGetCache conditionalGetCache;
+
     @Inject
     public ExtendedUtils(final Injector injector, final Json json, final HttpClient simpleClient,
         final HttpAsyncClient simpleAsyncClient, final Crypto encryption, final DateService date,
         @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userThreads,
         @Named(Constants.PROPERTY_IO_WORKER_THREADS) final ExecutorService ioThreads,
         final LoggerFactory loggerFactory, final XMLParser xml,
-        final AbiquoHttpClient abiquoHttpClient, final AbiquoHttpAsyncClient abiquoHttpAsyncClient)
+        final AbiquoHttpClient abiquoHttpClient, final AbiquoHttpAsyncClient abiquoHttpAsyncClient,
+        final ConditionalGetCache conditionalGetCache)
     {
         super(injector, json, simpleClient, simpleAsyncClient, encryption, date, userThreads,
             ioThreads, loggerFactory);
         this.xml = checkNotNull(xml, "xml");
         this.abiquoHttpClient = checkNotNull(abiquoHttpClient, "abiquoHttpClient");
         this.abiquoHttpAsyncClient = checkNotNull(abiquoHttpAsyncClient, "abiquoHttpAsyncClient");
+        this.conditionalGetCache = checkNotNull(conditionalGetCache, "conditionalGetCache");
     }
 
     public XMLParser getXml()
@@ -84,4 +88,9 @@ public class ExtendedUtils extends UtilsImpl implements Utils
         return abiquoHttpAsyncClient;
     }
 
+    public ConditionalGetCache getConditionalGetCache()
+    {
+        return conditionalGetCache;
+    }
+
 }
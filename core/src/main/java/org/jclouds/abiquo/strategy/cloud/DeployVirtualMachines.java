@@ -0,0 +1,57 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.cloud;
+
+import java.util.List;
+
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.strategy.cloud.internal.DeployVirtualMachinesImpl;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.ImplementedBy;
+
+/**
+ * Deploy several virtual machines concurrently.
+ * 
+ * @author Ignasi Barrera
+ */
+@ImplementedBy(DeployVirtualMachinesImpl.class)
+public interface DeployVirtualMachines
+{
+    /**
+     * Sends the deploy requests without waiting for the previous ones to complete.
+     * <p>
+     * The number of concurrent requests is bounded by the
+     * {@link org.jclouds.abiquo.reference.AbiquoConstants#MAX_FAN_OUT_REQUESTS} property. The
+     * deploys and the task requests that exceed the limit are queued and sent as the responses
+     * arrive, so neither the calling thread nor the user threads wait for them. The limit is
+     * intentionally shared with the listing strategies, so a bulk deploy and a listing never send
+     * more concurrent requests to the API than the configured limit.
+     * 
+     * @param vms The virtual machines to deploy.
+     * @param forceEnterpriseSoftLimits Flag indicating if the enterprise soft limits must be
+     *            enforced.
+     * @return The future deploy task of each virtual machine, in the same order than the given
+     *         virtual machines. Each future fails independently if its deploy fails.
+     */
+    List<ListenableFuture<AsyncTask>> execute(Iterable<VirtualMachine> vms,
+        boolean forceEnterpriseSoftLimits);
+}
@@ -33,5 +33,13 @@ import com.google.inject.ImplementedBy;
 @ImplementedBy(ListVirtualMachinesImpl.class)
 public interface ListVirtualMachines extends ListRootEntities<VirtualMachine>
 {
-
+    /**
+     * Lists the virtual machines without waiting for all the virtual appliances to be retrieved.
+     * <p>
+     * The virtual machines of each virtual appliance are requested as soon as the appliance is
+     * received, and are returned by the iterator as soon as they arrive. The number of concurrent
+     * requests and responses not yet consumed is bounded, so the whole collection is never held
+     * in memory.
+     */
+    Iterable<VirtualMachine> executePipelined();
 }
@@ -0,0 +1,144 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.cloud.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.reference.ValidationErrors;
+import org.jclouds.abiquo.strategy.cloud.DeployVirtualMachines;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.model.transport.AcceptedRequestDto;
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachineTaskDto;
+import com.abiquo.server.core.task.TaskDto;
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Deploy several virtual machines concurrently.
+ * 
+ * @author Ignasi Barrera
+ */
+@Singleton
+public class DeployVirtualMachinesImpl implements DeployVirtualMachines
+{
+    protected AbiquoContext context;
+
+    protected final ExecutorService userExecutor;
+
+    protected final RequestLimiter limiter;
+
+    @Inject
+    DeployVirtualMachinesImpl(final AbiquoContext context,
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
+    {
+        super();
+        this.context = checkNotNull(context, "context");
+        this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
+    }
+
+    @Override
+    public List<ListenableFuture<AsyncTask>> execute(final Iterable<VirtualMachine> vms,
+        final boolean forceEnterpriseSoftLimits)
+    {
+        checkNotNull(vms, "vms");
+
+        final VirtualMachineTaskDto force = new VirtualMachineTaskDto();
+        force.setForceEnterpriseSoftLimits(forceEnterpriseSoftLimits);
+
+        Function<VirtualMachineDto, ListenableFuture<AcceptedRequestDto<String>>> deploy =
+            new Function<VirtualMachineDto, ListenableFuture<AcceptedRequestDto<String>>>()
+            {
+                @Override
+                public ListenableFuture<AcceptedRequestDto<String>> apply(
+                    final VirtualMachineDto input)
+                {
+                    return context.getAsyncApi().getCloudClient()
+                        .deployVirtualMachine(input, force);
+                }
+            };
+
+        // The requests are queued by the limiter when there are no permits, so neither this
+        // thread nor the user threads that request the tasks wait for them. A deploy that can not
+        // be sent fails its own future and does not prevent the rest from being sent
+        List<ListenableFuture<AsyncTask>> tasks = Lists.newArrayList();
+        for (VirtualMachine vm : vms)
+        {
+            ListenableFuture<AcceptedRequestDto<String>> accepted =
+                limiter.submit(deploy, vm.unwrap());
+            tasks.add(Futures.transform(accepted, getTask, userExecutor));
+        }
+
+        return tasks;
+    }
+
+    private final AsyncFunction<AcceptedRequestDto<String>, AsyncTask> getTask =
+        new AsyncFunction<AcceptedRequestDto<String>, AsyncTask>()
+        {
+            @Override
+            public ListenableFuture<AsyncTask> apply(final AcceptedRequestDto<String> input)
+            {
+                RESTLink taskLink = input.searchLink("status");
+                checkNotNull(taskLink, ValidationErrors.MISSING_REQUIRED_LINK + AsyncTask.class);
+
+                ListenableFuture<TaskDto> task = limiter.submit(requestTask, taskLink);
+                return Futures.transform(task, wrapTask);
+            }
+        };
+
+    private final Function<RESTLink, ListenableFuture<TaskDto>> requestTask =
+        new Function<RESTLink, ListenableFuture<TaskDto>>()
+        {
+            @Override
+            public ListenableFuture<TaskDto> apply(final RESTLink input)
+            {
+                return context.getAsyncApi().getTaskClient().getTask(input);
+            }
+        };
+
+    private final Function<TaskDto, AsyncTask> wrapTask = new Function<TaskDto, AsyncTask>()
+    {
+        @Override
+        public AsyncTask apply(final TaskDto input)
+        {
+            // This will return null on untrackable tasks
+            return wrap(context, AsyncTask.class, input);
+        }
+    };
+}
@@ -25,7 +25,6 @@ import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
 import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -37,12 +36,14 @@ import org.jclouds.abiquo.domain.DomainWrapper;
 import org.jclouds.abiquo.domain.cloud.VirtualAppliance;
 import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualAppliances;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.cloud.VirtualApplianceDto;
 import com.abiquo.server.core.cloud.VirtualAppliancesDto;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -57,6 +58,8 @@ public class ListVirtualAppliancesImpl implements ListVirtualAppliances
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -66,11 +69,13 @@ public class ListVirtualAppliancesImpl implements ListVirtualAppliances
 
     @Inject
     ListVirtualAppliancesImpl(final AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor)
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         super();
         this.context = checkNotNull(context, "context");
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
@@ -92,16 +97,20 @@ public class ListVirtualAppliancesImpl implements ListVirtualAppliances
     private Iterable<VirtualApplianceDto> listConcurrentVirtualAppliances(
         final Iterable<VirtualDatacenter> vdcs)
     {
-        Iterable<VirtualAppliancesDto> vapps =
-            transformParallel(vdcs, new Function<VirtualDatacenter, Future<VirtualAppliancesDto>>()
+        Function<VirtualDatacenter, ListenableFuture<VirtualAppliancesDto>> listVirtualAppliances =
+            new Function<VirtualDatacenter, ListenableFuture<VirtualAppliancesDto>>()
             {
                 @Override
-                public Future<VirtualAppliancesDto> apply(final VirtualDatacenter input)
+                public ListenableFuture<VirtualAppliancesDto> apply(final VirtualDatacenter input)
                 {
                     return context.getAsyncApi().getCloudClient()
                         .listVirtualAppliances(input.unwrap());
                 }
-            }, userExecutor, maxTime, logger, "getting virtual appliances");
+            };
+
+        Iterable<VirtualAppliancesDto> vapps =
+            transformParallel(vdcs, limiter.limit(listVirtualAppliances), userExecutor, maxTime,
+                logger, "getting virtual appliances");
 
         return DomainWrapper.join(vapps);
     }
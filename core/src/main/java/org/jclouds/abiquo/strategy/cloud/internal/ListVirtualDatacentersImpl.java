@@ -26,7 +26,6 @@ import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -38,6 +37,7 @@ import org.jclouds.abiquo.domain.DomainWrapper;
 import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.domain.cloud.options.VirtualDatacenterOptions;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualDatacenters;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.cloud.VirtualDatacenterDto;
@@ -45,6 +45,7 @@ import com.abiquo.server.core.cloud.VirtualDatacentersDto;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -63,6 +64,8 @@ public class ListVirtualDatacentersImpl implements ListVirtualDatacenters
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -72,10 +75,12 @@ public class ListVirtualDatacentersImpl implements ListVirtualDatacenters
 
     @Inject
     ListVirtualDatacentersImpl(final AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor)
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         this.context = context;
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
@@ -119,14 +124,15 @@ public class ListVirtualDatacentersImpl implements ListVirtualDatacenters
     private Iterable<VirtualDatacenter> listConcurrentVirtualDatacenters(final List<Integer> ids)
     {
         Iterable<VirtualDatacenterDto> vdcs =
-            transformParallel(ids, new Function<Integer, Future<VirtualDatacenterDto>>()
-            {
-                @Override
-                public Future<VirtualDatacenterDto> apply(final Integer input)
+            transformParallel(ids,
+                limiter.limit(new Function<Integer, ListenableFuture<VirtualDatacenterDto>>()
                 {
-                    return context.getAsyncApi().getCloudClient().getVirtualDatacenter(input);
-                }
-            }, userExecutor, maxTime, logger, "getting virtual datacenters");
+                    @Override
+                    public ListenableFuture<VirtualDatacenterDto> apply(final Integer input)
+                    {
+                        return context.getAsyncApi().getCloudClient().getVirtualDatacenter(input);
+                    }
+                }), userExecutor, maxTime, logger, "getting virtual datacenters");
 
         return DomainWrapper.wrap(context, VirtualDatacenter.class, Lists.newArrayList(vdcs));
     }
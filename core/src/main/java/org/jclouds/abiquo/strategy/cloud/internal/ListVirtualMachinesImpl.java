@@ -21,11 +21,11 @@ package org.jclouds.abiquo.strategy.cloud.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.transform;
 import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
 import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -35,14 +35,22 @@ import org.jclouds.Constants;
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWrapper;
 import org.jclouds.abiquo.domain.cloud.VirtualAppliance;
+import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
 import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.reference.AbiquoConstants;
 import org.jclouds.abiquo.strategy.cloud.ListVirtualMachines;
+import org.jclouds.abiquo.strategy.internal.PipelinedListing;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
+import com.abiquo.server.core.cloud.VirtualApplianceDto;
+import com.abiquo.server.core.cloud.VirtualAppliancesDto;
 import com.abiquo.server.core.cloud.VirtualMachineDto;
 import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -57,6 +65,8 @@ public class ListVirtualMachinesImpl implements ListVirtualMachines
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -64,13 +74,20 @@ public class ListVirtualMachinesImpl implements ListVirtualMachines
     @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
     protected Long maxTime;
 
+    @Inject(optional = true)
+    @Named(AbiquoConstants.MAX_PIPELINED_REQUESTS)
+    @VisibleForTesting
+    protected Integer maxPipelinedRequests = 10;
+
     @Inject
     ListVirtualMachinesImpl(final AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor)
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         super();
         this.context = checkNotNull(context, "context");
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
@@ -89,21 +106,60 @@ public class ListVirtualMachinesImpl implements ListVirtualMachines
         return filter(execute(), selector);
     }
 
-    private Iterable<VirtualMachineDto> listConcurrentVirtualMachines(
-        final Iterable<VirtualAppliance> vapps)
+    @Override
+    public Iterable<VirtualMachine> executePipelined()
     {
-        Iterable<VirtualMachinesDto> vms =
-            transformParallel(vapps, new Function<VirtualAppliance, Future<VirtualMachinesDto>>()
+        Iterable<VirtualMachineDto> vms =
+            new PipelinedListing<VirtualDatacenter, VirtualApplianceDto, VirtualMachineDto>(
+                userExecutor, maxPipelinedRequests, limiter, maxTime)
             {
                 @Override
-                public Future<VirtualMachinesDto> apply(final VirtualAppliance input)
+                protected Iterable<VirtualDatacenter> listParents()
+                {
+                    return context.getCloudService().listVirtualDatacenters();
+                }
+
+                @Override
+                protected ListenableFuture<VirtualAppliancesDto> listChildren(
+                    final VirtualDatacenter parent)
                 {
                     return context.getAsyncApi().getCloudClient()
-                        .listVirtualMachines(input.unwrap());
+                        .listVirtualAppliances(parent.unwrap());
                 }
-            }, userExecutor, maxTime, logger, "getting virtual machines");
 
-        return DomainWrapper.join(vms);
+                @Override
+                protected ListenableFuture<VirtualMachinesDto> listElements(
+                    final VirtualApplianceDto child)
+                {
+                    return context.getAsyncApi().getCloudClient().listVirtualMachines(child);
+                }
+            };
+
+        return transform(vms, new Function<VirtualMachineDto, VirtualMachine>()
+        {
+            @Override
+            public VirtualMachine apply(final VirtualMachineDto input)
+            {
+                return wrap(context, VirtualMachine.class, input);
+            }
+        });
     }
 
+    private Iterable<VirtualMachineDto> listConcurrentVirtualMachines(
+        final Iterable<VirtualAppliance> vapps)
+    {
+        Iterable<VirtualMachinesDto> vms =
+            transformParallel(vapps,
+                limiter.limit(new Function<VirtualAppliance, ListenableFuture<VirtualMachinesDto>>()
+                {
+                    @Override
+                    public ListenableFuture<VirtualMachinesDto> apply(final VirtualAppliance input)
+                    {
+                        return context.getAsyncApi().getCloudClient()
+                            .listVirtualMachines(input.unwrap());
+                    }
+                }), userExecutor, maxTime, logger, "getting virtual machines");
+
+        return DomainWrapper.join(vms);
+    }
 }
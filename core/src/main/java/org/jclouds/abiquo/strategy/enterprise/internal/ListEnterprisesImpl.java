@@ -26,6 +26,7 @@ import javax.inject.Singleton;
 
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
+import org.jclouds.abiquo.domain.enterprise.options.EnterpriseOptions;
 import org.jclouds.abiquo.strategy.enterprise.ListEnterprises;
 
 import com.abiquo.server.core.enterprise.EnterprisesDto;
@@ -62,7 +63,10 @@ public class ListEnterprisesImpl implements ListEnterprises
     @Override
     public Iterable<Enterprise> execute(final Predicate<Enterprise> selector)
     {
-        return filter(execute(), selector);
+        // Narrow the results in the server side if the selector can be translated to query params
+        EnterpriseOptions options = EnterpriseOptions.builder().build().filterBy(selector);
+        EnterprisesDto result = context.getApi().getEnterpriseClient().listEnterprises(options);
+        return filter(wrap(context, Enterprise.class, result.getCollection()), selector);
     }
 
 }
@@ -25,7 +25,6 @@ import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
 import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -38,12 +37,14 @@ import org.jclouds.abiquo.domain.cloud.VirtualMachineTemplate;
 import org.jclouds.abiquo.domain.enterprise.Enterprise;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
 import org.jclouds.abiquo.strategy.enterprise.ListVirtualMachineTemplates;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.appslibrary.VirtualMachineTemplateDto;
 import com.abiquo.server.core.appslibrary.VirtualMachineTemplatesDto;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -58,6 +59,8 @@ public class ListVirtualMachineTemplatesImpl implements ListVirtualMachineTempla
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -67,11 +70,13 @@ public class ListVirtualMachineTemplatesImpl implements ListVirtualMachineTempla
 
     @Inject
     ListVirtualMachineTemplatesImpl(final AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor)
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         super();
         this.context = checkNotNull(context, "context");
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
@@ -94,16 +99,20 @@ public class ListVirtualMachineTemplatesImpl implements ListVirtualMachineTempla
     private Iterable<VirtualMachineTemplateDto> listConcurrentTemplates(final Enterprise parent,
         final Iterable<Datacenter> dcs)
     {
-        Iterable<VirtualMachineTemplatesDto> templates =
-            transformParallel(dcs, new Function<Datacenter, Future<VirtualMachineTemplatesDto>>()
+        Function<Datacenter, ListenableFuture<VirtualMachineTemplatesDto>> listTemplates =
+            new Function<Datacenter, ListenableFuture<VirtualMachineTemplatesDto>>()
             {
                 @Override
-                public Future<VirtualMachineTemplatesDto> apply(final Datacenter input)
+                public ListenableFuture<VirtualMachineTemplatesDto> apply(final Datacenter input)
                 {
                     return context.getAsyncApi().getVirtualMachineTemplateClient()
                         .listVirtualMachineTemplates(parent.getId(), input.getId());
                 }
-            }, userExecutor, maxTime, logger, "getting virtual machine templates");
+            };
+
+        Iterable<VirtualMachineTemplatesDto> templates =
+            transformParallel(dcs, limiter.limit(listTemplates), userExecutor, maxTime, logger,
+                "getting virtual machine templates");
 
         return DomainWrapper.join(templates);
     }
@@ -33,5 +33,13 @@ import com.google.inject.ImplementedBy;
 @ImplementedBy(ListMachinesImpl.class)
 public interface ListMachines extends ListRootEntities<Machine>
 {
-
+    /**
+     * Lists the machines without waiting for all the racks to be retrieved.
+     * <p>
+     * The machines of each rack are requested as soon as the racks of its datacenter are
+     * received, and are returned by the iterator as soon as they arrive. The number of concurrent
+     * requests and responses not yet consumed is bounded, so the whole collection is never held
+     * in memory.
+     */
+    Iterable<Machine> executePipelined();
 }
@@ -26,7 +26,6 @@ import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -37,6 +36,7 @@ import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.domain.DomainWrapper;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
 import org.jclouds.abiquo.strategy.infrastructure.ListDatacenters;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.infrastructure.DatacenterDto;
@@ -44,6 +44,7 @@ import com.abiquo.server.core.infrastructure.DatacentersDto;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -62,6 +63,8 @@ public class ListDatacentersImpl implements ListDatacenters
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -71,10 +74,12 @@ public class ListDatacentersImpl implements ListDatacenters
 
     @Inject
     ListDatacentersImpl(final AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor)
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         this.context = context;
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
@@ -100,14 +105,15 @@ public class ListDatacentersImpl implements ListDatacenters
     private Iterable<Datacenter> listConcurrentDatacenters(final List<Integer> ids)
     {
         Iterable<DatacenterDto> dcs =
-            transformParallel(ids, new Function<Integer, Future<DatacenterDto>>()
-            {
-                @Override
-                public Future<DatacenterDto> apply(final Integer input)
+            transformParallel(ids,
+                limiter.limit(new Function<Integer, ListenableFuture<DatacenterDto>>()
                 {
-                    return context.getAsyncApi().getInfrastructureClient().getDatacenter(input);
-                }
-            }, userExecutor, maxTime, logger, "getting datacenters");
+                    @Override
+                    public ListenableFuture<DatacenterDto> apply(final Integer input)
+                    {
+                        return context.getAsyncApi().getInfrastructureClient().getDatacenter(input);
+                    }
+                }), userExecutor, maxTime, logger, "getting datacenters");
 
         return DomainWrapper.wrap(context, Datacenter.class, Lists.newArrayList(dcs));
     }
@@ -21,11 +21,10 @@ package org.jclouds.abiquo.strategy.infrastructure.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.transform;
 import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
-import static org.jclouds.concurrent.FutureIterables.transformParallel;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
@@ -33,18 +32,23 @@ import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.abiquo.AbiquoContext;
-import org.jclouds.abiquo.domain.DomainWrapper;
 import org.jclouds.abiquo.domain.infrastructure.Datacenter;
 import org.jclouds.abiquo.domain.infrastructure.Machine;
+import org.jclouds.abiquo.reference.AbiquoConstants;
 import org.jclouds.abiquo.strategy.infrastructure.ListMachines;
+import org.jclouds.abiquo.strategy.internal.PipelinedListing;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
 import org.jclouds.logging.Logger;
 
 import com.abiquo.server.core.infrastructure.MachineDto;
 import com.abiquo.server.core.infrastructure.MachinesDto;
 import com.abiquo.server.core.infrastructure.RackDto;
 import com.abiquo.server.core.infrastructure.RacksDto;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
@@ -59,6 +63,8 @@ public class ListMachinesImpl implements ListMachines
 
     protected final ExecutorService userExecutor;
 
+    protected final RequestLimiter limiter;
+
     @Resource
     protected Logger logger = Logger.NULL;
 
@@ -66,61 +72,69 @@ public class ListMachinesImpl implements ListMachines
     @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
     protected Long maxTime;
 
+    @Inject(optional = true)
+    @Named(AbiquoConstants.MAX_PIPELINED_REQUESTS)
+    @VisibleForTesting
+    protected Integer maxPipelinedRequests = 10;
+
     @Inject
-    ListMachinesImpl(AbiquoContext context,
-        @Named(Constants.PROPERTY_USER_THREADS) ExecutorService userExecutor)
+    ListMachinesImpl(final AbiquoContext context,
+        @Named(Constants.PROPERTY_USER_THREADS) final ExecutorService userExecutor,
+        final RequestLimiter limiter)
     {
         super();
         this.context = checkNotNull(context, "context");
         this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+        this.limiter = checkNotNull(limiter, "limiter");
     }
 
     @Override
     public Iterable<Machine> execute()
     {
-        // Find machines in concurrent requests
-        Iterable<Datacenter> datacenters = context.getAdministrationService().listDatacenters();
-        Iterable<RackDto> racks = listConcurrentRacks(datacenters);
-        Iterable<MachineDto> machines = listConcurrentMachines(racks);
-
-        return wrap(context, Machine.class, machines);
+        // The machines of each rack are requested as soon as the rack is received
+        return Lists.newArrayList(executePipelined());
     }
 
     @Override
-    public Iterable<Machine> execute(Predicate<Machine> selector)
+    public Iterable<Machine> execute(final Predicate<Machine> selector)
     {
         return filter(execute(), selector);
     }
 
-    private Iterable<RackDto> listConcurrentRacks(Iterable<Datacenter> datacenters)
+    @Override
+    public Iterable<Machine> executePipelined()
     {
-        Iterable<RacksDto> racks =
-            transformParallel(datacenters, new Function<Datacenter, Future<RacksDto>>()
+        Iterable<MachineDto> machines =
+            new PipelinedListing<Datacenter, RackDto, MachineDto>(userExecutor,
+                maxPipelinedRequests, limiter, maxTime)
             {
                 @Override
-                public Future<RacksDto> apply(Datacenter input)
+                protected Iterable<Datacenter> listParents()
                 {
-                    return context.getAsyncApi().getInfrastructureClient()
-                        .listRacks(input.unwrap());
+                    return context.getAdministrationService().listDatacenters();
                 }
-            }, userExecutor, maxTime, logger, "getting racks");
 
-        return DomainWrapper.join(racks);
-    }
+                @Override
+                protected ListenableFuture<RacksDto> listChildren(final Datacenter parent)
+                {
+                    return context.getAsyncApi().getInfrastructureClient()
+                        .listRacks(parent.unwrap());
+                }
 
-    private Iterable<MachineDto> listConcurrentMachines(Iterable<RackDto> racks)
-    {
-        Iterable<MachinesDto> machines =
-            transformParallel(racks, new Function<RackDto, Future<MachinesDto>>()
-            {
                 @Override
-                public Future<MachinesDto> apply(RackDto input)
+                protected ListenableFuture<MachinesDto> listElements(final RackDto child)
                 {
-                    return context.getAsyncApi().getInfrastructureClient().listMachines(input);
+                    return context.getAsyncApi().getInfrastructureClient().listMachines(child);
                 }
-            }, userExecutor, maxTime, logger, "getting machines");
+            };
 
-        return DomainWrapper.join(machines);
+        return transform(machines, new Function<MachineDto, Machine>()
+        {
+            @Override
+            public Machine apply(final MachineDto input)
+            {
+                return wrap(context, Machine.class, input);
+            }
+        });
     }
-
 }
@@ -0,0 +1,129 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+
+import javax.inject.Singleton;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+
+/**
+ * Keeps the permits used to limit the concurrent requests sent to each host.
+ * <p>
+ * Each context has its own registry, so by default the host limits of different contexts are
+ * independent. To share the limit of a host between several contexts, bind a single registry
+ * instance in the modules used to build all of them. All the contexts that share the permits of a
+ * host must configure the same limit, and the permits are discarded when all of them have been
+ * closed.
+ * 
+ * @author Ignasi Barrera
+ * @see org.jclouds.abiquo.reference.AbiquoConstants#MAX_FAN_OUT_REQUESTS_PER_HOST
+ */
+@Singleton
+public class HostPermitRegistry
+{
+    /** The permits of each host. Guarded by this. */
+    private final Map<String, HostPermits> permits = Maps.newHashMap();
+
+    /**
+     * Gets the permits of the given host, creating them if they do not exist.
+     * 
+     * @param host The host and port.
+     * @param size The number of permits.
+     * @throws IllegalArgumentException If the permits of the host exist with a different size.
+     */
+    synchronized HostPermits acquire(final String host, final int size)
+    {
+        checkNotNull(host, "host");
+        checkArgument(size > 0, "size must be greater than zero");
+
+        HostPermits hostPermits = permits.get(host);
+        if (hostPermits == null)
+        {
+            hostPermits = new HostPermits(host, size);
+            permits.put(host, hostPermits);
+        }
+        else
+        {
+            checkArgument(hostPermits.size == size, "cannot limit the requests to %s to %s, since "
+                + "the limit is shared with a context that configured %s", host, size,
+                hostPermits.size);
+        }
+
+        hostPermits.users++;
+        return hostPermits;
+    }
+
+    /**
+     * Releases the given permits, discarding them if they are no longer used.
+     */
+    synchronized void release(final HostPermits hostPermits)
+    {
+        checkState(permits.get(hostPermits.host) == hostPermits, "the permits of %s are not in use",
+            hostPermits.host);
+
+        if (--hostPermits.users == 0)
+        {
+            permits.remove(hostPermits.host);
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int size()
+    {
+        return permits.size();
+    }
+
+    /**
+     * The permits of a host.
+     * 
+     * @author Ignasi Barrera
+     */
+    static class HostPermits
+    {
+        final String host;
+
+        final int size;
+
+        final Semaphore semaphore;
+
+        /** Dispatch the requests of each context that are waiting for the permits. */
+        final List<Runnable> dispatchers = new CopyOnWriteArrayList<Runnable>();
+
+        /** The number of contexts using the permits. Guarded by the registry. */
+        private int users = 0;
+
+        private HostPermits(final String host, final int size)
+        {
+            this.host = host;
+            this.size = size;
+            this.semaphore = new Semaphore(size, true);
+        }
+    }
+}
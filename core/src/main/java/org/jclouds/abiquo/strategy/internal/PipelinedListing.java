@@ -0,0 +1,354 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.abiquo.model.transport.WrapperDto;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Lists the resources that are two levels below a set of parent resources in a single request
+ * pipeline, such as the virtual machines in the virtual appliances of each virtual datacenter.
+ * <p>
+ * The children of each parent are requested as soon as there is a free slot, and the elements of
+ * each child are requested as soon as the child is received, with priority over the pending
+ * parents. Elements are returned by the iterator as soon as they arrive.
+ * <p>
+ * Each slot is released when the children are received, or when the elements are consumed by the
+ * iterator, so each iterator never holds more than <code>maxRequests</code> pending responses.
+ * Requests are also submitted to the given {@link RequestLimiter}, so the concurrent requests of
+ * all the listings of the context are bounded too. They are queued by the limiter when there are
+ * no permits available, so neither the iterator nor the threads that process the responses wait
+ * for them.
+ * <p>
+ * If a maximum time is given, the iterator waits at most that time for each response, and fails
+ * with a {@link TimeoutException} if the pipeline does not make progress in time.
+ * 
+ * @author Ignasi Barrera
+ * @param <P> The type of the parent resources.
+ * @param <C> The type of the child resources.
+ * @param <T> The type of the listed elements.
+ */
+public abstract class PipelinedListing<P, C, T> implements Iterable<T>
+{
+    /** Signals a change in the pipeline that does not produce elements. */
+    private static final Object WAKEUP = new Object();
+
+    /** The executor where the responses are processed. */
+    private final ExecutorService executor;
+
+    private final int maxRequests;
+
+    private final RequestLimiter limiter;
+
+    /** The maximum time to wait for each response, in milliseconds, or <code>null</code>. */
+    private final Long maxTime;
+
+    private final Function<P, ListenableFuture< ? extends WrapperDto<C>>> childrenRequest =
+        new Function<P, ListenableFuture< ? extends WrapperDto<C>>>()
+        {
+            @Override
+            public ListenableFuture< ? extends WrapperDto<C>> apply(final P input)
+            {
+                return listChildren(input);
+            }
+        };
+
+    private final Function<C, ListenableFuture< ? extends WrapperDto<T>>> elementsRequest =
+        new Function<C, ListenableFuture< ? extends WrapperDto<T>>>()
+        {
+            @Override
+            public ListenableFuture< ? extends WrapperDto<T>> apply(final C input)
+            {
+                return listElements(input);
+            }
+        };
+
+    /**
+     * Creates a listing that waits indefinitely for each response.
+     */
+    protected PipelinedListing(final ExecutorService executor, final int maxRequests,
+        final RequestLimiter limiter)
+    {
+        this(executor, maxRequests, limiter, null);
+    }
+
+    /**
+     * Creates a listing that waits at most <code>maxTime</code> milliseconds for each response. A
+     * <code>null</code> value waits indefinitely.
+     */
+    protected PipelinedListing(final ExecutorService executor, final int maxRequests,
+        final RequestLimiter limiter, final Long maxTime)
+    {
+        checkArgument(maxRequests > 0, "maxRequests must be greater than zero");
+        this.executor = checkNotNull(executor, "executor");
+        this.maxRequests = maxRequests;
+        this.limiter = checkNotNull(limiter, "limiter");
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * Lists the parent resources. This method is called in the thread that starts the iteration.
+     */
+    protected abstract Iterable<P> listParents();
+
+    /**
+     * Asynchronously lists the children of the given parent.
+     */
+    protected abstract ListenableFuture< ? extends WrapperDto<C>> listChildren(P parent);
+
+    /**
+     * Asynchronously lists the elements of the given child.
+     */
+    protected abstract ListenableFuture< ? extends WrapperDto<T>> listElements(C child);
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Pipeline();
+    }
+
+    private class Pipeline extends AbstractIterator<T>
+    {
+        private final Queue<P> pendingParents = new ConcurrentLinkedQueue<P>();
+
+        private final Queue<C> pendingChildren = new ConcurrentLinkedQueue<C>();
+
+        /** The received element lists, errors and wakeup signals. */
+        private final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+
+        /** Parents and children whose contents have not been consumed. */
+        private final AtomicInteger remaining = new AtomicInteger(0);
+
+        /** Requests submitted whose results have not been consumed. Guarded by this. */
+        private int inFlight = 0;
+
+        private boolean started = false;
+
+        private Iterator<T> current = Collections.<T> emptyList().iterator();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected T computeNext()
+        {
+            if (!started)
+            {
+                start();
+            }
+
+            while (!current.hasNext())
+            {
+                if (remaining.get() == 0)
+                {
+                    return endOfData();
+                }
+
+                Object result = take();
+                if (result instanceof Throwable)
+                {
+                    throw Throwables.propagate((Throwable) result);
+                }
+                else if (result instanceof List)
+                {
+                    current = ((List<T>) result).iterator();
+                    remaining.decrementAndGet();
+                    release();
+                }
+            }
+
+            return current.next();
+        }
+
+        private void start()
+        {
+            started = true;
+            for (P parent : listParents())
+            {
+                pendingParents.add(parent);
+                remaining.incrementAndGet();
+            }
+            dispatch();
+        }
+
+        private void release()
+        {
+            synchronized (this)
+            {
+                inFlight--;
+            }
+            dispatch();
+        }
+
+        /**
+         * Takes the slots available for the pending children and parents, and sends their requests
+         * once the slots have been taken, so the limiter is never called with the lock held.
+         */
+        private void dispatch()
+        {
+            List<C> children = Lists.newArrayList();
+            List<P> parents = Lists.newArrayList();
+
+            synchronized (this)
+            {
+                while (inFlight < maxRequests)
+                {
+                    C child = pendingChildren.poll();
+                    if (child != null)
+                    {
+                        inFlight++;
+                        children.add(child);
+                        continue;
+                    }
+
+                    P parent = pendingParents.poll();
+                    if (parent != null)
+                    {
+                        inFlight++;
+                        parents.add(parent);
+                        continue;
+                    }
+
+                    break;
+                }
+            }
+
+            for (C child : children)
+            {
+                requestElements(child);
+            }
+            for (P parent : parents)
+            {
+                requestChildren(parent);
+            }
+        }
+
+        private void requestElements(final C child)
+        {
+            final ListenableFuture< ? extends WrapperDto<T>> future =
+                limiter.submit(elementsRequest, child);
+            future.addListener(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    // The slot is released when the elements are consumed
+                    results.add(getResult(future));
+                }
+            }, executor);
+        }
+
+        private void requestChildren(final P parent)
+        {
+            final ListenableFuture< ? extends WrapperDto<C>> future =
+                limiter.submit(childrenRequest, parent);
+            future.addListener(new Runnable()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void run()
+                {
+                    Object result = getResult(future);
+                    if (result instanceof List)
+                    {
+                        List<C> children = (List<C>) result;
+                        // The parent is replaced by its children. They must be counted before
+                        // they are published, or another thread could request and consume them
+                        // and see no remaining work while there are still unpublished children
+                        remaining.addAndGet(children.size() - 1);
+                        pendingChildren.addAll(children);
+                        results.add(WAKEUP);
+                    }
+                    else
+                    {
+                        results.add(result);
+                    }
+
+                    release();
+                }
+            }, executor);
+        }
+
+        /**
+         * Returns the collection in the response, or the error that prevented to get it.
+         */
+        private Object getResult(final Future< ? extends WrapperDto< ? >> future)
+        {
+            try
+            {
+                WrapperDto< ? > dto = future.get();
+                List< ? > collection = dto == null ? null : dto.getCollection();
+                return collection == null ? Collections.emptyList() : collection;
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                return ex;
+            }
+            catch (ExecutionException ex)
+            {
+                return ex.getCause();
+            }
+        }
+
+        private Object take()
+        {
+            try
+            {
+                if (maxTime == null)
+                {
+                    return results.take();
+                }
+
+                Object result = results.poll(maxTime, TimeUnit.MILLISECONDS);
+                if (result == null)
+                {
+                    throw Throwables.propagate(new TimeoutException("no response received in "
+                        + maxTime + " ms"));
+                }
+                return result;
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw Throwables.propagate(ex);
+            }
+        }
+    }
+}
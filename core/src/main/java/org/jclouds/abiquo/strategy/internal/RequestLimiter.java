@@ -0,0 +1,468 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.abiquo.reference.AbiquoConstants;
+import org.jclouds.abiquo.strategy.internal.HostPermitRegistry.HostPermits;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.location.Provider;
+import org.jclouds.logging.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Limits the number of concurrent requests sent by the strategies that fan out one request per
+ * resource.
+ * <p>
+ * Each request must acquire a permit from the context limit and another one from the limit of the
+ * target host, and releases them when the response is received. The host limits are kept in the
+ * {@link HostPermitRegistry} of the context, which can be shared with other contexts.
+ * <p>
+ * Requests can wait for the permits in the calling thread, or be queued and sent by the thread
+ * that releases the permits, so the threads that process the responses never block.
+ * <p>
+ * The time spent waiting for the permits is recorded, so the limits can be tuned against the
+ * capacity of the server.
+ * 
+ * @author Ignasi Barrera
+ * @see AbiquoConstants#MAX_FAN_OUT_REQUESTS
+ * @see AbiquoConstants#MAX_FAN_OUT_REQUESTS_PER_HOST
+ */
+@Singleton
+public class RequestLimiter
+{
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    /** The permits of the context, or <code>null</code> if it is not limited. */
+    private final Semaphore contextPermits;
+
+    /** The permits of the host, or <code>null</code> if it is not limited. */
+    private final HostPermits hostPermits;
+
+    /** The requests waiting for permits without blocking a thread. */
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<Runnable>();
+
+    /** The pending dispatches. Only the thread that increments it from zero sends requests. */
+    private final AtomicInteger dispatches = new AtomicInteger(0);
+
+    /** Notified when other contexts release the permits of the host. */
+    private final Runnable dispatcher = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            dispatchPending();
+        }
+    };
+
+    private final AtomicLong limitedRequests = new AtomicLong(0);
+
+    private final AtomicLong totalQueueTime = new AtomicLong(0);
+
+    private final AtomicLong maxQueueTime = new AtomicLong(0);
+
+    /**
+     * Creates a limiter with its own host limits.
+     */
+    public RequestLimiter(final URI endpoint, final int maxRequests, final int maxRequestsPerHost)
+    {
+        this(endpoint, maxRequests, maxRequestsPerHost, new HostPermitRegistry(), new Closer());
+    }
+
+    /**
+     * Creates a limiter that takes the host limits from the given registry. The host permits are
+     * returned to the registry when the context is closed.
+     */
+    @Inject
+    public RequestLimiter(@Provider final URI endpoint,
+        @Named(AbiquoConstants.MAX_FAN_OUT_REQUESTS) final int maxRequests,
+        @Named(AbiquoConstants.MAX_FAN_OUT_REQUESTS_PER_HOST) final int maxRequestsPerHost,
+        final HostPermitRegistry registry, final Closer closer)
+    {
+        checkNotNull(endpoint, "endpoint");
+        checkNotNull(registry, "registry");
+        checkNotNull(closer, "closer");
+        checkArgument(maxRequests >= 0, "maxRequests must be greater or equal than zero");
+        checkArgument(maxRequestsPerHost >= 0,
+            "maxRequestsPerHost must be greater or equal than zero");
+
+        this.contextPermits = maxRequests == 0 ? null : new Semaphore(maxRequests, true);
+        this.hostPermits =
+            maxRequestsPerHost == 0 ? null : registry.acquire(hostKey(endpoint),
+                maxRequestsPerHost);
+
+        if (hostPermits != null)
+        {
+            hostPermits.dispatchers.add(dispatcher);
+            closer.addToClose(new ReleaseHostPermitsOnClose(registry, hostPermits, dispatcher));
+        }
+    }
+
+    /**
+     * Decorates the given function so each invocation waits for the permits before sending the
+     * request, and releases them when the response is received.
+     * <p>
+     * The returned function blocks the calling thread while there are no permits available, so
+     * it can be directly used in the
+     * {@link org.jclouds.concurrent.FutureIterables#transformParallel} methods.
+     */
+    public <F, T> Function<F, Future<T>> limit(
+        final Function<F, ? extends ListenableFuture<T>> function)
+    {
+        checkNotNull(function, "function");
+
+        return new Function<F, Future<T>>()
+        {
+            @Override
+            public Future<T> apply(final F input)
+            {
+                return RequestLimiter.this.apply(function, input);
+            }
+        };
+    }
+
+    /**
+     * Waits for the permits and applies the given function. The permits are released when the
+     * returned future completes.
+     */
+    public <F, R extends ListenableFuture< ? >> R apply(final Function<F, R> function,
+        final F input)
+    {
+        acquire();
+
+        R future = null;
+        try
+        {
+            future = function.apply(input);
+        }
+        finally
+        {
+            if (future == null)
+            {
+                release();
+            }
+        }
+
+        future.addListener(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                release();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        return future;
+    }
+
+    /**
+     * Applies the given function as soon as the permits are available, without blocking the
+     * calling thread. The permits are released when the response is received.
+     * <p>
+     * The function is applied in the calling thread if the permits are available, or queued and
+     * applied in the thread that releases them otherwise, so it must not block.
+     * 
+     * @return A future with the response, or with the error thrown by the function.
+     */
+    public <F, T> ListenableFuture<T> submit(
+        final Function<F, ? extends ListenableFuture< ? extends T>> function, final F input)
+    {
+        checkNotNull(function, "function");
+
+        final SettableFuture<T> result = SettableFuture.create();
+        final long start = System.nanoTime();
+
+        pending.add(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                recordQueueTime(System.nanoTime() - start);
+
+                final ListenableFuture< ? extends T> future;
+                try
+                {
+                    future = function.apply(input);
+                }
+                catch (RuntimeException ex)
+                {
+                    release();
+                    result.setException(ex);
+                    return;
+                }
+
+                future.addListener(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        release();
+                        try
+                        {
+                            result.set(Uninterruptibles.getUninterruptibly(future));
+                        }
+                        catch (ExecutionException ex)
+                        {
+                            result.setException(ex.getCause());
+                        }
+                        catch (CancellationException ex)
+                        {
+                            result.cancel(false);
+                        }
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+        });
+
+        dispatchPending();
+        return result;
+    }
+
+    /**
+     * Gets the number of requests that have gone through the limiter.
+     */
+    public long getLimitedRequests()
+    {
+        return limitedRequests.get();
+    }
+
+    /**
+     * Gets the total time the requests have been waiting for a permit.
+     */
+    public long getTotalQueueTime(final TimeUnit unit)
+    {
+        return unit.convert(totalQueueTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the maximum time a request has been waiting for a permit.
+     */
+    public long getMaxQueueTime(final TimeUnit unit)
+    {
+        return unit.convert(maxQueueTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the average time the requests have been waiting for a permit.
+     */
+    public long getAverageQueueTime(final TimeUnit unit)
+    {
+        long requests = limitedRequests.get();
+        return requests == 0 ? 0 : getTotalQueueTime(unit) / requests;
+    }
+
+    @VisibleForTesting
+    void acquire()
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            if (contextPermits != null)
+            {
+                contextPermits.acquire();
+            }
+            if (hostPermits != null)
+            {
+                try
+                {
+                    hostPermits.semaphore.acquire();
+                }
+                catch (InterruptedException ex)
+                {
+                    if (contextPermits != null)
+                    {
+                        contextPermits.release();
+                    }
+                    throw ex;
+                }
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(ex);
+        }
+
+        recordQueueTime(System.nanoTime() - start);
+    }
+
+    @VisibleForTesting
+    void release()
+    {
+        if (hostPermits != null)
+        {
+            hostPermits.semaphore.release();
+        }
+        if (contextPermits != null)
+        {
+            contextPermits.release();
+        }
+
+        if (hostPermits != null)
+        {
+            // The released host permit may be used by the pending requests of any context
+            for (Runnable hostDispatcher : hostPermits.dispatchers)
+            {
+                hostDispatcher.run();
+            }
+        }
+        else
+        {
+            dispatchPending();
+        }
+    }
+
+    /**
+     * Acquires the permits if they are available, without waiting.
+     */
+    private boolean tryAcquire()
+    {
+        if (contextPermits != null && !contextPermits.tryAcquire())
+        {
+            return false;
+        }
+        if (hostPermits != null && !hostPermits.semaphore.tryAcquire())
+        {
+            if (contextPermits != null)
+            {
+                contextPermits.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends the pending requests while there are permits available. Only one thread sends them at
+     * a time, and it keeps sending them until no other thread has asked to dispatch them, so the
+     * requests released while sending others are not lost.
+     */
+    private void dispatchPending()
+    {
+        if (dispatches.getAndIncrement() != 0)
+        {
+            return;
+        }
+
+        int missed = 1;
+        do
+        {
+            while (!pending.isEmpty() && tryAcquire())
+            {
+                // This is the only thread that takes requests from the queue
+                pending.poll().run();
+            }
+            missed = dispatches.addAndGet(-missed);
+        }
+        while (missed != 0);
+    }
+
+    private void recordQueueTime(final long queueTime)
+    {
+        limitedRequests.incrementAndGet();
+        totalQueueTime.addAndGet(queueTime);
+        updateMaxQueueTime(queueTime);
+
+        logger.trace("request waited %s ms for a permit",
+            TimeUnit.NANOSECONDS.toMillis(queueTime));
+    }
+
+    private void updateMaxQueueTime(final long queueTime)
+    {
+        long max = maxQueueTime.get();
+        while (queueTime > max && !maxQueueTime.compareAndSet(max, queueTime))
+        {
+            max = maxQueueTime.get();
+        }
+    }
+
+    /**
+     * Gets the key of the host limit of the given endpoint. Endpoints without an explicit port use
+     * the default port of their scheme, so they share the limit with the ones that set it.
+     */
+    @VisibleForTesting
+    static String hostKey(final URI endpoint)
+    {
+        int port = endpoint.getPort();
+        if (port == -1)
+        {
+            port = "https".equalsIgnoreCase(endpoint.getScheme()) ? 443 : 80;
+        }
+        return endpoint.getHost().toLowerCase() + ":" + port;
+    }
+
+    /**
+     * Returns the host permits to the registry when the context is closed.
+     * 
+     * @author Ignasi Barrera
+     */
+    private static final class ReleaseHostPermitsOnClose implements Closeable
+    {
+        private final HostPermitRegistry registry;
+
+        private final HostPermits hostPermits;
+
+        private final Runnable dispatcher;
+
+        private ReleaseHostPermitsOnClose(final HostPermitRegistry registry,
+            final HostPermits hostPermits, final Runnable dispatcher)
+        {
+            this.registry = registry;
+            this.hostPermits = hostPermits;
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            hostPermits.dispatchers.remove(dispatcher);
+            registry.release(hostPermits);
+        }
+    }
+}
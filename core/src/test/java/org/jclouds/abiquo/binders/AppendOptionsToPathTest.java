@@ -24,12 +24,12 @@ import static org.testng.Assert.assertEquals;
 import java.net.URI;
 
 import org.jclouds.abiquo.domain.options.QueryOptions;
+import org.jclouds.abiquo.domain.options.search.FilterOptions;
 import org.jclouds.http.HttpRequest;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
-import com.sun.jersey.api.uri.UriBuilderImpl;
 
 /**
  * Unit tests for the {@link AppendOptionsToPath} binder.
@@ -43,7 +43,7 @@ public class AppendOptionsToPathTest
     @Test(expectedExceptions = NullPointerException.class)
     public void testInvalidNullInput()
     {
-        AppendOptionsToPath binder = new AppendOptionsToPath(new UriBuilderImpl());
+        AppendOptionsToPath binder = new AppendOptionsToPath();
         HttpRequest request =
             HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
         binder.bindToRequest(request, null);
@@ -52,7 +52,7 @@ public class AppendOptionsToPathTest
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testInvalidTypeInput()
     {
-        AppendOptionsToPath binder = new AppendOptionsToPath(new UriBuilderImpl());
+        AppendOptionsToPath binder = new AppendOptionsToPath();
         HttpRequest request =
             HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
         binder.bindToRequest(request, new Object());
@@ -60,7 +60,7 @@ public class AppendOptionsToPathTest
 
     public void testBindEmptyOptions()
     {
-        AppendOptionsToPath binder = new AppendOptionsToPath(new UriBuilderImpl());
+        AppendOptionsToPath binder = new AppendOptionsToPath();
         HttpRequest request =
             HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
         HttpRequest newRequest = binder.bindToRequest(request, EMPTY_OPTIONS);
@@ -69,7 +69,7 @@ public class AppendOptionsToPathTest
 
     public void testBindOptions()
     {
-        AppendOptionsToPath binder = new AppendOptionsToPath(new UriBuilderImpl());
+        AppendOptionsToPath binder = new AppendOptionsToPath();
         HttpRequest request =
             HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
         HttpRequest newRequest = binder.bindToRequest(request, DUMMY_OPTIONS);
@@ -77,6 +77,29 @@ public class AppendOptionsToPathTest
             "GET http://localhost?option=optionvalue HTTP/1.1");
     }
 
+    public void testBindOptionsWithExistingQuery()
+    {
+        AppendOptionsToPath binder = new AppendOptionsToPath();
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost?param=value"))
+                .build();
+        HttpRequest newRequest = binder.bindToRequest(request, DUMMY_OPTIONS);
+        assertEquals(newRequest.getRequestLine(),
+            "GET http://localhost?param=value&option=optionvalue HTTP/1.1");
+    }
+
+    public void testBindEncodedOptions()
+    {
+        AppendOptionsToPath binder = new AppendOptionsToPath();
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
+        HttpRequest newRequest =
+            binder.bindToRequest(request, FilterOptions.builder().has("my vm&co").limit(10)
+                .build());
+        assertEquals(newRequest.getRequestLine(),
+            "GET http://localhost?limit=10&has=my%20vm%26co HTTP/1.1");
+    }
+
     private QueryOptions EMPTY_OPTIONS = new QueryOptions()
     {
         @Override
@@ -20,6 +20,8 @@
 package org.jclouds.abiquo.binders;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 
 import java.lang.reflect.Method;
 import java.net.URI;
@@ -171,8 +173,40 @@ public class BindToPathTest
             "GET http://linkuri?param=value;matrix=value2 HTTP/1.1");
     }
 
+    public void testEndpointLinksAreCachedPerMethod() throws SecurityException,
+        NoSuchMethodException
+    {
+        TestDto first = new TestDto();
+        TestDto second = new TestDto();
+        Method withSecondEndpointLink =
+            TestEndpointLink.class.getMethod("withSecondEndpointLink", TestDto.class,
+                TestDto.class);
+        GeneratedHttpRequest<TestEndpointLink> request =
+            GeneratedHttpRequest.<TestEndpointLink> requestBuilder().declaring(
+                TestEndpointLink.class).javaMethod(withSecondEndpointLink).args(
+                ImmutableList.<Object> of(first, second)).method(HttpMethod.GET).endpoint(
+                URI.create("http://localhost")).build();
+
+        BindToPath binder = new BindToPath();
+        GeneratedHttpRequest<TestEndpointLink> newRequest = binder.bindToRequest(request, second);
+        assertEquals(newRequest.getRequestLine(), "GET http://linkuri HTTP/1.1");
+
+        EndpointLink[] links = BindToPath.ENDPOINT_LINKS.get(withSecondEndpointLink);
+        assertEquals(links.length, 2);
+        assertNull(links[0]);
+        assertEquals(links[1].value(), "edit");
+
+        // The cached annotations are used in subsequent requests
+        newRequest = binder.bindToRequest(request, second);
+        assertEquals(newRequest.getRequestLine(), "GET http://linkuri HTTP/1.1");
+        assertSame(BindToPath.ENDPOINT_LINKS.get(withSecondEndpointLink), links);
+    }
+
     static interface TestEndpointLink
     {
+        @GET
+        void withSecondEndpointLink(TestDto first, @EndpointLink("edit") TestDto second);
+
         @GET
         void withEndpointLink(@EndpointLink("edit") TestDto dto);
 
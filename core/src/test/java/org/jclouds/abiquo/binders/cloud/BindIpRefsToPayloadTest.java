@@ -91,4 +91,21 @@ public class BindIpRefsToPayloadTest
             + "<links><link href=\"" + ip.searchLink("self").getHref() + "\" rel=\""
             + ip.searchLink("self").getTitle() + "\"/></links>");
     }
+
+    public void testBindRepeatedIpsKeepsOrder()
+    {
+        IpPoolManagementDto first = NetworkResources.privateIpPut();
+        IpPoolManagementDto second = NetworkResources.privateIpPut();
+        second.searchLink("self").setHref(first.searchLink("self").getHref() + "0");
+
+        BindIpRefsToPayload binder = new BindIpRefsToPayload(new JAXBParser());
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://localhost")).build();
+        request = binder.bindToRequest(request, new IpPoolManagementDto[] {first, second, first});
+        assertEquals(request.getPayload().getRawContent(), XMLParser.DEFAULT_XML_HEADER
+            + "<links><link href=\"" + first.searchLink("self").getHref() + "\" rel=\""
+            + first.searchLink("self").getTitle() + "\"/><link href=\""
+            + second.searchLink("self").getHref() + "\" rel=\""
+            + second.searchLink("self").getTitle() + "\"/></links>");
+    }
 }
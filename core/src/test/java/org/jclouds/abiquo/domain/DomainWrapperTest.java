@@ -0,0 +1,112 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain;
+
+import static org.easymock.EasyMock.createMock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.util.List;
+
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for the {@link DomainWrapper} collection wrapping methods.
+ * <p>
+ * The performance of the cached wrapper constructors is measured by the
+ * <code>DomainWrapperBenchmark</code> in the benchmarks module.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class DomainWrapperTest
+{
+    private static final int OBJECTS = 1000;
+
+    private AbiquoContext context;
+
+    private List<VirtualMachineDto> dtos;
+
+    @BeforeMethod
+    public void setupObjects()
+    {
+        context = createMock(AbiquoContext.class);
+        dtos = Lists.newArrayListWithCapacity(OBJECTS);
+        for (int i = 0; i < OBJECTS; i++)
+        {
+            VirtualMachineDto dto = new VirtualMachineDto();
+            dto.setId(i);
+            dtos.add(dto);
+        }
+    }
+
+    public void testWrapPreservesOrder()
+    {
+        List<VirtualMachine> vms = DomainWrapper.wrap(context, VirtualMachine.class, dtos);
+
+        assertEquals(vms.size(), OBJECTS);
+        for (int i = 0; i < OBJECTS; i++)
+        {
+            assertEquals(vms.get(i).getId(), Integer.valueOf(i));
+        }
+    }
+
+    public void testWrapKeepsTheTransportObjects()
+    {
+        List<VirtualMachine> vms = DomainWrapper.wrap(context, VirtualMachine.class, dtos);
+
+        for (int i = 0; i < OBJECTS; i++)
+        {
+            assertSame(vms.get(i).unwrap(), dtos.get(i));
+        }
+    }
+
+    public void testEachWrapCreatesNewWrappers()
+    {
+        List<VirtualMachine> first = DomainWrapper.wrap(context, VirtualMachine.class, dtos);
+        List<VirtualMachine> second = DomainWrapper.wrap(context, VirtualMachine.class, dtos);
+
+        for (int i = 0; i < OBJECTS; i++)
+        {
+            // The constructor is cached, but the wrappers are not
+            assertNotSame(first.get(i), second.get(i));
+            assertSame(first.get(i).unwrap(), second.get(i).unwrap());
+        }
+    }
+
+    public void testUnwrapKeepsOrderAndIdentity()
+    {
+        List<VirtualMachine> vms = DomainWrapper.wrap(context, VirtualMachine.class, dtos);
+        List<VirtualMachineDto> unwrapped = DomainWrapper.unwrap(vms);
+
+        assertEquals(unwrapped.size(), OBJECTS);
+        for (int i = 0; i < OBJECTS; i++)
+        {
+            assertSame(unwrapped.get(i), dtos.get(i));
+        }
+    }
+}
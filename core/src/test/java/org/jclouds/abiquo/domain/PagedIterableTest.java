@@ -0,0 +1,229 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.abiquo.domain.PagedIterable.PageFetcher;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for the {@link PagedIterable} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class PagedIterableTest
+{
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setupExecutor()
+    {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterMethod
+    public void shutdownExecutor()
+    {
+        executor.shutdownNow();
+    }
+
+    public void testIterateAllPages()
+    {
+        CountingFetcher fetcher = new CountingFetcher(25);
+        List<Integer> elements = Lists.newArrayList(new PagedIterable<Integer>(fetcher, 10));
+
+        assertEquals(elements.size(), 25);
+        assertEquals(elements.get(0).intValue(), 0);
+        assertEquals(elements.get(24).intValue(), 24);
+        // The last page is empty
+        assertEquals(fetcher.requests.get(), 4);
+    }
+
+    public void testIterateExactNumberOfPages()
+    {
+        CountingFetcher fetcher = new CountingFetcher(20);
+        List<Integer> elements = Lists.newArrayList(new PagedIterable<Integer>(fetcher, 10));
+
+        assertEquals(elements.size(), 20);
+        // The last page is empty
+        assertEquals(fetcher.requests.get(), 3);
+    }
+
+    public void testIterateEmptyCollection()
+    {
+        CountingFetcher fetcher = new CountingFetcher(0);
+        Iterator<Integer> it = new PagedIterable<Integer>(fetcher, 10).iterator();
+
+        assertFalse(it.hasNext());
+        assertEquals(fetcher.requests.get(), 1);
+    }
+
+    public void testPagesAreFetchedOnDemand()
+    {
+        CountingFetcher fetcher = new CountingFetcher(1000);
+        Iterable<Integer> iterable = new PagedIterable<Integer>(fetcher, 10);
+        assertEquals(fetcher.requests.get(), 0);
+
+        Iterator<Integer> it = iterable.iterator();
+        for (int i = 0; i < 10; i++)
+        {
+            it.next();
+        }
+        assertEquals(fetcher.requests.get(), 1);
+
+        it.next();
+        assertEquals(fetcher.requests.get(), 2);
+    }
+
+    public void testEachIteratorStartsFromTheFirstPage()
+    {
+        CountingFetcher fetcher = new CountingFetcher(15);
+        Iterable<Integer> iterable = new PagedIterable<Integer>(fetcher, 10);
+
+        assertEquals(Lists.newArrayList(iterable).size(), 15);
+        assertEquals(Lists.newArrayList(iterable).size(), 15);
+        assertEquals(fetcher.requests.get(), 6);
+    }
+
+    public void testPrefetchIsBounded() throws Exception
+    {
+        CountingFetcher fetcher = new CountingFetcher(1000);
+        Iterator<Integer> it = new PagedIterable<Integer>(fetcher, 10, executor, 3).iterator();
+
+        it.next();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // The current page and two more prefetched pages
+        assertEquals(fetcher.requests.get(), 3);
+    }
+
+    public void testIterateWithPrefetch()
+    {
+        CountingFetcher fetcher = new CountingFetcher(95);
+        List<Integer> elements =
+            Lists.newArrayList(new PagedIterable<Integer>(fetcher, 10, executor, 2));
+
+        assertEquals(elements.size(), 95);
+        for (int i = 0; i < 95; i++)
+        {
+            assertEquals(elements.get(i).intValue(), i);
+        }
+    }
+
+    public void testIterateWhenTheServerReturnsLessElementsThanRequested()
+    {
+        CountingFetcher fetcher = new CountingFetcher(30, 7);
+        List<Integer> elements = Lists.newArrayList(new PagedIterable<Integer>(fetcher, 10));
+
+        assertEquals(elements.size(), 30);
+        for (int i = 0; i < 30; i++)
+        {
+            assertEquals(elements.get(i).intValue(), i);
+        }
+    }
+
+    public void testIterateWithPrefetchWhenTheServerReturnsLessElementsThanRequested()
+    {
+        CountingFetcher fetcher = new CountingFetcher(95, 7);
+        List<Integer> elements =
+            Lists.newArrayList(new PagedIterable<Integer>(fetcher, 10, executor, 3));
+
+        assertEquals(elements.size(), 95);
+        for (int i = 0; i < 95; i++)
+        {
+            assertEquals(elements.get(i).intValue(), i);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testFetchErrorsArePropagated()
+    {
+        PageFetcher<Integer> fetcher = new PageFetcher<Integer>()
+        {
+            @Override
+            public List<Integer> fetchPage(final int startWith, final int limit)
+            {
+                if (startWith > 0)
+                {
+                    throw new IllegalStateException();
+                }
+                return ImmutableList.of(1, 2);
+            }
+        };
+
+        Lists.newArrayList(new PagedIterable<Integer>(fetcher, 2, executor, 2));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPageSize()
+    {
+        new PagedIterable<Integer>(new CountingFetcher(10), 0);
+    }
+
+    private static class CountingFetcher implements PageFetcher<Integer>
+    {
+        private final int total;
+
+        /** The maximum number of elements returned per page, regardless of the limit. */
+        private final int maxLimit;
+
+        private final AtomicInteger requests = new AtomicInteger(0);
+
+        public CountingFetcher(final int total)
+        {
+            this(total, Integer.MAX_VALUE);
+        }
+
+        public CountingFetcher(final int total, final int maxLimit)
+        {
+            this.total = total;
+            this.maxLimit = maxLimit;
+        }
+
+        @Override
+        public List<Integer> fetchPage(final int startWith, final int limit)
+        {
+            requests.incrementAndGet();
+            List<Integer> page = Lists.newArrayList();
+            for (int i = startWith; i < Math.min(total, startWith + Math.min(limit, maxLimit)); i++)
+            {
+                page.add(i);
+            }
+            return page;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain.cloud;
+
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.reference.rest.ParentLinkName;
+import org.jclouds.abiquo.rest.internal.ConditionalGetCache;
+import org.jclouds.abiquo.rest.internal.ExtendedUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachineState;
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Unit tests for the batched state refresh of the {@link VirtualMachine} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class VirtualMachineTest
+{
+    private static final String VAPP1 =
+        "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/1";
+
+    private static final String VAPP2 =
+        "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/2";
+
+    private AbiquoContext context;
+
+    private ConditionalGetCache cache;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        ExtendedUtils utils = createMock(ExtendedUtils.class);
+        cache = createMock(ConditionalGetCache.class);
+
+        expect(context.getUtils()).andReturn(utils).anyTimes();
+        expect(utils.getConditionalGetCache()).andReturn(cache).anyTimes();
+        replay(context, utils);
+    }
+
+    public void testRefreshStateGroupsVirtualMachinesByAppliance()
+    {
+        VirtualMachine first = vm(VAPP1, 1, VirtualMachineState.LOCKED);
+        VirtualMachine second = vm(VAPP1, 2, VirtualMachineState.LOCKED);
+        VirtualMachine third = vm(VAPP2, 3, VirtualMachineState.LOCKED);
+
+        Capture<RESTLink> links = new Capture<RESTLink>(CaptureType.ALL);
+        expect(cache.get(capture(links), eq(VirtualMachinesDto.class))).andReturn(
+            vms(dto(VAPP1, 2, VirtualMachineState.OFF), dto(VAPP1, 1, VirtualMachineState.ON)))
+            .andReturn(vms(dto(VAPP2, 3, VirtualMachineState.NOT_ALLOCATED)));
+        replay(cache);
+
+        VirtualMachine.refreshState(ImmutableList.of(first, second, third));
+
+        // One request for each virtual appliance, even if it has several virtual machines
+        assertEquals(links.getValues().size(), 2);
+        assertEquals(links.getValues().get(0).getHref(), VAPP1 + "/virtualmachines");
+        assertEquals(links.getValues().get(1).getHref(), VAPP2 + "/virtualmachines");
+
+        // Each listed virtual machine is mapped back to its wrapper by its edit link
+        assertEquals(first.unwrap().getState(), VirtualMachineState.ON);
+        assertEquals(first.unwrap().getIdState(), VirtualMachineState.ON.id());
+        assertEquals(second.unwrap().getState(), VirtualMachineState.OFF);
+        assertEquals(third.unwrap().getState(), VirtualMachineState.NOT_ALLOCATED);
+
+        verify(cache);
+    }
+
+    public void testRefreshStateLeavesMissingVirtualMachinesUntouched()
+    {
+        VirtualMachine listed = vm(VAPP1, 1, VirtualMachineState.LOCKED);
+        VirtualMachine notListed = vm(VAPP1, 2, VirtualMachineState.LOCKED);
+        VirtualMachine applianceNotFound = vm(VAPP2, 3, VirtualMachineState.LOCKED);
+
+        expect(cache.get(capture(new Capture<RESTLink>()), eq(VirtualMachinesDto.class)))
+            .andReturn(vms(dto(VAPP1, 1, VirtualMachineState.ON))).andReturn(null);
+        replay(cache);
+
+        VirtualMachine.refreshState(ImmutableList.of(listed, notListed, applianceNotFound));
+
+        assertEquals(listed.unwrap().getState(), VirtualMachineState.ON);
+        assertEquals(notListed.unwrap().getState(), VirtualMachineState.LOCKED);
+        assertEquals(applianceNotFound.unwrap().getState(), VirtualMachineState.LOCKED);
+
+        verify(cache);
+    }
+
+    private VirtualMachine vm(final String vapp, final int id, final VirtualMachineState state)
+    {
+        return new VirtualMachine(context, dto(vapp, id, state));
+    }
+
+    private static VirtualMachineDto dto(final String vapp, final int id,
+        final VirtualMachineState state)
+    {
+        VirtualMachineDto dto = new VirtualMachineDto();
+        dto.setId(id);
+        dto.setState(state);
+        dto.setIdState(state.id());
+        dto.addLink(new RESTLink("edit", vapp + "/virtualmachines/" + id));
+        dto.addLink(new RESTLink(ParentLinkName.VIRTUAL_APPLIANCE, vapp));
+        return dto;
+    }
+
+    private static VirtualMachinesDto vms(final VirtualMachineDto... dtos)
+    {
+        VirtualMachinesDto vms = new VirtualMachinesDto();
+        for (VirtualMachineDto dto : dtos)
+        {
+            vms.add(dto);
+        }
+        return vms;
+    }
+}
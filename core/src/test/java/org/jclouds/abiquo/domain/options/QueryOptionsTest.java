@@ -0,0 +1,130 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain.options;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.jclouds.abiquo.domain.enterprise.options.EnterpriseOptions;
+import org.jclouds.abiquo.domain.network.Ip;
+import org.jclouds.abiquo.domain.network.options.IpOptions;
+import org.jclouds.abiquo.predicates.enterprise.EnterprisePredicates;
+import org.jclouds.abiquo.predicates.network.IpPredicates;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Unit tests for the {@link QueryOptions} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class QueryOptionsTest
+{
+    public void testPageReplacesPagination()
+    {
+        IpOptions options = IpOptions.builder().free(true).startWith(5).limit(10).build();
+        IpOptions page = options.page(100, 50);
+
+        assertNotSame(page, options);
+        assertEquals(page.getOptions().get("startwith"), ImmutableList.of("100"));
+        assertEquals(page.getOptions().get("limit"), ImmutableList.of("50"));
+        assertEquals(page.getOptions().get("free"), ImmutableList.of("true"));
+
+        // The original options are not modified
+        assertEquals(options.getOptions().get("startwith"), ImmutableList.of("5"));
+        assertEquals(options.getOptions().get("limit"), ImmutableList.of("10"));
+    }
+
+    public void testFilterByQueryPredicate()
+    {
+        EnterpriseOptions options = EnterpriseOptions.builder().build();
+        EnterpriseOptions filtered = options.filterBy(EnterprisePredicates.name("abiquo"));
+
+        assertEquals(filtered.getOptions().get("has"), ImmutableList.of("abiquo"));
+        assertFalse(options.getOptions().containsKey("has"));
+    }
+
+    public void testFilterByQueryPredicateWithMultipleValues()
+    {
+        EnterpriseOptions options = EnterpriseOptions.builder().build();
+        EnterpriseOptions filtered =
+            options.filterBy(EnterprisePredicates.name("abiquo", "jclouds"));
+
+        assertTrue(filtered.getOptions().isEmpty());
+    }
+
+    public void testFilterByPlainPredicate()
+    {
+        Predicate<Ip> predicate = new Predicate<Ip>()
+        {
+            @Override
+            public boolean apply(final Ip input)
+            {
+                return true;
+            }
+        };
+
+        IpOptions options = IpOptions.builder().limit(10).build();
+        IpOptions filtered = options.filterBy(predicate);
+
+        assertNotSame(filtered, options);
+        assertEquals(filtered.getOptions(), options.getOptions());
+    }
+
+    public void testFilterByAccumulatesParameters()
+    {
+        IpOptions options =
+            IpOptions.builder().build().filterBy(IpPredicates.available())
+                .filterBy(IpPredicates.address("10.60.1.1"));
+
+        assertEquals(options.getOptions().get("free"), ImmutableList.of("true"));
+        assertEquals(options.getOptions().get("has"), ImmutableList.of("10.60.1.1"));
+    }
+
+    public void testQueryStringIsEncodedOnce()
+    {
+        IpOptions options = IpOptions.builder().free(true).startWith(5).limit(10).build();
+
+        String query = options.getQueryString();
+        assertEquals(query, "free=true&startwith=5&limit=10");
+        assertSame(options.getQueryString(), query);
+    }
+
+    public void testPageIsEncodedWithItsOwnOptions()
+    {
+        IpOptions options = IpOptions.builder().free(true).startWith(5).limit(10).build();
+        assertEquals(options.getQueryString(), "free=true&startwith=5&limit=10");
+
+        IpOptions page = options.page(100, 50);
+        assertEquals(page.getQueryString(), "free=true&startwith=100&limit=50");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testOptionsCanNotBeModified()
+    {
+        IpOptions.builder().free(true).build().getOptions().put("free", "false");
+    }
+}
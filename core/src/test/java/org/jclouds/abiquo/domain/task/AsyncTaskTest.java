@@ -0,0 +1,178 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain.task;
+
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.rest.internal.ConditionalGetCache;
+import org.jclouds.abiquo.rest.internal.ExtendedUtils;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.task.TaskDto;
+import com.abiquo.server.core.task.TasksDto;
+import com.abiquo.server.core.task.enums.TaskState;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Unit tests for the refresh of the {@link AsyncTask} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class AsyncTaskTest
+{
+    private static final String VM1 =
+        "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/1/virtualmachines/1";
+
+    private static final String VM2 =
+        "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/1/virtualmachines/2";
+
+    private AbiquoContext context;
+
+    private ConditionalGetCache cache;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        ExtendedUtils utils = createMock(ExtendedUtils.class);
+        cache = createMock(ConditionalGetCache.class);
+
+        expect(context.getUtils()).andReturn(utils).anyTimes();
+        expect(utils.getConditionalGetCache()).andReturn(cache).anyTimes();
+        replay(context, utils);
+    }
+
+    public void testRefreshGroupsTasksByOwner()
+    {
+        AsyncTask first = task(VM1, "1", TaskState.STARTED);
+        AsyncTask second = task(VM1, "2", TaskState.QUEUEING);
+        AsyncTask third = task(VM2, "3", TaskState.STARTED);
+
+        Capture<RESTLink> links = new Capture<RESTLink>(CaptureType.ALL);
+        expect(cache.get(capture(links), eq(TasksDto.class))).andReturn(
+            tasks(dto(VM1, "2", TaskState.FINISHED_SUCCESSFULLY),
+                dto(VM1, "1", TaskState.FINISHED_UNSUCCESSFULLY))).andReturn(
+            tasks(dto(VM2, "3", TaskState.FINISHED_SUCCESSFULLY)));
+        replay(cache);
+
+        AsyncTask.refresh(ImmutableList.of(first, second, third));
+
+        // One request for each owner, even if it has several tasks
+        assertEquals(links.getValues().size(), 2);
+        assertEquals(links.getValues().get(0).getHref(), VM1 + "/tasks");
+        assertEquals(links.getValues().get(1).getHref(), VM2 + "/tasks");
+
+        // Each listed task is mapped back to its wrapper by task id
+        assertEquals(first.getState(), TaskState.FINISHED_UNSUCCESSFULLY);
+        assertEquals(second.getState(), TaskState.FINISHED_SUCCESSFULLY);
+        assertEquals(third.getState(), TaskState.FINISHED_SUCCESSFULLY);
+
+        verify(cache);
+    }
+
+    public void testRefreshMissingTasksIndividually()
+    {
+        AsyncTask listed = task(VM1, "1", TaskState.STARTED);
+        AsyncTask notListed = task(VM1, "2", TaskState.STARTED);
+        AsyncTask ownerNotFound = task(VM2, "3", TaskState.QUEUEING);
+
+        expect(cache.get(capture(new Capture<RESTLink>()), eq(TasksDto.class))).andReturn(
+            tasks(dto(VM1, "1", TaskState.FINISHED_SUCCESSFULLY))).andReturn(null);
+
+        // Tasks that are not in the list of their owner are requested one by one
+        Capture<RESTLink> links = new Capture<RESTLink>(CaptureType.ALL);
+        expect(cache.get(capture(links), eq(TaskDto.class))).andReturn(
+            dto(VM1, "2", TaskState.FINISHED_SUCCESSFULLY)).andReturn(
+            dto(VM2, "3", TaskState.ABORTED));
+        replay(cache);
+
+        AsyncTask.refresh(ImmutableList.of(listed, notListed, ownerNotFound));
+
+        assertEquals(links.getValues().size(), 2);
+        assertEquals(links.getValues().get(0).getHref(), VM1 + "/tasks/2");
+        assertEquals(links.getValues().get(1).getHref(), VM2 + "/tasks/3");
+
+        assertEquals(listed.getState(), TaskState.FINISHED_SUCCESSFULLY);
+        assertEquals(notListed.getState(), TaskState.FINISHED_SUCCESSFULLY);
+        assertEquals(ownerNotFound.getState(), TaskState.ABORTED);
+
+        verify(cache);
+    }
+
+    public void testRefreshMissingTaskKeepsTheCurrentTask()
+    {
+        AsyncTask task = task(VM1, "1", TaskState.STARTED);
+
+        expect(cache.get(capture(new Capture<RESTLink>()), eq(TaskDto.class))).andReturn(null);
+        replay(cache);
+
+        try
+        {
+            task.refresh();
+            fail("refreshing a missing task should have failed");
+        }
+        catch (ResourceNotFoundException ex)
+        {
+            // The wrapper must still be usable
+            assertEquals(task.getTaskId(), "1");
+            assertEquals(task.getState(), TaskState.STARTED);
+        }
+
+        verify(cache);
+    }
+
+    private AsyncTask task(final String owner, final String taskId, final TaskState state)
+    {
+        return new AsyncTask(context, dto(owner, taskId, state));
+    }
+
+    private static TaskDto dto(final String owner, final String taskId, final TaskState state)
+    {
+        TaskDto dto = new TaskDto();
+        dto.setTaskId(taskId);
+        dto.setState(state);
+        dto.addLink(new RESTLink("self", owner + "/tasks/" + taskId));
+        return dto;
+    }
+
+    private static TasksDto tasks(final TaskDto... dtos)
+    {
+        TasksDto tasks = new TasksDto();
+        for (TaskDto dto : dtos)
+        {
+            tasks.add(dto);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.domain.task;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.jclouds.abiquo.AbiquoClient;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.features.TaskClient;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.model.transport.AcceptedRequestDto;
+import com.abiquo.server.core.task.TaskDto;
+import com.abiquo.server.core.task.enums.TaskState;
+
+/**
+ * Unit tests for the {@link LazyAsyncTask} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class LazyAsyncTaskTest
+{
+    private static final String TASK_HREF = "http://localhost/api/tasks/1";
+
+    private AbiquoContext context;
+
+    private TaskClient taskClient;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        taskClient = createMock(TaskClient.class);
+        AbiquoClient api = createMock(AbiquoClient.class);
+
+        expect(context.getApi()).andReturn(api).anyTimes();
+        expect(api.getTaskClient()).andReturn(taskClient).anyTimes();
+        replay(context, api);
+    }
+
+    public void testTaskIsRetrievedOnFirstAccess()
+    {
+        TaskDto dto = new TaskDto();
+        dto.setTaskId("1");
+        dto.setState(TaskState.FINISHED_SUCCESSFULLY);
+        expect(taskClient.getTask(anyObject(RESTLink.class))).andReturn(dto).once();
+        replay(taskClient);
+
+        LazyAsyncTask task = new LazyAsyncTask(context, new RESTLink("status", TASK_HREF));
+        assertFalse(task.isLoaded());
+
+        assertEquals(task.getTaskId(), "1");
+        assertEquals(task.getState(), TaskState.FINISHED_SUCCESSFULLY);
+        assertTrue(task.isLoaded());
+
+        verify(taskClient);
+    }
+
+    public void testUntrackableTask()
+    {
+        expect(taskClient.getTask(anyObject(RESTLink.class))).andReturn(null).once();
+        replay(taskClient);
+
+        LazyAsyncTask task = new LazyAsyncTask(context, new RESTLink("status", TASK_HREF));
+
+        assertNull(task.getTaskId());
+        assertNull(task.getState());
+        assertTrue(task.isLoaded());
+
+        verify(taskClient);
+    }
+
+    public void testTasksFromAcceptedRequest()
+    {
+        replay(taskClient);
+
+        AcceptedRequestDto<String> accepted = new AcceptedRequestDto<String>();
+        accepted.addLink(new RESTLink("status", TASK_HREF));
+        accepted.addLink(new RESTLink("status", "http://localhost/api/tasks/2"));
+
+        LazyAsyncTask[] tasks = LazyAsyncTask.of(context, accepted);
+
+        assertEquals(tasks.length, 2);
+        assertFalse(tasks[0].isLoaded());
+        assertFalse(tasks[1].isLoaded());
+
+        // No task has been retrieved
+        verify(taskClient);
+    }
+}
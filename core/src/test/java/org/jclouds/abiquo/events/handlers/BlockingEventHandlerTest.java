@@ -19,11 +19,15 @@
 
 package org.jclouds.abiquo.events.handlers;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
-import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.jclouds.abiquo.events.handlers.BlockingEventHandler;
@@ -31,6 +35,8 @@ import org.jclouds.abiquo.events.monitor.MonitorEvent;
 import org.jclouds.abiquo.events.monitor.MonitorEvent.Type;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * Unit tests for the {@link BlockingEventHandler} handler.
  * 
@@ -113,6 +119,7 @@ public class BlockingEventHandlerTest
         handler.lock();
     }
 
+    @Test(timeOut = 1000L)
     public void testLockDoesNothingIfNoObjects()
     {
         Object object = new Object();
@@ -120,7 +127,100 @@ public class BlockingEventHandlerTest
         handler.lockedObjects.clear();
 
         handler.lock(); // Lock should do nothing
+    }
+
+    @Test(timeOut = 1000L)
+    public void testEventsHandledBeforeLock()
+    {
+        Object object1 = new Object();
+        Object object2 = new Object();
+        BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(object1, object2);
+
+        handler.handle(new MonitorEvent<Object>(Type.COMPLETED, object1));
+        assertEquals(handler.completeSignal.getCount(), 1L);
+        handler.handle(new MonitorEvent<Object>(Type.COMPLETED, object2));
+        assertEquals(handler.completeSignal.getCount(), 0L);
+
+        handler.lock(); // All events already consumed. Lock should not block
+    }
+
+    public void testReleaseIgnoresNotLockedObjects()
+    {
+        Object object = new Object();
+        BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(object);
+
+        handler.release(new Object());
+        assertEquals(handler.completeSignal.getCount(), 1L);
+        assertFalse(handler.lockedObjects.isEmpty());
+    }
+
+    @Test(timeOut = 1000L)
+    public void testLockSameObjectTwice()
+    {
+        Object object = new Object();
+        BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(object, object);
+
+        handler.handle(new MonitorEvent<Object>(Type.COMPLETED, object));
+        assertTrue(handler.handles(new MonitorEvent<Object>(Type.COMPLETED, object)));
+        handler.handle(new MonitorEvent<Object>(Type.COMPLETED, object));
+        assertFalse(handler.handles(new MonitorEvent<Object>(Type.COMPLETED, object)));
+
+        handler.lock();
+    }
+
+    @Test(timeOut = 10000L)
+    public void testConcurrentReleaseCountsDownOncePerObject() throws Exception
+    {
+        final int objectCount = 1000;
+        final int threadCount = 8;
+
+        final Object[] objects = new Object[objectCount];
+        for (int i = 0; i < objectCount; i++)
+        {
+            objects[i] = new Object();
+        }
+
+        // An object that is never released, so an extra count down would be noticed
+        Object[] locked = new Object[objectCount + 1];
+        System.arraycopy(objects, 0, locked, 0, objectCount);
+        locked[objectCount] = new Object();
+
+        final BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(locked);
+
+        // Every thread publishes the events of all the objects, so each object is released
+        // concurrently by several threads
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            List<Future<Void>> futures = Lists.newArrayList();
+            for (int t = 0; t < threadCount; t++)
+            {
+                futures.add(executor.submit(new Callable<Void>()
+                {
+                    @Override
+                    public Void call()
+                    {
+                        for (Object object : objects)
+                        {
+                            handler.handle(new MonitorEvent<Object>(Type.COMPLETED, object));
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
 
-        assertNull(handler.completeSignal);
+        assertEquals(handler.completeSignal.getCount(), 1L);
+        assertEquals(handler.lockedObjects.size(), 1);
+        assertTrue(handler.lockedObjects.contains(locked[objectCount]));
     }
 }
@@ -0,0 +1,166 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.events.monitor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.jclouds.abiquo.events.handlers.BlockingEventHandler;
+import org.jclouds.abiquo.events.monitor.MonitorEvent.Type;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Unit tests for the {@link MonitorEventRouter} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class MonitorEventRouterTest
+{
+    public void testTargetedHandlersAreNotRegisteredInTheBus()
+    {
+        EventBus eventBus = new EventBus();
+        DeadEventHandler deadEvents = new DeadEventHandler();
+        eventBus.register(deadEvents);
+
+        Object object = new Object();
+        BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(object);
+
+        MonitorEventRouter router = new MonitorEventRouter(eventBus);
+        router.register(handler);
+        assertTrue(router.handlers.containsKey(object));
+        assertEquals(router.globalHandlers.get(), 0);
+
+        router.post(new CompletedEvent<Object>(object));
+
+        assertFalse(handler.getTargets().iterator().hasNext());
+        assertTrue(deadEvents.events.isEmpty());
+
+        router.unregister(handler);
+        assertTrue(router.handlers.isEmpty());
+    }
+
+    public void testEventsAreOnlyRoutedToInterestedHandlers()
+    {
+        Object object1 = new Object();
+        Object object2 = new Object();
+        BlockingEventHandler<Object> handler1 = new BlockingEventHandler<Object>(object1);
+        BlockingEventHandler<Object> handler2 = new BlockingEventHandler<Object>(object2);
+
+        MonitorEventRouter router = new MonitorEventRouter(new EventBus());
+        router.register(handler1);
+        router.register(handler2);
+
+        router.post(new CompletedEvent<Object>(object1));
+
+        assertFalse(handler1.getTargets().iterator().hasNext());
+        assertTrue(handler2.getTargets().iterator().hasNext());
+
+        router.unregister(handler1);
+        router.unregister(handler2);
+        assertTrue(router.handlers.isEmpty());
+    }
+
+    public void testGlobalHandlersReceiveAllEvents()
+    {
+        Object object = new Object();
+        BlockingEventHandler<Object> targeted = new BlockingEventHandler<Object>(object);
+        GlobalHandler global = new GlobalHandler();
+
+        MonitorEventRouter router = new MonitorEventRouter(new EventBus());
+        router.register(targeted);
+        router.register(global);
+        assertEquals(router.globalHandlers.get(), 1);
+
+        router.post(new CompletedEvent<Object>(object));
+        router.post(new FailedEvent<Object>(new Object()));
+
+        assertEquals(global.events.size(), 2);
+
+        router.unregister(global);
+        assertEquals(router.globalHandlers.get(), 0);
+        router.post(new CompletedEvent<Object>(object));
+        assertEquals(global.events.size(), 2);
+    }
+
+    public void testEventsWithoutHandlersArePostedToTheBus()
+    {
+        EventBus eventBus = new EventBus();
+        DeadEventHandler deadEvents = new DeadEventHandler();
+        eventBus.register(deadEvents);
+
+        MonitorEventRouter router = new MonitorEventRouter(eventBus);
+        router.post(new TimeoutEvent<Object>(new Object()));
+
+        assertEquals(deadEvents.events.size(), 1);
+    }
+
+    public void testFailingHandlerDoesNotAffectOthers()
+    {
+        Object object = new Object();
+        BlockingEventHandler<Object> failing = new BlockingEventHandler<Object>(object)
+        {
+            @Override
+            protected void doBeforeRelease(final MonitorEvent<Object> event)
+            {
+                throw new RuntimeException("expected");
+            }
+        };
+        BlockingEventHandler<Object> handler = new BlockingEventHandler<Object>(object);
+
+        MonitorEventRouter router = new MonitorEventRouter(new EventBus());
+        router.register(failing);
+        router.register(handler);
+
+        router.post(new MonitorEvent<Object>(Type.COMPLETED, object));
+
+        assertFalse(handler.getTargets().iterator().hasNext());
+    }
+
+    static class GlobalHandler
+    {
+        List<MonitorEvent< ? >> events = Lists.newArrayList();
+
+        @Subscribe
+        public void handle(final MonitorEvent< ? > event)
+        {
+            events.add(event);
+        }
+    }
+
+    static class DeadEventHandler
+    {
+        List<DeadEvent> events = Lists.newArrayList();
+
+        @Subscribe
+        public void handle(final DeadEvent event)
+        {
+            events.add(event);
+        }
+    }
+}
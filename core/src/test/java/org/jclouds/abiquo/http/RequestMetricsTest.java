@@ -0,0 +1,149 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.http;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.rest.AuthorizationException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link RequestMetrics} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class RequestMetricsTest
+{
+    public void testRecordResponse()
+    {
+        HttpRequest request = request("GET", null);
+        HttpResponse response = response(200, payload("response"));
+
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordResponse(request, response, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordParse(request, TimeUnit.MILLISECONDS.toNanos(2));
+
+        RequestStats stats = metrics.getStats().get("GET");
+        assertEquals(stats.getRequests(), 1L);
+        assertEquals(stats.getFailures(), 0L);
+        assertEquals(stats.getStatusCodes().get(200), Long.valueOf(1L));
+        assertEquals(stats.getBytesSent(), 0L);
+        assertEquals(stats.getBytesReceived(), 8L);
+        assertEquals(stats.getNetworkTime().getCount(), 1L);
+        assertTrue(stats.getNetworkTime().getMax(TimeUnit.MILLISECONDS) >= 10L);
+        assertEquals(stats.getParseTime().getCount(), 1L);
+        assertTrue(stats.getParseTime().getMax(TimeUnit.MILLISECONDS) >= 2L);
+    }
+
+    public void testRecordFailure()
+    {
+        HttpRequest request = request("PUT", payload("payload"));
+        HttpResponse response = response(401, null);
+        Exception error =
+            new AuthorizationException("unauthorized", new HttpResponseException("unauthorized",
+                createMock(HttpCommand.class), response));
+
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordFailure(request, error, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordFailure(request, new RuntimeException(), TimeUnit.MILLISECONDS.toNanos(10));
+
+        RequestStats stats = metrics.getStats().get("PUT");
+        assertEquals(stats.getRequests(), 2L);
+        assertEquals(stats.getFailures(), 2L);
+        assertEquals(stats.getStatusCodes().size(), 1);
+        assertEquals(stats.getStatusCodes().get(401), Long.valueOf(1L));
+        assertEquals(stats.getBytesSent(), 14L);
+        assertEquals(stats.getBytesReceived(), 0L);
+        assertEquals(stats.getParseTime().getCount(), 0L);
+    }
+
+    public void testRecordParseFailure()
+    {
+        HttpRequest request = request("GET", null);
+        HttpResponse response = response(200, payload("response"));
+
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordResponse(request, response, TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.recordParseFailure(request, TimeUnit.MILLISECONDS.toNanos(2));
+
+        RequestStats stats = metrics.getStats().get("GET");
+        assertEquals(stats.getRequests(), 1L);
+        assertEquals(stats.getFailures(), 1L);
+        assertEquals(stats.getStatusCodes().get(200), Long.valueOf(1L));
+        assertEquals(stats.getNetworkTime().getCount(), 1L);
+        assertEquals(stats.getParseTime().getCount(), 1L);
+    }
+
+    public void testStatsAreGroupedByOperation()
+    {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordResponse(request("GET", null), response(200, null), 1000L);
+        metrics.recordResponse(request("GET", null), response(304, null), 1000L);
+        metrics.recordResponse(request("DELETE", null), response(204, null), 1000L);
+
+        Map<String, RequestStats> stats = metrics.getStats();
+        assertEquals(stats.keySet().toString(), "[DELETE, GET]");
+        assertEquals(stats.get("GET").getRequests(), 2L);
+        assertEquals(stats.get("GET").getStatusCodes().toString(), "{200=1, 304=1}");
+        assertEquals(stats.get("DELETE").getRequests(), 1L);
+
+        metrics.reset();
+        assertTrue(metrics.getStats().isEmpty());
+    }
+
+    private static HttpRequest request(final String method, final Payload payload)
+    {
+        HttpRequest request = createMock(HttpRequest.class);
+        expect(request.getMethod()).andReturn(method).anyTimes();
+        expect(request.getPayload()).andReturn(payload).anyTimes();
+        replay(request);
+        return request;
+    }
+
+    private static HttpResponse response(final int statusCode, final Payload payload)
+    {
+        HttpResponse response = createMock(HttpResponse.class);
+        expect(response.getStatusCode()).andReturn(statusCode).anyTimes();
+        expect(response.getPayload()).andReturn(payload).anyTimes();
+        replay(response);
+        return response;
+    }
+
+    private static Payload payload(final String content)
+    {
+        Payload payload = Payloads.newStringPayload(content);
+        payload.getContentMetadata().setContentLength((long) content.length());
+        return payload;
+    }
+}
@@ -19,20 +19,34 @@
 
 package org.jclouds.abiquo.http.filters;
 
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 
+import javax.inject.Provider;
 import javax.ws.rs.core.HttpHeaders;
 
+import org.jclouds.abiquo.rest.internal.AbiquoLoginAsyncClient;
+import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
 import org.jclouds.http.utils.ModifyRequest;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
 /**
  * Unit tests for the {@link AbiquoAuthentication} filter.
  * 
@@ -100,6 +114,158 @@ public class AbiquoAuthenticationTest
         filter.filter(request);
     }
 
+    public void testSessionAuthentication() throws UnsupportedEncodingException,
+        NoSuchAlgorithmException, CertificateException
+    {
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://foo")).build();
+
+        AbiquoLoginAsyncClient login = createMock(AbiquoLoginAsyncClient.class);
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            Futures.immediateFuture(loginResponse("session"))).once();
+        replay(login);
+
+        AbiquoAuthentication filter = sessionFilter(login);
+        HttpRequest filtered = filter.filter(request);
+        HttpRequest expected =
+            ModifyRequest.replaceHeader(request, HttpHeaders.COOKIE,
+                AbiquoAuthentication.tokenAuth("session"));
+
+        assertFalse(filtered.getHeaders().containsKey(HttpHeaders.AUTHORIZATION));
+        assertEquals(filtered, expected);
+        // The session is reused
+        assertEquals(filter.filter(request), expected);
+
+        verify(login);
+    }
+
+    public void testSessionAuthenticationLogsInAgainAfterInvalidation()
+        throws UnsupportedEncodingException, NoSuchAlgorithmException, CertificateException
+    {
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://foo")).build();
+
+        AbiquoLoginAsyncClient login = createMock(AbiquoLoginAsyncClient.class);
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            Futures.immediateFuture(loginResponse("expired"))).once();
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            Futures.immediateFuture(loginResponse("renewed"))).once();
+        replay(login);
+
+        AbiquoAuthentication filter = sessionFilter(login);
+        HttpRequest expired = filter.filter(request);
+        filter.invalidateSession(expired);
+        // Invalidating an already discarded session must not discard the new one
+        HttpRequest renewed = filter.filter(request);
+        filter.invalidateSession(expired);
+
+        assertEquals(renewed.getFirstHeaderOrNull(HttpHeaders.COOKIE),
+            AbiquoAuthentication.tokenAuth("renewed"));
+        assertEquals(filter.filter(request), renewed);
+
+        verify(login);
+    }
+
+    public void testSessionAuthenticationDoesNotWaitForTheLogin()
+        throws UnsupportedEncodingException, NoSuchAlgorithmException, CertificateException
+    {
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://foo")).build();
+
+        SettableFuture<HttpResponse> pendingLogin = SettableFuture.create();
+        AbiquoLoginAsyncClient login = createMock(AbiquoLoginAsyncClient.class);
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            pendingLogin).once();
+        replay(login);
+
+        // Requests are authenticated with the credentials while the login is in progress
+        AbiquoAuthentication filter = sessionFilter(login);
+        HttpRequest first = filter.filter(request);
+        HttpRequest second = filter.filter(request);
+
+        assertEquals(first.getFirstHeaderOrNull(HttpHeaders.AUTHORIZATION),
+            AbiquoAuthentication.basicAuth("user", "password"));
+        assertFalse(first.getHeaders().containsKey(HttpHeaders.COOKIE));
+        assertEquals(second, first);
+
+        // Once the session is opened, the credentials are not sent anymore
+        pendingLogin.set(loginResponse("session"));
+        HttpRequest retried = filter.filter(first);
+
+        assertEquals(retried.getFirstHeaderOrNull(HttpHeaders.COOKIE),
+            AbiquoAuthentication.tokenAuth("session"));
+        assertFalse(retried.getHeaders().containsKey(HttpHeaders.AUTHORIZATION));
+
+        verify(login);
+    }
+
+    public void testSessionAuthenticationLogsInAgainAfterAFailedLogin()
+        throws UnsupportedEncodingException, NoSuchAlgorithmException, CertificateException
+    {
+        HttpRequest request =
+            HttpRequest.builder().method("GET").endpoint(URI.create("http://foo")).build();
+
+        AbiquoLoginAsyncClient login = createMock(AbiquoLoginAsyncClient.class);
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            Futures.<HttpResponse> immediateFailedFuture(new HttpException("login failed")))
+            .once();
+        expect(login.login(AbiquoAuthentication.basicAuth("user", "password"))).andReturn(
+            Futures.immediateFuture(loginResponse("session"))).once();
+        replay(login);
+
+        AbiquoAuthentication filter = sessionFilter(login);
+        HttpRequest failed = filter.filter(request);
+        HttpRequest renewed = filter.filter(request);
+
+        assertTrue(failed.getHeaders().containsKey(HttpHeaders.AUTHORIZATION));
+        assertEquals(renewed.getFirstHeaderOrNull(HttpHeaders.COOKIE),
+            AbiquoAuthentication.tokenAuth("session"));
+
+        verify(login);
+    }
+
+    public void testParseSessionToken()
+    {
+        assertEquals(AbiquoAuthentication.parseSessionToken(loginResponse("token")), "token");
+    }
+
+    @Test(expectedExceptions = HttpException.class)
+    public void testParseSessionTokenWithoutCookie()
+    {
+        HttpResponse response = createNiceMock(HttpResponse.class);
+        expect(response.getHeaders()).andReturn(ImmutableMultimap.<String, String> of())
+            .anyTimes();
+        replay(response);
+
+        AbiquoAuthentication.parseSessionToken(response);
+    }
+
+    private static HttpResponse loginResponse(final String token)
+    {
+        HttpResponse response = createNiceMock(HttpResponse.class);
+        expect(response.getHeaders()).andReturn(
+            ImmutableMultimap.of(HttpHeaders.SET_COOKIE, "other=value", HttpHeaders.SET_COOKIE,
+                AbiquoAuthentication.tokenAuth(token) + "; Path=/api")).anyTimes();
+        replay(response);
+        return response;
+    }
+
+    private static AbiquoAuthentication sessionFilter(final AbiquoLoginAsyncClient login)
+        throws UnsupportedEncodingException, NoSuchAlgorithmException, CertificateException
+    {
+        AbiquoAuthentication filter = basicAuthFilter();
+        filter.sessionAuthentication = true;
+        filter.loginClient = new Provider<AbiquoLoginAsyncClient>()
+        {
+            @Override
+            public AbiquoLoginAsyncClient get()
+            {
+                return login;
+            }
+        };
+        return filter;
+    }
+
     private static AbiquoAuthentication basicAuthFilter() throws UnsupportedEncodingException,
         NoSuchAlgorithmException, CertificateException
     {
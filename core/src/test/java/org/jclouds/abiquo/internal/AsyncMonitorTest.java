@@ -21,7 +21,9 @@ package org.jclouds.abiquo.internal;
 
 import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
@@ -29,19 +31,33 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.easymock.EasyMock;
+import org.easymock.IAnswer;
 import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.events.monitor.TimeoutEvent;
 import org.jclouds.abiquo.internal.BaseMonitoringService.AsyncMonitor;
+import org.jclouds.abiquo.monitor.MonitorEventSource;
 import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.PollingStrategy;
+import org.jclouds.abiquo.monitor.internal.MonitorTimeoutWheel;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 
@@ -60,8 +76,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -89,8 +105,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -119,8 +135,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -148,8 +164,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -177,8 +193,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -209,8 +225,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -242,8 +258,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -276,8 +292,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -308,8 +324,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -346,8 +362,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -382,8 +398,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture).times(2);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -420,8 +436,8 @@ public class AsyncMonitorTest
         ScheduledExecutorService schedulerMock =
             EasyMock.createMock(ScheduledExecutorService.class);
         expect(
-            schedulerMock.scheduleWithFixedDelay(anyObject(Runnable.class), anyLong(), anyLong(),
-                anyObject(TimeUnit.class))).andReturn(mockFuture);
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
 
         replay(mockFuture);
         replay(schedulerMock);
@@ -450,6 +466,317 @@ public class AsyncMonitorTest
         verify(schedulerMock);
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void testMonitorIsRescheduledWithPollingStrategy()
+    {
+        ScheduledFuture mockFuture = EasyMock.createMock(ScheduledFuture.class);
+        ScheduledExecutorService schedulerMock =
+            EasyMock.createMock(ScheduledExecutorService.class);
+        expect(schedulerMock.schedule(anyObject(Runnable.class), eq(0L), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
+        expect(schedulerMock.schedule(anyObject(Runnable.class), eq(42L), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
+
+        PollingStrategy strategy = EasyMock.createMock(PollingStrategy.class);
+        expect(strategy.getNextDelay(anyObject(), anyObject(Function.class), eq(0), anyLong()))
+            .andReturn(0L);
+        expect(strategy.getNextDelay(anyObject(), anyObject(Function.class), eq(1), anyLong()))
+            .andReturn(42L);
+
+        replay(mockFuture);
+        replay(schedulerMock);
+        replay(strategy);
+
+        BaseMonitoringService monitorService =
+            new BaseMonitoringService(EasyMock.createMock(AbiquoContext.class),
+                schedulerMock,
+                100L,
+                new EventBus());
+        monitorService.setPollingStrategy(strategy);
+
+        AsyncMonitor<Object> monitor =
+            monitorService.new AsyncMonitor<Object>(new Object(),
+                mockFunction(MonitorStatus.CONTINUE));
+
+        monitor.startMonitoring(null);
+        monitor.run();
+        assertEquals(monitor.getPolls(), 1);
+
+        verify(mockFuture);
+        verify(schedulerMock);
+        verify(strategy);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void testNotifiedMonitorIsPolledOnChange()
+    {
+        ScheduledFuture mockFuture = EasyMock.createNiceMock(ScheduledFuture.class);
+        ScheduledExecutorService schedulerMock =
+            EasyMock.createMock(ScheduledExecutorService.class);
+        expect(schedulerMock.schedule(anyObject(Runnable.class), eq(0L), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
+        // Notified objects are only polled with the reconcile delay
+        expect(
+            schedulerMock.schedule(anyObject(Runnable.class), eq(1000L),
+                anyObject(TimeUnit.class))).andReturn(mockFuture);
+        schedulerMock.execute(anyObject(Runnable.class));
+        expectLastCall().andAnswer(new IAnswer<Object>()
+        {
+            @Override
+            public Object answer() throws Throwable
+            {
+                ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+                return null;
+            }
+        });
+
+        replay(mockFuture);
+        replay(schedulerMock);
+
+        CoutingEventHandler handler = new CoutingEventHandler();
+        EventBus eventBus = new EventBus();
+        eventBus.register(handler);
+
+        final List<MonitorEventSource.Listener> listeners = Lists.newArrayList();
+        BaseMonitoringService monitorService =
+            new BaseMonitoringService(EasyMock.createMock(AbiquoContext.class),
+                schedulerMock,
+                100L,
+                eventBus);
+        monitorService.setReconcileDelay(1000L);
+        monitorService.setEventSource(new MonitorEventSource()
+        {
+            @Override
+            public Object getEventKey(final Object monitoredObject)
+            {
+                return "key";
+            }
+
+            @Override
+            public void subscribe(final Listener listener)
+            {
+                listeners.add(listener);
+            }
+        });
+
+        final Iterator<MonitorStatus> statuses =
+            ImmutableList.of(MonitorStatus.CONTINUE, MonitorStatus.DONE).iterator();
+        AsyncMonitor<Object> monitor =
+            monitorService.new AsyncMonitor<Object>(new Object(),
+                new Function<Object, MonitorStatus>()
+                {
+                    @Override
+                    public MonitorStatus apply(final Object input)
+                    {
+                        return statuses.next();
+                    }
+                });
+
+        monitor.startMonitoring(null);
+        monitor.run();
+        assertEquals(monitor.getEventKey(), "key");
+        assertEquals(handler.numCompletes, 0);
+
+        listeners.get(0).onChange("key");
+        assertEquals(handler.numCompletes, 1);
+        assertTrue(monitorService.notifiedMonitors.isEmpty());
+
+        // Changes received after the completion are ignored
+        listeners.get(0).onChange("key");
+        assertEquals(handler.numCompletes, 1);
+
+        verify(schedulerMock);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void testTimeoutFiresWithoutPolling() throws Exception
+    {
+        ScheduledFuture mockFuture = EasyMock.createNiceMock(ScheduledFuture.class);
+        ScheduledExecutorService schedulerMock =
+            EasyMock.createMock(ScheduledExecutorService.class);
+        expect(
+            schedulerMock.schedule(anyObject(Runnable.class), anyLong(), anyObject(TimeUnit.class)))
+            .andReturn(mockFuture);
+        // The timeout event is published in the scheduler
+        expectExecutionInline(schedulerMock);
+
+        replay(mockFuture);
+        replay(schedulerMock);
+
+        CoutingEventHandler handler = new CoutingEventHandler();
+        EventBus eventBus = new EventBus();
+        eventBus.register(handler);
+
+        BaseMonitoringService monitorService =
+            new BaseMonitoringService(EasyMock.createMock(AbiquoContext.class),
+                schedulerMock,
+                100L,
+                eventBus);
+        monitorService.setTimeoutWheel(new MonitorTimeoutWheel(5L, 8));
+
+        AsyncMonitor<Object> monitor =
+            monitorService.new AsyncMonitor<Object>(new Object(),
+                mockFunction(MonitorStatus.CONTINUE));
+
+        // The scheduled poll never runs, and the timeout is fired by the timing wheel
+        monitor.startMonitoring(20L);
+
+        try
+        {
+            monitor.getResult().get(5, TimeUnit.SECONDS);
+            fail("the monitor should have timed out");
+        }
+        catch (ExecutionException ex)
+        {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+
+        assertEquals(handler.numTimeouts, 1);
+        assertEquals(monitor.getPolls(), 0);
+
+        // A late poll does not publish the event again
+        monitor.process(MonitorStatus.CONTINUE);
+        assertEquals(handler.numTimeouts, 1);
+
+        verify(schedulerMock);
+    }
+
+    @Test(timeOut = 10000L)
+    public void testTimeoutsDoNotWaitForPollsInProgress() throws Exception
+    {
+        CoutingEventHandler handler = new CoutingEventHandler();
+        EventBus eventBus = new EventBus();
+        eventBus.register(handler);
+
+        // Scheduled polls never run, so the only poll is the blocked one
+        ScheduledExecutorService schedulerMock =
+            EasyMock.createNiceMock(ScheduledExecutorService.class);
+        expectExecutionInline(schedulerMock);
+        replay(schedulerMock);
+
+        BaseMonitoringService monitorService =
+            new BaseMonitoringService(EasyMock.createMock(AbiquoContext.class),
+                schedulerMock,
+                100L,
+                eventBus);
+        monitorService.setTimeoutWheel(new MonitorTimeoutWheel(5L, 8));
+
+        final CountDownLatch pollStarted = new CountDownLatch(1);
+        final CountDownLatch releasePoll = new CountDownLatch(1);
+        final AsyncMonitor<Object> blocked =
+            monitorService.new AsyncMonitor<Object>(new Object(),
+                new Function<Object, MonitorStatus>()
+                {
+                    @Override
+                    public MonitorStatus apply(final Object input)
+                    {
+                        pollStarted.countDown();
+                        try
+                        {
+                            releasePoll.await();
+                        }
+                        catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        return MonitorStatus.DONE;
+                    }
+                });
+        AsyncMonitor<Object> other =
+            monitorService.new AsyncMonitor<Object>(new Object(),
+                mockFunction(MonitorStatus.CONTINUE));
+
+        blocked.startMonitoring(20L);
+        other.startMonitoring(60L);
+
+        Thread poller = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                blocked.pollIfRunning();
+            }
+        });
+        poller.start();
+        assertTrue(pollStarted.await(5, TimeUnit.SECONDS));
+
+        try
+        {
+            // Both timeouts fire while the first monitor is still being polled
+            assertTimedOut(blocked);
+            assertTimedOut(other);
+            assertEquals(handler.numTimeouts, 2);
+        }
+        finally
+        {
+            releasePoll.countDown();
+            poller.join();
+        }
+
+        // The result of the poll is discarded since the monitor already timed out
+        assertEquals(handler.numCompletes, 0);
+        assertEquals(handler.numTimeouts, 2);
+    }
+
+    @Test(timeOut = 10000L)
+    public void testSlowTimeoutHandlersDoNotDelayOtherTimeouts() throws Exception
+    {
+        final Object slow = new Object();
+        final CountDownLatch handlerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        EventBus eventBus = new EventBus();
+        eventBus.register(new Object()
+        {
+            @Subscribe
+            @SuppressWarnings("unused")
+            public void handle(final TimeoutEvent<Object> event)
+            {
+                if (event.getTarget() == slow)
+                {
+                    handlerStarted.countDown();
+                    try
+                    {
+                        releaseHandler.await();
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        try
+        {
+            BaseMonitoringService monitorService =
+                new BaseMonitoringService(EasyMock.createMock(AbiquoContext.class),
+                    scheduler,
+                    100L,
+                    eventBus);
+            monitorService.setTimeoutWheel(new MonitorTimeoutWheel(5L, 8));
+
+            AsyncMonitor<Object> first =
+                monitorService.new AsyncMonitor<Object>(slow,
+                    mockFunction(MonitorStatus.CONTINUE));
+            AsyncMonitor<Object> second =
+                monitorService.new AsyncMonitor<Object>(new Object(),
+                    mockFunction(MonitorStatus.CONTINUE));
+
+            first.startMonitoring(20L);
+            second.startMonitoring(60L);
+            assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+
+            // The second timeout fires while the handler of the first one is still running
+            assertTimedOut(second);
+        }
+        finally
+        {
+            releaseHandler.countDown();
+            scheduler.shutdownNow();
+        }
+    }
+
     @Test(expectedExceptions = NullPointerException.class)
     public void testCreateMonitorWithNullObject()
     {
@@ -481,6 +808,36 @@ public class AsyncMonitorTest
         return monitorService.new AsyncMonitor<Object>(object, function);
     }
 
+    /**
+     * Runs the tasks submitted to the given scheduler mock in the calling thread.
+     */
+    private static void expectExecutionInline(final ScheduledExecutorService schedulerMock)
+    {
+        schedulerMock.execute(anyObject(Runnable.class));
+        expectLastCall().andAnswer(new IAnswer<Object>()
+        {
+            @Override
+            public Object answer() throws Throwable
+            {
+                ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+                return null;
+            }
+        }).anyTimes();
+    }
+
+    private static void assertTimedOut(final AsyncMonitor<Object> monitor) throws Exception
+    {
+        try
+        {
+            monitor.getResult().get(5, TimeUnit.SECONDS);
+            fail("the monitor should have timed out");
+        }
+        catch (ExecutionException ex)
+        {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+    }
+
     private Function<Object, MonitorStatus> mockFunction(final MonitorStatus status)
     {
         return new Function<Object, MonitorStatus>()
@@ -22,17 +22,29 @@ package org.jclouds.abiquo.internal;
 import static org.jclouds.abiquo.reference.AbiquoConstants.ASYNC_TASK_MONITOR_DELAY;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jclouds.abiquo.AbiquoContext;
 import org.jclouds.abiquo.events.handlers.BlockingEventHandler;
 import org.jclouds.abiquo.events.monitor.MonitorEvent;
 import org.jclouds.abiquo.features.services.MonitoringService;
+import org.jclouds.abiquo.monitor.BatchMonitor;
 import org.jclouds.abiquo.monitor.MonitorStatus;
 import org.testng.annotations.Test;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.eventbus.EventBus;
 
 /**
  * Unit tests for the {@link BaseMonitoringService} class.
@@ -64,6 +76,7 @@ public class BaseMonitoringServiceTest extends BaseInjectionTest
         assertNotNull(service.scheduler);
         assertNotNull(service.pollingDelay);
         assertNotNull(service.eventBus);
+        assertNotNull(service.eventRouter);
     }
 
     @Test(expectedExceptions = NullPointerException.class)
@@ -181,6 +194,94 @@ public class BaseMonitoringServiceTest extends BaseInjectionTest
         assertEquals(handler.numTimeouts, 2);
     }
 
+    public void testAwaitCompletionAsyncWithoutTasks() throws Exception
+    {
+        BaseMonitoringService service = monitoringService();
+        assertTrue(service.awaitCompletionAsync(new MockMonitor()).get().isEmpty());
+        assertTrue(service.awaitCompletionAsync(new MockMonitor(), (Object[]) null).get()
+            .isEmpty());
+    }
+
+    public void testAwaitCompletionAsync() throws Exception
+    {
+        BaseMonitoringService service = monitoringService();
+        List<MonitorStatus> statuses =
+            service.awaitCompletionAsync(new MockMonitor(), new Object(), new Object()).get();
+        assertEquals(statuses, ImmutableList.of(MonitorStatus.DONE, MonitorStatus.DONE));
+    }
+
+    public void testAwaitCompletionAsyncReachesTimeout() throws Exception
+    {
+        BaseMonitoringService service = monitoringService();
+
+        try
+        {
+            service.awaitCompletionAsync(TEST_MONITOR_POLLING + 10L, TimeUnit.MILLISECONDS,
+                new MockInfiniteMonitor(), new Object()).get();
+            fail("the future should have failed with a timeout");
+        }
+        catch (ExecutionException ex)
+        {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+    }
+
+    public void testMonitorCoalesced()
+    {
+        BaseMonitoringService service = coalescedMonitoringService();
+
+        Object monitoredObject1 = new Object();
+        Object monitoredObject2 = new Object();
+        CountingHandler handler = new CountingHandler(monitoredObject1, monitoredObject2);
+        service.register(handler);
+
+        service.monitor(new MockMonitor(), monitoredObject1, monitoredObject2);
+        handler.lock();
+
+        service.unregister(handler);
+
+        assertEquals(handler.numCompletes, 2);
+        assertEquals(handler.numFailures, 0);
+        assertEquals(handler.numTimeouts, 0);
+    }
+
+    public void testMonitorCoalescedReachesTimeout()
+    {
+        BaseMonitoringService service = coalescedMonitoringService();
+
+        Object monitoredObject = new Object();
+        CountingHandler handler = new CountingHandler(monitoredObject);
+        service.register(handler);
+
+        service.monitor(TEST_MONITOR_POLLING + 10L, TimeUnit.MILLISECONDS,
+            new MockInfiniteMonitor(), monitoredObject);
+        handler.lock();
+
+        service.unregister(handler);
+
+        assertEquals(handler.numCompletes, 0);
+        assertEquals(handler.numFailures, 0);
+        assertEquals(handler.numTimeouts, 1);
+    }
+
+    public void testMonitorCoalescedGroupsObjects()
+    {
+        BaseMonitoringService service = coalescedMonitoringService();
+
+        Object[] monitoredObjects = {new Object(), new Object(), new Object()};
+        CountingHandler handler = new CountingHandler(monitoredObjects);
+        service.register(handler);
+
+        MockBatchMonitor monitor = new MockBatchMonitor();
+        service.monitor(monitor, monitoredObjects);
+        handler.lock();
+
+        service.unregister(handler);
+
+        assertEquals(handler.numCompletes, 3);
+        assertEquals(monitor.numCalls.get(), 1);
+    }
+
     public void testDelegateToVirtualMachineMonitor()
     {
         assertNotNull(monitoringService().getVirtualMachineMonitor());
@@ -201,6 +302,41 @@ public class BaseMonitoringServiceTest extends BaseInjectionTest
         return injector.getInstance(BaseMonitoringService.class);
     }
 
+    private BaseMonitoringService coalescedMonitoringService()
+    {
+        BaseMonitoringService service =
+            new BaseMonitoringService(injector.getInstance(AbiquoContext.class),
+                injector.getInstance(ScheduledExecutorService.class),
+                TEST_MONITOR_POLLING,
+                injector.getInstance(EventBus.class));
+        service.setCoalescePolling(true);
+        return service;
+    }
+
+    private static class MockBatchMonitor implements BatchMonitor<Object>
+    {
+        private AtomicInteger numCalls = new AtomicInteger(0);
+
+        @Override
+        public MonitorStatus apply(final Object object)
+        {
+            throw new UnsupportedOperationException("objects should be monitored in batch");
+        }
+
+        @Override
+        public Object getGroupKey(final Object object)
+        {
+            return "group";
+        }
+
+        @Override
+        public List<MonitorStatus> applyAll(final List<Object> objects)
+        {
+            numCalls.incrementAndGet();
+            return Collections.nCopies(objects.size(), MonitorStatus.DONE);
+        }
+    }
+
     private static class MockMonitor implements Function<Object, MonitorStatus>
     {
         private int finishAfterCount;
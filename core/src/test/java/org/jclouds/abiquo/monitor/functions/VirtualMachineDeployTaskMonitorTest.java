@@ -0,0 +1,351 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.functions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.easymock.EasyMock;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.jclouds.abiquo.monitor.PollingStrategy;
+import org.jclouds.abiquo.monitor.internal.ExponentialBackoffPollingStrategy;
+import org.jclouds.abiquo.monitor.internal.FixedPollingStrategy;
+import org.jclouds.abiquo.monitor.internal.LearnedDurationPollingStrategy;
+import org.jclouds.abiquo.reference.rest.ParentLinkName;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachineState;
+import com.abiquo.server.core.task.TaskDto;
+import com.abiquo.server.core.task.enums.TaskState;
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Unit tests for the {@link VirtualMachineDeployTaskMonitor} function.
+ * <p>
+ * A stand-in server simulates a deploy that takes a fixed amount of time, and counts the requests
+ * performed to monitor it.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class VirtualMachineDeployTaskMonitorTest
+{
+    private static final long DEPLOY_TIME = 30000L;
+
+    private static final long POLLING_DELAY = 1000L;
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testInvalidNullArgument()
+    {
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.<VirtualMachine, AsyncTask> of());
+        function.apply(null);
+    }
+
+    public void testReturnDone()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.ON);
+
+        assertEquals(function.apply(vm), MonitorStatus.DONE);
+        assertEquals(server.taskRequests, 1);
+        assertEquals(server.stateRequests, 1);
+    }
+
+    public void testReturnFailWhenTaskFails()
+    {
+        TaskState[] states = {TaskState.ABORTED, TaskState.FINISHED_UNSUCCESSFULLY};
+
+        for (TaskState state : states)
+        {
+            StandInServer server = new StandInServer();
+            VirtualMachine vm = server.newVirtualMachine();
+            Function<VirtualMachine, MonitorStatus> function =
+                new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+            server.finishDeploy(state, VirtualMachineState.NOT_ALLOCATED);
+
+            assertEquals(function.apply(vm), MonitorStatus.FAILED);
+            assertEquals(server.stateRequests, 0);
+        }
+    }
+
+    public void testReturnContinueWhileTaskIsRunning()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+        for (int i = 0; i < 5; i++)
+        {
+            assertEquals(function.apply(vm), MonitorStatus.CONTINUE);
+        }
+
+        assertEquals(server.taskRequests, 5);
+        assertEquals(server.stateRequests, 0);
+    }
+
+    public void testPollsStateIfVirtualMachineIsNotReadyWhenTaskFinishes()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.CONFIGURED);
+        assertEquals(function.apply(vm), MonitorStatus.CONTINUE);
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.ON);
+        assertEquals(function.apply(vm), MonitorStatus.DONE);
+
+        // The task is only followed until it finishes
+        assertEquals(server.taskRequests, 1);
+        assertEquals(server.stateRequests, 2);
+    }
+
+    public void testPollsStateIfThereIsNoTask()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.<VirtualMachine, AsyncTask> of());
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.ON);
+
+        assertEquals(function.apply(vm), MonitorStatus.DONE);
+        assertEquals(server.taskRequests, 0);
+        assertEquals(server.stateRequests, 1);
+    }
+
+    public void testPollsStateIfTheTaskIsNull()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Map<VirtualMachine, AsyncTask> deployTasks = Maps.newHashMap();
+        deployTasks.put(vm, null);
+        VirtualMachineDeployTaskMonitor function = new VirtualMachineDeployTaskMonitor(deployTasks);
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.ON);
+
+        assertTrue(function.deployTasks.isEmpty());
+        assertEquals(function.apply(vm), MonitorStatus.DONE);
+        assertEquals(server.taskRequests, 0);
+        assertEquals(server.stateRequests, 1);
+    }
+
+    public void testReturnContinueIfTaskRefreshFails()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        Function<VirtualMachine, MonitorStatus> function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+        server.failing = true;
+        assertEquals(function.apply(vm), MonitorStatus.CONTINUE);
+    }
+
+    public void testVirtualMachinesFollowingTasksAreNotGrouped()
+    {
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        VirtualMachineDeployTaskMonitor function =
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask()));
+
+        assertNull(function.getGroupKey(vm));
+
+        server.finishDeploy(TaskState.FINISHED_SUCCESSFULLY, VirtualMachineState.CONFIGURED);
+        function.apply(vm);
+
+        assertNotNull(function.getGroupKey(vm));
+    }
+
+    public void testRequestsPerDeploy()
+    {
+        // Polling the state of the virtual machine needs a request every polling interval
+        StandInServer server = new StandInServer();
+        VirtualMachine vm = server.newVirtualMachine();
+        simulateDeploy(server, new VirtualMachineDeployMonitor(), vm,
+            new FixedPollingStrategy(POLLING_DELAY));
+
+        assertTrue(server.stateRequests >= DEPLOY_TIME / POLLING_DELAY);
+
+        // Following the deploy task checks the state of the virtual machine only once
+        server = new StandInServer();
+        vm = server.newVirtualMachine();
+        simulateDeploy(server,
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask())), vm,
+            new FixedPollingStrategy(POLLING_DELAY));
+
+        assertEquals(server.stateRequests, 1);
+
+        // Once the duration of the deploy is known, the task is only polled shortly before and when
+        // it is expected to be finished
+        PollingStrategy learned =
+            new LearnedDurationPollingStrategy(new ExponentialBackoffPollingStrategy(
+                POLLING_DELAY, DEPLOY_TIME));
+
+        server = new StandInServer();
+        vm = server.newVirtualMachine();
+        simulateDeploy(server,
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask())), vm,
+            learned);
+
+        server = new StandInServer();
+        vm = server.newVirtualMachine();
+        simulateDeploy(server,
+            new VirtualMachineDeployTaskMonitor(ImmutableMap.of(vm, server.newTask())), vm,
+            learned);
+
+        assertEquals(server.stateRequests, 1);
+        assertTrue(server.taskRequests + server.stateRequests <= 3, "performed "
+            + (server.taskRequests + server.stateRequests) + " requests");
+    }
+
+    /**
+     * Polls the given virtual machine as the monitoring service does, using the clock of the stand
+     * in server.
+     */
+    private static void simulateDeploy(final StandInServer server,
+        final Function<VirtualMachine, MonitorStatus> function, final VirtualMachine vm,
+        final PollingStrategy strategy)
+    {
+        MonitorStatus status = MonitorStatus.CONTINUE;
+        int polls = 0;
+
+        while (status == MonitorStatus.CONTINUE)
+        {
+            server.now += strategy.getNextDelay(vm, function, polls, server.now);
+            status = function.apply(vm);
+            polls++;
+        }
+
+        assertEquals(status, MonitorStatus.DONE);
+        strategy.onCompletion(vm, function, status, server.now);
+    }
+
+    /**
+     * Simulates the server side of a deploy that takes {@link #DEPLOY_TIME} to complete.
+     */
+    private static class StandInServer
+    {
+        private final AbiquoContext context = EasyMock.createMock(AbiquoContext.class);
+
+        /** The simulated time since the deploy started. */
+        private long now = 0;
+
+        private TaskState taskState;
+
+        private VirtualMachineState vmState;
+
+        private boolean failing = false;
+
+        private int taskRequests = 0;
+
+        private int stateRequests = 0;
+
+        public void finishDeploy(final TaskState taskState, final VirtualMachineState vmState)
+        {
+            this.taskState = taskState;
+            this.vmState = vmState;
+        }
+
+        private TaskState getTaskState()
+        {
+            taskRequests++;
+            checkFailing();
+            if (taskState != null)
+            {
+                return taskState;
+            }
+            return now >= DEPLOY_TIME ? TaskState.FINISHED_SUCCESSFULLY : TaskState.STARTED;
+        }
+
+        private VirtualMachineState getVirtualMachineState()
+        {
+            stateRequests++;
+            checkFailing();
+            if (vmState != null)
+            {
+                return vmState;
+            }
+            return now >= DEPLOY_TIME ? VirtualMachineState.ON : VirtualMachineState.LOCKED;
+        }
+
+        private void checkFailing()
+        {
+            if (failing)
+            {
+                throw new RuntimeException("This stand in server always fails");
+            }
+        }
+
+        public VirtualMachine newVirtualMachine()
+        {
+            VirtualMachineDto dto = new VirtualMachineDto();
+            dto.addLink(new RESTLink(ParentLinkName.VIRTUAL_APPLIANCE,
+                "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/1"));
+
+            return new VirtualMachine(context, dto)
+            {
+                @Override
+                public VirtualMachineState getState()
+                {
+                    return getVirtualMachineState();
+                }
+            };
+        }
+
+        public AsyncTask newTask()
+        {
+            return new AsyncTask(context, new TaskDto())
+            {
+                private TaskState state = TaskState.PENDING;
+
+                @Override
+                public void refresh()
+                {
+                    state = getTaskState();
+                }
+
+                @Override
+                public TaskState getState()
+                {
+                    return state;
+                }
+            };
+        }
+    }
+}
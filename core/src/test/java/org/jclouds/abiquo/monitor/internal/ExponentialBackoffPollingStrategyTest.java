@@ -0,0 +1,75 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ExponentialBackoffPollingStrategy} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class ExponentialBackoffPollingStrategyTest
+{
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBounds()
+    {
+        new ExponentialBackoffPollingStrategy(1000L, 500L);
+    }
+
+    public void testFirstPollIsImmediate()
+    {
+        ExponentialBackoffPollingStrategy strategy =
+            new ExponentialBackoffPollingStrategy(100L, 1000L);
+        assertEquals(strategy.getNextDelay(new Object(), null, 0, 0L), 0L);
+    }
+
+    public void testDelayGrowsExponentially()
+    {
+        ExponentialBackoffPollingStrategy strategy =
+            new ExponentialBackoffPollingStrategy(100L, 100000L);
+
+        checkDelay(strategy.getNextDelay(new Object(), null, 1, 0L), 100L);
+        checkDelay(strategy.getNextDelay(new Object(), null, 2, 0L), 200L);
+        checkDelay(strategy.getNextDelay(new Object(), null, 3, 0L), 400L);
+        checkDelay(strategy.getNextDelay(new Object(), null, 4, 0L), 800L);
+    }
+
+    public void testDelayIsBounded()
+    {
+        ExponentialBackoffPollingStrategy strategy =
+            new ExponentialBackoffPollingStrategy(100L, 1000L);
+
+        checkDelay(strategy.getNextDelay(new Object(), null, 10, 0L), 1000L);
+        checkDelay(strategy.getNextDelay(new Object(), null, Integer.MAX_VALUE, 0L), 1000L);
+    }
+
+    private static void checkDelay(final long delay, final long expected)
+    {
+        // The jitter may reduce the delay up to the half
+        assertTrue(delay <= expected, delay + " should be lower or equal than " + expected);
+        assertTrue(delay >= expected / 2, delay + " should be greater or equal than "
+            + expected / 2);
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class LatencyHistogramTest
+{
+    public void testEmptyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(histogram.getCount(), 0L);
+        assertEquals(histogram.getMean(TimeUnit.MICROSECONDS), 0L);
+        assertEquals(histogram.getPercentile(0.99, TimeUnit.MICROSECONDS), 0L);
+    }
+
+    public void testPercentilesAreBucketUpperBounds()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++)
+        {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(5000));
+
+        assertEquals(histogram.getCount(), 100L);
+        // 100 us falls in the [64, 127] bucket
+        assertEquals(histogram.getPercentile(0.5, TimeUnit.MICROSECONDS), 127L);
+        assertEquals(histogram.getPercentile(0.99, TimeUnit.MICROSECONDS), 127L);
+        // The upper bound is never greater than the maximum recorded value
+        assertEquals(histogram.getPercentile(1, TimeUnit.MICROSECONDS), 5000L);
+        assertEquals(histogram.getMax(TimeUnit.MICROSECONDS), 5000L);
+        assertEquals(histogram.getMean(TimeUnit.MICROSECONDS), 149L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPercentile()
+    {
+        new LatencyHistogram().getPercentile(0, TimeUnit.MICROSECONDS);
+    }
+}
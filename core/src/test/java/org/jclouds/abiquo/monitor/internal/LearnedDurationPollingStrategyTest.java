@@ -0,0 +1,132 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.jclouds.abiquo.monitor.MonitorStatus;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Unit tests for the {@link LearnedDurationPollingStrategy} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class LearnedDurationPollingStrategyTest
+{
+    private static final Function<Object, MonitorStatus> DEPLOY = new DeployCondition();
+
+    private static final Function<Object, MonitorStatus> UNDEPLOY = new UndeployCondition();
+
+    public void testUnknownOperationsUseFallback()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 0, 0L), 0L);
+        assertTrue(strategy.getNextDelay(new Object(), DEPLOY, 1, 0L) <= 100L);
+    }
+
+    public void testWaitsForTheExpectedDuration()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, 5000L);
+
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 0, 0L), 4000L);
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 0, 1000L), 3000L);
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 0, 6000L), 0L);
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 1, 4000L), 1000L);
+        assertTrue(strategy.getNextDelay(new Object(), DEPLOY, 2, 6000L) <= 100L);
+    }
+
+    public void testEstimateDecaysWhenOperationsCompleteAtTheFirstPoll()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, 60000L);
+
+        // Fast operations are seen at the first poll, with the first poll delay as elapsed time
+        long previous = strategy.getNextDelay(new Object(), DEPLOY, 0, 0L);
+        for (int i = 0; i < 20; i++)
+        {
+            long firstPoll = strategy.getNextDelay(new Object(), DEPLOY, 0, 0L);
+            strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, firstPoll);
+            long next = strategy.getNextDelay(new Object(), DEPLOY, 0, 0L);
+            assertTrue(next < previous, "the first poll delay did not decrease: " + next);
+            previous = next;
+        }
+        assertTrue(previous < 15000L, "the estimate did not decay: " + previous);
+    }
+
+    public void testFailuresAreNotLearned()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.FAILED, 5000L);
+        assertTrue(strategy.durations.isEmpty());
+    }
+
+    public void testMovingAverage()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, 1000L);
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, 2000L);
+
+        long expected = (long) (1000L * (1 - LearnedDurationPollingStrategy.WEIGHT) + 2000L
+            * LearnedDurationPollingStrategy.WEIGHT);
+        assertEquals(strategy.durations.get(ImmutableList.of(Object.class,
+            DeployCondition.class)), Long.valueOf(expected));
+    }
+
+    public void testOperationsAreLearnedByCondition()
+    {
+        LearnedDurationPollingStrategy strategy = strategy();
+        strategy.onCompletion(new Object(), DEPLOY, MonitorStatus.DONE, 5000L);
+        strategy.onCompletion(new Object(), UNDEPLOY, MonitorStatus.DONE, 1000L);
+
+        assertEquals(strategy.getNextDelay(new Object(), DEPLOY, 0, 0L), 4000L);
+        assertEquals(strategy.getNextDelay(new Object(), UNDEPLOY, 0, 0L), 800L);
+    }
+
+    private static LearnedDurationPollingStrategy strategy()
+    {
+        return new LearnedDurationPollingStrategy(new ExponentialBackoffPollingStrategy(100L,
+            1000L));
+    }
+
+    private static class DeployCondition implements Function<Object, MonitorStatus>
+    {
+        @Override
+        public MonitorStatus apply(final Object input)
+        {
+            return MonitorStatus.DONE;
+        }
+    }
+
+    private static class UndeployCondition implements Function<Object, MonitorStatus>
+    {
+        @Override
+        public MonitorStatus apply(final Object input)
+        {
+            return MonitorStatus.DONE;
+        }
+    }
+}
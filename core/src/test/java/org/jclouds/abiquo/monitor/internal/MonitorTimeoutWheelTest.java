@@ -0,0 +1,114 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link MonitorTimeoutWheel} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class MonitorTimeoutWheelTest
+{
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTicksPerWheel()
+    {
+        new MonitorTimeoutWheel(10L, 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTickDuration()
+    {
+        new MonitorTimeoutWheel(0L, 8);
+    }
+
+    public void testTimeoutFiresAfterDeadline() throws InterruptedException
+    {
+        MonitorTimeoutWheel wheel = new MonitorTimeoutWheel(10L, 8);
+        final CountDownLatch fired = new CountDownLatch(1);
+        final AtomicLong firedAt = new AtomicLong();
+
+        long start = System.nanoTime();
+        // The deadline spans several rounds of the wheel
+        wheel.schedule(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                firedAt.set(System.nanoTime());
+                fired.countDown();
+            }
+        }, 200L);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(firedAt.get() - start) >= 200L);
+        assertEquals(wheel.getPending(), 0);
+    }
+
+    public void testCancelledTimeoutDoesNotFire() throws InterruptedException
+    {
+        MonitorTimeoutWheel wheel = new MonitorTimeoutWheel(10L, 8);
+        final CountDownLatch fired = new CountDownLatch(1);
+        CountDownLatch other = new CountDownLatch(1);
+
+        MonitorTimeoutWheel.Timeout timeout = wheel.schedule(countDown(fired), 20L);
+        wheel.schedule(countDown(other), 50L);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(wheel.getPending(), 1);
+
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        assertEquals(fired.getCount(), 1L);
+    }
+
+    public void testExpiredTimeoutCanNotBeCancelled() throws InterruptedException
+    {
+        MonitorTimeoutWheel wheel = new MonitorTimeoutWheel(10L, 8);
+        CountDownLatch fired = new CountDownLatch(1);
+
+        MonitorTimeoutWheel.Timeout timeout = wheel.schedule(countDown(fired), 0L);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+    }
+
+    private static Runnable countDown(final CountDownLatch latch)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                latch.countDown();
+            }
+        };
+    }
+}
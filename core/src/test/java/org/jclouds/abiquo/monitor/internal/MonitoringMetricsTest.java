@@ -0,0 +1,138 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.jclouds.abiquo.events.monitor.MonitorEvent;
+import org.jclouds.abiquo.monitor.MonitoringStats;
+import org.jclouds.lifecycle.Closer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link MonitoringMetrics} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class MonitoringMetricsTest
+{
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @BeforeMethod
+    public void setupScheduler()
+    {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @AfterMethod
+    public void shutdownScheduler()
+    {
+        scheduler.shutdownNow();
+    }
+
+    public void testSnapshot()
+    {
+        MonitoringMetrics metrics = new MonitoringMetrics(scheduler);
+        metrics.monitorStarted(String.class);
+        metrics.monitorStarted(String.class);
+        metrics.monitorStarted(Integer.class);
+        metrics.monitorStopped(Integer.class);
+        metrics.monitorFinished(Integer.class, MonitorEvent.Type.COMPLETED,
+            TimeUnit.SECONDS.toNanos(1));
+        metrics.polled();
+        metrics.polled();
+        metrics.pollCall(TimeUnit.MILLISECONDS.toNanos(10));
+        metrics.eventDispatched(TimeUnit.MICROSECONDS.toNanos(5));
+
+        MonitoringStats stats = metrics.snapshot();
+
+        assertEquals(stats.getActiveMonitors(), 2);
+        assertEquals(stats.getActiveMonitorsByType().get(String.class.getName()).intValue(), 2);
+        assertEquals(stats.getActiveMonitorsByType().get(Integer.class.getName()).intValue(), 0);
+        assertEquals(stats.getTotalPolls(), 2L);
+        assertEquals(stats.getPollLatency().getCount(), 1L);
+        assertEquals(stats.getPollLatency().getMax(TimeUnit.MILLISECONDS), 10L);
+        assertEquals(stats.getEventDispatchLatency().getCount(), 1L);
+        assertEquals(stats.getSchedulerQueueDepth(), 0);
+
+        MonitoringStats.Latency completed =
+            stats.getCompletionTimes().get(Integer.class.getName())
+                .get(MonitorEvent.Type.COMPLETED);
+        assertEquals(completed.getCount(), 1L);
+        assertEquals(completed.getMax(TimeUnit.SECONDS), 1L);
+        assertEquals(stats.getCompletionTimes().get(Integer.class.getName())
+            .get(MonitorEvent.Type.TIMEOUT).getCount(), 0L);
+    }
+
+    public void testRegisterMBean() throws Exception
+    {
+        MonitoringMetrics metrics = new MonitoringMetrics(scheduler);
+        metrics.setJmxEnabled(true);
+        assertNotNull(metrics.getObjectName());
+
+        try
+        {
+            metrics.polled();
+            assertEquals(
+                ManagementFactory.getPlatformMBeanServer().getAttribute(metrics.getObjectName(),
+                    "TotalPolls"), 1L);
+        }
+        finally
+        {
+            metrics.unregisterMBean();
+        }
+
+        assertNull(metrics.getObjectName());
+    }
+
+    public void testMBeanIsUnregisteredWhenTheContextIsClosed() throws Exception
+    {
+        Closer closer = new Closer();
+        MonitoringMetrics metrics = new MonitoringMetrics(scheduler, closer);
+        metrics.setJmxEnabled(true);
+
+        ObjectName name = metrics.getObjectName();
+        assertNotNull(name);
+
+        closer.close();
+
+        assertNull(metrics.getObjectName());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    public void testMBeanIsNotRegisteredByDefault()
+    {
+        MonitoringMetrics metrics = new MonitoringMetrics(scheduler);
+        metrics.setJmxEnabled(false);
+        assertNull(metrics.getObjectName());
+    }
+}
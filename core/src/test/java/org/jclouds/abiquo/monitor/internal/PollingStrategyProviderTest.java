@@ -0,0 +1,49 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.monitor.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link PollingStrategyProvider} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class PollingStrategyProviderTest
+{
+    public void testSupportedStrategies()
+    {
+        assertEquals(PollingStrategyProvider.getStrategyClass("fixed"),
+            FixedPollingStrategy.class);
+        assertEquals(PollingStrategyProvider.getStrategyClass("backoff"),
+            ExponentialBackoffPollingStrategy.class);
+        assertEquals(PollingStrategyProvider.getStrategyClass("learned"),
+            LearnedDurationPollingStrategy.class);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedStrategy()
+    {
+        PollingStrategyProvider.getStrategyClass("unknown");
+    }
+}
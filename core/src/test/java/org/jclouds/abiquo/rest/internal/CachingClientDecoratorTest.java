@@ -0,0 +1,256 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.rest.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.jclouds.abiquo.AbiquoClient;
+import org.jclouds.abiquo.features.ConfigClient;
+import org.jclouds.abiquo.features.EnterpriseClient;
+import org.jclouds.xml.internal.JAXBParser;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.cloud.VirtualApplianceStateDto;
+import com.abiquo.server.core.enterprise.EnterpriseDto;
+import com.abiquo.server.core.enterprise.UsersDto;
+import com.abiquo.server.core.task.TaskDto;
+
+/**
+ * Unit tests for the {@link CachingClientDecorator} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class CachingClientDecoratorTest
+{
+    public void testDoesNotDecorateIfDisabled()
+    {
+        AbiquoClient client = createMock(AbiquoClient.class);
+        CachingClientDecorator decorator =
+            new CachingClientDecorator(false, 60000L, "", 100L, new JAXBParser());
+
+        assertTrue(decorator.decorate(client) == client);
+    }
+
+    public void testParseTtls()
+    {
+        CachingClientDecorator decorator =
+            new CachingClientDecorator(true, 60000L, "EnterpriseDto=1000, UsersDto = 0", 100L,
+                new JAXBParser());
+
+        assertEquals(decorator.ttls.size(), 2);
+        assertEquals(decorator.getTtl(EnterpriseDto.class), 1000L);
+        assertEquals(decorator.getTtl(UsersDto.class), 0L);
+        assertEquals(decorator.getTtl(RESTLink.class), 60000L);
+    }
+
+    public void testVolatileTypesAreNotCachedByDefault()
+    {
+        CachingClientDecorator decorator =
+            new CachingClientDecorator(true, 60000L, "TaskDto=1000", 100L, new JAXBParser());
+
+        assertEquals(decorator.getTtl(UsersDto.class), 0L);
+        assertEquals(decorator.getTtl(VirtualApplianceStateDto.class), 0L);
+        assertEquals(decorator.getTtl(TaskDto.class), 1000L);
+        assertEquals(decorator.getTtl(EnterpriseDto.class), 60000L);
+    }
+
+    public void testNotCacheableClientsAreNotDecorated()
+    {
+        ConfigClient configClient = createMock(ConfigClient.class);
+        AbiquoClient client = mockClient(createMock(EnterpriseClient.class), configClient);
+
+        AbiquoClient decorated =
+            new CachingClientDecorator(true, 60000L, "", 100L, new JAXBParser())
+                .decorate(client);
+
+        assertTrue(decorated.getConfigClient() == configClient);
+    }
+
+    public void testGetRequestsAreCached()
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        enterprise.setName("Abiquo");
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andReturn(enterprise).once();
+        expect(enterpriseClient.getEnterprise(2)).andReturn(null).once();
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "");
+
+        assertTrue(decorated.getEnterprise(1) == enterprise);
+        assertEquals(decorated.getEnterprise(1).getName(), "Abiquo");
+        assertNull(decorated.getEnterprise(2));
+        assertNull(decorated.getEnterprise(2));
+
+        verify(enterpriseClient);
+    }
+
+    public void testGetRequestsWithTransferObjectsAreCachedByLink()
+    {
+        EnterpriseDto enterprise1 = new EnterpriseDto();
+        enterprise1.addLink(new RESTLink("edit", "http://localhost/api/admin/enterprises/1"));
+        EnterpriseDto enterprise2 = new EnterpriseDto();
+        enterprise2.addLink(new RESTLink("edit", "http://localhost/api/admin/enterprises/1"));
+
+        UsersDto users = new UsersDto();
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.listUsers(enterprise1)).andReturn(users).once();
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "UsersDto=60000");
+
+        assertTrue(decorated.listUsers(enterprise1) == users);
+        assertNotNull(decorated.listUsers(enterprise2));
+
+        verify(enterpriseClient);
+    }
+
+    public void testListingsAreNotCachedByDefault()
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        enterprise.addLink(new RESTLink("edit", "http://localhost/api/admin/enterprises/1"));
+
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.listUsers(enterprise)).andReturn(new UsersDto()).times(2);
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "");
+
+        decorated.listUsers(enterprise);
+        decorated.listUsers(enterprise);
+
+        verify(enterpriseClient);
+    }
+
+    public void testEachCallerGetsItsOwnCopy()
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        enterprise.setName("Abiquo");
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andReturn(enterprise).once();
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "");
+
+        // Unsaved changes made by a caller must not be seen by the others
+        decorated.getEnterprise(1).setName("changed");
+        EnterpriseDto first = decorated.getEnterprise(1);
+        first.setName("changed again");
+        EnterpriseDto second = decorated.getEnterprise(1);
+
+        assertFalse(first == second);
+        assertEquals(second.getName(), "Abiquo");
+
+        verify(enterpriseClient);
+    }
+
+    public void testPutAndDeleteRequestsInvalidateTheCache()
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andReturn(enterprise).times(3);
+        expect(enterpriseClient.updateEnterprise(enterprise)).andReturn(enterprise);
+        enterpriseClient.deleteEnterprise(enterprise);
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "");
+
+        decorated.getEnterprise(1);
+        decorated.getEnterprise(1);
+        decorated.updateEnterprise(enterprise);
+        decorated.getEnterprise(1);
+        decorated.deleteEnterprise(enterprise);
+        decorated.getEnterprise(1);
+
+        verify(enterpriseClient);
+    }
+
+    public void testResourceTypesWithoutTtlAreNotCached()
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andReturn(enterprise).times(2);
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "EnterpriseDto=0");
+
+        decorated.getEnterprise(1);
+        decorated.getEnterprise(1);
+
+        verify(enterpriseClient);
+    }
+
+    public void testExpiredResponsesAreRefreshed() throws InterruptedException
+    {
+        EnterpriseDto enterprise = new EnterpriseDto();
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andReturn(enterprise).times(2);
+        replay(enterpriseClient);
+
+        EnterpriseClient decorated = decorate(enterpriseClient, "EnterpriseDto=10");
+
+        decorated.getEnterprise(1);
+        Thread.sleep(50L);
+        decorated.getEnterprise(1);
+
+        verify(enterpriseClient);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testExceptionsArePropagated()
+    {
+        EnterpriseClient enterpriseClient = createMock(EnterpriseClient.class);
+        expect(enterpriseClient.getEnterprise(1)).andThrow(new IllegalStateException());
+        replay(enterpriseClient);
+
+        decorate(enterpriseClient, "").getEnterprise(1);
+    }
+
+    private static EnterpriseClient decorate(final EnterpriseClient enterpriseClient,
+        final String ttls)
+    {
+        AbiquoClient client = mockClient(enterpriseClient, createMock(ConfigClient.class));
+        return new CachingClientDecorator(true, 60000L, ttls, 100L, new JAXBParser()).decorate(
+            client).getEnterpriseClient();
+    }
+
+    private static AbiquoClient mockClient(final EnterpriseClient enterpriseClient,
+        final ConfigClient configClient)
+    {
+        AbiquoClient client = createMock(AbiquoClient.class);
+        expect(client.getEnterpriseClient()).andReturn(enterpriseClient).anyTimes();
+        expect(client.getConfigClient()).andReturn(configClient).anyTimes();
+        expect(client.getAdminClient()).andReturn(null).anyTimes();
+        expect(client.getInfrastructureClient()).andReturn(null).anyTimes();
+        expect(client.getCloudClient()).andReturn(null).anyTimes();
+        replay(client);
+        return client;
+    }
+}
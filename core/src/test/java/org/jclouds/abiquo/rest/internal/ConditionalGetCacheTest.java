@@ -0,0 +1,205 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.rest.internal;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.Status;
+
+import org.easymock.Capture;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payloads;
+import org.jclouds.xml.internal.JAXBParser;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.server.core.task.TaskDto;
+
+/**
+ * Unit tests for the {@link ConditionalGetCache} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class ConditionalGetCacheTest
+{
+    private static final RESTLink LINK = new RESTLink("self",
+        "http://localhost/api/cloud/virtualdatacenters/1/virtualappliances/1/tasks/1");
+
+    public void testReturnsCachedObjectIfNotModified() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+        Capture<ConditionalGetOptions> first = new Capture<ConditionalGetOptions>();
+        Capture<ConditionalGetOptions> second = new Capture<ConditionalGetOptions>();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(eq(LINK), capture(first))).andReturn(ok(xml, "\"v1\"", null));
+        expect(http.get(eq(LINK), capture(second))).andReturn(notModified());
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 10L);
+        TaskDto task = cache.get(LINK, TaskDto.class);
+        assertNotNull(task);
+        assertTrue(cache.get(LINK, TaskDto.class) == task);
+
+        assertTrue(first.getValue().buildRequestHeaders().isEmpty());
+        assertEquals(second.getValue().buildRequestHeaders().get(HttpHeaders.IF_NONE_MATCH)
+            .iterator().next(), "\"v1\"");
+
+        verify(http);
+    }
+
+    public void testUsesLastModifiedIfThereIsNoETag() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+        String lastModified = "Tue, 15 Nov 1994 12:45:26 GMT";
+        Capture<ConditionalGetOptions> second = new Capture<ConditionalGetOptions>();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(ok(xml, null, lastModified));
+        expect(http.get(eq(LINK), capture(second))).andReturn(notModified());
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 10L);
+        TaskDto task = cache.get(LINK, TaskDto.class);
+        assertTrue(cache.get(LINK, TaskDto.class) == task);
+
+        assertEquals(second.getValue().buildRequestHeaders().get(HttpHeaders.IF_MODIFIED_SINCE)
+            .iterator().next(), lastModified);
+
+        verify(http);
+    }
+
+    public void testModifiedResourcesAreParsedAgain() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+        Capture<ConditionalGetOptions> third = new Capture<ConditionalGetOptions>();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(ok(xml, "\"v1\"", null));
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(ok(xml, "\"v2\"", null));
+        expect(http.get(eq(LINK), capture(third))).andReturn(notModified());
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 10L);
+        TaskDto first = cache.get(LINK, TaskDto.class);
+        TaskDto second = cache.get(LINK, TaskDto.class);
+        assertTrue(first != second);
+        assertTrue(cache.get(LINK, TaskDto.class) == second);
+
+        assertEquals(third.getValue().buildRequestHeaders().get(HttpHeaders.IF_NONE_MATCH)
+            .iterator().next(), "\"v2\"");
+
+        verify(http);
+    }
+
+    public void testResponsesWithoutValidatorsAreNotCached() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(ok(xml, null, null));
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 10L);
+        assertNotNull(cache.get(LINK, TaskDto.class));
+        assertEquals(cache.responses.size(), 0L);
+
+        verify(http);
+    }
+
+    public void testNotFoundResourcesAreRemoved() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(ok(xml, "\"v1\"", null));
+        expect(http.get(eq(LINK), (ConditionalGetOptions) anyObject()))
+            .andReturn(null);
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 10L);
+        cache.get(LINK, TaskDto.class);
+        assertEquals(cache.responses.size(), 1L);
+        assertNull(cache.get(LINK, TaskDto.class));
+        assertEquals(cache.responses.size(), 0L);
+
+        verify(http);
+    }
+
+    public void testConditionalRequestsDisabled() throws IOException
+    {
+        JAXBParser xml = new JAXBParser();
+
+        AbiquoHttpClient http = createMock(AbiquoHttpClient.class);
+        expect(http.get(LINK)).andReturn(ok(xml, "\"v1\"", null)).times(2);
+        replay(http);
+
+        ConditionalGetCache cache = new ConditionalGetCache(http, xml, 0L);
+        assertNull(cache.responses);
+        assertTrue(cache.get(LINK, TaskDto.class) != cache.get(LINK, TaskDto.class));
+
+        verify(http);
+    }
+
+    private static HttpResponse ok(final JAXBParser xml, final String eTag,
+        final String lastModified) throws IOException
+    {
+        TaskDto task = new TaskDto();
+        task.setTaskId("1");
+
+        HttpResponse response = createNiceMock(HttpResponse.class);
+        expect(response.getStatusCode()).andReturn(Status.OK.getStatusCode()).anyTimes();
+        expect(response.getPayload()).andReturn(Payloads.newPayload(xml.toXML(task))).anyTimes();
+        expect(response.getFirstHeaderOrNull(HttpHeaders.ETAG)).andReturn(eTag).anyTimes();
+        expect(response.getFirstHeaderOrNull(HttpHeaders.LAST_MODIFIED)).andReturn(lastModified)
+            .anyTimes();
+        replay(response);
+        return response;
+    }
+
+    private static HttpResponse notModified()
+    {
+        HttpResponse response = createNiceMock(HttpResponse.class);
+        expect(response.getStatusCode()).andReturn(Status.NOT_MODIFIED.getStatusCode())
+            .anyTimes();
+        replay(response);
+        return response;
+    }
+}
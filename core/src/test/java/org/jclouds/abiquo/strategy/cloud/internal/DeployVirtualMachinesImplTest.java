@@ -0,0 +1,255 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.cloud.internal;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.abiquo.AbiquoAsyncClient;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.domain.task.AsyncTask;
+import org.jclouds.abiquo.features.CloudAsyncClient;
+import org.jclouds.abiquo.features.TaskAsyncClient;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.model.rest.RESTLink;
+import com.abiquo.model.transport.AcceptedRequestDto;
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachineTaskDto;
+import com.abiquo.server.core.task.TaskDto;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Unit tests for the {@link DeployVirtualMachinesImpl} strategy.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class DeployVirtualMachinesImplTest
+{
+    private AbiquoContext context;
+
+    private CloudAsyncClient cloudClient;
+
+    private TaskAsyncClient taskClient;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        cloudClient = createMock(CloudAsyncClient.class);
+        taskClient = createMock(TaskAsyncClient.class);
+        AbiquoAsyncClient asyncApi = createMock(AbiquoAsyncClient.class);
+
+        expect(context.getAsyncApi()).andReturn(asyncApi).anyTimes();
+        expect(asyncApi.getCloudClient()).andReturn(cloudClient).anyTimes();
+        expect(asyncApi.getTaskClient()).andReturn(taskClient).anyTimes();
+        replay(context, asyncApi);
+    }
+
+    public void testDeployVirtualMachines() throws Exception
+    {
+        VirtualMachine vm1 = virtualMachine(1);
+        VirtualMachine vm2 = virtualMachine(2);
+        expectDeploy(vm1, true);
+        expectDeploy(vm2, true);
+        replay(cloudClient, taskClient);
+
+        List<ListenableFuture<AsyncTask>> tasks =
+            newStrategy().execute(ImmutableList.of(vm1, vm2), false);
+
+        assertEquals(tasks.size(), 2);
+        assertEquals(tasks.get(0).get().getTaskId(), "task-1");
+        assertEquals(tasks.get(1).get().getTaskId(), "task-2");
+        verify(cloudClient, taskClient);
+    }
+
+    public void testUntrackableTasks() throws Exception
+    {
+        VirtualMachine vm = virtualMachine(1);
+        expectDeploy(vm, false);
+        replay(cloudClient, taskClient);
+
+        List<ListenableFuture<AsyncTask>> tasks =
+            newStrategy().execute(ImmutableList.of(vm), false);
+
+        assertEquals(tasks.size(), 1);
+        assertNull(tasks.get(0).get());
+        verify(cloudClient, taskClient);
+    }
+
+    @Test(expectedExceptions = ExecutionException.class)
+    public void testErrorsArePropagated() throws Exception
+    {
+        VirtualMachine vm = virtualMachine(1);
+        ListenableFuture<AcceptedRequestDto<String>> failure =
+            Futures.immediateFailedFuture(new IllegalStateException());
+        expect(
+            cloudClient.deployVirtualMachine(eq(vm.unwrap()),
+                anyObject(VirtualMachineTaskDto.class))).andReturn(failure);
+        replay(cloudClient, taskClient);
+
+        newStrategy().execute(ImmutableList.of(vm), false).get(0).get();
+    }
+
+    public void testFailuresAreReportedPerVirtualMachine() throws Exception
+    {
+        VirtualMachine failed = virtualMachine(1);
+        VirtualMachine rejected = virtualMachine(2);
+        VirtualMachine deployed = virtualMachine(3);
+
+        ListenableFuture<AcceptedRequestDto<String>> failure =
+            Futures.immediateFailedFuture(new IllegalStateException());
+        expect(
+            cloudClient.deployVirtualMachine(eq(failed.unwrap()),
+                anyObject(VirtualMachineTaskDto.class))).andReturn(failure);
+        expect(
+            cloudClient.deployVirtualMachine(eq(rejected.unwrap()),
+                anyObject(VirtualMachineTaskDto.class))).andThrow(new IllegalArgumentException());
+        expectDeploy(deployed, true);
+        replay(cloudClient, taskClient);
+
+        List<ListenableFuture<AsyncTask>> tasks =
+            newStrategy().execute(ImmutableList.of(failed, rejected, deployed), false);
+
+        assertEquals(tasks.size(), 3);
+        assertFailed(tasks.get(0), IllegalStateException.class);
+        assertFailed(tasks.get(1), IllegalArgumentException.class);
+        assertEquals(tasks.get(2).get().getTaskId(), "task-3");
+        verify(cloudClient, taskClient);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testDeploysDoNotWaitForPermits() throws Exception
+    {
+        VirtualMachine vm1 = virtualMachine(1);
+        VirtualMachine vm2 = virtualMachine(2);
+        AcceptedRequestDto<String> firstAccepted = accepted(vm1);
+        AcceptedRequestDto<String> secondAccepted = accepted(vm2);
+        SettableFuture<AcceptedRequestDto<String>> firstDeploy =
+            expectPendingDeploy(vm1, firstAccepted);
+        SettableFuture<AcceptedRequestDto<String>> secondDeploy =
+            expectPendingDeploy(vm2, secondAccepted);
+        replay(cloudClient, taskClient);
+
+        // There is only one permit, so the second deploy is queued until the first is accepted
+        List<ListenableFuture<AsyncTask>> tasks =
+            newStrategy().execute(ImmutableList.of(vm1, vm2), false);
+        assertFalse(tasks.get(0).isDone());
+        assertFalse(tasks.get(1).isDone());
+
+        firstDeploy.set(firstAccepted);
+        secondDeploy.set(secondAccepted);
+
+        assertEquals(tasks.get(0).get().getTaskId(), "task-1");
+        assertEquals(tasks.get(1).get().getTaskId(), "task-2");
+        verify(cloudClient, taskClient);
+    }
+
+    private static void assertFailed(final ListenableFuture<AsyncTask> task,
+        final Class< ? extends Throwable> cause) throws InterruptedException
+    {
+        try
+        {
+            task.get();
+            fail("The deploy should have failed");
+        }
+        catch (ExecutionException ex)
+        {
+            assertTrue(cause.isInstance(ex.getCause()));
+        }
+    }
+
+    private DeployVirtualMachinesImpl newStrategy()
+    {
+        return new DeployVirtualMachinesImpl(context, MoreExecutors.sameThreadExecutor(),
+            new RequestLimiter(URI.create("http://localhost/api"), 1, 0));
+    }
+
+    private VirtualMachine virtualMachine(final int id)
+    {
+        VirtualMachineDto vm = new VirtualMachineDto();
+        vm.setId(id);
+        return wrap(context, VirtualMachine.class, vm);
+    }
+
+    private void expectDeploy(final VirtualMachine vm, final boolean trackable)
+    {
+        AcceptedRequestDto<String> accepted = accepted(vm);
+        expect(
+            cloudClient.deployVirtualMachine(eq(vm.unwrap()),
+                anyObject(VirtualMachineTaskDto.class))).andReturn(
+            Futures.immediateFuture(accepted));
+        expectTask(vm, accepted, trackable);
+    }
+
+    private SettableFuture<AcceptedRequestDto<String>> expectPendingDeploy(
+        final VirtualMachine vm, final AcceptedRequestDto<String> accepted)
+    {
+        SettableFuture<AcceptedRequestDto<String>> deploy = SettableFuture.create();
+        expect(
+            cloudClient.deployVirtualMachine(eq(vm.unwrap()),
+                anyObject(VirtualMachineTaskDto.class))).andReturn(deploy);
+        expectTask(vm, accepted, true);
+        return deploy;
+    }
+
+    private void expectTask(final VirtualMachine vm, final AcceptedRequestDto<String> accepted,
+        final boolean trackable)
+    {
+        TaskDto task = null;
+        if (trackable)
+        {
+            task = new TaskDto();
+            task.setTaskId("task-" + vm.getId());
+        }
+
+        expect(taskClient.getTask(accepted.searchLink("status"))).andReturn(
+            Futures.immediateFuture(task));
+    }
+
+    private static AcceptedRequestDto<String> accepted(final VirtualMachine vm)
+    {
+        AcceptedRequestDto<String> accepted = new AcceptedRequestDto<String>();
+        accepted.addLink(new RESTLink("status", "http://localhost/api/tasks/task-" + vm.getId()));
+        return accepted;
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.cloud.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.jclouds.abiquo.AbiquoAsyncClient;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.cloud.VirtualDatacenter;
+import org.jclouds.abiquo.domain.cloud.VirtualMachine;
+import org.jclouds.abiquo.features.CloudAsyncClient;
+import org.jclouds.abiquo.features.services.CloudService;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.server.core.cloud.VirtualApplianceDto;
+import com.abiquo.server.core.cloud.VirtualAppliancesDto;
+import com.abiquo.server.core.cloud.VirtualDatacenterDto;
+import com.abiquo.server.core.cloud.VirtualMachineDto;
+import com.abiquo.server.core.cloud.VirtualMachinesDto;
+import com.google.common.collect.ForwardingList;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Unit tests for the pipelined listing of the {@link ListVirtualMachinesImpl} strategy.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class ListVirtualMachinesImplTest
+{
+    private AbiquoContext context;
+
+    private CloudService cloudService;
+
+    private CloudAsyncClient cloudClient;
+
+    private AtomicInteger virtualMachineRequests;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        cloudService = createMock(CloudService.class);
+        cloudClient = createMock(CloudAsyncClient.class);
+        AbiquoAsyncClient asyncApi = createMock(AbiquoAsyncClient.class);
+
+        expect(context.getCloudService()).andReturn(cloudService).anyTimes();
+        expect(context.getAsyncApi()).andReturn(asyncApi).anyTimes();
+        expect(asyncApi.getCloudClient()).andReturn(cloudClient).anyTimes();
+        replay(context, asyncApi);
+
+        virtualMachineRequests = new AtomicInteger(0);
+    }
+
+    public void testStreamAllVirtualMachines()
+    {
+        virtualDatacenters(2, 2, 3);
+        ListVirtualMachinesImpl strategy = newStrategy(10);
+
+        List<VirtualMachine> vms = Lists.newArrayList(strategy.executePipelined());
+
+        assertEquals(vms.size(), 12);
+        assertEquals(virtualMachineRequests.get(), 4);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testVirtualDatacentersWithoutVirtualAppliances()
+    {
+        virtualDatacenters(3, 0, 0);
+        ListVirtualMachinesImpl strategy = newStrategy(10);
+
+        assertFalse(strategy.executePipelined().iterator().hasNext());
+        assertEquals(virtualMachineRequests.get(), 0);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testVirtualAppliancesWithoutVirtualMachines()
+    {
+        virtualDatacenters(1, 3, 0);
+        ListVirtualMachinesImpl strategy = newStrategy(10);
+
+        assertFalse(strategy.executePipelined().iterator().hasNext());
+        assertEquals(virtualMachineRequests.get(), 3);
+    }
+
+    public void testRequestsAreBounded()
+    {
+        virtualDatacenters(1, 3, 2);
+        ListVirtualMachinesImpl strategy = newStrategy(1);
+
+        Iterator<VirtualMachine> it = strategy.executePipelined().iterator();
+        it.next();
+
+        // The first response has been consumed, and the second one has not been consumed yet
+        assertEquals(virtualMachineRequests.get(), 2);
+
+        it.next();
+        it.next();
+        assertEquals(virtualMachineRequests.get(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testErrorsArePropagated()
+    {
+        VirtualDatacenterDto vdc = new VirtualDatacenterDto();
+        vdc.setId(1);
+
+        expect(cloudService.listVirtualDatacenters()).andReturn(
+            ImmutableList.of(wrap(context, VirtualDatacenter.class, vdc)));
+        ListenableFuture<VirtualAppliancesDto> failure =
+            Futures.immediateFailedFuture(new IllegalStateException());
+        expect(cloudClient.listVirtualAppliances(vdc)).andReturn(failure);
+        replay(cloudService, cloudClient);
+
+        Lists.newArrayList(newStrategy(10).executePipelined());
+    }
+
+    /**
+     * The second virtual datacenter completes in another thread while the virtual appliances of
+     * the first one are being counted, and dispatches any virtual appliance that has already been
+     * published. The iteration must not end before all of them are consumed.
+     */
+    @Test(timeOut = 5000L)
+    public void testVirtualAppliancesAreCountedBeforeTheyAreRequested() throws Exception
+    {
+        VirtualDatacenterDto first = new VirtualDatacenterDto();
+        first.setId(1);
+        VirtualDatacenterDto second = new VirtualDatacenterDto();
+        second.setId(2);
+
+        final CountDownLatch iterationDone = new CountDownLatch(1);
+        final SettableFuture<VirtualAppliancesDto> secondVapps = SettableFuture.create();
+        final List<VirtualApplianceDto> firstVapps = Lists.newArrayList();
+
+        for (int i = 0; i < 2; i++)
+        {
+            VirtualApplianceDto vapp = new VirtualApplianceDto();
+            vapp.setId(i);
+            firstVapps.add(vapp);
+
+            VirtualMachinesDto vms = new VirtualMachinesDto();
+            VirtualMachineDto vm = new VirtualMachineDto();
+            vm.setName("vm-" + i);
+            vms.add(vm);
+            expect(cloudClient.listVirtualMachines(vapp)).andReturn(Futures.immediateFuture(vms));
+        }
+
+        // Pause while the virtual appliances of the first virtual datacenter are being counted,
+        // and let the second virtual datacenter complete in the meantime
+        VirtualAppliancesDto vapps = new VirtualAppliancesDto()
+        {
+            @Override
+            public List<VirtualApplianceDto> getCollection()
+            {
+                return new ForwardingList<VirtualApplianceDto>()
+                {
+                    @Override
+                    protected List<VirtualApplianceDto> delegate()
+                    {
+                        return firstVapps;
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        secondVapps.set(new VirtualAppliancesDto());
+                        try
+                        {
+                            iterationDone.await(500, TimeUnit.MILLISECONDS);
+                        }
+                        catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.size();
+                    }
+                };
+            }
+        };
+
+        expect(cloudService.listVirtualDatacenters()).andReturn(
+            ImmutableList.of(wrap(context, VirtualDatacenter.class, first),
+                wrap(context, VirtualDatacenter.class, second)));
+        expect(cloudClient.listVirtualAppliances(first)).andReturn(Futures.immediateFuture(vapps));
+        expect(cloudClient.listVirtualAppliances(second)).andReturn(secondVapps);
+        replay(cloudService, cloudClient);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            List<VirtualMachine> vms =
+                Lists.newArrayList(newStrategy(10, executor).executePipelined());
+            iterationDone.countDown();
+
+            assertEquals(vms.size(), 2);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private ListVirtualMachinesImpl newStrategy(final int maxPipelinedRequests)
+    {
+        return newStrategy(maxPipelinedRequests, MoreExecutors.sameThreadExecutor());
+    }
+
+    private ListVirtualMachinesImpl newStrategy(final int maxPipelinedRequests,
+        final ExecutorService executor)
+    {
+        ListVirtualMachinesImpl strategy =
+            new ListVirtualMachinesImpl(context, executor,
+                new RequestLimiter(URI.create("http://localhost/api"), 0, 0));
+        strategy.maxPipelinedRequests = maxPipelinedRequests;
+        return strategy;
+    }
+
+    private void virtualDatacenters(final int numVdcs, final int vappsPerVdc, final int vmsPerVapp)
+    {
+        List<VirtualDatacenter> vdcs = Lists.newArrayList();
+        for (int i = 0; i < numVdcs; i++)
+        {
+            VirtualDatacenterDto vdc = new VirtualDatacenterDto();
+            vdc.setId(i);
+            vdcs.add(wrap(context, VirtualDatacenter.class, vdc));
+
+            VirtualAppliancesDto vapps = new VirtualAppliancesDto();
+            for (int j = 0; j < vappsPerVdc; j++)
+            {
+                VirtualApplianceDto vapp = new VirtualApplianceDto();
+                vapp.setId(i * vappsPerVdc + j);
+                vapps.add(vapp);
+
+                final VirtualMachinesDto vms = new VirtualMachinesDto();
+                for (int k = 0; k < vmsPerVapp; k++)
+                {
+                    VirtualMachineDto vm = new VirtualMachineDto();
+                    vm.setName("vm-" + vapp.getId() + "-" + k);
+                    vms.add(vm);
+                }
+
+                expect(cloudClient.listVirtualMachines(vapp)).andAnswer(
+                    new IAnswer<ListenableFuture<VirtualMachinesDto>>()
+                    {
+                        @Override
+                        public ListenableFuture<VirtualMachinesDto> answer() throws Throwable
+                        {
+                            virtualMachineRequests.incrementAndGet();
+                            return Futures.immediateFuture(vms);
+                        }
+                    });
+            }
+
+            expect(cloudClient.listVirtualAppliances(vdc)).andReturn(
+                Futures.immediateFuture(vapps));
+        }
+
+        expect(cloudService.listVirtualDatacenters()).andReturn(vdcs);
+        replay(cloudService, cloudClient);
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.infrastructure.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.jclouds.abiquo.domain.DomainWrapper.wrap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.jclouds.abiquo.AbiquoAsyncClient;
+import org.jclouds.abiquo.AbiquoContext;
+import org.jclouds.abiquo.domain.infrastructure.Datacenter;
+import org.jclouds.abiquo.domain.infrastructure.Machine;
+import org.jclouds.abiquo.features.InfrastructureAsyncClient;
+import org.jclouds.abiquo.features.services.AdministrationService;
+import org.jclouds.abiquo.strategy.internal.RequestLimiter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.abiquo.server.core.infrastructure.DatacenterDto;
+import com.abiquo.server.core.infrastructure.MachineDto;
+import com.abiquo.server.core.infrastructure.MachinesDto;
+import com.abiquo.server.core.infrastructure.RackDto;
+import com.abiquo.server.core.infrastructure.RacksDto;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Unit tests for the pipelined listing of the {@link ListMachinesImpl} strategy.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class ListMachinesImplTest
+{
+    private AbiquoContext context;
+
+    private AdministrationService administrationService;
+
+    private InfrastructureAsyncClient infrastructureClient;
+
+    private AtomicInteger machineRequests;
+
+    @BeforeMethod
+    public void setupMocks()
+    {
+        context = createMock(AbiquoContext.class);
+        administrationService = createMock(AdministrationService.class);
+        infrastructureClient = createMock(InfrastructureAsyncClient.class);
+        AbiquoAsyncClient asyncApi = createMock(AbiquoAsyncClient.class);
+
+        expect(context.getAdministrationService()).andReturn(administrationService).anyTimes();
+        expect(context.getAsyncApi()).andReturn(asyncApi).anyTimes();
+        expect(asyncApi.getInfrastructureClient()).andReturn(infrastructureClient).anyTimes();
+        replay(context, asyncApi);
+
+        machineRequests = new AtomicInteger(0);
+    }
+
+    public void testStreamAllMachines()
+    {
+        datacenters(2, 2, 3);
+        ListMachinesImpl strategy = newStrategy(10);
+
+        List<Machine> machines = Lists.newArrayList(strategy.executePipelined());
+
+        assertEquals(machines.size(), 12);
+        assertEquals(machineRequests.get(), 4);
+    }
+
+    public void testExecuteListsAllMachines()
+    {
+        datacenters(3, 1, 2);
+        ListMachinesImpl strategy = newStrategy(2);
+
+        assertEquals(Lists.newArrayList(strategy.execute()).size(), 6);
+        assertEquals(machineRequests.get(), 3);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testDatacentersWithoutRacks()
+    {
+        datacenters(3, 0, 0);
+        ListMachinesImpl strategy = newStrategy(10);
+
+        assertFalse(strategy.executePipelined().iterator().hasNext());
+        assertEquals(machineRequests.get(), 0);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testRacksWithoutMachines()
+    {
+        datacenters(1, 3, 0);
+        ListMachinesImpl strategy = newStrategy(10);
+
+        assertFalse(strategy.executePipelined().iterator().hasNext());
+        assertEquals(machineRequests.get(), 3);
+    }
+
+    public void testRequestsAreBounded()
+    {
+        datacenters(1, 3, 2);
+        ListMachinesImpl strategy = newStrategy(1);
+
+        Iterator<Machine> it = strategy.executePipelined().iterator();
+        it.next();
+
+        // The first response has been consumed, and the second one has not been consumed yet
+        assertEquals(machineRequests.get(), 2);
+
+        it.next();
+        it.next();
+        assertEquals(machineRequests.get(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testErrorsArePropagated()
+    {
+        DatacenterDto datacenter = new DatacenterDto();
+        datacenter.setId(1);
+
+        expect(administrationService.listDatacenters()).andReturn(
+            ImmutableList.of(wrap(context, Datacenter.class, datacenter)));
+        ListenableFuture<RacksDto> failure =
+            Futures.immediateFailedFuture(new IllegalStateException());
+        expect(infrastructureClient.listRacks(datacenter)).andReturn(failure);
+        replay(administrationService, infrastructureClient);
+
+        Lists.newArrayList(newStrategy(10).executePipelined());
+    }
+
+    @Test(timeOut = 5000L)
+    public void testExecuteFailsIfAResponseDoesNotArrive()
+    {
+        DatacenterDto datacenter = new DatacenterDto();
+        datacenter.setId(1);
+
+        expect(administrationService.listDatacenters()).andReturn(
+            ImmutableList.of(wrap(context, Datacenter.class, datacenter)));
+        SettableFuture<RacksDto> neverCompleted = SettableFuture.create();
+        expect(infrastructureClient.listRacks(datacenter)).andReturn(neverCompleted);
+        replay(administrationService, infrastructureClient);
+
+        ListMachinesImpl strategy = newStrategy(10);
+        strategy.maxTime = 100L;
+
+        try
+        {
+            strategy.execute();
+            fail("The listing should have timed out");
+        }
+        catch (RuntimeException ex)
+        {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+    }
+
+    private ListMachinesImpl newStrategy(final int maxPipelinedRequests)
+    {
+        ListMachinesImpl strategy =
+            new ListMachinesImpl(context, MoreExecutors.sameThreadExecutor(),
+                new RequestLimiter(URI.create("http://localhost/api"), 0, 0));
+        strategy.maxPipelinedRequests = maxPipelinedRequests;
+        return strategy;
+    }
+
+    private void datacenters(final int numDatacenters, final int racksPerDatacenter,
+        final int machinesPerRack)
+    {
+        List<Datacenter> datacenters = Lists.newArrayList();
+        for (int i = 0; i < numDatacenters; i++)
+        {
+            DatacenterDto datacenter = new DatacenterDto();
+            datacenter.setId(i);
+            datacenters.add(wrap(context, Datacenter.class, datacenter));
+
+            RacksDto racks = new RacksDto();
+            for (int j = 0; j < racksPerDatacenter; j++)
+            {
+                RackDto rack = new RackDto();
+                rack.setId(i * racksPerDatacenter + j);
+                racks.add(rack);
+
+                final MachinesDto machines = new MachinesDto();
+                for (int k = 0; k < machinesPerRack; k++)
+                {
+                    MachineDto machine = new MachineDto();
+                    machine.setName("machine-" + rack.getId() + "-" + k);
+                    machines.add(machine);
+                }
+
+                expect(infrastructureClient.listMachines(rack)).andAnswer(
+                    new IAnswer<ListenableFuture<MachinesDto>>()
+                    {
+                        @Override
+                        public ListenableFuture<MachinesDto> answer() throws Throwable
+                        {
+                            machineRequests.incrementAndGet();
+                            return Futures.immediateFuture(machines);
+                        }
+                    });
+            }
+
+            expect(infrastructureClient.listRacks(datacenter)).andReturn(
+                Futures.immediateFuture(racks));
+        }
+
+        expect(administrationService.listDatacenters()).andReturn(datacenters);
+        replay(administrationService, infrastructureClient);
+    }
+}
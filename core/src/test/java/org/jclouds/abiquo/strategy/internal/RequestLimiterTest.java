@@ -0,0 +1,326 @@
+/**
+ * Licensed to jclouds, Inc. (jclouds) under one or more
+ * contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  jclouds licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.jclouds.abiquo.strategy.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.lifecycle.Closer;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Unit tests for the {@link RequestLimiter} class.
+ * 
+ * @author Ignasi Barrera
+ */
+@Test(groups = "unit")
+public class RequestLimiterTest
+{
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxRequests()
+    {
+        new RequestLimiter(URI.create("http://localhost/api"), -1, 0);
+    }
+
+    public void testUnlimited()
+    {
+        RequestLimiter limiter = new RequestLimiter(URI.create("http://localhost/api"), 0, 0);
+        SettableRequests requests = new SettableRequests();
+        Function<Integer, Future<String>> function = limiter.limit(requests);
+
+        for (int i = 0; i < 100; i++)
+        {
+            function.apply(i);
+        }
+
+        assertEquals(requests.sent.get(), 100);
+        assertEquals(limiter.getLimitedRequests(), 100);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testRequestsWaitForPermits() throws Exception
+    {
+        RequestLimiter limiter = new RequestLimiter(URI.create("http://localhost/api"), 2, 0);
+        final SettableRequests requests = new SettableRequests();
+        final Function<Integer, Future<String>> function = limiter.limit(requests);
+
+        function.apply(1);
+        function.apply(2);
+
+        final CountDownLatch sent = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                function.apply(3);
+                sent.countDown();
+            }
+        });
+        thread.start();
+
+        // No permits are available until a response is received
+        assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(requests.sent.get(), 2);
+
+        requests.last.set("done");
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(requests.sent.get(), 3);
+
+        assertEquals(limiter.getLimitedRequests(), 3);
+        assertTrue(limiter.getMaxQueueTime(TimeUnit.MILLISECONDS) >= 200);
+        assertTrue(limiter.getTotalQueueTime(TimeUnit.MILLISECONDS) >= 200);
+    }
+
+    public void testPermitsAreReleasedOnFailures()
+    {
+        RequestLimiter limiter = new RequestLimiter(URI.create("http://localhost/api"), 1, 0);
+        Function<Integer, Future<String>> function =
+            limiter.limit(new Function<Integer, ListenableFuture<String>>()
+            {
+                @Override
+                public ListenableFuture<String> apply(final Integer input)
+                {
+                    throw new IllegalStateException();
+                }
+            });
+
+        for (int i = 0; i < 5; i++)
+        {
+            try
+            {
+                function.apply(i);
+            }
+            catch (IllegalStateException ex)
+            {
+                // Expected
+            }
+        }
+
+        assertEquals(limiter.getLimitedRequests(), 5);
+    }
+
+    public void testSubmitDoesNotWaitForPermits() throws Exception
+    {
+        RequestLimiter limiter = new RequestLimiter(URI.create("http://localhost/api"), 1, 0);
+        SettableRequests requests = new SettableRequests();
+
+        ListenableFuture<String> first = limiter.submit(requests, 1);
+        SettableFuture<String> firstRequest = requests.last;
+        ListenableFuture<String> second = limiter.submit(requests, 2);
+
+        // The second request is queued until the response of the first one is received
+        assertEquals(requests.sent.get(), 1);
+        assertFalse(second.isDone());
+
+        firstRequest.set("first");
+        assertEquals(first.get(), "first");
+        assertEquals(requests.sent.get(), 2);
+
+        requests.last.set("second");
+        assertEquals(second.get(), "second");
+        assertEquals(limiter.getLimitedRequests(), 2);
+    }
+
+    public void testSubmitReportsFailures() throws Exception
+    {
+        RequestLimiter limiter = new RequestLimiter(URI.create("http://localhost/api"), 1, 0);
+        ListenableFuture<String> future =
+            limiter.submit(new Function<Integer, ListenableFuture<String>>()
+            {
+                @Override
+                public ListenableFuture<String> apply(final Integer input)
+                {
+                    throw new IllegalStateException();
+                }
+            }, 1);
+
+        try
+        {
+            future.get();
+            fail("The request should have failed");
+        }
+        catch (ExecutionException ex)
+        {
+            assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+
+        // The permit has been released
+        SettableRequests requests = new SettableRequests();
+        limiter.submit(requests, 2);
+        assertEquals(requests.sent.get(), 1);
+    }
+
+    public void testSubmittedRequestsUseTheHostPermitsReleasedByOtherContexts()
+    {
+        URI endpoint = URI.create("http://localhost/api");
+        HostPermitRegistry registry = new HostPermitRegistry();
+        RequestLimiter first = new RequestLimiter(endpoint, 0, 1, registry, new Closer());
+        RequestLimiter second = new RequestLimiter(endpoint, 0, 1, registry, new Closer());
+
+        SettableRequests requests = new SettableRequests();
+        first.submit(requests, 1);
+        SettableFuture<String> firstRequest = requests.last;
+        second.submit(requests, 2);
+        assertEquals(requests.sent.get(), 1);
+
+        firstRequest.set("first");
+        assertEquals(requests.sent.get(), 2);
+    }
+
+    public void testHostPermitsAreNotSharedByDefault()
+    {
+        URI endpoint = URI.create("http://localhost/api");
+        RequestLimiter first = new RequestLimiter(endpoint, 0, 1);
+        RequestLimiter second = new RequestLimiter(endpoint, 0, 1);
+
+        SettableRequests requests = new SettableRequests();
+        first.limit(requests).apply(1);
+        second.limit(requests).apply(2);
+
+        assertEquals(requests.sent.get(), 2);
+    }
+
+    @Test(timeOut = 5000L)
+    public void testHostPermitsAreSharedBetweenContexts() throws Exception
+    {
+        URI endpoint = URI.create("http://localhost:8080/api");
+        HostPermitRegistry registry = new HostPermitRegistry();
+        RequestLimiter first = new RequestLimiter(endpoint, 0, 1, registry, new Closer());
+        RequestLimiter second = new RequestLimiter(endpoint, 0, 1, registry, new Closer());
+
+        SettableRequests requests = new SettableRequests();
+        first.limit(requests).apply(1);
+
+        final Function<Integer, Future<String>> function = second.limit(requests);
+        final CountDownLatch sent = new CountDownLatch(1);
+        new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                function.apply(2);
+                sent.countDown();
+            }
+        }).start();
+
+        assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+        requests.last.set("done");
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testHostKeyUsesTheDefaultPortOfTheScheme()
+    {
+        assertEquals(RequestLimiter.hostKey(URI.create("http://Abiquo.example.com/api")),
+            RequestLimiter.hostKey(URI.create("http://abiquo.example.com:80/api")));
+        assertEquals(RequestLimiter.hostKey(URI.create("https://abiquo.example.com/api")),
+            "abiquo.example.com:443");
+        assertFalse(RequestLimiter.hostKey(URI.create("http://abiquo.example.com/api")).equals(
+            RequestLimiter.hostKey(URI.create("http://abiquo.example.com:8080/api"))));
+    }
+
+    @Test(timeOut = 5000L)
+    public void testHostPermitsAreSharedWithTheDefaultPort() throws Exception
+    {
+        HostPermitRegistry registry = new HostPermitRegistry();
+        RequestLimiter first =
+            new RequestLimiter(URI.create("http://localhost/api"), 0, 1, registry, new Closer());
+        RequestLimiter second =
+            new RequestLimiter(URI.create("http://localhost:80/api"), 0, 1, registry,
+                new Closer());
+
+        SettableRequests requests = new SettableRequests();
+        first.limit(requests).apply(1);
+
+        final Function<Integer, Future<String>> function = second.limit(requests);
+        final CountDownLatch sent = new CountDownLatch(1);
+        new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                function.apply(2);
+                sent.countDown();
+            }
+        }).start();
+
+        assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+        requests.last.set("done");
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSharedHostPermitsMustHaveTheSameSize()
+    {
+        URI endpoint = URI.create("http://localhost/api");
+        HostPermitRegistry registry = new HostPermitRegistry();
+        new RequestLimiter(endpoint, 0, 1, registry, new Closer());
+        new RequestLimiter(endpoint, 0, 2, registry, new Closer());
+    }
+
+    public void testHostPermitsAreReleasedWhenTheContextsAreClosed() throws IOException
+    {
+        URI endpoint = URI.create("http://localhost/api");
+        HostPermitRegistry registry = new HostPermitRegistry();
+        Closer firstCloser = new Closer();
+        Closer secondCloser = new Closer();
+        new RequestLimiter(endpoint, 0, 1, registry, firstCloser);
+        new RequestLimiter(endpoint, 0, 1, registry, secondCloser);
+
+        firstCloser.close();
+        assertEquals(registry.size(), 1);
+        secondCloser.close();
+        assertEquals(registry.size(), 0);
+
+        // Once released, the host can be limited with a different size
+        new RequestLimiter(endpoint, 0, 2, registry, new Closer());
+        assertEquals(registry.size(), 1);
+    }
+
+    private static class SettableRequests implements Function<Integer, ListenableFuture<String>>
+    {
+        private final AtomicInteger sent = new AtomicInteger(0);
+
+        private volatile SettableFuture<String> last;
+
+        @Override
+        public ListenableFuture<String> apply(final Integer input)
+        {
+            sent.incrementAndGet();
+            SettableFuture<String> future = SettableFuture.create();
+            last = future;
+            return future;
+        }
+    }
+}